@@ -9,6 +9,7 @@ import cz.metacentrum.perun.core.api.Perun;
 import cz.metacentrum.perun.core.api.PerunSession;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.core.bl.PerunBl;
+import cz.metacentrum.perun.core.impl.AuditerNotifications;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +71,7 @@ public class EventLoggerImpl implements EventLogger, Runnable {
 		try {
 			perunSession = auditLoggerManager.getPerunSession();
 			perun = auditLoggerManager.getPerunBl();
+			AuditerNotifications notifications = perun.getAuditer().getNotifications();
 
 			if (lastProcessedIdNumber == 0) {
 				loadLastProcessedId();
@@ -83,6 +85,8 @@ public class EventLoggerImpl implements EventLogger, Runnable {
 				int sleepTime = 1000;
 				//Waiting for new messages. If consumer failed in some internal case, waiting until it will be repaired (waiting time is increases by each attempt)
 				while(messages == null || messages.isEmpty()) {
+					// take number of notifications before polling, so we don't miss messages stored in between
+					long notified = notifications.getReceived();
 					try {
 						//IMPORTANT STEP1: Get new bulk of messages
 						log.debug("Waiting for audit messages.");
@@ -94,8 +98,9 @@ public class EventLoggerImpl implements EventLogger, Runnable {
 						sleepTime += sleepTime;
 					}
 
-					//If there are no messages, sleep for 5 sec and then try it again
-					if (messages == null || messages.isEmpty()) Thread.sleep(5000);
+					//If there are no messages, wait for the new ones and then try it again
+					if (messages != null && messages.isEmpty()) notifications.awaitMessages(notified);
+					else if (messages == null) Thread.sleep(5000);
 				}
 				//If new messages exist, resolve them all
 				Iterator<AuditMessage> messagesIterator = messages.iterator();
@@ -0,0 +1,203 @@
+package cz.metacentrum.perun.auditparser;
+
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.Facility;
+import cz.metacentrum.perun.core.api.PerunBean;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares PerunBeans referenced by the typed audit events with the beans parsed from their messages.
+ *
+ * Every event class from the events package is created by its constructor with the most parameters.
+ * Single sample bean of each type is passed to all of them, so beans serialized in the message
+ * from a nested bean (e.g. VO of the application) are the same as the referenced ones.
+ */
+public class AuditEventReferencedBeansTest {
+
+	private static final String EVENTS_PACKAGE = "cz.metacentrum.perun.audit.events";
+
+	// events referencing beans, which are not serialized in their messages or which can't be parsed
+	private static final Set<String> EVENTS_WITH_UNPARSED_BEANS = Set.of(
+			"InvitationSentEvent",
+			"MailForGroupIdAdded",
+			"MailForGroupIdRemoved",
+			"MailForGroupIdUpdated",
+			"MailForVoIdAdded",
+			"MailForVoIdRemoved",
+			"MailForVoIdUpdated",
+			"AttributesAddedAsRequiredToService",
+			"RequiredAttributesRemovedFromService",
+			"ServiceAddedToServicePackage",
+			"ServiceRemovedFromServicesPackage",
+			"ServicesPackageCreated",
+			"ServicesPackageDeleted",
+			"ServicesPackageUpdated",
+			"BanUpdatedForVo");
+
+	// events keeping their beans only in the sponsorship, which is not a PerunBean, they are ignored by the engine
+	private static final Set<String> EVENTS_WITHOUT_REFERENCED_BEANS = Set.of(
+			"SponsorshipExpirationInAMonth",
+			"SponsorshipExpirationInDays",
+			"SponsorshipExpired");
+
+	private final Map<Class<?>, Object> samples = new HashMap<>();
+	private int lastId;
+
+	@Before
+	public void setUp() {
+		samples.clear();
+		lastId = 0;
+	}
+
+	@Test
+	public void referencedBeansMatchParsedBeans() throws Exception {
+		System.out.println("AuditEventReferencedBeansTest.referencedBeansMatchParsedBeans");
+
+		List<Class<?>> eventClasses = findEventClasses();
+		assertFalse("No audit events found.", eventClasses.isEmpty());
+
+		for (Class<?> eventClass : eventClasses) {
+			AuditEvent event = createEvent(eventClass);
+			String name = eventClass.getSimpleName();
+			Set<String> parsed = describe(AuditParser.parseLog(event.getMessage()));
+			Set<String> referenced = describe(event.getReferencedBeans());
+
+			if (EVENTS_WITHOUT_REFERENCED_BEANS.contains(name)) {
+				assertTrue("Beans of " + name + " are referenced: " + referenced, referenced.isEmpty());
+			} else if (EVENTS_WITH_UNPARSED_BEANS.contains(name)) {
+				assertTrue("Beans of " + name + " parsed from message " + parsed + " are not referenced: " + referenced,
+						referenced.containsAll(parsed));
+			} else {
+				assertEquals("Beans of " + name + " differ.", parsed, referenced);
+			}
+		}
+	}
+
+	private static List<Class<?>> findEventClasses() throws ClassNotFoundException {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.addIncludeFilter(new AssignableTypeFilter(AuditEvent.class));
+
+		List<Class<?>> eventClasses = new ArrayList<>();
+		for (BeanDefinition definition : provider.findCandidateComponents(EVENTS_PACKAGE)) {
+			eventClasses.add(Class.forName(definition.getBeanClassName()));
+		}
+		return eventClasses;
+	}
+
+	private AuditEvent createEvent(Class<?> eventClass) throws ReflectiveOperationException {
+		Constructor<?> constructor = null;
+		for (Constructor<?> candidate : eventClass.getConstructors()) {
+			if (constructor == null || candidate.getParameterCount() > constructor.getParameterCount()) {
+				constructor = candidate;
+			}
+		}
+		assertTrue("No public constructor of " + eventClass.getSimpleName(), constructor != null);
+
+		Object[] args = new Object[constructor.getParameterCount()];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = createValue(constructor.getParameterTypes()[i]);
+		}
+		return (AuditEvent) constructor.newInstance(args);
+	}
+
+	private Object createValue(Class<?> type) throws ReflectiveOperationException {
+		if (type == int.class || type == Integer.class) {
+			return 7;
+		} else if (type == long.class || type == Long.class) {
+			return 7L;
+		} else if (type == boolean.class || type == Boolean.class) {
+			return true;
+		} else if (type == String.class) {
+			return "value";
+		} else if (type == LocalDate.class) {
+			return LocalDate.of(2020, 1, 1);
+		} else if (type.isEnum()) {
+			return type.getEnumConstants()[0];
+		} else if (type == List.class) {
+			// events take only lists of attribute definitions
+			List<Object> list = new ArrayList<>();
+			list.add(createValue(AttributeDefinition.class));
+			return list;
+		} else if (type == PerunBean.class) {
+			return createValue(Facility.class);
+		}
+
+		Object sample = samples.get(type);
+		if (sample != null) {
+			return sample;
+		}
+
+		if (type == AttributeDefinition.class || type == Attribute.class) {
+			AttributeDefinition attributeDefinition = new AttributeDefinition();
+			attributeDefinition.setId(++lastId);
+			attributeDefinition.setFriendlyName("shell");
+			attributeDefinition.setNamespace("urn:perun:facility:attribute-def:def");
+			attributeDefinition.setType(String.class.getName());
+			if (type == Attribute.class) {
+				Attribute attribute = new Attribute(attributeDefinition);
+				attribute.setValue("/bin/bash");
+				sample = attribute;
+			} else {
+				sample = attributeDefinition;
+			}
+			samples.put(type, sample);
+			return sample;
+		}
+
+		sample = type.getConstructor().newInstance();
+		// stored before its properties are set, so beans referencing each other end
+		samples.put(type, sample);
+		if (sample instanceof PerunBean) {
+			((PerunBean) sample).setId(++lastId);
+		}
+		for (Method setter : type.getMethods()) {
+			if (!setter.getName().startsWith("set") || setter.getParameterCount() != 1) {
+				continue;
+			}
+			Class<?> propertyType = setter.getParameterTypes()[0];
+			Object value;
+			if (propertyType == String.class) {
+				value = setter.getName().substring(3).toLowerCase();
+			} else if (propertyType.isEnum() || PerunBean.class.isAssignableFrom(propertyType) && propertyType != PerunBean.class) {
+				value = createValue(propertyType);
+			} else {
+				continue;
+			}
+			try {
+				setter.invoke(sample, value);
+			} catch (InvocationTargetException e) {
+				// some setters validate their values, such properties are left empty
+			}
+		}
+		return sample;
+	}
+
+	private static Set<String> describe(List<PerunBean> beans) {
+		Set<String> descriptions = new TreeSet<>();
+		for (PerunBean bean : beans) {
+			descriptions.add(bean.getBeanName() + ":" + bean.getId());
+		}
+		return descriptions;
+	}
+}
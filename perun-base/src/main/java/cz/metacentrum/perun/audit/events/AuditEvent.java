@@ -1,9 +1,16 @@
 package cz.metacentrum.perun.audit.events;
 
 import cz.metacentrum.perun.core.api.PerunBean;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -17,6 +24,36 @@ public abstract class AuditEvent {
 
 	protected String name = getClass().getName();
 
+	/**
+	 * Getters of the fields with PerunBeans or collections of them, found once for every event class.
+	 */
+	private static final ClassValue<List<Method>> BEAN_GETTERS = new ClassValue<>() {
+		@Override
+		protected List<Method> computeValue(Class<?> type) {
+			List<Class<?>> hierarchy = new ArrayList<>();
+			for (Class<?> c = type; c != null && c != AuditEvent.class; c = c.getSuperclass()) {
+				hierarchy.add(0, c);
+			}
+
+			List<Method> getters = new ArrayList<>();
+			for (Class<?> c : hierarchy) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()) || !(PerunBean.class.isAssignableFrom(field.getType()) ||
+							Collection.class.isAssignableFrom(field.getType()))) {
+						continue;
+					}
+					String getterName = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+					try {
+						getters.add(type.getMethod(getterName));
+					} catch (NoSuchMethodException e) {
+						// field without getter is not deserialized from the auditer log, so it is skipped
+					}
+				}
+			}
+			return Collections.unmodifiableList(getters);
+		}
+	};
+
 	/**
 	 * Get message that should be logged.
 	 *
@@ -33,6 +70,37 @@ public abstract class AuditEvent {
 		return name;
 	}
 
+	/**
+	 * Get PerunBeans referenced by the event, in the order of declaration of their fields in the event class.
+	 * Collections of PerunBeans are expanded. Null values are skipped.
+	 *
+	 * Unlike parsing of the message, it uses beans already deserialized with the event.
+	 *
+	 * @return list of referenced PerunBeans
+	 */
+	@JsonIgnore
+	public List<PerunBean> getReferencedBeans() {
+		List<PerunBean> beans = new ArrayList<>();
+		for (Method getter : BEAN_GETTERS.get(getClass())) {
+			Object value;
+			try {
+				value = getter.invoke(this);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException("Can't get beans of the event " + getName(), e);
+			}
+			if (value instanceof PerunBean) {
+				beans.add((PerunBean) value);
+			} else if (value instanceof Collection) {
+				for (Object item : (Collection<?>) value) {
+					if (item instanceof PerunBean) {
+						beans.add((PerunBean) item);
+					}
+				}
+			}
+		}
+		return beans;
+	}
+
 	/**
 	 * Formats the given args in format that can be audited.
 	 *
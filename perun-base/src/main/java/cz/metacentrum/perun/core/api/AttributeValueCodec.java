@@ -0,0 +1,262 @@
+package cz.metacentrum.perun.core.api;
+
+import cz.metacentrum.perun.core.api.exceptions.ConsistencyErrorException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversion of attribute values to and from their string representation stored in the DB, by the type of the attribute.
+ *
+ * Items of lists and entries of maps are terminated by ',' and keys of maps are separated from values by ':'.
+ * These chars and the escaping char '\' are escaped by '\', null items, keys and values are stored as "\0".
+ *
+ * Values are decoded by a single pass over the string. Results are the same as of the former split and regex
+ * based parsing, including malformed values: text after the last unescaped ',' is ignored, unless it continues
+ * an item over an escaped ','.
+ */
+enum AttributeValueCodec {
+
+	STRING(String.class) {
+		@Override
+		String encode(Object value) {
+			return (String) value;
+		}
+
+		@Override
+		Object decode(String value) {
+			return value;
+		}
+	},
+
+	INTEGER(Integer.class) {
+		@Override
+		String encode(Object value) {
+			return Integer.toString((Integer) value);
+		}
+
+		@Override
+		Object decode(String value) {
+			return Integer.parseInt(value);
+		}
+	},
+
+	BOOLEAN(Boolean.class) {
+		@Override
+		String encode(Object value) {
+			return Boolean.toString((Boolean) value);
+		}
+
+		@Override
+		Object decode(String value) {
+			return Boolean.parseBoolean(value);
+		}
+	},
+
+	LIST(ArrayList.class) {
+		@Override
+		@SuppressWarnings("unchecked")
+		String encode(Object value) {
+			StringBuilder sb = new StringBuilder();
+			for (String item : (List<String>) value) {
+				appendEscaped(sb, item, false);
+				sb.append(LIST_DELIMITER);
+			}
+			return sb.toString();
+		}
+
+		@Override
+		Object decode(String value) {
+			return decodeList(value);
+		}
+	},
+
+	MAP(LinkedHashMap.class) {
+		@Override
+		@SuppressWarnings("unchecked")
+		String encode(Object value) {
+			StringBuilder sb = new StringBuilder();
+			for (Map.Entry<String, String> entry : ((Map<String, String>) value).entrySet()) {
+				appendEscaped(sb, entry.getKey(), true);
+				sb.append(KEY_VALUE_DELIMITER);
+				appendEscaped(sb, entry.getValue(), true);
+				sb.append(LIST_DELIMITER);
+			}
+			return sb.toString();
+		}
+
+		@Override
+		Object decode(String value) {
+			return decodeMap(value);
+		}
+	};
+
+	private static final char LIST_DELIMITER = ',';
+	private static final char KEY_VALUE_DELIMITER = ':';
+	private static final char ESCAPE = '\\';
+	private static final String NULL_VALUE = "\\0";
+
+	private static final Map<String, AttributeValueCodec> CODECS_BY_TYPE = new HashMap<>();
+
+	static {
+		for (AttributeValueCodec codec : values()) {
+			CODECS_BY_TYPE.put(codec.type, codec);
+		}
+	}
+
+	private final String type;
+
+	AttributeValueCodec(Class<?> type) {
+		this.type = type.getName();
+	}
+
+	/**
+	 * Returns codec for the type of the attribute.
+	 *
+	 * @param type type of the attribute, e.g. java.util.ArrayList
+	 * @return codec or null, if the type is not supported
+	 */
+	static AttributeValueCodec forType(String type) {
+		return CODECS_BY_TYPE.get(type);
+	}
+
+	/**
+	 * Converts not null value of the attribute to its string representation.
+	 *
+	 * @param value value of the type of the codec
+	 * @return string representation of the value
+	 */
+	abstract String encode(Object value);
+
+	/**
+	 * Converts not empty string representation of the attribute value to the value.
+	 *
+	 * @param value string representation of the value
+	 * @return value of the type of the codec
+	 * @throws ConsistencyErrorException if the string is malformed
+	 */
+	abstract Object decode(String value);
+
+	/**
+	 * Parses items of the list value, see {@link BeansUtils#parseEscapedListValue(String)}.
+	 *
+	 * @param value string representation of the list
+	 * @return parsed items
+	 */
+	static ArrayList<String> decodeList(String value) {
+		ArrayList<String> items = new ArrayList<>();
+		StringBuilder item = new StringBuilder();
+		boolean continuedOverDelimiter = false;
+		boolean danglingEscape = false;
+		int length = value.length();
+		int i = 0;
+		while (i < length) {
+			char c = value.charAt(i);
+			if (c == ESCAPE && i + 1 < length && isEscapable(value.charAt(i + 1), false)) {
+				char escaped = value.charAt(i + 1);
+				continuedOverDelimiter |= escaped == LIST_DELIMITER;
+				item.append(escaped);
+				i += 2;
+			} else if (c == LIST_DELIMITER) {
+				items.add(toValue(item));
+				item.setLength(0);
+				continuedOverDelimiter = false;
+				i++;
+			} else {
+				danglingEscape = c == ESCAPE && i + 1 == length;
+				item.append(c);
+				i++;
+			}
+		}
+		if (continuedOverDelimiter) {
+			if (danglingEscape) {
+				throw new ConsistencyErrorException("Bad format in attribute value");
+			}
+			items.add(toValue(item));
+		}
+		return items;
+	}
+
+	private static LinkedHashMap<String, String> decodeMap(String value) {
+		LinkedHashMap<String, String> map = new LinkedHashMap<>();
+		StringBuilder key = new StringBuilder();
+		StringBuilder mapValue = new StringBuilder();
+		StringBuilder current = key;
+		boolean keyFound = false;
+		boolean continuedOverDelimiter = false;
+		boolean danglingEscape = false;
+		int entryStart = 0;
+		int length = value.length();
+		int i = 0;
+		while (i < length) {
+			char c = value.charAt(i);
+			if (c == ESCAPE && i + 1 < length && isEscapable(value.charAt(i + 1), true)) {
+				char escaped = value.charAt(i + 1);
+				continuedOverDelimiter |= escaped == LIST_DELIMITER;
+				current.append(escaped);
+				i += 2;
+			} else if (c == LIST_DELIMITER) {
+				putEntry(map, value, entryStart, i, key, mapValue, keyFound);
+				key.setLength(0);
+				mapValue.setLength(0);
+				current = key;
+				keyFound = false;
+				continuedOverDelimiter = false;
+				entryStart = ++i;
+			} else if (c == KEY_VALUE_DELIMITER && !keyFound) {
+				keyFound = true;
+				current = mapValue;
+				i++;
+			} else {
+				danglingEscape = c == ESCAPE && i + 1 == length;
+				current.append(c);
+				i++;
+			}
+		}
+		if (continuedOverDelimiter) {
+			if (danglingEscape) {
+				throw new ConsistencyErrorException("Bad format in attribute value");
+			}
+			putEntry(map, value, entryStart, length, key, mapValue, keyFound);
+		}
+		return map;
+	}
+
+	private static void putEntry(Map<String, String> map, String value, int entryStart, int entryEnd, StringBuilder key, StringBuilder mapValue, boolean keyFound) {
+		if (!keyFound) {
+			throw new ConsistencyErrorException("Bad format in attribute value. KEY_VALUE_DELIMITER not found. Attribute value='" + value + "', processed entry='" + value.substring(entryStart, entryEnd) + "'");
+		}
+		map.put(toValue(key), toValue(mapValue));
+	}
+
+	private static boolean isEscapable(char c, boolean escapeKeyValueDelimiter) {
+		return c == ESCAPE || c == LIST_DELIMITER || (escapeKeyValueDelimiter && c == KEY_VALUE_DELIMITER);
+	}
+
+	private static void appendEscaped(StringBuilder sb, String text, boolean escapeKeyValueDelimiter) {
+		if (text == null) {
+			sb.append(NULL_VALUE);
+			return;
+		}
+		// parts without escaped chars are appended at once, most texts have no such chars at all
+		int start = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (isEscapable(text.charAt(i), escapeKeyValueDelimiter)) {
+				sb.append(text, start, i).append(ESCAPE);
+				start = i;
+			}
+		}
+		sb.append(text, start, text.length());
+	}
+
+	private static String toValue(StringBuilder unescaped) {
+		// "\0" is compared after unescaping, so the escaped "\\0" is null as well
+		if (unescaped.length() == 2 && unescaped.charAt(0) == ESCAPE && unescaped.charAt(1) == '0') {
+			return null;
+		}
+		return unescaped.toString();
+	}
+}
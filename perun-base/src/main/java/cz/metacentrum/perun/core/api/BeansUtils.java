@@ -2,7 +2,6 @@ package cz.metacentrum.perun.core.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import cz.metacentrum.perun.core.api.exceptions.ConsistencyErrorException;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import java.io.BufferedInputStream;
 import java.io.FileInputStream;
@@ -37,8 +36,6 @@ public class BeansUtils {
 
 	private final static Pattern patternForCommonNameParsing = Pattern.compile("(([\\w]*. )*)([\\p{L}-']+) ([\\p{L}-']+)[, ]*(.*)");
 	private final static Pattern richBeanNamePattern = Pattern.compile("^Rich([A-Z].*$)");
-	private static final char LIST_DELIMITER = ',';
-	private static final char KEY_VALUE_DELIMITER = ':';
 	private final static int MAX_SIZE_OF_ITEMS_IN_SQL_IN_CLAUSE = 1000;
 	private final static String MULTIVALUE_ATTRIBUTE_SEPARATOR_REGEX = ";";
 	private final static String configurationsLocations = "/etc/perun/";
@@ -223,7 +220,6 @@ public class BeansUtils {
 	 *
 	 * @throws InternalErrorException
 	 */
-	@SuppressWarnings("unchecked")
 	public static String attributeValueToString(Attribute attribute) {
 		if(attribute == null) throw new InternalErrorException(new NullPointerException("attribute is null"));
 		if(attribute.getValue() == null) return null;
@@ -235,53 +231,9 @@ public class BeansUtils {
 			throw new InternalErrorException("Attribute's type mismatch " + attribute + ". The type of attribute's value (" + attribute.getValue().getClass().getName() + ") doesn't match the type of attribute (" + attribute.getType() + ").");
 		}
 
-		if(Objects.equals(attributeType, String.class.getName())) {
-			return (String) attribute.getValue();
-		} else if(Objects.equals(attributeType, Integer.class.getName())) {
-			return Integer.toString((Integer) attribute.getValue());
-		} else if(Objects.equals(attributeType, Boolean.class.getName())) {
-			return Boolean.toString((Boolean) attribute.getValue());
-		} else if(Objects.equals(attributeType, ArrayList.class.getName())) {
-			StringBuilder sb = new StringBuilder();
-			for(String item : (List<String>) attribute.getValue()) {
-				if(item == null) {
-					item = "\\0";
-				} else {
-					item = item.replace("\\", "\\\\");   //escape char '\'
-					item = item.replace(Character.toString(LIST_DELIMITER), "\\" + LIST_DELIMITER); //escape LIST_DELIMITER
-				}
-				sb.append(item);
-				sb.append(LIST_DELIMITER);
-			}
-			return sb.toString();
-		} else if(Objects.equals(attributeType, LinkedHashMap.class.getName())) {
-			StringBuilder sb = new StringBuilder();
-			for(Map.Entry<String, String> entry : ((Map<String, String>) attribute.getValue()).entrySet()) {
-				String key = entry.getKey();
-				if(key == null) {
-					key = "\\0";
-				} else {
-					key = key.replace("\\", "\\\\");   //escape char '\'
-					key = key.replace(Character.toString(LIST_DELIMITER), "\\" + LIST_DELIMITER); //escape LIST_DELIMITER
-					key = key.replace(Character.toString(KEY_VALUE_DELIMITER), "\\" + KEY_VALUE_DELIMITER); //escape KEY_VALUE_DELIMITER
-				}
-
-				String value = entry.getValue();
-				if(value == null) {
-					value = "\\0";
-				} else {
-					value = value.replace("\\", "\\\\");   //escape char '\'
-					value = value.replace(Character.toString(LIST_DELIMITER), "\\" + LIST_DELIMITER); //escape LIST_DELIMITER
-					value = value.replace(Character.toString(KEY_VALUE_DELIMITER), "\\" + KEY_VALUE_DELIMITER); //escape KEY_VALUE_DELIMITER
-				}
-
-				sb.append(key);
-				sb.append(KEY_VALUE_DELIMITER);
-				sb.append(value);
-				sb.append(LIST_DELIMITER);
-			}
-			return sb.toString();
-		} else throw new InternalErrorException("Unknown java type of attribute's value.");
+		AttributeValueCodec codec = AttributeValueCodec.forType(attributeType);
+		if(codec == null) throw new InternalErrorException("Unknown java type of attribute's value.");
+		return codec.encode(attribute.getValue());
 	}
 
 	/**
@@ -353,28 +305,7 @@ public class BeansUtils {
 	 * @return list of parsed values
 	 */
 	public static List<String> parseEscapedListValue(String value) {
-		String[] array = value.split(Character.toString(LIST_DELIMITER), -1);
-		List<String> listValue =  new ArrayList<String>();
-		//join items which was splited on escaped LIST_DELIMITER
-		for(int i = 0; i < array.length -1; i++) { //itarate to lenght -1  ... last array item is always empty
-			String item = array[i];
-			while(item.matches("^(.*[^\\\\])?(\\\\\\\\)*\\\\$")) { //item last char is '\' . Next item start with ',', so we need to concat this items.
-				item = item.substring(0, item.length()-1);  //cut off last char ('\')
-				try {
-					item = item.concat(Character.toString(LIST_DELIMITER)).concat(array[i+1]);
-					i++;
-				} catch(ArrayIndexOutOfBoundsException ex) {
-					throw new ConsistencyErrorException("Bad format in attribute value", ex);
-				}
-			}
-			//unescape
-			item = item.replaceAll("\\\\([\\\\" + Character.toString(LIST_DELIMITER) + "])", "$1");
-			if(item.equals("\\0")) item = null;
-
-			//return updated item back to list
-			listValue.add(item);
-		}
-		return listValue;
+		return AttributeValueCodec.decodeList(value);
 	}
 
 	/**
@@ -389,83 +320,9 @@ public class BeansUtils {
 	public static Object stringToAttributeValue(String stringValue, String type) {
 		if(stringValue == null || stringValue.isEmpty()) return null;
 
-		Class<?> attributeClass;
-		try {
-			attributeClass = Class.forName(type);
-		} catch (ClassNotFoundException e) {
-			throw new InternalErrorException("Unknown attribute type", e);
-		} catch (NoClassDefFoundError e) {
-			throw new InternalErrorException("Unknown attribute def type", e);
-		}
-
-		if(attributeClass.equals(String.class)) {
-			return stringValue;
-		} else if(attributeClass.equals(Integer.class)) {
-			return Integer.parseInt(stringValue);
-		} else if(attributeClass.equals(Boolean.class)) {
-			return Boolean.parseBoolean(stringValue);
-		} else if(attributeClass.equals(ArrayList.class)) {
-			return parseEscapedListValue(stringValue);
-		} else if(attributeClass.equals(LinkedHashMap.class)) {
-			String[] array = stringValue.split(Character.toString(LIST_DELIMITER), -1);
-			Map<String, String> attributeValue = new LinkedHashMap<String, String>();
-
-			//join items which was splited on escaped LIST_DELIMITER
-			for(int i = 0; i < array.length -1; i++) {  //itarate to lenght -1  ... last array item is always empty
-				String mapEntry = array[i];
-
-				while(mapEntry.matches("^(.*[^\\\\])?(\\\\\\\\)*\\\\$")) { //mapEntry last char is '\' . Next mapEntry start with ',', so we need to concat this mapEntries.
-					mapEntry = mapEntry.substring(0, mapEntry.length()-1);  //cut off last char ('\')
-					try {
-						mapEntry = mapEntry.concat(Character.toString(LIST_DELIMITER)).concat(array[i+1]);
-						i++;
-					} catch(ArrayIndexOutOfBoundsException ex) {
-						throw new ConsistencyErrorException("Bad format in attribute value", ex);
-					}
-				}
-
-				boolean delimiterFound = false;
-				int delimiterIndex = -1;
-
-
-				while(!delimiterFound) {
-					delimiterIndex++; //start searching at next char then last time
-					delimiterIndex = mapEntry.indexOf(Character.toString(KEY_VALUE_DELIMITER), delimiterIndex);
-					if(delimiterIndex == -1) throw new ConsistencyErrorException("Bad format in attribute value. KEY_VALUE_DELIMITER not found. Attribute value='" + stringValue + "', processed entry='" + mapEntry + "'");
-
-					//check if this delimiter is not escaped
-					boolean isEscaped = false;  //is delimiter escaped
-					boolean stop = false;
-					int processedIndex = delimiterIndex - 1;
-					while(!stop && processedIndex >= 0) {
-						if(mapEntry.charAt(processedIndex) == '\\') {
-							isEscaped = !isEscaped;
-						} else {
-							stop = true;
-						}
-						processedIndex--;
-					}
-					if(!isEscaped) delimiterFound = true;
-				}
-
-				String key = mapEntry.substring(0, delimiterIndex);
-				String value = mapEntry.substring(delimiterIndex+1);
-
-				//unescape
-				key = key.replaceAll("\\\\([\\\\" + Character.toString(LIST_DELIMITER) + Character.toString(KEY_VALUE_DELIMITER) + "])", "$1");
-				value = value.replaceAll("\\\\([\\\\" + Character.toString(LIST_DELIMITER) + Character.toString(KEY_VALUE_DELIMITER) + "])", "$1");
-
-				if(key.equals("\\0")) key = null;
-				if(value.equals("\\0")) value = null;
-
-				//return updated item back to list
-				attributeValue.put(key, value);
-			}
-
-			return attributeValue;
-		} else {
-			throw new InternalErrorException("Unknown attribute type. ("+ attributeClass.toString() + ")");
-		}
+		AttributeValueCodec codec = AttributeValueCodec.forType(type);
+		if(codec == null) throw new InternalErrorException("Unknown attribute type. (" + type + ")");
+		return codec.decode(stringValue);
 	}
 
 	/**
@@ -42,6 +42,14 @@ public class CoreConfig {
 	private int pwdresetValidationWindow;
 	private int accountActivationValidationWindow;
 	private int queryTimeout;
+	private int provisioningAttributesCacheSize;
+	private int provisioningGenDataRevisions;
+	private int authzRolesCacheSize;
+	private boolean mfaCriticalObjectsCacheEnabled;
+	private boolean attributeDefinitionRegistryEnabled;
+	private boolean virtualAttributeValuesCacheEnabled;
+	private int provisioningWorkers;
+	private boolean auditerGroupCommit;
 	private List<String> admins;
 	private List<String> enginePrincipals;
 	private List<String> generatedLoginNamespaces;
@@ -824,6 +832,70 @@ public class CoreConfig {
 		this.mfaAuthTimeout = mfaAuthTimeout;
 	}
 
+	public int getProvisioningAttributesCacheSize() {
+		return provisioningAttributesCacheSize;
+	}
+
+	public void setProvisioningAttributesCacheSize(int provisioningAttributesCacheSize) {
+		this.provisioningAttributesCacheSize = provisioningAttributesCacheSize;
+	}
+
+	public int getProvisioningGenDataRevisions() {
+		return provisioningGenDataRevisions;
+	}
+
+	public void setProvisioningGenDataRevisions(int provisioningGenDataRevisions) {
+		this.provisioningGenDataRevisions = provisioningGenDataRevisions;
+	}
+
+	public int getAuthzRolesCacheSize() {
+		return authzRolesCacheSize;
+	}
+
+	public void setAuthzRolesCacheSize(int authzRolesCacheSize) {
+		this.authzRolesCacheSize = authzRolesCacheSize;
+	}
+
+	public boolean isMfaCriticalObjectsCacheEnabled() {
+		return mfaCriticalObjectsCacheEnabled;
+	}
+
+	public void setMfaCriticalObjectsCacheEnabled(boolean mfaCriticalObjectsCacheEnabled) {
+		this.mfaCriticalObjectsCacheEnabled = mfaCriticalObjectsCacheEnabled;
+	}
+
+	public boolean isAttributeDefinitionRegistryEnabled() {
+		return attributeDefinitionRegistryEnabled;
+	}
+
+	public void setAttributeDefinitionRegistryEnabled(boolean attributeDefinitionRegistryEnabled) {
+		this.attributeDefinitionRegistryEnabled = attributeDefinitionRegistryEnabled;
+	}
+
+	public boolean isVirtualAttributeValuesCacheEnabled() {
+		return virtualAttributeValuesCacheEnabled;
+	}
+
+	public void setVirtualAttributeValuesCacheEnabled(boolean virtualAttributeValuesCacheEnabled) {
+		this.virtualAttributeValuesCacheEnabled = virtualAttributeValuesCacheEnabled;
+	}
+
+	public int getProvisioningWorkers() {
+		return provisioningWorkers;
+	}
+
+	public void setProvisioningWorkers(int provisioningWorkers) {
+		this.provisioningWorkers = provisioningWorkers;
+	}
+
+	public boolean isAuditerGroupCommit() {
+		return auditerGroupCommit;
+	}
+
+	public void setAuditerGroupCommit(boolean auditerGroupCommit) {
+		this.auditerGroupCommit = auditerGroupCommit;
+	}
+
 	public boolean isEnforceMfa() {
 		return enforceMfa;
 	}
@@ -0,0 +1,117 @@
+package cz.metacentrum.perun.core.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class representing changes of the provisioning data structure with hashes since some previous revision.
+ *
+ * If the base revision is null, the delta is computed against empty data, so it contains the full data structure.
+ * Otherwise it contains only attributes and resource nodes which were changed or added since the base revision,
+ * together with hashes and resource ids which were removed. Members of the facility are present only if they
+ * were changed. Applying the delta to the data of the base revision gives the data of the new revision.
+ *
+ * If nothing was changed, the revision is the same as the base revision.
+ */
+public class HashedGenDataDelta {
+	private final String revision;
+	private final String baseRevision;
+	private final Integer facilityId;
+	private final Map<String, Map<String, Object>> attributes;
+	private final List<String> removedAttributes;
+	private final Map<Integer, GenDataNode> children;
+	private final List<Integer> removedChildren;
+	private final Map<Integer, Integer> members;
+
+	public HashedGenDataDelta(String revision, String baseRevision, Integer facilityId,
+	                          Map<String, Map<String, Object>> attributes, List<String> removedAttributes,
+	                          Map<Integer, GenDataNode> children, List<Integer> removedChildren,
+	                          Map<Integer, Integer> members) {
+		this.revision = revision;
+		this.baseRevision = baseRevision;
+		this.facilityId = facilityId;
+		this.attributes = attributes;
+		this.removedAttributes = removedAttributes;
+		this.children = children;
+		this.removedChildren = removedChildren;
+		this.members = members;
+	}
+
+	public String getRevision() {
+		return revision;
+	}
+
+	public String getBaseRevision() {
+		return baseRevision;
+	}
+
+	public Integer getFacilityId() {
+		return facilityId;
+	}
+
+	public Map<String, Map<String, Object>> getAttributes() {
+		return attributes;
+	}
+
+	public List<String> getRemovedAttributes() {
+		return removedAttributes;
+	}
+
+	public Map<Integer, GenDataNode> getChildren() {
+		return children;
+	}
+
+	public List<Integer> getRemovedChildren() {
+		return removedChildren;
+	}
+
+	public Map<Integer, Integer> getMembers() {
+		return members;
+	}
+
+	/**
+	 * Returns true, if the data were not changed since the base revision.
+	 *
+	 * @return true, if the delta is empty
+	 */
+	public boolean isEmpty() {
+		return baseRevision != null && attributes.isEmpty() && removedAttributes.isEmpty() &&
+				children.isEmpty() && removedChildren.isEmpty() && members == null;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		HashedGenDataDelta that = (HashedGenDataDelta) o;
+		return Objects.equals(getRevision(), that.getRevision()) &&
+				Objects.equals(getBaseRevision(), that.getBaseRevision()) &&
+				Objects.equals(getFacilityId(), that.getFacilityId()) &&
+				Objects.equals(getAttributes(), that.getAttributes()) &&
+				Objects.equals(getRemovedAttributes(), that.getRemovedAttributes()) &&
+				Objects.equals(getChildren(), that.getChildren()) &&
+				Objects.equals(getRemovedChildren(), that.getRemovedChildren()) &&
+				Objects.equals(getMembers(), that.getMembers());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(getRevision(), getBaseRevision(), getFacilityId(), getAttributes(), getRemovedAttributes(),
+				getChildren(), getRemovedChildren(), getMembers());
+	}
+
+	@Override
+	public String toString() {
+		return "HashedGenDataDelta[" +
+				"revision='" + revision + '\'' +
+				", baseRevision='" + baseRevision + '\'' +
+				", facilityId=" + facilityId +
+				", attributes=" + attributes +
+				", removedAttributes=" + removedAttributes +
+				", children=" + children +
+				", removedChildren=" + removedChildren +
+				", members=" + members +
+				']';
+	}
+}
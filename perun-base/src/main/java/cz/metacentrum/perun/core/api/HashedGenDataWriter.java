@@ -0,0 +1,29 @@
+package cz.metacentrum.perun.core.api;
+
+import java.util.Map;
+
+/**
+ * Consumer of the provisioning data structure with hashes, which is written part by part,
+ * so the whole structure doesn't have to be kept in the memory.
+ *
+ * Attributes are written first, in any number of parts. Every hash is written only once.
+ * The hierarchy is written at the end and completes the data structure.
+ *
+ * @see HashedGenData
+ */
+public interface HashedGenDataWriter {
+
+	/**
+	 * Writes part of the attributes grouped by their hashes.
+	 *
+	 * @param attributes attributes by hashes
+	 */
+	void writeAttributes(Map<String, Map<String, Object>> attributes);
+
+	/**
+	 * Writes the hierarchy and completes the data structure.
+	 *
+	 * @param hierarchy hierarchy by facility id
+	 */
+	void writeHierarchy(Map<Integer, GenDataNode> hierarchy);
+}
@@ -12,6 +12,25 @@ public class AuthzRoles extends HashMap<String, Map<String, Set<Integer>>> {
 		super();
 	}
 
+	/**
+	 * Creates deep copy of the given roles, so the copy can be modified independently.
+	 *
+	 * @param authzRoles roles to copy
+	 */
+	public AuthzRoles(AuthzRoles authzRoles) {
+		super();
+		for (Map.Entry<String, Map<String, Set<Integer>>> role : authzRoles.entrySet()) {
+			Map<String, Set<Integer>> complementaryObjects = null;
+			if (role.getValue() != null) {
+				complementaryObjects = new HashMap<String, Set<Integer>>();
+				for (Map.Entry<String, Set<Integer>> objects : role.getValue().entrySet()) {
+					complementaryObjects.put(objects.getKey(), objects.getValue() == null ? null : new HashSet<Integer>(objects.getValue()));
+				}
+			}
+			this.put(role.getKey(), complementaryObjects);
+		}
+	}
+
 	public AuthzRoles(String role) {
 		super();
 		this.put(role, null);
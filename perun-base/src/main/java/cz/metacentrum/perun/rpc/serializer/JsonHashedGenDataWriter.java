@@ -0,0 +1,66 @@
+package cz.metacentrum.perun.rpc.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import cz.metacentrum.perun.core.api.GenDataNode;
+import cz.metacentrum.perun.core.api.HashedGenDataWriter;
+import cz.metacentrum.perun.core.api.exceptions.RpcException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Writes the hashed provisioning data part by part as JSON in the same format as {@link JsonSerializer}
+ * writes {@link cz.metacentrum.perun.core.api.HashedGenData}.
+ *
+ * Nothing is written to the output until the first part of the data is passed.
+ */
+public final class JsonHashedGenDataWriter implements HashedGenDataWriter {
+
+	private final OutputStream out;
+	private JsonGenerator gen;
+
+	/**
+	 * @param out {@code OutputStream} to output serialized data
+	 */
+	public JsonHashedGenDataWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void writeAttributes(Map<String, Map<String, Object>> attributes) {
+		try {
+			startData();
+			for (Map.Entry<String, Map<String, Object>> entry : attributes.entrySet()) {
+				gen.writeObjectField(entry.getKey(), entry.getValue());
+			}
+		} catch (IOException ex) {
+			throw new RpcException(RpcException.Type.CANNOT_SERIALIZE_VALUE, ex);
+		}
+	}
+
+	@Override
+	public void writeHierarchy(Map<Integer, GenDataNode> hierarchy) {
+		try {
+			startData();
+			gen.writeEndObject();
+			gen.writeObjectField("hierarchy", hierarchy);
+			gen.writeEndObject();
+			gen.flush();
+			gen.close();
+		} catch (IOException ex) {
+			throw new RpcException(RpcException.Type.CANNOT_SERIALIZE_VALUE, ex);
+		}
+	}
+
+	/**
+	 * Starts the data structure and the attributes section, if it was not started yet.
+	 */
+	private void startData() throws IOException {
+		if (gen == null) {
+			gen = JsonSerializer.createGenerator(out);
+			gen.writeStartObject();
+			gen.writeObjectFieldStart("attributes");
+		}
+	}
+}
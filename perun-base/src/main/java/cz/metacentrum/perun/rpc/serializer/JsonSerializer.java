@@ -167,6 +167,17 @@ public final class JsonSerializer implements Serializer {
 		jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT).setCodec(mapper);
 	}
 
+	/**
+	 * Creates JSON generator writing to the given output with the same configuration as this serializer uses.
+	 *
+	 * @param out {@code OutputStream} to output serialized data
+	 * @return JSON generator
+	 * @throws IOException if an IO error occurs
+	 */
+	static JsonGenerator createGenerator(OutputStream out) throws IOException {
+		return jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+	}
+
 	private OutputStream out;
 
 	/**
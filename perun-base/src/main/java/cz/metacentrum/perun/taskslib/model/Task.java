@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Service;
@@ -22,6 +23,21 @@ public class Task implements Serializable {
 		WAITING, PLANNED, GENERATING, GENERROR, GENERATED, SENDING, DONE, SENDERROR, ERROR, WARNING
 	}
 
+	/**
+	 * Listener notified about changes of the Task status, used by the TaskStore to keep its status index.
+	 */
+	public interface StatusListener {
+
+		/**
+		 * Called when the status of the Task was changed, while holding lock of the Task.
+		 *
+		 * @param task Task with changed status
+		 * @param oldStatus previous status
+		 * @param newStatus current status
+		 */
+		void onStatusChange(Task task, TaskStatus oldStatus, TaskStatus newStatus);
+	}
+
 	private int id;
 	private int delay;
 	private int recurrence;
@@ -39,6 +55,7 @@ public class Task implements Serializable {
 	private TaskStatus status;
 	private boolean sourceUpdated;
 	private boolean propagationForced;
+	private transient StatusListener statusListener;
 
 	@Override
 	public int hashCode() {
@@ -296,7 +313,32 @@ public class Task implements Serializable {
 	}
 
 	public synchronized void setStatus(TaskStatus status) {
+		TaskStatus oldStatus = this.status;
 		this.status = status;
+		if (statusListener != null && oldStatus != status) {
+			statusListener.onStatusChange(this, oldStatus, status);
+		}
+	}
+
+	/**
+	 * Sets listener notified about changes of the status. Only one listener can be set, null removes it.
+	 *
+	 * @param statusListener listener to notify
+	 */
+	@JsonIgnore
+	public synchronized void setStatusListener(StatusListener statusListener) {
+		this.statusListener = statusListener;
+	}
+
+	/**
+	 * Removes listener of status changes, if it is the given one.
+	 *
+	 * @param statusListener listener to remove
+	 */
+	public synchronized void removeStatusListener(StatusListener statusListener) {
+		if (this.statusListener == statusListener) {
+			this.statusListener = null;
+		}
 	}
 
 	public String getBeanName(){
@@ -132,6 +132,18 @@ sub getHashedDataWithGroups
 	return Perun::Common::callManagerMethod('getHashedDataWithGroups', 'HashedGenData', @_);
 }
 
+#(service => $serviceId, facility => $facilityId, consentEval => true|false, revision => $revision)
+sub getHashedHierarchicalDataDelta
+{
+	return Perun::Common::callManagerMethod('getHashedHierarchicalDataDelta', 'HashedGenDataDelta', @_);
+}
+
+#(service => $serviceId, facility => $facilityId, consentEval => true|false, revision => $revision)
+sub getHashedDataWithGroupsDelta
+{
+	return Perun::Common::callManagerMethod('getHashedDataWithGroupsDelta', 'HashedGenDataDelta', @_);
+}
+
 #bez parametru
 sub getServicesPackages
 {
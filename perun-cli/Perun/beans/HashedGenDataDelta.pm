@@ -0,0 +1,108 @@
+package Perun::beans::HashedGenDataDelta;
+
+use strict;
+use warnings;
+
+use Perun::Common;
+
+sub new
+{
+	bless({});
+}
+
+sub fromHash
+{
+	my $class = shift;
+	$class = ref $class if ref $class;
+
+	my $self = { };
+	my $hash;
+
+	if ((@_ == 1) && (ref($_[0]) eq 'HASH')) {
+		$hash = $_[0];
+	} else {
+		my %hash = @_;
+		$hash = \%hash;
+	}
+
+	$self->{_revision} = $hash->{revision};
+	$self->{_baseRevision} = $hash->{baseRevision};
+	$self->{_facilityId} = $hash->{facilityId};
+	$self->{_attributes} = $hash->{attributes};
+	$self->{_removedAttributes} = $hash->{removedAttributes};
+	$self->{_children} = $hash->{children};
+	$self->{_removedChildren} = $hash->{removedChildren};
+	$self->{_members} = $hash->{members};
+
+	bless ($self, $class);
+}
+
+sub TO_JSON
+{
+	my $self = shift;
+
+	return { revision => $self->{_revision}, baseRevision => $self->{_baseRevision},
+		facilityId => $self->{_facilityId}, attributes => $self->{_attributes},
+		removedAttributes => $self->{_removedAttributes}, children => $self->{_children},
+		removedChildren => $self->{_removedChildren}, members => $self->{_members} };
+}
+
+sub getRevision
+{
+	my $self = shift;
+
+	return $self->{_revision};
+}
+
+sub getBaseRevision
+{
+	my $self = shift;
+
+	return $self->{_baseRevision};
+}
+
+sub getFacilityId
+{
+	my $self = shift;
+
+	return $self->{_facilityId};
+}
+
+sub isFull
+{
+	my $self = shift;
+
+	return !defined($self->{_baseRevision});
+}
+
+# Applies the delta to the HashedGenData of the base revision and returns HashedGenData of the new revision.
+# If the delta is full, the passed data are ignored and can be undefined.
+sub applyTo
+{
+	my $self = shift;
+	my $data = shift;
+	my $facilityId = $self->{_facilityId};
+
+	if ($self->isFull) {
+		return Perun::beans::HashedGenData->fromHash({
+			attributes => $self->{_attributes},
+			hierarchy => { $facilityId => { c => $self->{_children}, m => $self->{_members} } },
+		});
+	}
+
+	unless($data) { die "Data of the base revision are mandatory to apply the delta!\n"; }
+
+	my $attributes = $data->getAttributes;
+	delete $attributes->{$_} foreach @{$self->{_removedAttributes}};
+	$attributes->{$_} = $self->{_attributes}->{$_} foreach keys %{$self->{_attributes}};
+
+	my %hierarchy = $data->getHierarchy;
+	my $facilityNode = $hierarchy{$facilityId};
+	delete $facilityNode->{c}->{$_} foreach @{$self->{_removedChildren}};
+	$facilityNode->{c}->{$_} = $self->{_children}->{$_} foreach keys %{$self->{_children}};
+	$facilityNode->{m} = $self->{_members} if defined $self->{_members};
+
+	return $data;
+}
+
+1;
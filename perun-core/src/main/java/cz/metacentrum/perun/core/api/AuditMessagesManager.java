@@ -6,6 +6,7 @@ import cz.metacentrum.perun.core.api.exceptions.PrivilegeException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * AuditMessagesManager manages audit messages (logs). Entry Logic interface.
@@ -116,6 +117,36 @@ public interface AuditMessagesManager {
 	 */
 	List<AuditEvent> pollConsumerEvents(PerunSession perunSession, String consumerName, int lastProcessedId) throws PrivilegeException;
 
+	/**
+	 * Returns at most maxCount oldest <b>AuditEvents</b> from audit log with IDs > lastProcessedId for registered auditer consumer
+	 * and moves the last processed id of the consumer to the last returned event. Consumer can call it repeatedly
+	 * to read the audit log page by page, until less than maxCount events are returned.
+	 *
+	 * @param perunSession perun session
+	 * @param consumerName consumer to get events for
+	 * @param maxCount maximal number of returned events
+	 * @return List of audit events
+	 * @throws InternalErrorException When implementation fails
+	 * @throws PrivilegeException When you are not authorized to poll events
+	 */
+	List<AuditEvent> pollConsumerEventsPage(PerunSession perunSession, String consumerName, int maxCount) throws PrivilegeException;
+
+	/**
+	 * Passes all <b>AuditEvents</b> from audit log with IDs > lastProcessedId for registered auditer consumer to the handler
+	 * in pages of at most pageSize events. Every page is processed in its own transaction, so the last processed id
+	 * of the consumer is stored after the handler processes the page. If the handler throws an exception,
+	 * the last processed id stays at the end of the previous page and the exception is rethrown.
+	 *
+	 * @param perunSession perun session
+	 * @param consumerName consumer to get events for
+	 * @param pageSize maximal number of events passed to the handler at once
+	 * @param handler handler of the pages of events
+	 * @return number of processed events
+	 * @throws InternalErrorException When implementation fails
+	 * @throws PrivilegeException When you are not authorized to poll events
+	 */
+	int processConsumerEvents(PerunSession perunSession, String consumerName, int pageSize, Consumer<List<AuditEvent>> handler) throws PrivilegeException;
+
 	/**
 	 * Creates new auditer consumer with last processed id which equals current auditer log max id.
 	 *
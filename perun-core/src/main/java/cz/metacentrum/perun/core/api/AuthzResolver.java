@@ -82,6 +82,27 @@ public class AuthzResolver {
 		}
 	}
 
+	/**
+	 * Filters the objects to those, on which the principal is authorized.
+	 * Each object is authorized together with the other objects, so the result is the same as calling
+	 * authorizedInternal() for every object separately, but the policy is resolved only once for the whole list.
+	 * This method should be used in the internal code.
+	 *
+	 * @param sess PerunSession which contains the principal.
+	 * @param policyDefinition of policy which contains authorization rules.
+	 * @param objects list of PerunBeans to filter (e.g. groups, Vos, etc...)
+	 * @param otherObjects PerunBeans used in authorization of every object (e.g. resource the groups are assigned to)
+	 * @throws MfaPrivilegeException when the principal isn't authenticated with MFA but the policy definition requires it
+	 * @return new list with objects, on which the principal has particular rights
+	 */
+	public static <T extends PerunBean> List<T> authorizedInternalFilter(PerunSession sess, String policyDefinition, List<T> objects, PerunBean... otherObjects) {
+		try {
+			return AuthzResolverBlImpl.authorizedFilter(sess, policyDefinition, objects, Arrays.asList(otherObjects));
+		} catch (PolicyNotExistsException e) {
+			throw new InternalErrorException(e);
+		}
+	}
+
 	/**
 	 * Checks if the principal is authorized.
 	 * Used when there are no PerunBeans needed for authorization.
@@ -469,6 +469,21 @@ public interface ServicesManager {
 	 */
 	HashedGenData getHashedHierarchicalData(PerunSession perunSession, Service service, Facility facility, boolean consentEval) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException;
 
+	/**
+	 * Generates the same data as getHashedHierarchicalData() and writes them by the given writer part by part,
+	 * so the whole data structure doesn't have to be kept in the memory.
+	 *
+	 * @param perunSession perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param consentEval if the generator should force evaluation of consents
+	 * @param writer writer of the generated data
+	 * @throws FacilityNotExistsException if there is no such facility
+	 * @throws ServiceNotExistsException if there is no such service
+	 * @throws PrivilegeException insufficient permissions
+	 */
+	void writeHashedHierarchicalData(PerunSession perunSession, Service service, Facility facility, boolean consentEval, HashedGenDataWriter writer) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException;
+
 	/**
 	 * Generates hashed data with group structure for given service and facility.
 	 * If enforcing consents is turned on on the instance and on the resource's consent hub,
@@ -520,6 +535,40 @@ public interface ServicesManager {
 	 */
 	HashedGenData getHashedDataWithGroups(PerunSession perunSession, Service service, Facility facility, boolean consentEval) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException;
 
+	/**
+	 * Generates hashed hierarchical data for given service and facility and returns only their changes
+	 * since the given revision. If the revision is null or unknown, the delta contains full data.
+	 * The structure of the data is the same as in getHashedHierarchicalData().
+	 *
+	 * @param perunSession perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param consentEval if the generator should force evaluation of consents
+	 * @param revision revision of the data known to the caller, can be null
+	 * @return changes of the generated hashed data structure since the given revision
+	 * @throws FacilityNotExistsException if there is no such facility
+	 * @throws ServiceNotExistsException if there is no such service
+	 * @throws PrivilegeException insufficient permissions
+	 */
+	HashedGenDataDelta getHashedHierarchicalDataDelta(PerunSession perunSession, Service service, Facility facility, boolean consentEval, String revision) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException;
+
+	/**
+	 * Generates hashed data with group structure for given service and facility and returns only their changes
+	 * since the given revision. If the revision is null or unknown, the delta contains full data.
+	 * The structure of the data is the same as in getHashedDataWithGroups().
+	 *
+	 * @param perunSession perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param consentEval if the generator should force evaluation of consents
+	 * @param revision revision of the data known to the caller, can be null
+	 * @return changes of the generated hashed data structure since the given revision
+	 * @throws FacilityNotExistsException if there is no such facility
+	 * @throws ServiceNotExistsException if there is no such service
+	 * @throws PrivilegeException insufficient permissions
+	 */
+	HashedGenDataDelta getHashedDataWithGroupsDelta(PerunSession perunSession, Service service, Facility facility, boolean consentEval, String revision) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException;
+
 	/**
 	 * List packages
 	 *
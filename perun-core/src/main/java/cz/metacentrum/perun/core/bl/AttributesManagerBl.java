@@ -1140,6 +1140,19 @@ public interface AttributesManagerBl {
 	 */
 	Attribute getAttribute(PerunSession sess, User user, String attributeName) throws WrongAttributeAssignmentException, AttributeNotExistsException;
 
+	/**
+	 * Get particular attribute for all the users. Values are loaded for all the users at once.
+	 *
+	 * @param sess
+	 * @param users to get attribute from
+	 * @param attributeName attribute name defined in the particular manager
+	 * @return attributes by the users
+	 *
+	 * @throws AttributeNotExistsException if the attribute doesn't exist
+	 * @throws WrongAttributeAssignmentException if the attribute isn't user attribute
+	 */
+	Map<User, Attribute> getAttributeForUsers(PerunSession sess, List<User> users, String attributeName) throws WrongAttributeAssignmentException, AttributeNotExistsException;
+
 	/**
 	 * Get particular attribute for the user for update - locking the attribute for user.
 	 *
@@ -2542,6 +2555,21 @@ public interface AttributesManagerBl {
 	 */
 	Map<Group, List<Attribute>> getRequiredAttributesForGroups(PerunSession sess, Service service, List<Group> groups);
 
+	/**
+	 * Get group-resource attributes which are required by the given service for given groups and the resource.
+	 * All attributes are loaded at once, so this method should be preferred over calling
+	 * getRequiredAttributes(sess, service, resource, group) for each group.
+	 * !!! Method checks if groups list is not empty (returns empty HashMap)!!!
+	 *
+	 * @param sess session
+	 * @param service service for which are taken the required attributes
+	 * @param resource resource
+	 * @param groups groups
+	 * @return group-resource attributes mapped by their groups
+	 * @throws GroupResourceMismatchException if some of the given groups is not from the same vo as the resource
+	 */
+	Map<Group, List<Attribute>> getRequiredAttributesForGroups(PerunSession sess, Service service, Resource resource, List<Group> groups) throws GroupResourceMismatchException;
+
 	/**
 	 * Get host attributes which are required by service
 	 * @param sess
@@ -9,6 +9,7 @@ import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * AuditMessagesManager manages audit messages (logs). BlImpl Logic interface.
@@ -110,6 +111,45 @@ public interface AuditMessagesManagerBl {
 	 */
 	List<AuditEvent> pollConsumerEvents(PerunSession perunSession, String consumerName, int lastProcessedId);
 
+	/**
+	 * Returns at most maxCount oldest <b>AuditEvents</b> from audit log with IDs > lastProcessedId for registered auditer consumer
+	 * and moves the last processed id of the consumer to the last returned event.
+	 *
+	 * @param perunSession perun session
+	 * @param consumerName consumer to get events for
+	 * @param maxCount maximal number of returned events
+	 * @return List of audit events
+	 * @throws InternalErrorException When implementation fails
+	 */
+	List<AuditEvent> pollConsumerEventsPage(PerunSession perunSession, String consumerName, int maxCount);
+
+	/**
+	 * Passes all <b>AuditEvents</b> from audit log with IDs > lastProcessedId for registered auditer consumer to the handler
+	 * in pages of at most pageSize events. Every page is processed in its own transaction.
+	 *
+	 * @param perunSession perun session
+	 * @param consumerName consumer to get events for
+	 * @param pageSize maximal number of events passed to the handler at once
+	 * @param handler handler of the pages of events
+	 * @return number of processed events
+	 * @throws InternalErrorException When implementation fails
+	 */
+	int processConsumerEvents(PerunSession perunSession, String consumerName, int pageSize, Consumer<List<AuditEvent>> handler);
+
+	/**
+	 * Passes single page of <b>AuditEvents</b> for registered auditer consumer to the handler and moves the last processed id
+	 * of the consumer to the last event of the page. It is called in new transaction, so the last processed id is stored
+	 * right after the page is processed.
+	 *
+	 * @param perunSession perun session
+	 * @param consumerName consumer to get events for
+	 * @param pageSize maximal number of events passed to the handler
+	 * @param handler handler of the page of events
+	 * @return number of processed events
+	 * @throws InternalErrorException When implementation fails
+	 */
+	int processConsumerEventsPageInNewTransaction(PerunSession perunSession, String consumerName, int pageSize, Consumer<List<AuditEvent>> handler);
+
 	/**
 	 * Creates new auditer consumer with last processed id which equals current auditer log max id.
 	 *
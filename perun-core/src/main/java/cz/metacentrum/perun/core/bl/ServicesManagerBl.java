@@ -5,6 +5,8 @@ import cz.metacentrum.perun.core.api.AttributeDefinition;
 import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataDelta;
+import cz.metacentrum.perun.core.api.HashedGenDataWriter;
 import cz.metacentrum.perun.core.api.PerunSession;
 import cz.metacentrum.perun.core.api.Resource;
 import cz.metacentrum.perun.core.api.RichDestination;
@@ -321,6 +323,13 @@ public interface ServicesManagerBl {
 	 */
 	List<Resource> getAssignedResources(PerunSession sess, Service service);
 
+	/**
+	 * Binds current epoch of the GEN attributes cache to the current transaction. It must be called before
+	 * the first read of the transaction generating the GEN data, so values read from its snapshot are not stored
+	 * into the cache, if the cache was invalidated since the snapshot was taken.
+	 */
+	void bindGenAttributesCacheEpoch();
+
 	/**
 	 * Generates hashed hierarchical data structure for given service and resource.
 	 * If enforcing consents is turned on on the instance and on the resource's consent hub,
@@ -359,6 +368,18 @@ public interface ServicesManagerBl {
 	 */
 	HashedGenData getHashedHierarchicalData(PerunSession perunSession, Service service, Facility facility, boolean consentEval);
 
+	/**
+	 * Generates the same data as getHashedHierarchicalData() and writes them by the given writer part by part,
+	 * so the whole data structure doesn't have to be kept in the memory.
+	 *
+	 * @param perunSession perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param consentEval if the generator should force evaluation of consents
+	 * @param writer writer of the generated data
+	 */
+	void writeHashedHierarchicalData(PerunSession perunSession, Service service, Facility facility, boolean consentEval, HashedGenDataWriter writer);
+
 	/**
 	 * Generates hashed data with group structure for given service and resource.
 	 * If enforcing consents is turned on on the instance and on the resource's consent hub,
@@ -408,6 +429,32 @@ public interface ServicesManagerBl {
 	 */
 	HashedGenData getHashedDataWithGroups(PerunSession perunSession, Service service, Facility facility, boolean consentEval);
 
+	/**
+	 * Generates hashed hierarchical data for given service and facility and returns only their changes
+	 * since the given revision. If the revision is null or unknown, the delta contains full data.
+	 *
+	 * @param perunSession perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param consentEval if the generator should force evaluation of consents
+	 * @param revision revision of the data known to the caller, can be null
+	 * @return changes of the generated hashed data structure since the given revision
+	 */
+	HashedGenDataDelta getHashedHierarchicalDataDelta(PerunSession perunSession, Service service, Facility facility, boolean consentEval, String revision);
+
+	/**
+	 * Generates hashed data with group structure for given service and facility and returns only their changes
+	 * since the given revision. If the revision is null or unknown, the delta contains full data.
+	 *
+	 * @param perunSession perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param consentEval if the generator should force evaluation of consents
+	 * @param revision revision of the data known to the caller, can be null
+	 * @return changes of the generated hashed data structure since the given revision
+	 */
+	HashedGenDataDelta getHashedDataWithGroupsDelta(PerunSession perunSession, Service service, Facility facility, boolean consentEval, String revision);
+
 	/**
 	 * List packages
 	 *
@@ -141,6 +141,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -759,16 +760,18 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, facility, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!isCoreAttribute(sess, attribute)) {
 				if (isVirtAttribute(sess, attribute)) {
 					throw new InternalErrorException("Virtual attribute can't be set this way yet. Please set physical attribute.");
 				} else {
-					setAttributeWithoutCheck(sess, facility, attribute);
+					attributesToStore.add(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, facility, attributesToStore);
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, facility, attributesToSet);
 		checkAttributesDependencies(sess, facility, attributesToSet);
@@ -791,16 +794,18 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, vo, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 				if (isVirtAttribute(sess, attribute)) {
 					throw new InternalErrorException("Virtual attribute can't be set this way yet. Please set physical attribute.");
 				} else {
-					setAttributeWithoutCheck(sess, vo, attribute);
+					attributesToStore.add(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, vo, attributesToStore);
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, vo, attributesToSet);
 		checkAttributesDependencies(sess, vo, attributesToSet);
@@ -823,12 +828,14 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, group, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-				setAttributeWithoutCheck(sess, group, attribute);
+				attributesToStore.add(attribute);
 			}
 		}
+		setAttributesWithoutCheck(sess, group, attributesToStore);
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, group, attributesToSet);
 		checkAttributesDependencies(sess, group, attributesToSet);
@@ -851,12 +858,14 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, resource, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-				setAttributeWithoutCheck(sess, resource, attribute);
+				attributesToStore.add(attribute);
 			}
 		}
+		setAttributesWithoutCheck(sess, resource, attributesToStore);
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, resource, attributesToSet);
 		checkAttributesDependencies(sess, resource, attributesToSet);
@@ -889,24 +898,29 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, member, group, attributesToSet, workWithUserAttributes);
 		// fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
-		if (!workWithUserAttributes) {
-			for (Attribute attribute : attributesToSet) {
-				//skip core attributes
-				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-					setAttributeWithoutCheck(sess, member, group, attribute, false);
-				}
-			}
-		} else {
-			getPerunBl().getUsersManagerBl().getUserByMember(sess, member);
-
-			for (Attribute attribute : attributesToSet) {
-				// skip core attributes
-				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-					// this can handle member-group, member and user attributes too
-					setAttributeWithoutCheck(sess, member, group, attribute, true);
+		List<Attribute> memberGroupAttributesToStore = new ArrayList<>();
+		List<Attribute> memberAttributesToStore = new ArrayList<>();
+		List<Attribute> userAttributesToStore = new ArrayList<>();
+		for (Attribute attribute : attributesToSet) {
+			//skip core attributes
+			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
+				this.checkMemberIsFromTheSameVoLikeGroup(sess, member, group);
+				if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_GROUP_ATTR)) {
+					memberGroupAttributesToStore.add(attribute);
+				} else if (workWithUserAttributes && getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_ATTR)) {
+					userAttributesToStore.add(attribute);
+				} else if (workWithUserAttributes && getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR)) {
+					memberAttributesToStore.add(attribute);
+				} else {
+					throw new WrongAttributeAssignmentException(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, member, group, memberGroupAttributesToStore);
+		setAttributesWithoutCheck(sess, member, memberAttributesToStore);
+		if (!userAttributesToStore.isEmpty()) {
+			setAttributesWithoutCheck(sess, getPerunBl().getUsersManagerBl().getUserByMember(sess, member), userAttributesToStore);
+		}
 
 		// if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, member, group, attributesToSet, workWithUserAttributes);
@@ -930,29 +944,33 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, member, attributesToSet, workWithUserAttributes);
 		// fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
-		User user;
+		List<Attribute> memberAttributesToStore = new ArrayList<>();
+		List<Attribute> userAttributesToStore = new ArrayList<>();
 		if (!workWithUserAttributes) {
 			for (Attribute attribute : attributesToSet) {
 				//skip core attributes
 				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-					setAttributeWithoutCheck(sess, member, attribute);
+					memberAttributesToStore.add(attribute);
 				}
 			}
 		} else {
-			user = getPerunBl().getUsersManagerBl().getUserByMember(sess, member);
 			for (Attribute attribute : attributesToSet) {
 				//skip core attributes
 				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 					if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_ATTR)) {
-						setAttributeWithoutCheck(sess, user, attribute);
+						userAttributesToStore.add(attribute);
 					} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR)) {
-						setAttributeWithoutCheck(sess, member, attribute);
+						memberAttributesToStore.add(attribute);
 					} else {
 						throw new WrongAttributeAssignmentException(attribute);
 					}
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, member, memberAttributesToStore);
+		if (!userAttributesToStore.isEmpty()) {
+			setAttributesWithoutCheck(sess, getPerunBl().getUsersManagerBl().getUserByMember(sess, member), userAttributesToStore);
+		}
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, member, attributesToSet, workWithUserAttributes);
 		checkAttributesDependencies(sess, member, attributesToSet, workWithUserAttributes);
@@ -977,33 +995,19 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		checkAttributesSyntax(sess, member, resource, attributesToSet, workWithUserAttributes);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
 		if (!workWithUserAttributes) {
+			List<Attribute> attributesToStore = new ArrayList<>();
 			for (Attribute attribute : attributesToSet) {
 				//skip core attributes
 				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-					setAttributeWithoutCheck(sess, member, resource, attribute, false);
+					attributesToStore.add(attribute);
 				}
 			}
+			setAttributesWithoutCheck(sess, member, resource, attributesToStore);
 		} else {
 			Facility facility = getPerunBl().getResourcesManagerBl().getFacility(sess, resource);
 			User user = getPerunBl().getUsersManagerBl().getUserByMember(sess, member);
 
-			for (Attribute attribute : attributesToSet) {
-				//skip core attributes
-				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-
-					if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_RESOURCE_ATTR)) {
-						setAttributeWithoutCheck(sess, member, resource, attribute, false);
-					} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR)) {
-						setAttributeWithoutCheck(sess, facility, user, attribute);
-					} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_ATTR)) {
-						setAttributeWithoutCheck(sess, user, attribute);
-					} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR)) {
-						setAttributeWithoutCheck(sess, member, attribute);
-					} else {
-						throw new WrongAttributeAssignmentException(attribute);
-					}
-				}
-			}
+			setAttributesWithoutCheck(sess, facility, resource, user, member, attributesToSet);
 		}
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
@@ -1028,23 +1032,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, facility, resource, user, member, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
-		for (Attribute attribute : attributesToSet) {
-			//skip core attributes
-			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-
-				if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_RESOURCE_ATTR)) {
-					setAttributeWithoutCheck(sess, member, resource, attribute, false);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR)) {
-					setAttributeWithoutCheck(sess, facility, user, attribute);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_ATTR)) {
-					setAttributeWithoutCheck(sess, user, attribute);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR)) {
-					setAttributeWithoutCheck(sess, member, attribute);
-				} else {
-					throw new WrongAttributeAssignmentException(attribute);
-				}
-			}
-		}
+		setAttributesWithoutCheck(sess, facility, resource, user, member, attributesToSet);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, facility, resource, user, member, attributesToSet);
@@ -1068,25 +1056,17 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, facility, resource, group, user, member, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> memberGroupAttributesToStore = new ArrayList<>();
+		List<Attribute> otherAttributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
-			//skip core attributes
-			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-
-				if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_RESOURCE_ATTR)) {
-					setAttributeWithoutCheck(sess, member, resource, attribute, false);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR)) {
-					setAttributeWithoutCheck(sess, facility, user, attribute);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_ATTR)) {
-					setAttributeWithoutCheck(sess, user, attribute);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR)) {
-					setAttributeWithoutCheck(sess, member, attribute);
-				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_GROUP_ATTR)) {
-					setAttributeWithoutCheck(sess, member, group, attribute, false);
-				} else {
-					throw new WrongAttributeAssignmentException(attribute);
-				}
+			if (!getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_GROUP_ATTR)) {
+				otherAttributesToStore.add(attribute);
+			} else if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
+				memberGroupAttributesToStore.add(attribute);
 			}
 		}
+		setAttributesWithoutCheck(sess, facility, resource, user, member, otherAttributesToStore);
+		setAttributesWithoutCheck(sess, member, group, memberGroupAttributesToStore);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, facility, resource, group, user, member, attributesToSet);
@@ -1110,16 +1090,18 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, member, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 				if (isVirtAttribute(sess, attribute)) {
 					throw new InternalErrorException("Virtual attribute can't be set this way yet. Please set physical attribute.");
 				} else {
-					setAttributeWithoutCheck(sess, member, attribute);
+					attributesToStore.add(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, member, attributesToStore);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, member, attributesToSet);
@@ -1143,12 +1125,14 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, facility, user, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-				setAttributeWithoutCheck(sess, facility, user, attribute);
+				attributesToStore.add(attribute);
 			}
 		}
+		setAttributesWithoutCheck(sess, facility, user, attributesToStore);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, facility, user, attributesToSet);
@@ -1172,16 +1156,18 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, user, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 				if (isVirtAttribute(sess, attribute)) {
 					throw new InternalErrorException("Virtual attribute can't be set this way yet. Please set physical attribute.");
 				} else {
-					setAttributeWithoutCheck(sess, user, attribute);
+					attributesToStore.add(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, user, attributesToStore);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, user, attributesToSet);
@@ -1205,15 +1191,17 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, host, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 				if (isVirtAttribute(sess, attribute)) {
 					throw new InternalErrorException("Virtual attribute can't be set this way yet. Please set physical attribute.");
 				} else {
-					setAttributeWithoutCheck(sess, host, attribute);
+					attributesToStore.add(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, host, attributesToStore);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, host, attributesToSet);
@@ -1237,11 +1225,13 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, resource, group, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
-				setAttributeWithoutCheck(sess, resource, group, attribute);
+				attributesToStore.add(attribute);
 			}
 		}
+		setAttributesWithoutCheck(sess, resource, group, attributesToStore);
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, resource, group, attributesToSet);
 		checkAttributesDependencies(sess, resource, group, attributesToSet);
@@ -1267,19 +1257,23 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		if (!workWithGroupAttributes) {
 			setAttributes(sess, resource, group, attributes);
 		} else {
+			List<Attribute> groupResourceAttributesToStore = new ArrayList<>();
+			List<Attribute> groupAttributesToStore = new ArrayList<>();
 			for (Attribute attribute : attributesToSet) {
 				//skip core attributes
 				if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 
 					if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_GROUP_RESOURCE_ATTR)) {
-						setAttributeWithoutCheck(sess, resource, group, attribute);
+						groupResourceAttributesToStore.add(attribute);
 					} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_GROUP_ATTR)) {
-						setAttributeWithoutCheck(sess, group, attribute);
+						groupAttributesToStore.add(attribute);
 					} else {
 						throw new WrongAttributeAssignmentException(attribute);
 					}
 				}
 			}
+			setAttributesWithoutCheck(sess, resource, group, groupResourceAttributesToStore);
+			setAttributesWithoutCheck(sess, group, groupAttributesToStore);
 			//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 			checkAttributesSemantics(sess, resource, group, attributesToSet, true);
 			checkAttributesDependencies(sess, group, resource, attributesToSet, true);
@@ -1303,16 +1297,18 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		//if checkAttributesSyntax fails it causes rollback so no attribute will be stored
 		checkAttributesSyntax(sess, ues, attributesToSet);
 		//fist we have to store attributes into DB because checkAttributesSemantics can be preformed only on stored attributes.
+		List<Attribute> attributesToStore = new ArrayList<>();
 		for (Attribute attribute : attributesToSet) {
 			//skip core attributes
 			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
 				if (isVirtAttribute(sess, attribute)) {
 					throw new InternalErrorException("Virtual attribute can't be set this way yet. Please set physical attribute.");
 				} else {
-					setAttributeWithoutCheck(sess, ues, attribute);
+					attributesToStore.add(attribute);
 				}
 			}
 		}
+		setAttributesWithoutCheck(sess, ues, attributesToStore);
 
 		//if checkAttributesSemantics fails it causes rollback so no attribute will be stored
 		checkAttributesSemantics(sess, ues, attributesToSet);
@@ -1448,6 +1444,16 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		return getAttributesManagerImpl().getAttribute(sess, user, attributeName);
 	}
 
+	@Override
+	public Map<User, Attribute> getAttributeForUsers(PerunSession sess, List<User> users, String attributeName) throws WrongAttributeAssignmentException, AttributeNotExistsException {
+		AttributeDefinition attributeDefinition = getAttributeDefinition(sess, attributeName);
+		Map<User, Attribute> attributes = new HashMap<>();
+		for (RichAttribute richAttribute : getUserAttributes(sess, users, attributeDefinition)) {
+			attributes.put((User) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
+		}
+		return attributes;
+	}
+
 	@Override
 	public Attribute getAttributeForUpdate(PerunSession sess, User user, String attributeName) throws WrongAttributeAssignmentException, AttributeNotExistsException {
 		//check namespace
@@ -2384,6 +2390,270 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		return changed;
 	}
 
+	/**
+	 * Stores the attributes of the facility at once. Virtual attributes are set one by one, the physical ones are written
+	 * by one batch and AttributeSet events are logged only for the attributes whose values really changed.
+	 * Core attributes must be filtered out by the caller.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Facility facility, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, facility, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, facility, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForFacility(attribute, facility));
+			getAttributesManagerImpl().changedAttributeHook(sess, facility, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the vo, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Vo vo, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, vo, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, vo, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForVo(attribute, vo));
+			getAttributesManagerImpl().changedAttributeHook(sess, vo, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the group, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Group group, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, group, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, group, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForGroup(attribute, group));
+			getAttributesManagerImpl().changedAttributeHook(sess, group, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the resource, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Resource resource, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, resource, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, resource, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForResource(attribute, resource));
+			getAttributesManagerImpl().changedAttributeHook(sess, resource, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the member, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Member member, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, member, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, member, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForMember(attribute, member));
+			getAttributesManagerImpl().changedAttributeHook(sess, member, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the user, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, User user, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, user, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, user, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForUser(attribute, user));
+			getAttributesManagerImpl().changedAttributeHook(sess, user, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the host, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Host host, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, host, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, host, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForHost(attribute, host));
+			getAttributesManagerImpl().changedAttributeHook(sess, host, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the user ext source, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, UserExtSource ues, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, ues, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, ues, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForUes(attribute, ues));
+			getAttributesManagerImpl().changedAttributeHook(sess, ues, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the facility and user, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Facility facility, User user, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, facility, user, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, facility, user, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForFacilityAndUser(attribute, facility, user));
+			getAttributesManagerImpl().changedAttributeHook(sess, facility, user, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the member and resource, see setAttributesWithoutCheck for the facility.
+	 * Only member-resource attributes are allowed.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Member member, Resource resource, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException, MemberResourceMismatchException {
+		if (attributes.isEmpty()) {
+			return;
+		}
+		this.checkMemberIsFromTheSameVoLikeResource(sess, member, resource);
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, member, resource, attribute, false);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, resource, member, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForResourceAndMember(attribute, resource, member));
+			getAttributesManagerImpl().changedAttributeHook(sess, member, resource, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the member and group, see setAttributesWithoutCheck for the facility.
+	 * Only member-group attributes are allowed.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Member member, Group group, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException, MemberGroupMismatchException {
+		if (attributes.isEmpty()) {
+			return;
+		}
+		this.checkMemberIsFromTheSameVoLikeGroup(sess, member, group);
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, member, group, attribute, false);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, member, group, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForMemberAndGroup(attribute, member, group));
+			getAttributesManagerImpl().changedAttributeHook(sess, member, group, attribute);
+		}
+	}
+
+	/**
+	 * Batch variant of setAttributeWithoutCheck for the resource and group, see setAttributesWithoutCheck for the facility.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Resource resource, Group group, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException, GroupResourceMismatchException {
+		if (attributes.isEmpty()) {
+			return;
+		}
+		this.checkGroupIsFromTheSameVoLikeResource(sess, group, resource);
+		List<Attribute> physicalAttributes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			if (isVirtAttribute(sess, attribute)) {
+				setAttributeWithoutCheck(sess, resource, group, attribute);
+			} else {
+				physicalAttributes.add(attribute);
+			}
+		}
+		for (Attribute attribute : getAttributesManagerImpl().setAttributes(sess, resource, group, physicalAttributes)) {
+			getPerunBl().getAuditer().log(sess, new AttributeSetForGroupAndResource(attribute, group, resource));
+			getAttributesManagerImpl().changedAttributeHook(sess, resource, group, attribute);
+		}
+	}
+
+	/**
+	 * Stores member-resource, user-facility, user and member attributes, each kind at once by the batch variants
+	 * of setAttributeWithoutCheck. Core attributes are skipped.
+	 */
+	private void setAttributesWithoutCheck(PerunSession sess, Facility facility, Resource resource, User user, Member member, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException, WrongReferenceAttributeValueException, MemberResourceMismatchException {
+		List<Attribute> memberResourceAttributesToStore = new ArrayList<>();
+		List<Attribute> userFacilityAttributesToStore = new ArrayList<>();
+		List<Attribute> userAttributesToStore = new ArrayList<>();
+		List<Attribute> memberAttributesToStore = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			//skip core attributes
+			if (!getAttributesManagerImpl().isCoreAttribute(sess, attribute)) {
+
+				if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_RESOURCE_ATTR)) {
+					memberResourceAttributesToStore.add(attribute);
+				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR)) {
+					userFacilityAttributesToStore.add(attribute);
+				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_USER_ATTR)) {
+					userAttributesToStore.add(attribute);
+				} else if (getAttributesManagerImpl().isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR)) {
+					memberAttributesToStore.add(attribute);
+				} else {
+					throw new WrongAttributeAssignmentException(attribute);
+				}
+			}
+		}
+		setAttributesWithoutCheck(sess, member, resource, memberResourceAttributesToStore);
+		setAttributesWithoutCheck(sess, facility, user, userFacilityAttributesToStore);
+		setAttributesWithoutCheck(sess, user, userAttributesToStore);
+		setAttributesWithoutCheck(sess, member, memberAttributesToStore);
+	}
+
 	@Override
 	public boolean setAttributeWithoutCheck(PerunSession sess, String key, Attribute attribute) throws WrongAttributeAssignmentException, WrongAttributeValueException {
 		getAttributesManagerImpl().checkNamespace(sess, attribute, AttributesManager.NS_ENTITYLESS_ATTR);
@@ -3194,6 +3464,17 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		return getAttributesManagerImpl().getRequiredAttributesForGroups(sess, service, groups);
 	}
 
+	@Override
+	public Map<Group, List<Attribute>> getRequiredAttributesForGroups(PerunSession sess, Service service, Resource resource, List<Group> groups) throws GroupResourceMismatchException {
+		for (Group group : groups) {
+			checkGroupIsFromTheSameVoLikeResource(sess, group, resource);
+		}
+		if (groups.isEmpty()) {
+			return new HashMap<>();
+		}
+		return getAttributesManagerImpl().getRequiredAttributesForGroups(sess, service, resource, groups);
+	}
+
 	@Override
 	public List<Attribute> getRequiredAttributes(PerunSession sess, Service service, User user) {
 		return getAttributesManagerImpl().getRequiredAttributes(sess, service, user);
@@ -6040,204 +6321,247 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 				throw new InternalErrorException("RichAttribute or Attribute in it can't be null!");
 		}
 
-		// this is a unique set of all attributes with values and holders we will check at once
-		Set<RichAttribute> richAttributesToCheck = new HashSet<>();
-
-		// now actually get all those dependant attributes with values and holders
+		// plan which dependant attributes to load, they depend only on the holders of the changed attributes,
+		// so they are loaded once for each dependency and holders, even if more changed attributes lead to them
+		Map<AttributeDefinition, Map<Pair<Object, Object>, RichAttribute>> dependenciesToLoad = new LinkedHashMap<>();
+		Map<AttributeDefinition, Boolean> skippedDependencies = new HashMap<>();
 		for (RichAttribute richAttr : richAttrs) {
-
 			Set<AttributeDefinition> dependencies = getAllDependencies().get(new AttributeDefinition(richAttr.getAttribute()));
-			if (dependencies != null && !dependencies.isEmpty()) {
-				for (AttributeDefinition dependency : dependencies) {
-					if (attributesManagerImpl.isVirtAttribute(sess, dependency)) {
-						AttributesModuleImplApi module = (AttributesModuleImplApi) attributesManagerImpl.getAttributesModule(sess, dependency);
-						if (module.getClass().isAnnotationPresent(SkipValueCheckDuringDependencyCheck.class)) {
-							continue;
-						}
-					}
-					try {
-						richAttributesToCheck.addAll(getRichAttributesWithHoldersForAttributeDefinition(sess, dependency, richAttr));
-					} catch (AttributeNotExistsException | VoNotExistsException | UserNotExistsException | GroupResourceMismatchException | MemberResourceMismatchException | MemberGroupMismatchException ex) {
-						throw new InternalErrorException(ex);
-					}
+			if (dependencies == null) continue;
+			for (AttributeDefinition dependency : dependencies) {
+				if (skippedDependencies.computeIfAbsent(dependency, attrDef -> isSkippedDuringDependencyCheck(sess, attrDef))) {
+					continue;
 				}
+				dependenciesToLoad.computeIfAbsent(dependency, attrDef -> new LinkedHashMap<>())
+					.putIfAbsent(new Pair<>(richAttr.getPrimaryHolder(), richAttr.getSecondaryHolder()), richAttr);
 			}
+		}
+
+		// this is a unique set of all attributes with values and holders we will check at once, grouped by their definitions
+		Map<AttributeDefinition, Set<RichAttribute>> richAttributesToCheck = new LinkedHashMap<>();
 
+		// now actually get all those dependant attributes with values and holders
+		for (Map.Entry<AttributeDefinition, Map<Pair<Object, Object>, RichAttribute>> dependencyToLoad : dependenciesToLoad.entrySet()) {
+			AttributeDefinition dependency = dependencyToLoad.getKey();
+			for (RichAttribute aidingAttr : dependencyToLoad.getValue().values()) {
+				long startTime = System.nanoTime();
+				List<RichAttribute> dependantAttributes;
+				try {
+					dependantAttributes = getRichAttributesWithHoldersForAttributeDefinition(sess, dependency, aidingAttr);
+				} catch (AttributeNotExistsException | VoNotExistsException | UserNotExistsException | GroupResourceMismatchException | MemberResourceMismatchException | MemberGroupMismatchException ex) {
+					throw new InternalErrorException(ex);
+				}
+				for (RichAttribute dependantAttribute : dependantAttributes) {
+					richAttributesToCheck.computeIfAbsent(dependency, attrDef -> new LinkedHashSet<>()).add(dependantAttribute);
+				}
+				log.debug("Dependency {} of {} loaded {} attributes for {} and {} in {} ms.", dependency.getName(), aidingAttr.getAttribute().getName(),
+					dependantAttributes.size(), aidingAttr.getPrimaryHolder(), aidingAttr.getSecondaryHolder(), (System.nanoTime() - startTime) / 1000000);
+			}
 		}
 
-		// now check those dependant attributes only once
-		for (RichAttribute richAttribute : richAttributesToCheck) {
-			if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_VO_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Vo) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for VO Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (Vo) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+		// now check those dependant attributes only once, attributes of the same definition together
+		for (Map.Entry<AttributeDefinition, Set<RichAttribute>> attributesToCheck : richAttributesToCheck.entrySet()) {
+			long startTime = System.nanoTime();
+			for (RichAttribute richAttribute : attributesToCheck.getValue()) {
+				checkDependantAttributeSemantics(sess, richAttribute);
+			}
+			log.debug("Dependency {} checked for {} holders in {} ms.", attributesToCheck.getKey().getName(),
+				attributesToCheck.getValue().size(), (System.nanoTime() - startTime) / 1000000);
+		}
+
+	}
+
+	/**
+	 * Returns true, if the dependant attribute is virtual and its module skips the value check during dependency check.
+	 *
+	 * @param sess    perun session
+	 * @param attrDef definition of the dependant attribute
+	 * @return true, if the attribute is not checked during dependency check
+	 */
+	private boolean isSkippedDuringDependencyCheck(PerunSession sess, AttributeDefinition attrDef) {
+		if (!attributesManagerImpl.isVirtAttribute(sess, attrDef)) {
+			return false;
+		}
+		AttributesModuleImplApi module = (AttributesModuleImplApi) attributesManagerImpl.getAttributesModule(sess, attrDef);
+		return module.getClass().isAnnotationPresent(SkipValueCheckDuringDependencyCheck.class);
+	}
+
+	/**
+	 * Checks semantics of the dependant attribute by the namespace of the attribute and the types of its holders.
+	 *
+	 * @param sess          perun session
+	 * @param richAttribute dependant attribute with its holders
+	 */
+	private void checkDependantAttributeSemantics(PerunSession sess, RichAttribute richAttribute) throws WrongAttributeAssignmentException, WrongReferenceAttributeValueException {
+		if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_VO_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Vo) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for VO Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For VO Attribute there must be VO in primaryHolder");
+					checkAttributeSemantics(sess, (Vo) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_GROUP_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Group) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for Group Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (Group) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For VO Attribute there must be VO in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_GROUP_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Group) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for Group Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For Group Attribute there must be Group in primaryHolder");
+					checkAttributeSemantics(sess, (Group) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_MEMBER_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Member) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for Member Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (Member) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For Group Attribute there must be Group in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_MEMBER_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Member) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for Member Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For Member Attribute there must be Member in primaryHolder");
+					checkAttributeSemantics(sess, (Member) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_USER_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof User) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for User Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (User) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For Member Attribute there must be Member in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_USER_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof User) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for User Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For User Attribute there must be User in primaryHolder");
+					checkAttributeSemantics(sess, (User) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_RESOURCE_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Resource) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for Resource Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (Resource) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For User Attribute there must be User in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_RESOURCE_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Resource) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for Resource Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For Resource Attribute there must be Resource in primaryHolder");
+					checkAttributeSemantics(sess, (Resource) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_FACILITY_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Facility) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for Facility Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (Facility) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For Resource Attribute there must be Resource in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_FACILITY_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Facility) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for Facility Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For Facility Attribute there must be Facility in primaryHolder");
+					checkAttributeSemantics(sess, (Facility) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), AttributesManager.NS_ENTITYLESS_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof String) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for Entityless Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (String) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For Facility Attribute there must be Facility in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), AttributesManager.NS_ENTITYLESS_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof String) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for Entityless Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For Entityless Attribute there must be String in primaryHolder");
+					checkAttributeSemantics(sess, (String) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), AttributesManager.NS_HOST_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Host) {
-					if (richAttribute.getSecondaryHolder() != null) {
-						throw new InternalErrorException("Secondary Holder for Host Attribute must be null!");
-					} else {
-						checkAttributeSemantics(sess, (Host) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					}
+			} else {
+				throw new InternalErrorException("For Entityless Attribute there must be String in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), AttributesManager.NS_HOST_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Host) {
+				if (richAttribute.getSecondaryHolder() != null) {
+					throw new InternalErrorException("Secondary Holder for Host Attribute must be null!");
 				} else {
-					throw new InternalErrorException("For Host Attribute there must be Host in primaryHolder");
+					checkAttributeSemantics(sess, (Host) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_GROUP_RESOURCE_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Resource) {
-					if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Group) {
-						try {
-							checkAttributeSemantics(sess, (Resource) richAttribute.getPrimaryHolder(), (Group) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
-						} catch (GroupResourceMismatchException ex) {
-							throw new ConsistencyErrorException(ex);
-						}
-					} else {
-						throw new InternalErrorException("Secondary Holder for Group_Resource Attribute is null or its not group or resource");
-					}
-				} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Resource) {
-					if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Group) {
-						try {
-							checkAttributeSemantics(sess, (Resource) richAttribute.getSecondaryHolder(), (Group) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-						} catch (GroupResourceMismatchException ex) {
-							throw new ConsistencyErrorException(ex);
-						}
-					} else {
-						throw new InternalErrorException("Secondary Holder for Group_Resource Attribute is null or its not group or resource");
+			} else {
+				throw new InternalErrorException("For Host Attribute there must be Host in primaryHolder");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_GROUP_RESOURCE_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Resource) {
+				if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Group) {
+					try {
+						checkAttributeSemantics(sess, (Resource) richAttribute.getPrimaryHolder(), (Group) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
+					} catch (GroupResourceMismatchException ex) {
+						throw new ConsistencyErrorException(ex);
 					}
 				} else {
-					throw new InternalErrorException("For Group_Resource Attribute there must be Group or Resource in primaryHolder.");
+					throw new InternalErrorException("Secondary Holder for Group_Resource Attribute is null or its not group or resource");
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_MEMBER_RESOURCE_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Resource) {
-					if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Member) {
-						try {
-							checkAttributeSemantics(sess, (Member) richAttribute.getSecondaryHolder(), (Resource) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-						} catch (MemberResourceMismatchException ex) {
-							throw new ConsistencyErrorException(ex);
-						}
-					} else {
-						throw new InternalErrorException("Secondary Holder for Member_Resource Attribute is null or its not member or resource");
-					}
-				} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Resource) {
-					if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Member) {
-						try {
-							checkAttributeSemantics(sess, (Member) richAttribute.getPrimaryHolder(), (Resource) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
-						} catch (MemberResourceMismatchException ex) {
-							throw new ConsistencyErrorException(ex);
-						}
-					} else {
-						throw new InternalErrorException("Secondary Holder for Member_Resource Attribute is null or its not member or resource");
+			} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Resource) {
+				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Group) {
+					try {
+						checkAttributeSemantics(sess, (Resource) richAttribute.getSecondaryHolder(), (Group) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
+					} catch (GroupResourceMismatchException ex) {
+						throw new ConsistencyErrorException(ex);
 					}
 				} else {
-					throw new InternalErrorException("For Member_Resource Attribute there must be Member or Resource in primaryHolder.");
+					throw new InternalErrorException("Secondary Holder for Group_Resource Attribute is null or its not group or resource");
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_MEMBER_GROUP_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Group) {
-					if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Member) {
-						try {
-							checkAttributeSemantics(sess, (Member) richAttribute.getSecondaryHolder(), (Group) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-						} catch (MemberGroupMismatchException ex) {
-							throw new ConsistencyErrorException(ex);
-						}
-					} else {
-						throw new InternalErrorException("Secondary Holder for Member_Group Attribute is null or its not member or group");
+			} else {
+				throw new InternalErrorException("For Group_Resource Attribute there must be Group or Resource in primaryHolder.");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_MEMBER_RESOURCE_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Resource) {
+				if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Member) {
+					try {
+						checkAttributeSemantics(sess, (Member) richAttribute.getSecondaryHolder(), (Resource) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
+					} catch (MemberResourceMismatchException ex) {
+						throw new ConsistencyErrorException(ex);
 					}
-				} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Group) {
-					if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Member) {
-						try {
-							checkAttributeSemantics(sess, (Member) richAttribute.getPrimaryHolder(), (Group) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
-						} catch (MemberGroupMismatchException ex) {
-							throw new ConsistencyErrorException(ex);
-						}
-					} else {
-						throw new InternalErrorException("Secondary Holder for Member_Group Attribute is null or its not member or group");
+				} else {
+					throw new InternalErrorException("Secondary Holder for Member_Resource Attribute is null or its not member or resource");
+				}
+			} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Resource) {
+				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Member) {
+					try {
+						checkAttributeSemantics(sess, (Member) richAttribute.getPrimaryHolder(), (Resource) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
+					} catch (MemberResourceMismatchException ex) {
+						throw new ConsistencyErrorException(ex);
 					}
 				} else {
-					throw new InternalErrorException("For Member_Group Attribute there must be Member or Group in primaryHolder.");
+					throw new InternalErrorException("Secondary Holder for Member_Resource Attribute is null or its not member or resource");
 				}
-			} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_USER_FACILITY_ATTR)) {
-				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Facility) {
-					if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof User) {
-						checkAttributeSemantics(sess, (Facility) richAttribute.getPrimaryHolder(), (User) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
-					} else {
-						throw new InternalErrorException("Secondary Holder for Facility_User Attribute is null or its not facility or user");
+			} else {
+				throw new InternalErrorException("For Member_Resource Attribute there must be Member or Resource in primaryHolder.");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_MEMBER_GROUP_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Group) {
+				if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Member) {
+					try {
+						checkAttributeSemantics(sess, (Member) richAttribute.getSecondaryHolder(), (Group) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
+					} catch (MemberGroupMismatchException ex) {
+						throw new ConsistencyErrorException(ex);
 					}
-				} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Facility) {
-					if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof User) {
-						checkAttributeSemantics(sess, (Facility) richAttribute.getSecondaryHolder(), (User) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
-					} else {
-						throw new InternalErrorException("Secondary Holder for Facility_User Attribute is null or its not facility or user");
+				} else {
+					throw new InternalErrorException("Secondary Holder for Member_Group Attribute is null or its not member or group");
+				}
+			} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Group) {
+				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Member) {
+					try {
+						checkAttributeSemantics(sess, (Member) richAttribute.getPrimaryHolder(), (Group) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
+					} catch (MemberGroupMismatchException ex) {
+						throw new ConsistencyErrorException(ex);
 					}
 				} else {
-					throw new InternalErrorException("For Facility_User Attribute there must be Facility or User in primaryHolder.");
+					throw new InternalErrorException("Secondary Holder for Member_Group Attribute is null or its not member or group");
+				}
+			} else {
+				throw new InternalErrorException("For Member_Group Attribute there must be Member or Group in primaryHolder.");
+			}
+		} else if (getAttributesManagerImpl().isFromNamespace(richAttribute.getAttribute(), NS_USER_FACILITY_ATTR)) {
+			if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof Facility) {
+				if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof User) {
+					checkAttributeSemantics(sess, (Facility) richAttribute.getPrimaryHolder(), (User) richAttribute.getSecondaryHolder(), richAttribute.getAttribute());
+				} else {
+					throw new InternalErrorException("Secondary Holder for Facility_User Attribute is null or its not facility or user");
 				}
+			} else if (richAttribute.getSecondaryHolder() != null && richAttribute.getSecondaryHolder() instanceof Facility) {
+				if (richAttribute.getPrimaryHolder() != null && richAttribute.getPrimaryHolder() instanceof User) {
+					checkAttributeSemantics(sess, (Facility) richAttribute.getSecondaryHolder(), (User) richAttribute.getPrimaryHolder(), richAttribute.getAttribute());
+				} else {
+					throw new InternalErrorException("Secondary Holder for Facility_User Attribute is null or its not facility or user");
+				}
+			} else {
+				throw new InternalErrorException("For Facility_User Attribute there must be Facility or User in primaryHolder.");
 			}
 		}
-
 	}
 
 	@Override
@@ -9073,6 +9397,30 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		return listOfRichAttributes;
 	}
 
+	/**
+	 * Returns all relevant User RichAttributes for given users.
+	 * Values of the attribute are loaded for all users at once.
+	 * Each rich attribute is returned only once.
+	 *
+	 * @param sess    session
+	 * @param users   users
+	 * @param attrDef type of attribute that will be returned
+	 * @return List of RichAttributes
+	 */
+	private List<RichAttribute> getUserAttributes(PerunSession sess, List<User> users, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
+		if (!attrDef.getName().startsWith(AttributesManager.NS_USER_ATTR))
+			throw new WrongAttributeAssignmentException("Attribute name=" + attrDef.getName());
+
+		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
+		List<User> distinctUsers = new ArrayList<>(new LinkedHashSet<>(users));
+		if (distinctUsers.isEmpty()) return listOfRichAttributes;
+		Map<User, List<Attribute>> attributes = getAttributesManagerImpl().getAttributeForUsers(sess, distinctUsers, attrDef);
+		for (User userElement : distinctUsers) {
+			listOfRichAttributes.add(new RichAttribute<>(userElement, null, getLoadedAttribute(attributes, userElement, attrDef)));
+		}
+		return listOfRichAttributes;
+	}
+
 	/**
 	 * Returns all relevant User RichAttributes for given member.
 	 * Checks if given member is allowed. If so, gets its user and return its attribute.
@@ -9126,9 +9474,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getUserAttributes(PerunSession sess, Resource resource, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<User> usersFromResource = getPerunBl().getResourcesManagerBl().getAllowedUsers(sess, resource);
-		for (User userElement : usersFromResource) {
-			listOfRichAttributes.addAll(getUserAttributes(sess, userElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getUserAttributes(sess, usersFromResource, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9166,9 +9512,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getUserAttributes(PerunSession sess, Facility facility, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<User> usersFromFacility = getPerunBl().getFacilitiesManagerBl().getAllowedUsers(sess, facility);
-		for (User userElement : usersFromFacility) {
-			listOfRichAttributes.addAll(getUserAttributes(sess, userElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getUserAttributes(sess, usersFromFacility, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9240,9 +9584,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getUserAttributes(PerunSession sess, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<User> allUsers = getPerunBl().getUsersManagerBl().getUsers(sess);
-		for (User userElement : allUsers) {
-			listOfRichAttributes.addAll(getUserAttributes(sess, userElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getUserAttributes(sess, allUsers, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9262,9 +9604,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getMemberAttributes(PerunSession sess, User user, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<Member> membersFromUser = getPerunBl().getMembersManagerBl().getMembersByUser(sess, user);
-		for (Member memberElement : membersFromUser) {
-			listOfRichAttributes.addAll(getMemberAttributes(sess, memberElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getMemberAttributes(sess, membersFromUser, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9289,6 +9629,35 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		return listOfRichAttributes;
 	}
 
+	/**
+	 * Returns all relevant Member RichAttributes for given members.
+	 * Returns attributes only of those members that are allowed, values are loaded for all of them at once.
+	 * Each rich attribute is returned only once.
+	 *
+	 * @param sess    session
+	 * @param members members
+	 * @param attrDef type of attribute that will be returned
+	 * @return List of RichAttributes
+	 */
+	private List<RichAttribute> getMemberAttributes(PerunSession sess, List<Member> members, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
+		if (!attrDef.getName().startsWith(AttributesManager.NS_MEMBER_ATTR))
+			throw new WrongAttributeAssignmentException("Attribute name=" + attrDef.getName());
+
+		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
+		List<Member> allowedMembers = new ArrayList<>();
+		for (Member memberElement : new LinkedHashSet<>(members)) {
+			if (getPerunBl().getMembersManagerBl().isMemberAllowed(sess, memberElement)) {
+				allowedMembers.add(memberElement);
+			}
+		}
+		if (allowedMembers.isEmpty()) return listOfRichAttributes;
+		Map<Member, List<Attribute>> attributes = getAttributesManagerImpl().getAttributeForMembers(sess, allowedMembers, attrDef);
+		for (Member memberElement : allowedMembers) {
+			listOfRichAttributes.add(new RichAttribute<>(memberElement, null, getLoadedAttribute(attributes, memberElement, attrDef)));
+		}
+		return listOfRichAttributes;
+	}
+
 	/**
 	 * Returns all relevant Member RichAttributes for given group.
 	 * Finds all members for given group. For each member that is allowed returns its rich attribute.
@@ -9302,9 +9671,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getMemberAttributes(PerunSession sess, Group group, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<Member> membersFromGroup = getPerunBl().getGroupsManagerBl().getGroupMembers(sess, group);
-		for (Member memberElement : membersFromGroup) {
-			listOfRichAttributes.addAll(getMemberAttributes(sess, memberElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getMemberAttributes(sess, membersFromGroup, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9323,9 +9690,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getMemberAttributes(PerunSession sess, Resource resource, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<Member> membersFromResource = getPerunBl().getResourcesManagerBl().getAllowedMembers(sess, resource);
-		for (Member memberElement : membersFromResource) {
-			listOfRichAttributes.addAll(getMemberAttributes(sess, memberElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getMemberAttributes(sess, membersFromResource, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9343,9 +9708,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getMemberAttributes(PerunSession sess, Vo vo, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<Member> membersFromVo = getPerunBl().getMembersManagerBl().getMembers(sess, vo);
-		for (Member memberElement : membersFromVo) {
-			listOfRichAttributes.addAll(getMemberAttributes(sess, memberElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getMemberAttributes(sess, membersFromVo, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9363,9 +9726,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getMemberAttributes(PerunSession sess, Facility facility, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<Member> membersFromFacility = getPerunBl().getFacilitiesManagerBl().getAllowedMembers(sess, facility);
-		for (Member memberElement : membersFromFacility) {
-			listOfRichAttributes.addAll(getMemberAttributes(sess, memberElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getMemberAttributes(sess, membersFromFacility, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -9425,9 +9786,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		List<Member> membersFromFacility = getPerunBl().getFacilitiesManagerBl().getAllowedMembers(sess, facility);
 		membersFromUser.retainAll(membersFromFacility);
 		membersFromUser = new ArrayList<>(new HashSet<>(membersFromUser));
-		for (Member memberElement : membersFromUser) {
-			listOfRichAttributes.addAll(getMemberAttributes(sess, memberElement, attrDef));
-		}
+		listOfRichAttributes.addAll(getMemberAttributes(sess, membersFromUser, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -11374,12 +11733,8 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getMemberResourceAttributes(PerunSession sess, Resource resource, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException, MemberResourceMismatchException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<Member> members = getPerunBl().getResourcesManagerBl().getAllowedMembers(sess, resource);
-		for (Member memberElement : members) {
-			if (getPerunBl().getMembersManagerBl().isMemberAllowed(sess, memberElement)) {
-				Attribute attribute = getPerunBl().getAttributesManagerBl().getAttribute(sess, memberElement, resource, attrDef.getName());
-				listOfRichAttributes.add(new RichAttribute<>(resource, memberElement, attribute));
-			}
-		}
+		members.removeIf(memberElement -> !getPerunBl().getMembersManagerBl().isMemberAllowed(sess, memberElement));
+		listOfRichAttributes.addAll(getMemberResourceAttributes(sess, resource, members, attrDef));
 		return listOfRichAttributes;
 	}
 
@@ -11477,10 +11832,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		List<Member> membersFromResource = getPerunBl().getResourcesManagerBl().getAllowedMembers(sess, resource);
 		membersFromGroup.retainAll(membersFromResource);
 		membersFromGroup = new ArrayList<>(new HashSet<>(membersFromGroup));
-		for (Member memberElement : membersFromGroup) {
-			Attribute attribute = getPerunBl().getAttributesManagerBl().getAttribute(sess, memberElement, resource, attrDef.getName());
-			listOfRichAttributes.add(new RichAttribute<>(resource, memberElement, attribute));
-		}
+		listOfRichAttributes.addAll(getMemberResourceAttributes(sess, resource, membersFromGroup, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -11534,6 +11886,31 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		return listOfRichAttributes;
 	}
 
+	/**
+	 * Returns all relevant MemberResource RichAttributes for given resource and members.
+	 * Members are expected to be allowed and assigned to the resource, values are loaded for all of them at once.
+	 * Each rich attribute is returned only once.
+	 *
+	 * @param sess     session
+	 * @param resource resource
+	 * @param members  members
+	 * @param attrDef  type of attribute that will be returned
+	 * @return List of RichAttribute
+	 */
+	private List<RichAttribute> getMemberResourceAttributes(PerunSession sess, Resource resource, List<Member> members, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
+		if (!attrDef.getName().startsWith(AttributesManager.NS_MEMBER_RESOURCE_ATTR))
+			throw new WrongAttributeAssignmentException("Attribute name=" + attrDef.getName());
+
+		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
+		List<Member> distinctMembers = new ArrayList<>(new LinkedHashSet<>(members));
+		if (distinctMembers.isEmpty()) return listOfRichAttributes;
+		Map<Member, List<Attribute>> attributes = getAttributesManagerImpl().getAttributeForMembers(sess, resource, distinctMembers, attrDef);
+		for (Member memberElement : distinctMembers) {
+			listOfRichAttributes.add(new RichAttribute<>(resource, memberElement, getLoadedAttribute(attributes, memberElement, attrDef)));
+		}
+		return listOfRichAttributes;
+	}
+
 	/**
 	 * Returns all relevant MemberResource RichAttributes for given user and facility.
 	 * That means, returns all MemberResource rich attributes for the given user's members who are allowed and for
@@ -11707,10 +12084,7 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		Facility facility = getPerunBl().getResourcesManagerBl().getFacility(sess, resource);
 		List<User> usersFromResource = getPerunBl().getResourcesManagerBl().getAllowedUsers(sess, resource);
-		for (User userElement : usersFromResource) {
-			Attribute attribute = getPerunBl().getAttributesManagerBl().getAttribute(sess, facility, userElement, attrDef.getName());
-			listOfRichAttributes.add(new RichAttribute<>(facility, userElement, attribute));
-		}
+		listOfRichAttributes.addAll(getUserFacilityAttributes(sess, facility, usersFromResource, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
@@ -11766,14 +12140,53 @@ public class AttributesManagerBlImpl implements AttributesManagerBl {
 	private List<RichAttribute> getUserFacilityAttributes(PerunSession sess, Facility facility, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
 		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
 		List<User> users = getPerunBl().getFacilitiesManagerBl().getAllowedUsers(sess, facility);
-		for (User userElement : users) {
-			Attribute attribute = getPerunBl().getAttributesManagerBl().getAttribute(sess, facility, userElement, attrDef.getName());
-			listOfRichAttributes.add(new RichAttribute<>(facility, userElement, attribute));
-		}
+		listOfRichAttributes.addAll(getUserFacilityAttributes(sess, facility, users, attrDef));
 		listOfRichAttributes = new ArrayList<>(new HashSet<>(listOfRichAttributes));
 		return listOfRichAttributes;
 	}
 
+	/**
+	 * Returns all relevant UserFacility RichAttributes for given facility and users.
+	 * Values are loaded for all users at once.
+	 * Each rich attribute is returned only once.
+	 *
+	 * @param sess     session
+	 * @param facility facility
+	 * @param users    users
+	 * @param attrDef  type of attribute that will be returned
+	 * @return List of RichAttribute
+	 */
+	private List<RichAttribute> getUserFacilityAttributes(PerunSession sess, Facility facility, List<User> users, AttributeDefinition attrDef) throws AttributeNotExistsException, WrongAttributeAssignmentException {
+		if (!attrDef.getName().startsWith(AttributesManager.NS_USER_FACILITY_ATTR))
+			throw new WrongAttributeAssignmentException("Attribute name=" + attrDef.getName());
+
+		List<RichAttribute> listOfRichAttributes = new ArrayList<>();
+		List<User> distinctUsers = new ArrayList<>(new LinkedHashSet<>(users));
+		if (distinctUsers.isEmpty()) return listOfRichAttributes;
+		Map<User, List<Attribute>> attributes = getAttributesManagerImpl().getAttributeForUsers(sess, facility, distinctUsers, attrDef);
+		for (User userElement : distinctUsers) {
+			listOfRichAttributes.add(new RichAttribute<>(facility, userElement, getLoadedAttribute(attributes, userElement, attrDef)));
+		}
+		return listOfRichAttributes;
+	}
+
+	/**
+	 * Returns the attribute of the holder from attributes loaded for more holders at once.
+	 *
+	 * @param attributes loaded attributes by their holders
+	 * @param holder     holder of the attribute
+	 * @param attrDef    definition of the attribute
+	 * @return the attribute of the holder
+	 * @throws AttributeNotExistsException if the attribute was not loaded, because it doesn't exist
+	 */
+	private static <T> Attribute getLoadedAttribute(Map<T, List<Attribute>> attributes, T holder, AttributeDefinition attrDef) throws AttributeNotExistsException {
+		List<Attribute> holderAttributes = attributes.get(holder);
+		if (holderAttributes == null || holderAttributes.isEmpty()) {
+			throw new AttributeNotExistsException("Attribute name: \"" + attrDef.getName() + "\"");
+		}
+		return holderAttributes.get(0);
+	}
+
 	/**
 	 * Returns all relevant UserFacility RichAttributes for given host.
 	 * That means, returns all UserFacility rich attributes for the given host's facility and users that can access it.
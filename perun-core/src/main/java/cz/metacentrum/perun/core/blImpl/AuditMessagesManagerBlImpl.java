@@ -16,6 +16,7 @@ import org.reflections.Reflections;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * AuditMessagesManager manages audit messages (logs). Implementation of Business Logic.
@@ -107,6 +108,33 @@ public class AuditMessagesManagerBlImpl implements AuditMessagesManagerBl {
 		return getAuditMessagesManagerImpl().pollConsumerEvents(perunSession, consumerName, lastProcessedId);
 	}
 
+	@Override
+	public List<AuditEvent> pollConsumerEventsPage(PerunSession perunSession, String consumerName, int maxCount) {
+		return getAuditMessagesManagerImpl().pollConsumerEventsPage(perunSession, consumerName, maxCount);
+	}
+
+	@Override
+	public int processConsumerEvents(PerunSession perunSession, String consumerName, int pageSize, Consumer<List<AuditEvent>> handler) {
+		int processed = 0;
+		int pageCount;
+		do {
+			// call through the bean, so every page is processed in new transaction
+			pageCount = getPerunBl().getAuditMessagesManagerBl().processConsumerEventsPageInNewTransaction(perunSession, consumerName, pageSize, handler);
+			processed += pageCount;
+		} while (pageCount == pageSize);
+		return processed;
+	}
+
+	@Override
+	public int processConsumerEventsPageInNewTransaction(PerunSession perunSession, String consumerName, int pageSize, Consumer<List<AuditEvent>> handler) {
+		List<AuditEvent> events = getAuditMessagesManagerImpl().pollConsumerEventsPage(perunSession, consumerName, pageSize);
+		if (!events.isEmpty()) {
+			// exception thrown by the handler rolls back the moved last processed id
+			handler.accept(events);
+		}
+		return events.size();
+	}
+
 	@Override
 	public void createAuditerConsumer(PerunSession perunSession, String consumerName) {
 		getAuditMessagesManagerImpl().createAuditerConsumer(perunSession, consumerName);
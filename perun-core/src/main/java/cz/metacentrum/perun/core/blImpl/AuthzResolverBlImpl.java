@@ -48,10 +48,8 @@ import cz.metacentrum.perun.core.api.exceptions.ExpiredTokenException;
 import cz.metacentrum.perun.core.api.exceptions.FacilityNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.GroupNotAdminException;
 import cz.metacentrum.perun.core.api.exceptions.GroupNotExistsException;
-import cz.metacentrum.perun.core.api.exceptions.HostNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.core.api.exceptions.MFAuthenticationException;
-import cz.metacentrum.perun.core.api.exceptions.MemberNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.MfaInvalidRolesException;
 import cz.metacentrum.perun.core.api.exceptions.MfaPrivilegeException;
 import cz.metacentrum.perun.core.api.exceptions.MfaRolePrivilegeException;
@@ -63,7 +61,6 @@ import cz.metacentrum.perun.core.api.exceptions.RoleManagementRulesNotExistsExce
 import cz.metacentrum.perun.core.api.exceptions.RoleNotSetException;
 import cz.metacentrum.perun.core.api.exceptions.SecurityTeamNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.ServiceNotExistsException;
-import cz.metacentrum.perun.core.api.exceptions.UserExtSourceNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.UserNotAdminException;
 import cz.metacentrum.perun.core.api.exceptions.UserNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.VoNotExistsException;
@@ -75,6 +72,10 @@ import cz.metacentrum.perun.core.bl.UsersManagerBl;
 import cz.metacentrum.perun.core.bl.VosManagerBl;
 import cz.metacentrum.perun.core.impl.AuthzResolverImpl;
 import cz.metacentrum.perun.core.impl.AuthzRoles;
+import cz.metacentrum.perun.core.impl.AuthzRolesCache;
+import cz.metacentrum.perun.core.impl.MfaCriticalObjectsCache;
+import cz.metacentrum.perun.core.impl.PerunPolicyPlan;
+import cz.metacentrum.perun.core.impl.PerunPolicyPlan.RoleRule;
 import cz.metacentrum.perun.core.impl.Utils;
 import cz.metacentrum.perun.core.implApi.AuthzResolverImplApi;
 import cz.metacentrum.perun.oidc.UserInfoEndpointCall;
@@ -115,6 +116,8 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 	private final static Logger log = LoggerFactory.getLogger(AuthzResolverBlImpl.class);
 	private static AuthzResolverImplApi authzResolverImpl;
 	private static PerunBl perunBl;
+	private static AuthzRolesCache authzRolesCache;
+	private static MfaCriticalObjectsCache mfaCriticalObjectsCache;
 	private final static Set<String> extSourcesWithMultipleIdentifiers = BeansUtils.getCoreConfig().getExtSourcesMultipleIdentifiers();
 	private final static String groupObjectType = "Group";
 	private final static String userObjectType = "User";
@@ -142,23 +145,73 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 			return false;
 		}
 
-		List<PerunPolicy> allPolicies = AuthzResolverImpl.fetchPolicyWithAllIncludedPolicies(policyDefinition);
-
-		List<Map<String, String>> policyRoles = new ArrayList<>();
-		List<Map<String, String>> mfaRules = new ArrayList<>();
-		for (PerunPolicy policy : allPolicies) {
-			policyRoles.addAll(policy.getPerunRoles());
-			if (policy.getMfaRules() != null) mfaRules.addAll(policy.getMfaRules());
-		}
+		PerunPolicyPlan policyPlan = AuthzResolverImpl.getPolicyPlan(policyDefinition);
 
 		//Fetch super objects like Vo for group etc.
-		Map <String, Set<Integer>> mapOfBeans = fetchAllRelatedObjects(objects);
+		Map <String, Set<Integer>> mapOfBeans = fetchAllRelatedObjects(objects, policyPlan.getObjectTypes());
 
-		if (!mfaAuthorized(sess, mfaRules, mapOfBeans) && !updatePrincipalMfa(sess)) {
+		if (!mfaAuthorized(sess, policyPlan.getMfaRules(), mapOfBeans) && !updatePrincipalMfa(sess)) {
 			throw new MfaPrivilegeException("Multi-Factor authentication required");
 		}
 
-		return resolveAuthorization(sess, policyRoles, mapOfBeans);
+		return resolveAuthorization(sess, policyPlan, mapOfBeans);
+	}
+
+	/**
+	 * Filter the objects to those, on which the principal is authorized by the policy.
+	 * Result is the same as calling authorized() for each object (together with the other objects) separately,
+	 * but the policy is resolved only once and the principal's privileged objects are prepared in advance.
+	 *
+	 * @param sess perunSession which contains the principal.
+	 * @param policyDefinition is a definition of a policy which will define authorization rules.
+	 * @param objects list of PerunBeans to filter
+	 * @param otherObjects PerunBeans used in authorization of every object (e.g. Vo of the listed groups)
+	 * @return new list with objects, on which the principal has particular rights
+	 * @throws PolicyNotExistsException when the given policyDefinition does not exist in the PerunPoliciesContainer.
+	 * @throws MfaPrivilegeException when the principal isn't authenticated with MFA but the policy definition requires it
+	 */
+	public static <T extends PerunBean> List<T> authorizedFilter(PerunSession sess, String policyDefinition, List<T> objects, List<PerunBean> otherObjects) throws PolicyNotExistsException {
+		if (objects == null) throw new InternalErrorException("A list of PerunBeans, used in authorization evaluation, cannot be null.");
+
+		// We need to load additional information about the principal
+		if (!sess.getPerunPrincipal().isAuthzInitialized()) {
+			refreshAuthz(sess);
+		}
+
+		// If the user has no roles, deny access
+		if (sess.getPerunPrincipal().getRoles() == null) {
+			return new ArrayList<>();
+		}
+
+		PerunPolicyPlan policyPlan = AuthzResolverImpl.getPolicyPlan(policyDefinition);
+
+		List<Map<String, Set<Integer>>> privilegedObjects = fetchPrivilegedObjects(sess, policyPlan);
+		boolean checkMfa = !policyPlan.getMfaRules().isEmpty();
+		Map<String, Set<Integer>> criticalObjectIds = new HashMap<>();
+
+		List<T> authorizedObjects = new ArrayList<>();
+		List<PerunBean> evaluatedObjects = new ArrayList<>(otherObjects);
+		for (T object : objects) {
+			//Fetch super objects like Vo for group etc.
+			evaluatedObjects.add(object);
+			Map<String, Set<Integer>> mapOfBeans = fetchAllRelatedObjects(evaluatedObjects, policyPlan.getObjectTypes());
+			evaluatedObjects.remove(evaluatedObjects.size() - 1);
+
+			if (checkMfa && !mfaAuthorized(sess, policyPlan.getMfaRules(), mapOfBeans, criticalObjectIds)) {
+				if (!updatePrincipalMfa(sess)) {
+					throw new MfaPrivilegeException("Multi-Factor authentication required");
+				}
+				// roles of the principal were refreshed with MFA, which is enough for all other objects
+				privilegedObjects = fetchPrivilegedObjects(sess, policyPlan);
+				checkMfa = false;
+			}
+
+			if (resolveAuthorization(privilegedObjects, mapOfBeans)) {
+				authorizedObjects.add(object);
+			}
+		}
+
+		return authorizedObjects;
 	}
 
 	/**
@@ -179,9 +232,21 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 	 * @return true if MFA requirements are met, false otherwise
 	 */
 	private static boolean mfaAuthorized(PerunSession sess, List<Map<String, String>> mfaRules, Map<String, Set<Integer>> mapOfBeans) {
+		return mfaAuthorized(sess, mfaRules, mapOfBeans, new HashMap<>());
+	}
+
+	/**
+	 * Checks authorization according to MFA rules, see {@link #mfaAuthorized(PerunSession, List, Map)}.
+	 *
+	 * @param criticalObjectIds ids of critical objects by the object type, which were already loaded.
+	 *                    It's filled with ids loaded by this call, so it can be shared by checks of more objects.
+	 * @return true if MFA requirements are met, false otherwise
+	 */
+	private static boolean mfaAuthorized(PerunSession sess, List<Map<String, String>> mfaRules, Map<String, Set<Integer>> mapOfBeans,
+	                                     Map<String, Set<Integer>> criticalObjectIds) {
 		try {
 			return !BeansUtils.getCoreConfig().isEnforceMfa() || sess.getPerunPrincipal().getRoles().hasRole(Role.MFA)
-						|| hasMFASkippableRole(sess) || !requiresMfa(sess, mfaRules, mapOfBeans);
+						|| hasMFASkippableRole(sess) || !requiresMfa(sess, mfaRules, mapOfBeans, criticalObjectIds);
 		} catch (RoleManagementRulesNotExistsException e) {
 			throw new InternalErrorException("Error checking system roles", e);
 		}
@@ -189,13 +254,16 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 
 	/**
 	 * Returns true if at least one of the given MFA rules requires MFA on objects which are marked as critical.
+	 * Ids of critical objects are loaded at most once for each object type.
 	 *
 	 * @param sess
 	 * @param mfaRules
 	 * @param mapOfBeans
+	 * @param criticalObjectIds ids of critical objects by the object type, which were already loaded
 	 * @return
 	 */
-	private static boolean requiresMfa(PerunSession sess, List<Map<String, String>> mfaRules, Map<String, Set<Integer>> mapOfBeans) {
+	private static boolean requiresMfa(PerunSession sess, List<Map<String, String>> mfaRules, Map<String, Set<Integer>> mapOfBeans,
+	                                   Map<String, Set<Integer>> criticalObjectIds) {
 		for (Map<String, String> rule : mfaRules) {
 			// every rule should have exactly one map entry (with key 'MFA')
 			if (!rule.containsKey(Role.MFA)) continue;
@@ -204,7 +272,14 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 			if (isBlank(ruleObject)) return true;
 
 			Set<Integer> ids = mapOfBeans.get(ruleObject);
-			if (ids != null && ids.stream().anyMatch(id -> isCriticalObject(sess, ruleObject, id))) {
+			if (ids == null || ids.isEmpty()) continue;
+
+			Set<Integer> criticalIds = criticalObjectIds.get(ruleObject);
+			if (criticalIds == null) {
+				criticalIds = getMfaCriticalObjectIds(sess, ruleObject);
+				criticalObjectIds.put(ruleObject, criticalIds);
+			}
+			if (!Collections.disjoint(ids, criticalIds)) {
 				return true;
 			}
 		}
@@ -213,46 +288,33 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 	}
 
 	/**
-	 * Returns true if the object of given type with given ID is marked as critical.
+	 * Returns ids of all objects of the type, which are marked as critical.
+	 * Ids are taken from the MfaCriticalObjectsCache, if it is enabled.
 	 *
 	 * @param sess
 	 * @param objectType
-	 * @param id
 	 * @return
 	 */
-	private static boolean isCriticalObject(PerunSession sess, String objectType, Integer id) {
-		try {
-			if ("Group".equals(objectType)) {
-				Group group = perunBl.getGroupsManagerBl().getGroupById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(group));
-			} else if ("Vo".equals(objectType)) {
-				Vo vo = perunBl.getVosManagerBl().getVoById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(vo));
-			} else if ("User".equals(objectType)) {
-				User user = perunBl.getUsersManagerBl().getUserById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(user));
-			} else if ("Member".equals(objectType)) {
-				Member member = perunBl.getMembersManagerBl().getMemberById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(member));
-			} else if ("Resource".equals(objectType)) {
-				Resource resource = perunBl.getResourcesManagerBl().getResourceById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(resource));
-			} else if ("Facility".equals(objectType)) {
-				Facility facility = perunBl.getFacilitiesManagerBl().getFacilityById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(facility));
-			} else if ("Host".equals(objectType)) {
-				Host host = perunBl.getFacilitiesManagerBl().getHostById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(host));
-			} else if ("UserExtSource".equals(objectType)) {
-				UserExtSource ues = perunBl.getUsersManagerBl().getUserExtSourceById(sess, id);
-				return isAnyObjectMfaCritical(sess, List.of(ues));
-			} else {
-				throw new InternalErrorException("Object of type " + objectType + "could not be checked for MFA criticality.");
+	private static Set<Integer> getMfaCriticalObjectIds(PerunSession sess, String objectType) {
+		// attributes changed by the current transaction are not committed yet, so they are not reflected by the cache
+		// and ids computed from them must not be visible to other sessions
+		boolean cacheEnabled = mfaCriticalObjectsCache != null && mfaCriticalObjectsCache.isEnabled() &&
+				!getPerunBl().getAuditer().hasPendingMessages();
+		long readEpoch = 0;
+		if (cacheEnabled) {
+			Set<Integer> cachedIds = mfaCriticalObjectsCache.getCriticalObjectIds(objectType);
+			if (cachedIds != null) {
+				return cachedIds;
 			}
-		} catch (MemberNotExistsException | GroupNotExistsException | UserNotExistsException | VoNotExistsException | HostNotExistsException |
-			UserExtSourceNotExistsException | FacilityNotExistsException | ResourceNotExistsException e) {
-			throw new InternalErrorException(e);
+			readEpoch = mfaCriticalObjectsCache.getEpoch();
+		}
+
+		Set<Integer> ids = authzResolverImpl.getMfaCriticalObjectIds(sess, objectType);
+
+		if (cacheEnabled) {
+			mfaCriticalObjectsCache.putCriticalObjectIds(objectType, ids, readEpoch);
 		}
+		return ids;
 	}
 
 	/**
@@ -2511,68 +2573,103 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 	 * <p>
 	 * Fill in proper roles and their relative entities (vos, groups, ....).
 	 * User itself or ext source data is NOT updated.
+	 * <p>
+	 * Only refreshes of the same principal are serialized. Roles derived from the user are taken
+	 * from the AuthzRolesCache, if it is enabled.
 	 *
 	 * @param sess perun session to refresh authz for
 	 */
-	public static synchronized void refreshAuthz(PerunSession sess) {
+	public static void refreshAuthz(PerunSession sess) {
 		Utils.checkPerunSession(sess);
 		log.trace("Refreshing authz roles for session {}.", sess);
 
-		// Set empty set of roles
-		sess.getPerunPrincipal().setRoles(new AuthzRoles());
-		// Prepare service roles like engine, service, registrar, perunAdmin etc.
-		boolean serviceRole = prepareServiceRoles(sess);
-
-		// No need to search further for service principals included in 'dontlookupusers' configuration
-		if (!serviceRole || !BeansUtils.getCoreConfig().getDontLookupUsers().contains(sess.getPerunPrincipal().getActor())) {
-			User user = sess.getPerunPrincipal().getUser();
-			AuthzRoles roles = sess.getPerunPrincipal().getRoles();
-			if (user != null)  {
-				AuthzRoles userRoles = authzResolverImpl.getRoles(user, true);
-				// Add service roles, they don't have complementary objects
-				roles.getRolesNames().forEach(userRoles::putAuthzRole);
-				roles = userRoles;
-				// Load all user's roles with all possible subgroups
-				roles = addAllSubgroupsToAuthzRoles(sess, roles, Role.GROUPADMIN);
-				roles = addAllSubgroupsToAuthzRoles(sess, roles, Role.GROUPOBSERVER);
-				roles = addAllSubgroupsToAuthzRoles(sess, roles, Role.GROUPMEMBERSHIPMANAGER);
-				// Add self role for the user
-				roles.putAuthzRole(Role.SELF, user);
-				// Add service user role
-				if (user.isServiceUser()) {
-					roles.putAuthzRole(Role.SERVICEUSER);
+		synchronized (sess.getPerunPrincipal()) {
+			// Set empty set of roles
+			sess.getPerunPrincipal().setRoles(new AuthzRoles());
+			// Prepare service roles like engine, service, registrar, perunAdmin etc.
+			boolean serviceRole = prepareServiceRoles(sess);
+
+			// No need to search further for service principals included in 'dontlookupusers' configuration
+			if (!serviceRole || !BeansUtils.getCoreConfig().getDontLookupUsers().contains(sess.getPerunPrincipal().getActor())) {
+				User user = sess.getPerunPrincipal().getUser();
+				AuthzRoles roles = sess.getPerunPrincipal().getRoles();
+				if (user != null) {
+					AuthzRoles userRoles = getUserRoles(sess, user);
+					// Add service roles, they don't have complementary objects
+					roles.getRolesNames().forEach(userRoles::putAuthzRole);
+					roles = userRoles;
 				}
-				addMembershipRole(sess, roles, user);
-			}
 
-			setAdditionalRoles(sess, roles, user);
+				sess.getPerunPrincipal().setRoles(roles);
+			}
 
-			sess.getPerunPrincipal().setRoles(roles);
-		}
+			if (sess.getPerunClient().getType() == PerunClient.Type.OAUTH) {
+				//for OAuth clients, do not allow delegating roles not allowed by scopes
+				List<String> oauthScopes = sess.getPerunClient().getScopes();
+				log.trace("refreshAuthz({}) oauthScopes={}",sess.getLogId(),oauthScopes);
+				if(!oauthScopes.contains(PerunClient.PERUN_ADMIN_SCOPE)) {
+					log.debug("removing PERUNADMIN role from session of user {}",sess.getPerunPrincipal().getUserId());
+					log.trace("original roles: {}", sess.getPerunPrincipal().getRoles());
+					sess.getPerunPrincipal().getRoles().remove(Role.PERUNADMIN);
+				}
+				if(!oauthScopes.contains(PerunClient.PERUN_API_SCOPE)) {
+					log.debug("removing all roles from session {}",sess);
+					sess.getPerunPrincipal().getRoles().clear();
+				}
 
-		if (sess.getPerunClient().getType() == PerunClient.Type.OAUTH) {
-			//for OAuth clients, do not allow delegating roles not allowed by scopes
-			List<String> oauthScopes = sess.getPerunClient().getScopes();
-			log.trace("refreshAuthz({}) oauthScopes={}",sess.getLogId(),oauthScopes);
-			if(!oauthScopes.contains(PerunClient.PERUN_ADMIN_SCOPE)) {
-				log.debug("removing PERUNADMIN role from session of user {}",sess.getPerunPrincipal().getUserId());
-				log.trace("original roles: {}", sess.getPerunPrincipal().getRoles());
-				sess.getPerunPrincipal().getRoles().remove(Role.PERUNADMIN);
-			}
-			if(!oauthScopes.contains(PerunClient.PERUN_API_SCOPE)) {
-				log.debug("removing all roles from session {}",sess);
-				sess.getPerunPrincipal().getRoles().clear();
+				if (isAuthorizedByMfa(sess)) {
+					sess.getPerunPrincipal().getRoles().putAuthzRole(Role.MFA);
+				}
 			}
 
-			if (isAuthorizedByMfa(sess)) {
-				sess.getPerunPrincipal().getRoles().putAuthzRole(Role.MFA);
+			checkMfaForHavingRole(sess, sess.getPerunPrincipal().getRoles());
+
+			log.trace("Refreshed roles: {}", sess.getPerunPrincipal().getRoles());
+			sess.getPerunPrincipal().setAuthzInitialized(true);
+		}
+	}
+
+	/**
+	 * Returns all roles derived from the user - roles stored in DB with all subgroups of groups in group roles,
+	 * SELF, SERVICEUSER, MEMBERSHIP and additional roles. Roles are taken from the AuthzRolesCache, if it is enabled.
+	 * Returned roles can be modified by the caller.
+	 *
+	 * @param sess perun session
+	 * @param user user to get roles for
+	 * @return roles of the user
+	 */
+	private static AuthzRoles getUserRoles(PerunSession sess, User user) {
+		// changes made by the current transaction are not committed yet, so they are not reflected by the cache
+		// and roles computed from them must not be visible to other sessions
+		boolean cacheEnabled = authzRolesCache != null && authzRolesCache.isEnabled() &&
+				!getPerunBl().getAuditer().hasPendingMessages();
+		long readEpoch = 0;
+		if (cacheEnabled) {
+			AuthzRoles cachedRoles = authzRolesCache.getRoles(user.getId());
+			if (cachedRoles != null) {
+				return cachedRoles;
 			}
+			readEpoch = authzRolesCache.getEpoch();
 		}
 
-		checkMfaForHavingRole(sess, sess.getPerunPrincipal().getRoles());
+		AuthzRoles roles = authzResolverImpl.getRoles(user, true);
+		// Load all user's roles with all possible subgroups
+		roles = addAllSubgroupsToAuthzRoles(sess, roles, Role.GROUPADMIN);
+		roles = addAllSubgroupsToAuthzRoles(sess, roles, Role.GROUPOBSERVER);
+		roles = addAllSubgroupsToAuthzRoles(sess, roles, Role.GROUPMEMBERSHIPMANAGER);
+		// Add self role for the user
+		roles.putAuthzRole(Role.SELF, user);
+		// Add service user role
+		if (user.isServiceUser()) {
+			roles.putAuthzRole(Role.SERVICEUSER);
+		}
+		addMembershipRole(sess, roles, user);
+		setAdditionalRoles(sess, roles, user);
 
-		log.trace("Refreshed roles: {}", sess.getPerunPrincipal().getRoles());
-		sess.getPerunPrincipal().setAuthzInitialized(true);
+		if (cacheEnabled) {
+			authzRolesCache.putRoles(user.getId(), roles, readEpoch);
+		}
+		return roles;
 	}
 
 	/**
@@ -2602,21 +2699,23 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 	 *
 	 * @param sess Perun session to refresh data for
 	 */
-	public static synchronized void refreshSession(PerunSession sess) {
+	public static void refreshSession(PerunSession sess) {
 		Utils.checkPerunSession(sess);
 		log.trace("Refreshing session data for session {}.", sess);
 
 		PerunPrincipal principal = sess.getPerunPrincipal();
 
-		try {
-			User user = getPerunBl().getUsersManagerBl().getUserByExtSourceInformation(sess, principal);
-			sess.getPerunPrincipal().setUser(user);
-		} catch (Exception ex) {
-			// we don't care that user was not found - clear it from session
-			sess.getPerunPrincipal().setUser(null);
-		}
+		synchronized (principal) {
+			try {
+				User user = getPerunBl().getUsersManagerBl().getUserByExtSourceInformation(sess, principal);
+				sess.getPerunPrincipal().setUser(user);
+			} catch (Exception ex) {
+				// we don't care that user was not found - clear it from session
+				sess.getPerunPrincipal().setUser(null);
+			}
 
-		AuthzResolverBlImpl.refreshAuthz(sess);
+			AuthzResolverBlImpl.refreshAuthz(sess);
+		}
 
 	}
 
@@ -2829,6 +2928,18 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 		return perunBl;
 	}
 
+	//Filled by Spring
+	public static AuthzRolesCache setAuthzRolesCache(AuthzRolesCache authzRolesCache) {
+		AuthzResolverBlImpl.authzRolesCache = authzRolesCache;
+		return authzRolesCache;
+	}
+
+	//Filled by Spring
+	public static MfaCriticalObjectsCache setMfaCriticalObjectsCache(MfaCriticalObjectsCache mfaCriticalObjectsCache) {
+		AuthzResolverBlImpl.mfaCriticalObjectsCache = mfaCriticalObjectsCache;
+		return mfaCriticalObjectsCache;
+	}
+
 	/**
 	 * Get all Vos where the given user has set one of the given roles
 	 * or the given user is a member of an authorized group with such roles.
@@ -3063,6 +3174,119 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 		return false;
 	}
 
+	/**
+	 * Resolve access rights for the principal according to the compiled plan of the policy.
+	 * It's the same evaluation as for the role rules of the policy, but without lookups of the role
+	 * objects and conversion of the bean names for every checked object.
+	 *
+	 * @param sess perunSession which contains the principal.
+	 * @param policyPlan plan of the policy with its role rules
+	 * @param mapOfBeans is a map of objects against which will be authorization done.
+	 *                    Example map entry - key: Member ; values: (10,15,26)
+	 * @return true if the principal has particular rights, false otherwise.
+	 */
+	private static boolean resolveAuthorization(PerunSession sess, PerunPolicyPlan policyPlan, Map<String, Set<Integer>> mapOfBeans) {
+		AuthzRoles principalRoles = sess.getPerunPrincipal().getRoles();
+
+		//Traverse through outer role list which works like logical OR
+		for (List<RoleRule> roleRules : policyPlan.getRoleRules()) {
+			boolean authorized = true;
+			//Traverse through inner role list which works like logical AND
+			for (RoleRule roleRule : roleRules) {
+				if (roleRule.getObjectType() == null) {
+					authorized = principalRoles.hasRole(roleRule.getRole());
+				} else {
+					Set<Integer> objectIds = mapOfBeans.get(roleRule.getObjectType());
+					Set<Integer> privilegedIds = objectIds == null ? null : getPrivilegedIds(principalRoles, roleRule);
+					authorized = privilegedIds != null && privilegedIds.containsAll(objectIds);
+				}
+				if (!authorized) break;
+			}
+			if (authorized) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * For each inner role list of the policy, fetch ids of objects of each type, on which the principal has all
+	 * roles from the list connected with such type. Inner role lists with a role not connected to any object,
+	 * which the principal doesn't have, are left out since they can't authorize anything.
+	 *
+	 * @param sess perunSession which contains the principal.
+	 * @param policyPlan plan of the policy with its role rules
+	 * @return list of maps of object types to ids of objects, on which the principal has the rights.
+	 *                    Example map entry - key: Vo ; values: (1,2)
+	 */
+	private static List<Map<String, Set<Integer>>> fetchPrivilegedObjects(PerunSession sess, PerunPolicyPlan policyPlan) {
+		AuthzRoles principalRoles = sess.getPerunPrincipal().getRoles();
+		List<Map<String, Set<Integer>>> privilegedObjects = new ArrayList<>();
+
+		for (List<RoleRule> roleRules : policyPlan.getRoleRules()) {
+			Map<String, Set<Integer>> privilegedObjectsOfRoles = new HashMap<>();
+			boolean satisfiable = true;
+			for (RoleRule roleRule : roleRules) {
+				if (roleRule.getObjectType() == null) {
+					if (!principalRoles.hasRole(roleRule.getRole())) {
+						satisfiable = false;
+						break;
+					}
+					continue;
+				}
+
+				Set<Integer> ids = getPrivilegedIds(principalRoles, roleRule);
+				Set<Integer> privilegedIds = ids == null ? new HashSet<>() : new HashSet<>(ids);
+				// all roles connected with the same object type must be satisfied
+				privilegedObjectsOfRoles.merge(roleRule.getObjectType(), privilegedIds, (current, added) -> {
+					current.retainAll(added);
+					return current;
+				});
+			}
+			if (satisfiable) {
+				privilegedObjectsOfRoles.replaceAll((roleObject, ids) -> Collections.unmodifiableSet(ids));
+				privilegedObjects.add(privilegedObjectsOfRoles);
+			}
+		}
+
+		return privilegedObjects;
+	}
+
+	/**
+	 * Return ids of objects, on which the principal has the role of the rule.
+	 *
+	 * @param principalRoles roles of the principal
+	 * @param roleRule rule with role connected to an object type
+	 * @return ids of objects or null if the principal has no such object
+	 */
+	private static Set<Integer> getPrivilegedIds(AuthzRoles principalRoles, RoleRule roleRule) {
+		Map<String, Set<Integer>> complementaryObjects = principalRoles.get(roleRule.getRole());
+		return complementaryObjects == null ? null : complementaryObjects.get(roleRule.getRoleObjectType());
+	}
+
+	/**
+	 * Resolve access rights for the objects according to the privileged objects of the principal.
+	 *
+	 * @param privilegedObjects is a list of maps of object types to ids of objects, on which the principal has the rights.
+	 *                    Relation between each map in the list is logical OR and relation between each entry in the map is logical AND.
+	 * @param mapOfBeans is a map of objects against which will be authorization done.
+	 *                    Example map entry - key: Member ; values: (10,15,26)
+	 * @return true if the principal has particular rights, false otherwise.
+	 * @see #fetchPrivilegedObjects(PerunSession, List)
+	 */
+	private static boolean resolveAuthorization(List<Map<String, Set<Integer>>> privilegedObjects, Map<String, Set<Integer>> mapOfBeans) {
+		for (Map<String, Set<Integer>> privilegedObjectsOfRoles : privilegedObjects) {
+			boolean authorized = true;
+			for (Map.Entry<String, Set<Integer>> privilegedEntry : privilegedObjectsOfRoles.entrySet()) {
+				Set<Integer> objectIds = mapOfBeans.get(privilegedEntry.getKey());
+				if (objectIds == null || !privilegedEntry.getValue().containsAll(objectIds)) {
+					authorized = false;
+					break;
+				}
+			}
+			if (authorized) return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Fetch all possible PerunBeans for each of the objects from the list according to the id of the bean in the object.
 	 *
@@ -3070,21 +3294,32 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 	 * @return all related objects together with the objects from the input as a map of PerunBean names and ids.
 	 */
 	private static Map<String, Set<Integer>> fetchAllRelatedObjects(List<PerunBean> objects) {
+		return fetchAllRelatedObjects(objects, null);
+	}
+
+	/**
+	 * Fetch all possible PerunBeans for each of the objects from the list according to the id of the bean in the object.
+	 * Only objects of the given types are returned.
+	 *
+	 * @param objects for which will be related objects fetched.
+	 * @param objectTypes names of PerunBeans to return or null, if objects of all types should be returned
+	 * @return related objects of given types together with the objects from the input as a map of PerunBean names and ids.
+	 */
+	private static Map<String, Set<Integer>> fetchAllRelatedObjects(List<PerunBean> objects, Set<String> objectTypes) {
 		if (objects == null) throw new InternalErrorException("A list of PerunBeans, used in authorization evaluation, cannot be null.");
-		List<PerunBean> relatedObjects = new ArrayList<>();
 		//Create a map from objects for easier manipulation and duplicity prevention
 		Map<String, Set<Integer>> mapOfBeans = new HashMap<>();
 
 		for (PerunBean object: objects) {
 			if (object == null) throw new InternalErrorException("A list of PerunBeans, used in authorization evaluation, cannot contain a null value.");
 			List<PerunBean> retrievedObjects = RelatedObjectsResolver.getValue(object.getBeanName()).apply(object);
-			relatedObjects.addAll(retrievedObjects);
-		}
 
-		//Fill map with PerunBean names as keys and a set of unique ids as value for each bean name
-		for (PerunBean object : relatedObjects) {
-			if (!mapOfBeans.containsKey(object.getBeanName())) mapOfBeans.put(object.getBeanName(), new HashSet<>());
-			mapOfBeans.get(object.getBeanName()).add(object.getId());
+			//Fill map with PerunBean names as keys and a set of unique ids as value for each bean name
+			for (PerunBean relatedObject : retrievedObjects) {
+				String beanName = relatedObject.getBeanName();
+				if (objectTypes != null && !objectTypes.contains(beanName)) continue;
+				mapOfBeans.computeIfAbsent(beanName, name -> new HashSet<>()).add(relatedObject.getId());
+			}
 		}
 
 		return mapOfBeans;
@@ -3171,6 +3406,10 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 			return Collections.singletonList(object);
 		});
 
+		// resolved for every authorized object, so unknown names must not be resolved by an exception from valueOf()
+		private static final Map<String, RelatedObjectsResolver> valuesByName = Arrays.stream(values())
+			.collect(Collectors.toMap(Enum::name, Function.identity()));
+
 		private Function<PerunBean, List<PerunBean>> function;
 
 		RelatedObjectsResolver(final Function<PerunBean, List<PerunBean>> function) {
@@ -3184,11 +3423,7 @@ public class AuthzResolverBlImpl implements AuthzResolverBl {
 		 * @return RelatedObjectsResolver value.
 		 */
 		public static RelatedObjectsResolver getValue(String name) {
-			try {
-				return RelatedObjectsResolver.valueOf(name);
-			} catch (IllegalArgumentException ex) {
-				return RelatedObjectsResolver.Default;
-			}
+			return valuesByName.getOrDefault(name, RelatedObjectsResolver.Default);
 		}
 
 		@Override
@@ -68,6 +68,16 @@ public class DatabaseManagerBlImpl implements DatabaseManagerBl {
 		return this.databaseManagerImpl.propertyExists(property);
 	}
 
+	@Override
+	public String exportTransactionSnapshot() {
+		return this.databaseManagerImpl.exportTransactionSnapshot();
+	}
+
+	@Override
+	public void importTransactionSnapshot(String snapshotId) {
+		this.databaseManagerImpl.importTransactionSnapshot(snapshotId);
+	}
+
 	@Override
 	public JdbcPerunTemplate getJdbcPerunTemplate() {
 		return this.databaseManagerImpl.getJdbcPerunTemplate();
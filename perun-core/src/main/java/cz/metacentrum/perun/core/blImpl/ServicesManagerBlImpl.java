@@ -35,6 +35,8 @@ import cz.metacentrum.perun.core.api.ConsentHub;
 import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataDelta;
+import cz.metacentrum.perun.core.api.HashedGenDataWriter;
 import cz.metacentrum.perun.core.api.Host;
 import cz.metacentrum.perun.core.api.PerunSession;
 import cz.metacentrum.perun.core.api.Resource;
@@ -71,6 +73,9 @@ import cz.metacentrum.perun.core.bl.ServicesManagerBl;
 import cz.metacentrum.perun.core.impl.PerunSessionImpl;
 import cz.metacentrum.perun.core.impl.Utils;
 import cz.metacentrum.perun.core.implApi.ServicesManagerImplApi;
+import cz.metacentrum.perun.core.provisioning.GenAttributesCache;
+import cz.metacentrum.perun.core.provisioning.GenDataRevisions;
+import cz.metacentrum.perun.core.provisioning.GenWorkerPool;
 import cz.metacentrum.perun.core.provisioning.GroupsHashedDataGenerator;
 import cz.metacentrum.perun.core.provisioning.HashedDataGenerator;
 import cz.metacentrum.perun.core.provisioning.HierarchicalHashedDataGenerator;
@@ -92,6 +97,9 @@ public class ServicesManagerBlImpl implements ServicesManagerBl {
 
 	private final ServicesManagerImplApi servicesManagerImpl;
 	private PerunBl perunBl;
+	private GenAttributesCache genAttributesCache;
+	private GenWorkerPool genWorkerPool;
+	private GenDataRevisions genDataRevisions;
 
 	public ServicesManagerBlImpl(ServicesManagerImplApi servicesManagerImpl) {
 		this.servicesManagerImpl = servicesManagerImpl;
@@ -338,6 +346,20 @@ public class ServicesManagerBlImpl implements ServicesManagerBl {
 		return getServicesManagerImpl().getAssignedResources(sess, service);
 	}
 
+	@Override
+	public void bindGenAttributesCacheEpoch() {
+		if (genAttributesCache != null) {
+			genAttributesCache.bindEpoch();
+		}
+	}
+
+	/**
+	 * Returns epoch of the GEN attributes cache bound to the current transaction.
+	 */
+	private long getGenAttributesCacheEpoch() {
+		return genAttributesCache == null ? GenAttributesCache.NO_EPOCH : genAttributesCache.getBoundEpoch();
+	}
+
 	@Override
 	public HashedGenData getHashedHierarchicalData(PerunSession sess, Service service, Facility facility, boolean consentEval) {
 		HashedDataGenerator hashedDataGenerator = new HierarchicalHashedDataGenerator.Builder()
@@ -346,11 +368,27 @@ public class ServicesManagerBlImpl implements ServicesManagerBl {
 				.facility(facility)
 				.filterExpiredMembers(!service.isUseExpiredMembers())
 				.consentEval(consentEval)
+				.attributesCache(genAttributesCache, getGenAttributesCacheEpoch())
+				.workerPool(genWorkerPool)
 				.build();
 
 		return hashedDataGenerator.generateData();
 	}
 
+	@Override
+	public void writeHashedHierarchicalData(PerunSession sess, Service service, Facility facility, boolean consentEval, HashedGenDataWriter writer) {
+		HierarchicalHashedDataGenerator hashedDataGenerator = new HierarchicalHashedDataGenerator.Builder()
+				.sess((PerunSessionImpl) sess)
+				.service(service)
+				.facility(facility)
+				.filterExpiredMembers(!service.isUseExpiredMembers())
+				.consentEval(consentEval)
+				.attributesCache(genAttributesCache, getGenAttributesCacheEpoch())
+				.build();
+
+		hashedDataGenerator.generateData(writer);
+	}
+
 	@Override
 	public HashedGenData getHashedDataWithGroups(PerunSession sess, Service service, Facility facility, boolean consentEval) {
 		HashedDataGenerator hashedDataGenerator = new GroupsHashedDataGenerator.Builder()
@@ -359,11 +397,26 @@ public class ServicesManagerBlImpl implements ServicesManagerBl {
 				.facility(facility)
 				.filterExpiredMembers(!service.isUseExpiredMembers())
 				.consentEval(consentEval)
+				.attributesCache(genAttributesCache, getGenAttributesCacheEpoch())
 				.build();
 
 		return hashedDataGenerator.generateData();
 	}
 
+	@Override
+	public HashedGenDataDelta getHashedHierarchicalDataDelta(PerunSession sess, Service service, Facility facility, boolean consentEval, String revision) {
+		HashedGenData data = getHashedHierarchicalData(sess, service, facility, consentEval);
+
+		return genDataRevisions.getDelta(GenDataRevisions.DataKind.HIERARCHICAL, service.getId(), data, revision);
+	}
+
+	@Override
+	public HashedGenDataDelta getHashedDataWithGroupsDelta(PerunSession sess, Service service, Facility facility, boolean consentEval, String revision) {
+		HashedGenData data = getHashedDataWithGroups(sess, service, facility, consentEval);
+
+		return genDataRevisions.getDelta(GenDataRevisions.DataKind.WITH_GROUPS, service.getId(), data, revision);
+	}
+
 	@Override
 	public List<ServicesPackage> getServicesPackages(PerunSession sess) {
 		return getServicesManagerImpl().getServicesPackages(sess);
@@ -704,6 +757,18 @@ public class ServicesManagerBlImpl implements ServicesManagerBl {
 		this.perunBl = perunBl;
 	}
 
+	public void setGenAttributesCache(GenAttributesCache genAttributesCache) {
+		this.genAttributesCache = genAttributesCache;
+	}
+
+	public void setGenWorkerPool(GenWorkerPool genWorkerPool) {
+		this.genWorkerPool = genWorkerPool;
+	}
+
+	public void setGenDataRevisions(GenDataRevisions genDataRevisions) {
+		this.genDataRevisions = genDataRevisions;
+	}
+
 	@Override
 	public List<Destination> addDestinationsForAllServicesOnFacility(PerunSession sess, Facility facility, Destination destination)
 		throws DestinationAlreadyAssignedException {
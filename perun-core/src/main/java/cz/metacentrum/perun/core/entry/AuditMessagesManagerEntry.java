@@ -14,6 +14,7 @@ import cz.metacentrum.perun.core.bl.PerunBl;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * AuditMessagesManager manages audit messages (logs). Implementation of Entry Logic.
@@ -101,6 +102,28 @@ public class AuditMessagesManagerEntry implements AuditMessagesManager {
 		return getAuditMessagesManagerBl().pollConsumerEvents(perunSession, consumerName, lastProcessedId);
 	}
 
+	@Override
+	public List<AuditEvent> pollConsumerEventsPage(PerunSession perunSession, String consumerName, int maxCount) throws PrivilegeException {
+		if (maxCount<1) {
+			throw new WrongRangeOfCountException("Count of events is less than 1. Can't be returned less than 1 event.");
+		}
+		if (!AuthzResolver.authorizedInternal(perunSession, "pollConsumerEventsPage_String_int_policy")) {
+			throw new PrivilegeException(perunSession, "pollConsumerEventsPage");
+		}
+		return getAuditMessagesManagerBl().pollConsumerEventsPage(perunSession, consumerName, maxCount);
+	}
+
+	@Override
+	public int processConsumerEvents(PerunSession perunSession, String consumerName, int pageSize, Consumer<List<AuditEvent>> handler) throws PrivilegeException {
+		if (pageSize<1) {
+			throw new WrongRangeOfCountException("Count of events is less than 1. Can't be processed less than 1 event at once.");
+		}
+		if (!AuthzResolver.authorizedInternal(perunSession, "processConsumerEvents_String_int_Consumer_policy")) {
+			throw new PrivilegeException(perunSession, "processConsumerEvents");
+		}
+		return getAuditMessagesManagerBl().processConsumerEvents(perunSession, consumerName, pageSize, handler);
+	}
+
 	@Override
 	public void createAuditerConsumer(PerunSession perunSession, String consumerName) throws PrivilegeException {
 		if (!AuthzResolver.authorizedInternal(perunSession, "createAuditerConsumer_String_policy")) {
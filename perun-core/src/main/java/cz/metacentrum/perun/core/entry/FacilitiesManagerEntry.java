@@ -133,7 +133,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getFacilitiesByIds");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getFacilitiesByIds(sess, ids);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getFacilitiesByIds_List<Integer>_policy", facility));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getFacilitiesByIds_List<Integer>_policy", facilities);
 
 		return facilities;
 	}
@@ -147,7 +147,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getRichFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getFacilities(sess);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getRichFacilities_policy", facility));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichFacilities_policy", facilities);
 
 		return getFacilitiesManagerBl().getRichFacilities(sess, facilities);
 	}
@@ -162,7 +162,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getFacilitiesByDestination");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getFacilitiesByDestination(sess, destination);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getFacilitiesByDestination_String_policy", facility));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getFacilitiesByDestination_String_policy", facilities);
 
 		return facilities;
 	}
@@ -226,7 +226,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getFacilities(sess);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getFacilities_policy", facility));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getFacilities_policy", facilities);
 
 		return facilities;
 	}
@@ -557,7 +557,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getAssignedFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getAssignedFacilities(sess, group);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedFacilities_Group_policy", Arrays.asList(facility, group)));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedFacilities_Group_policy", facilities, group);
 
 		return facilities;
 	}
@@ -572,7 +572,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getAssignedFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getAssignedFacilities(sess, member);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedFacilities_Member_policy", Arrays.asList(facility, member)));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedFacilities_Member_policy", facilities, member);
 
 		return facilities;
 	}
@@ -587,7 +587,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getAssignedFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getAssignedFacilities(sess, user);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedFacilities_User_policy", Arrays.asList(facility, user)));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedFacilities_User_policy", facilities, user);
 
 		return facilities;
 	}
@@ -602,7 +602,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getAssignedFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getAssignedFacilities(sess, service);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedFacilities_Service_policy", Arrays.asList(facility, service)));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedFacilities_Service_policy", facilities, service);
 
 		return facilities;
 	}
@@ -617,7 +617,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 			throw new PrivilegeException(sess, "getAssignedFacilities");
 		}
 		List<Facility> facilities = getFacilitiesManagerBl().getAssignedFacilities(sess, securityTeam);
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedFacilities_SecurityTeam_policy", Arrays.asList(securityTeam, facility)));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedFacilities_SecurityTeam_policy", facilities, securityTeam);
 
 		return facilities;
 	}
@@ -1185,7 +1185,7 @@ public class FacilitiesManagerEntry implements FacilitiesManager {
 		List<Facility> facilities = getFacilitiesManagerBl().getFacilitiesByHostName(sess, hostname);
 
 		//Authorization
-		facilities.removeIf(facility -> !AuthzResolver.authorizedInternal(sess, "getFacilitiesByHostName_String_policy", facility));
+		facilities = AuthzResolver.authorizedInternalFilter(sess, "getFacilitiesByHostName_String_policy", facilities);
 
 		return facilities;
 	}
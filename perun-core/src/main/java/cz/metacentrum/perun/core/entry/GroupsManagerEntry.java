@@ -67,8 +67,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-import static java.util.stream.Collectors.toList;
-
 /**
  * GroupsManager entry logic
  *
@@ -306,7 +304,7 @@ public class GroupsManagerEntry implements GroupsManager {
 			throw new PrivilegeException(sess, "getGroupsByIds");
 		}
 		List<Group> groups = getGroupsManagerBl().getGroupsByIds(sess, ids);
-		groups.removeIf(group -> !AuthzResolver.authorizedInternal(sess, "filter-getGroupsByIds_List<Integer>_policy", group));
+		groups = AuthzResolver.authorizedInternalFilter(sess, "filter-getGroupsByIds_List<Integer>_policy", groups);
 
 		return groups;
 	}
@@ -908,9 +906,7 @@ public class GroupsManagerEntry implements GroupsManager {
 			throw new PrivilegeException(sess, "getAllGroups");
 		}
 
-		return groupsManagerBl.getAllGroups(sess).stream()
-			.filter(group -> AuthzResolver.authorizedInternal(sess, "filter-getAllGroups_policy", group))
-			.collect(toList());
+		return AuthzResolver.authorizedInternalFilter(sess, "filter-getAllGroups_policy", groupsManagerBl.getAllGroups(sess));
 	}
 
 	@Override
@@ -984,7 +980,7 @@ public class GroupsManagerEntry implements GroupsManager {
 
 		List<Group> groups = getGroupsManagerBl().getAllGroups(sess, vo);
 
-		groups.removeIf(group -> !AuthzResolver.authorizedInternal(sess, "filter-getAllGroups_Vo_policy", group));
+		groups = AuthzResolver.authorizedInternalFilter(sess, "filter-getAllGroups_Vo_policy", groups);
 		return groups;
 	}
 
@@ -1056,7 +1052,7 @@ public class GroupsManagerEntry implements GroupsManager {
 
 		List<Group> groups =  getGroupsManagerBl().getGroups(sess, vo);
 
-		groups.removeIf(group -> !AuthzResolver.authorizedInternal(sess, "filter-getGroups_Vo_policy", group));
+		groups = AuthzResolver.authorizedInternalFilter(sess, "filter-getGroups_Vo_policy", groups);
 		return groups;
 	}
 
@@ -1255,7 +1251,7 @@ public class GroupsManagerEntry implements GroupsManager {
 		}
 
 		List<Group> groups = getGroupsManagerBl().getMemberGroups(sess, member);
-		groups.removeIf(group -> !AuthzResolver.authorizedInternal(sess, "filter-getMemberGroups_Member_policy", member, group));
+		groups = AuthzResolver.authorizedInternalFilter(sess, "filter-getMemberGroups_Member_policy", groups, member);
 		return groups;
 	}
 
@@ -1352,7 +1348,7 @@ public class GroupsManagerEntry implements GroupsManager {
 
 		List<RichGroup> richGroups = getGroupsManagerBl().getRichGroupsWithAttributesAssignedToResource(sess, resource, attrNames);
 
-		richGroups.removeIf(richGroup -> !AuthzResolver.authorizedInternal(sess, "filter-getRichGroupsAssignedToResourceWithAttributesByNames_Resource_List<String>_policy", richGroup, resource));
+		richGroups = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichGroupsAssignedToResourceWithAttributesByNames_Resource_List<String>_policy", richGroups, resource);
 
 		return getGroupsManagerBl().filterOnlyAllowedAttributes(sess, richGroups, resource, true);
 	}
@@ -1384,7 +1380,7 @@ public class GroupsManagerEntry implements GroupsManager {
 
 		List<RichGroup> richGroups = getGroupsManagerBl().getMemberRichGroupsWithAttributesByNames(sess, member, attrNames);
 
-		richGroups.removeIf(richGroup -> !AuthzResolver.authorizedInternal(sess, "filter-getMemberRichGroupsWithAttributesByNames_Member_List<String>_policy", Arrays.asList(member, richGroup)));
+		richGroups = AuthzResolver.authorizedInternalFilter(sess, "filter-getMemberRichGroupsWithAttributesByNames_Member_List<String>_policy", richGroups, member);
 
 		return getGroupsManagerBl().filterOnlyAllowedAttributes(sess, richGroups, member, null, true);
 	}
@@ -1401,7 +1397,7 @@ public class GroupsManagerEntry implements GroupsManager {
 
 		List<RichGroup> richGroups = getGroupsManagerBl().getAllRichGroupsWithAttributesByNames(sess, vo, attrNames);
 
-		richGroups.removeIf(richGroup -> !AuthzResolver.authorizedInternal(sess, "filter-getAllRichGroupsWithAttributesByNames_Vo_List<String>_policy", richGroup));
+		richGroups = AuthzResolver.authorizedInternalFilter(sess, "filter-getAllRichGroupsWithAttributesByNames_Vo_List<String>_policy", richGroups);
 
 		return getGroupsManagerBl().filterOnlyAllowedAttributes(sess, richGroups, null, true);
 	}
@@ -1417,7 +1413,7 @@ public class GroupsManagerEntry implements GroupsManager {
 		}
 		List<RichGroup> richGroups = getGroupsManagerBl().getRichSubGroupsWithAttributesByNames(sess, parentGroup, attrNames);
 
-		richGroups.removeIf(richGroup -> !AuthzResolver.authorizedInternal(sess, "filter-getRichSubGroupsWithAttributesByNames_Group_List<String>_policy", richGroup));
+		richGroups = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichSubGroupsWithAttributesByNames_Group_List<String>_policy", richGroups);
 
 		return getGroupsManagerBl().filterOnlyAllowedAttributes(sess, richGroups, null, true);
 	}
@@ -1433,7 +1429,7 @@ public class GroupsManagerEntry implements GroupsManager {
 		}
 		List<RichGroup> richGroups = getGroupsManagerBl().getAllRichSubGroupsWithAttributesByNames(sess, parentGroup, attrNames);
 
-		richGroups.removeIf(richGroup -> !AuthzResolver.authorizedInternal(sess, "filter-getAllRichSubGroupsWithAttributesByNames_Group_List<String>_policy", richGroup));
+		richGroups = AuthzResolver.authorizedInternalFilter(sess, "filter-getAllRichSubGroupsWithAttributesByNames_Group_List<String>_policy", richGroups);
 
 		return getGroupsManagerBl().filterOnlyAllowedAttributes(sess, richGroups, null, true);
 	}
@@ -1634,7 +1630,7 @@ public class GroupsManagerEntry implements GroupsManager {
 				// silently skip
 			}
 		}
-		members.removeIf(member -> !AuthzResolver.authorizedInternal(sess, "filter-getGroupRichMembersByIds_int_List<Integer>_List<String>_policy", member));
+		members = AuthzResolver.authorizedInternalFilter(sess, "filter-getGroupRichMembersByIds_int_List<Integer>_List<String>_policy", members);
 
 		List<RichMember> richMembers = perunBl.getMembersManagerBl().getRichMembersWithAttributes(sess, group, members, attributeDefinitions);
 		return getPerunBl().getMembersManagerBl().filterOnlyAllowedAttributes(sess, richMembers, group, true);
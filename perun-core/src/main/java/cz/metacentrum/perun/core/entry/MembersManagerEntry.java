@@ -460,7 +460,7 @@ public class MembersManagerEntry implements MembersManager {
 		}
 
 		List<Member> members = getMembersManagerBl().getMembersByIds(sess, ids);
-		members.removeIf(member -> !AuthzResolver.authorizedInternal(sess, "filter-getMembersByIds_List<Integer>_policy", member));
+		members = AuthzResolver.authorizedInternalFilter(sess, "filter-getMembersByIds_List<Integer>_policy", members);
 
 		return members;
 	}
@@ -1502,9 +1502,7 @@ public class MembersManagerEntry implements MembersManager {
 		}
 
 		//Filter members based on authorization
-		List<Member> filteredMembers = membersManagerBl.getSponsoredMembers(sess, vo, user).stream()
-			.filter(member -> AuthzResolver.authorizedInternal(sess, "filter-getSponsoredMembers_Vo_User_List<String>_policy", member, vo))
-			.collect(Collectors.toList());
+		List<Member> filteredMembers = AuthzResolver.authorizedInternalFilter(sess, "filter-getSponsoredMembers_Vo_User_List<String>_policy", membersManagerBl.getSponsoredMembers(sess, vo, user), vo);
 		//Basic rich Members without attributes
 		List<RichMember> richMembers = membersManagerBl.convertMembersToRichMembers(sess, filteredMembers);
 		//Enriched rich members with attributes by list of attributes
@@ -1530,9 +1528,7 @@ public class MembersManagerEntry implements MembersManager {
 		}
 
 		//Filter members based on authorization
-		List<Member> filteredMembers = membersManagerBl.getSponsoredMembers(sess, vo, user).stream()
-			.filter(member -> AuthzResolver.authorizedInternal(sess, "filter-getSponsoredMembers_Vo_User_policy", member, vo))
-			.collect(Collectors.toList());
+		List<Member> filteredMembers = AuthzResolver.authorizedInternalFilter(sess, "filter-getSponsoredMembers_Vo_User_policy", membersManagerBl.getSponsoredMembers(sess, vo, user), vo);
 
 		return membersManagerBl.convertMembersToRichMembers(sess, filteredMembers);
 	}
@@ -1550,9 +1546,7 @@ public class MembersManagerEntry implements MembersManager {
 		}
 
 		//Filter members based on authorization
-		return getAllSponsoredMembers(sess, vo).stream()
-			.filter(member -> AuthzResolver.authorizedInternal(sess, "filter-getSponsoredMembers_Vo_policy", member, vo))
-			.collect(Collectors.toList());
+		return AuthzResolver.authorizedInternalFilter(sess, "filter-getSponsoredMembers_Vo_policy", getAllSponsoredMembers(sess, vo), vo);
 	}
 
 	@Override
@@ -1754,7 +1748,7 @@ public class MembersManagerEntry implements MembersManager {
 		}
 
 		List<Member> members = getMembersManagerBl().getMembersByIds(sess, ids);
-		members.removeIf(member -> !AuthzResolver.authorizedInternal(sess, "filter-getRichMembersByIds_List<Integer>_List<String>_policy", member));
+		members = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichMembersByIds_List<Integer>_List<String>_policy", members);
 
 		List<RichMember> richMembers = membersManagerBl.convertMembersToRichMembers(sess, members);
 		//Enriched rich members with attributes by list of attributes
@@ -95,7 +95,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 		}
 
 		List<Resource> resources = resourcesManagerBl.getAllResources(sess);
-		resources.removeIf(resource -> !AuthzResolver.authorizedInternal(sess, "filter-getAllResources_policy", resource));
+		resources = AuthzResolver.authorizedInternalFilter(sess, "filter-getAllResources_policy", resources);
 
 		return resources;
 	}
@@ -124,7 +124,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 		}
 
 		List<Resource> resources = getResourcesManagerBl().getResourcesByIds(sess, ids);
-		resources.removeIf(resource -> !AuthzResolver.authorizedInternal(sess, "filter-getResourcesByIds_List<Integer>_policy", resource));
+		resources = AuthzResolver.authorizedInternalFilter(sess, "filter-getResourcesByIds_List<Integer>_policy", resources);
 
 		return resources;
 	}
@@ -169,7 +169,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 		}
 
 		List<RichResource> richResources = getResourcesManagerBl().getRichResourcesByIds(sess, ids);
-		richResources.removeIf(richResource -> !AuthzResolver.authorizedInternal(sess, "filter-getRichResourcesByIds_List<Integer>_policy", richResource));
+		richResources = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichResourcesByIds_List<Integer>_policy", richResources);
 
 		return richResources;
 	}
@@ -481,7 +481,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 
 		List<Group> assignedGroups = getResourcesManagerBl().getAssignedGroups(sess, resource);
 
-		assignedGroups.removeIf(assignedGroup -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedGroups_Resource_policy", assignedGroup, resource));
+		assignedGroups = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedGroups_Resource_policy", assignedGroups, resource);
 
 		return assignedGroups;
 	}
@@ -510,9 +510,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 			throw new PrivilegeException(sess, "getAssignedResources");
 		}
 
-		return getResourcesManagerBl().getAssignedResources(sess, group).stream()
-			.filter(resource -> AuthzResolver.authorizedInternal(sess, "filter-getAssignedResources_Group_policy", group, resource))
-			.collect(Collectors.toList());
+		return AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedResources_Group_policy", getResourcesManagerBl().getAssignedResources(sess, group), group);
 	}
 
 	@Override
@@ -525,9 +523,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 			throw new PrivilegeException(sess, "getAssignedRichResources");
 				}
 
-		return getResourcesManagerBl().getAssignedRichResources(sess, group).stream()
-			.filter(resource -> AuthzResolver.authorizedInternal(sess, "filter-getAssignedRichResources_Group_policy", group, resource))
-			.collect(Collectors.toList());
+		return AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedRichResources_Group_policy", getResourcesManagerBl().getAssignedRichResources(sess, group), group);
 	}
 
 	@Override
@@ -1156,7 +1152,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 			throw new PrivilegeException(sess, "getResourcesByResourceManager");
 		}
 		List<Resource> resources = getResourcesManagerBl().getResourcesWhereUserIsAdmin(sess, facility, vo, authorizedUser);
-		resources.removeIf(resource -> !AuthzResolver.authorizedInternal(sess, "filter-getResourcesWhereUserIsAdmin_Facility_Vo_User_policy", Arrays.asList(vo, facility, resource, authorizedUser)));
+		resources = AuthzResolver.authorizedInternalFilter(sess, "filter-getResourcesWhereUserIsAdmin_Facility_Vo_User_policy", resources, vo, facility, authorizedUser);
 
 		return resources;
 	}
@@ -1172,7 +1168,7 @@ public class ResourcesManagerEntry implements ResourcesManager {
 			throw new PrivilegeException(sess, "getResourcesWhereUserIsAdmin");
 		}
 		List<Resource> resources = getResourcesManagerBl().getResourcesWhereUserIsAdmin(sess, vo, authorizedUser);
-		resources.removeIf(resource -> !AuthzResolver.authorizedInternal(sess, "filter-getResourcesWhereUserIsAdmin_Vo_User_policy", Arrays.asList(vo, resource, authorizedUser)));
+		resources = AuthzResolver.authorizedInternalFilter(sess, "filter-getResourcesWhereUserIsAdmin_Vo_User_policy", resources, vo, authorizedUser);
 
 		return resources;
 	}
@@ -72,7 +72,7 @@ public class SecurityTeamsManagerEntry implements cz.metacentrum.perun.core.api.
 			throw new PrivilegeException("getSecurityTeams");
 		} else {
 			List<SecurityTeam> securityTeams = getSecurityTeamsManagerBl().getAllSecurityTeams(sess);
-			securityTeams.removeIf(st -> !AuthzResolver.authorizedInternal(sess, "filter-getSecurityTeams_policy", st));
+			securityTeams = AuthzResolver.authorizedInternalFilter(sess, "filter-getSecurityTeams_policy", securityTeams);
 			return securityTeams;
 		}
 	}
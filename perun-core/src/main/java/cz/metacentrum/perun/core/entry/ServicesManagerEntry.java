@@ -6,6 +6,8 @@ import cz.metacentrum.perun.core.api.AuthzResolver;
 import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataDelta;
+import cz.metacentrum.perun.core.api.HashedGenDataWriter;
 import cz.metacentrum.perun.core.api.PerunSession;
 import cz.metacentrum.perun.core.api.Resource;
 import cz.metacentrum.perun.core.api.RichDestination;
@@ -443,7 +445,7 @@ public class ServicesManagerEntry implements ServicesManager {
 			throw new PrivilegeException(sess, "getAssignedResources");
 		}
 
-		resources.removeIf(resource -> !AuthzResolver.authorizedInternal(sess, "filter-getAssignedResources_Service_policy", Arrays.asList(service, resource)));
+		resources = AuthzResolver.authorizedInternalFilter(sess, "filter-getAssignedResources_Service_policy", resources, service);
 
 		return resources;
 	}
@@ -451,6 +453,8 @@ public class ServicesManagerEntry implements ServicesManager {
 	@Override
 	public HashedGenData getHashedHierarchicalData(PerunSession sess, Service service, Facility facility, boolean consentEval) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException {
 		Utils.checkPerunSession(sess);
+		// must precede the first read, which takes the snapshot of the transaction
+		getServicesManagerBl().bindGenAttributesCacheEpoch();
 
 		getServicesManagerBl().checkServiceExists(sess, service);
 		getPerunBl().getFacilitiesManagerBl().checkFacilityExists(sess, facility);
@@ -463,9 +467,29 @@ public class ServicesManagerEntry implements ServicesManager {
 		return getServicesManagerBl().getHashedHierarchicalData(sess, service, facility, consentEval);
 	}
 
+	@Override
+	public void writeHashedHierarchicalData(PerunSession sess, Service service, Facility facility, boolean consentEval, HashedGenDataWriter writer) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException {
+		Utils.checkPerunSession(sess);
+		Utils.notNull(writer, "writer");
+		// must precede the first read, which takes the snapshot of the transaction
+		getServicesManagerBl().bindGenAttributesCacheEpoch();
+
+		getServicesManagerBl().checkServiceExists(sess, service);
+		getPerunBl().getFacilitiesManagerBl().checkFacilityExists(sess, facility);
+
+		// Authorization
+		if (!AuthzResolver.authorizedInternal(sess, "writeHashedHierarchicalData_Service_Facility_boolean_HashedGenDataWriter_policy", service, facility)) {
+			throw new PrivilegeException(sess, "writeHashedHierarchicalData");
+		}
+
+		getServicesManagerBl().writeHashedHierarchicalData(sess, service, facility, consentEval, writer);
+	}
+
 	@Override
 	public HashedGenData getHashedDataWithGroups(PerunSession sess, Service service, Facility facility, boolean consentEval) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException {
 		Utils.checkPerunSession(sess);
+		// must precede the first read, which takes the snapshot of the transaction
+		getServicesManagerBl().bindGenAttributesCacheEpoch();
 
 		getServicesManagerBl().checkServiceExists(sess, service);
 		getPerunBl().getFacilitiesManagerBl().checkFacilityExists(sess, facility);
@@ -478,6 +502,40 @@ public class ServicesManagerEntry implements ServicesManager {
 		return getServicesManagerBl().getHashedDataWithGroups(sess, service, facility, consentEval);
 	}
 
+	@Override
+	public HashedGenDataDelta getHashedHierarchicalDataDelta(PerunSession sess, Service service, Facility facility, boolean consentEval, String revision) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException {
+		Utils.checkPerunSession(sess);
+		// must precede the first read, which takes the snapshot of the transaction
+		getServicesManagerBl().bindGenAttributesCacheEpoch();
+
+		getServicesManagerBl().checkServiceExists(sess, service);
+		getPerunBl().getFacilitiesManagerBl().checkFacilityExists(sess, facility);
+
+		// Authorization
+		if (!AuthzResolver.authorizedInternal(sess, "getHashedHierarchicalDataDelta_Service_Facility_boolean_String_policy", service, facility)) {
+			throw new PrivilegeException(sess, "getHashedHierarchicalDataDelta");
+		}
+
+		return getServicesManagerBl().getHashedHierarchicalDataDelta(sess, service, facility, consentEval, revision);
+	}
+
+	@Override
+	public HashedGenDataDelta getHashedDataWithGroupsDelta(PerunSession sess, Service service, Facility facility, boolean consentEval, String revision) throws FacilityNotExistsException, ServiceNotExistsException, PrivilegeException {
+		Utils.checkPerunSession(sess);
+		// must precede the first read, which takes the snapshot of the transaction
+		getServicesManagerBl().bindGenAttributesCacheEpoch();
+
+		getServicesManagerBl().checkServiceExists(sess, service);
+		getPerunBl().getFacilitiesManagerBl().checkFacilityExists(sess, facility);
+
+		// Authorization
+		if (!AuthzResolver.authorizedInternal(sess, "getHashedDataWithGroupsDelta_Service_Facility_boolean_String_policy", service, facility)) {
+			throw new PrivilegeException(sess, "getHashedDataWithGroupsDelta");
+		}
+
+		return getServicesManagerBl().getHashedDataWithGroupsDelta(sess, service, facility, consentEval, revision);
+	}
+
 	@Override
 	public List<ServicesPackage> getServicesPackages(PerunSession sess) throws PrivilegeException {
 		Utils.checkPerunSession(sess);
@@ -350,7 +350,7 @@ public class UsersManagerEntry implements UsersManager {
 			throw new PrivilegeException(sess, "getRichUsersByIds");
 		}
 		List<RichUser> richUsers = getUsersManagerBl().getRichUsersByIds(sess, ids);
-		richUsers.removeIf(richUser -> !AuthzResolver.authorizedInternal(sess, "filter-getRichUsersByIds_List<Integer>_policy", richUser));
+		richUsers = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichUsersByIds_List<Integer>_policy", richUsers);
 
 		return richUsers;
 	}
@@ -364,7 +364,7 @@ public class UsersManagerEntry implements UsersManager {
 			throw new PrivilegeException(sess, "getRichUsersWithAttributesByIds");
 		}
 		List<RichUser> richUsers = getUsersManagerBl().getRichUsersWithAttributesByIds(sess, ids);
-		richUsers.removeIf(richUser -> !AuthzResolver.authorizedInternal(sess, "filter-getRichUsersWithAttributesByIds_List<Integer>_policy", richUser));
+		richUsers = AuthzResolver.authorizedInternalFilter(sess, "filter-getRichUsersWithAttributesByIds_List<Integer>_policy", richUsers);
 
 		return getPerunBl().getUsersManagerBl().filterOnlyAllowedAttributes(sess, richUsers);
 	}
@@ -964,7 +964,7 @@ public class UsersManagerEntry implements UsersManager {
 			throw new PrivilegeException(sess, "getUsersByIds");
 		}
 		List<User> users = getUsersManagerBl().getUsersByIds(sess, ids);
-		users.removeIf(user -> !AuthzResolver.authorizedInternal(sess, "filter-getUsersByIds_List<Integer>_policy", user));
+		users = AuthzResolver.authorizedInternalFilter(sess, "filter-getUsersByIds_List<Integer>_policy", users);
 
 		return users;
 	}
@@ -245,7 +245,7 @@ public class VosManagerEntry implements VosManager {
 			throw new PrivilegeException(sess, "getVosByIds");
 		}
 		List<Vo> vos = vosManagerBl.getVosByIds(sess, ids);
-		vos.removeIf(vo -> !AuthzResolver.authorizedInternal(sess, "filter-getVosByIds_List<Integer>_policy", vo));
+		vos = AuthzResolver.authorizedInternalFilter(sess, "filter-getVosByIds_List<Integer>_policy", vos);
 
 		return vos;
 	}
@@ -0,0 +1,194 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeCreated;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeDeleted;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeUpdated;
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide registry of all attribute definitions, indexed by the name, id and namespace.
+ *
+ * Definitions are loaded from the DB at once, on the first lookup after the start or after any change of the definitions.
+ * The registry is cleared by the Auditer from AttributeCreated, AttributeDeleted and AttributeUpdated events,
+ * after the changes are committed. Lookups return copies of the definitions, so callers can modify them.
+ *
+ * Because the invalidation is driven by the audit events of this JVM, the registry must be enabled only when all
+ * changes of the attribute definitions are made through this instance. It is disabled by default, it can be enabled by
+ * setting perun.attributes.definitionRegistry to true.
+ */
+public class AttributeDefinitionRegistry {
+
+	private final static Logger log = LoggerFactory.getLogger(AttributeDefinitionRegistry.class);
+
+	private final boolean enabled;
+
+	// immutable snapshot of definitions, null if the definitions are not loaded
+	private volatile Definitions definitions;
+	private long epoch = 0;
+
+	public AttributeDefinitionRegistry() {
+		this(BeansUtils.getCoreConfig().isAttributeDefinitionRegistryEnabled());
+	}
+
+	public AttributeDefinitionRegistry(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns true, if the registry is enabled.
+	 *
+	 * @return true, if the registry is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns true, if the definitions are loaded.
+	 *
+	 * @return true, if the definitions are loaded
+	 */
+	public boolean isLoaded() {
+		return definitions != null;
+	}
+
+	/**
+	 * Returns current epoch of the registry. The epoch is changed with every invalidation.
+	 * Callers must obtain the epoch before they start to load the definitions and pass it back when
+	 * storing them, so definitions loaded before an invalidation are never stored.
+	 *
+	 * @return current epoch
+	 */
+	public synchronized long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Stores all attribute definitions. Nothing is stored, if the registry was invalidated since the given epoch.
+	 *
+	 * @param attributeDefinitions all attribute definitions
+	 * @param readEpoch epoch obtained before the definitions were loaded
+	 */
+	public synchronized void load(Collection<AttributeDefinition> attributeDefinitions, long readEpoch) {
+		if (!enabled || readEpoch != epoch) {
+			return;
+		}
+		definitions = new Definitions(attributeDefinitions);
+		log.debug("Registry of attribute definitions loaded with {} definitions.", attributeDefinitions.size());
+	}
+
+	/**
+	 * Returns copy of the attribute definition with the name.
+	 *
+	 * @param attributeName full name of the attribute
+	 * @return copy of the definition or null, if it doesn't exist or the definitions are not loaded
+	 */
+	public AttributeDefinition getAttributeDefinition(String attributeName) {
+		Definitions current = definitions;
+		return current == null ? null : copy(current.byName.get(attributeName));
+	}
+
+	/**
+	 * Returns copy of the attribute definition with the id.
+	 *
+	 * @param id id of the attribute
+	 * @return copy of the definition or null, if it doesn't exist or the definitions are not loaded
+	 */
+	public AttributeDefinition getAttributeDefinitionById(int id) {
+		Definitions current = definitions;
+		return current == null ? null : copy(current.byId.get(id));
+	}
+
+	/**
+	 * Returns copies of all attribute definitions.
+	 *
+	 * @return copies of the definitions or null, if the definitions are not loaded
+	 */
+	public List<AttributeDefinition> getAttributesDefinition() {
+		Definitions current = definitions;
+		return current == null ? null : copy(current.byId.values());
+	}
+
+	/**
+	 * Returns copies of all attribute definitions from the namespace.
+	 *
+	 * @param namespace namespace of the attributes, e.g. urn:perun:user:attribute-def:def
+	 * @return copies of the definitions or null, if the definitions are not loaded
+	 */
+	public List<AttributeDefinition> getAttributesDefinitionByNamespace(String namespace) {
+		Definitions current = definitions;
+		return current == null ? null : copy(current.byNamespace.getOrDefault(namespace, Collections.emptyList()));
+	}
+
+	/**
+	 * Invalidates the registry, if any of the audit events changes attribute definitions.
+	 *
+	 * @param events audit events
+	 */
+	public synchronized void invalidate(List<AuditEvent> events) {
+		if (!enabled) {
+			return;
+		}
+		for (AuditEvent event : events) {
+			if (changesDefinitions(event)) {
+				log.debug("{} changes attribute definitions, clearing the registry.", event.getName());
+				clear();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes all definitions from the registry.
+	 */
+	public synchronized void clear() {
+		epoch++;
+		definitions = null;
+	}
+
+	private static boolean changesDefinitions(AuditEvent event) {
+		return event instanceof AttributeCreated || event instanceof AttributeDeleted || event instanceof AttributeUpdated;
+	}
+
+	private static AttributeDefinition copy(AttributeDefinition attributeDefinition) {
+		return attributeDefinition == null ? null : new AttributeDefinition(attributeDefinition);
+	}
+
+	private static List<AttributeDefinition> copy(Collection<AttributeDefinition> attributeDefinitions) {
+		List<AttributeDefinition> copies = new ArrayList<>(attributeDefinitions.size());
+		for (AttributeDefinition attributeDefinition : attributeDefinitions) {
+			copies.add(new AttributeDefinition(attributeDefinition));
+		}
+		return copies;
+	}
+
+	/**
+	 * Indexes of loaded definitions, never modified after the creation.
+	 */
+	private static final class Definitions {
+
+		private final Map<Integer, AttributeDefinition> byId = new HashMap<>();
+		private final Map<String, AttributeDefinition> byName = new HashMap<>();
+		private final Map<String, List<AttributeDefinition>> byNamespace = new HashMap<>();
+
+		private Definitions(Collection<AttributeDefinition> attributeDefinitions) {
+			for (AttributeDefinition attributeDefinition : attributeDefinitions) {
+				AttributeDefinition stored = new AttributeDefinition(attributeDefinition);
+				byId.put(stored.getId(), stored);
+				byName.put(stored.getName(), stored);
+				byNamespace.computeIfAbsent(stored.getNamespace(), namespace -> new ArrayList<>()).add(stored);
+			}
+		}
+	}
+}
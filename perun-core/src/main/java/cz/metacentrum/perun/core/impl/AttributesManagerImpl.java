@@ -54,7 +54,9 @@ import cz.metacentrum.perun.core.implApi.modules.attributes.MemberAttributesModu
 import cz.metacentrum.perun.core.implApi.modules.attributes.MemberGroupAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.MemberGroupVirtualAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.MemberResourceAttributesModuleImplApi;
+import cz.metacentrum.perun.core.implApi.modules.attributes.MemberResourceVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.MemberResourceVirtualAttributesModuleImplApi;
+import cz.metacentrum.perun.core.implApi.modules.attributes.MemberVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.MemberVirtualAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.ResourceAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.ResourceVirtualAttributesModuleImplApi;
@@ -62,13 +64,15 @@ import cz.metacentrum.perun.core.implApi.modules.attributes.UserAttributesModule
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserExtSourceAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserExtSourceVirtualAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserFacilityAttributesModuleImplApi;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserFacilityVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserFacilityVirtualAttributesModuleImplApi;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesModuleImplApi;
+import cz.metacentrum.perun.core.implApi.modules.attributes.VirtualAttributesModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.VoAttributesModuleImplApi;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -78,6 +82,8 @@ import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.sql.DataSource;
 import java.lang.reflect.InvocationTargetException;
@@ -130,8 +136,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 	public static final char LIST_DELIMITER = ',';
 	public static final char KEY_VALUE_DELIMITER = ':';
 	private static final String ATTRIBUTES_MODULES_PACKAGE = "cz.metacentrum.perun.core.impl.modules.attributes";
-	private static final int MERGE_TRY_CNT = 10;
-	private static final long MERGE_RAND_SLEEP_MAX = 100;  //max sleep time between SQL merge attempt in millisecond
+	private static final int MAX_ROWS_IN_UPSERT = 1000;  //max number of attribute values written by one SQL upsert
 
 	private final static Logger log = LoggerFactory.getLogger(AttributesManagerImpl.class);
 
@@ -148,6 +153,10 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	private AttributesManagerImplApi self;
 
+	private AttributeDefinitionRegistry attributeDefinitionRegistry;
+
+	private VirtualAttributeValuesCache virtualAttributeValuesCache;
+
 	// mapping of the perun bean names to the attribute namespaces
 	public static final Map<String, String> BEANS_TO_NAMESPACES_MAP = new LinkedHashMap<>();
 	private static final Map<String, String> ENTITIES_TO_BEANS_MAP = new HashMap<>();
@@ -331,6 +340,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		private final AttributesManagerImpl attributesManagerImpl;
 		private final T attributeHolder;
 		private final V attributeHolder2;
+		private DeferredVirtualAttributes deferredVirtualAttributes;
 
 		/**
 		 * Constructor.
@@ -345,6 +355,18 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 			this.attributeHolder2 = attributeHolder2;
 		}
 
+		/**
+		 * Virtual attributes with bulk modules are mapped without values, their values are computed later
+		 * for all the holders at once by the deferred virtual attributes.
+		 *
+		 * @param deferredVirtualAttributes collector of virtual attributes of all mapped holders
+		 * @return this mapper
+		 */
+		AttributeRowMapper<T, V> deferVirtualAttributes(DeferredVirtualAttributes deferredVirtualAttributes) {
+			this.deferredVirtualAttributes = deferredVirtualAttributes;
+			return this;
+		}
+
 		@Override
 		public Attribute mapRow(ResultSet rs, int i) throws SQLException {
 			Attribute attribute = new Attribute(ATTRIBUTE_DEFINITION_MAPPER.mapRow(rs, i));
@@ -363,6 +385,9 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 				//virtual attributes
 			} else if(this.attributesManagerImpl.isVirtAttribute(sess, attribute)) {
 
+				if (deferredVirtualAttributes != null && deferredVirtualAttributes.defer(attribute, attributeHolder)) {
+					return attribute;
+				}
 				return this.attributesManagerImpl.setValueForVirtualAttribute(sess, this.attributesManagerImpl, attribute, attributeHolder, attributeHolder2);
 
 				//core managed attributes
@@ -477,6 +502,168 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 	private Attribute setValueForVirtualAttribute(PerunSession sess, AttributesManagerImpl attributesManagerImpl, Attribute attribute, Object attributeHolder, Object attributeHolder2) {
 		if (attributeHolder == null) throw new InternalErrorException("Bad usage of attributeRowMapper");
 
+		VirtualAttributeValuesCache valuesCache = attributesManagerImpl.virtualAttributeValuesCache;
+		if (valuesCache == null || !valuesCache.isEnabled()) {
+			return computeValueForVirtualAttribute(sess, attributesManagerImpl, attribute, attributeHolder, attributeHolder2);
+		}
+		Attribute cachedAttribute = valuesCache.get(attribute, attributeHolder, attributeHolder2);
+		if (cachedAttribute != null) {
+			return cachedAttribute;
+		}
+		Attribute computedAttribute = computeValueForVirtualAttribute(sess, attributesManagerImpl, attribute, attributeHolder, attributeHolder2);
+		if (computedAttribute != null) {
+			valuesCache.put(computedAttribute, attributeHolder, attributeHolder2, attributesManagerImpl.getStrongDependencies(sess, attribute));
+		}
+		return computedAttribute;
+	}
+
+	private List<String> getStrongDependencies(PerunSession sess, AttributeDefinition attribute) {
+		Object attributeModule = getAttributesModule(sess, attribute);
+		return attributeModule instanceof VirtualAttributesModuleImplApi ?
+			((VirtualAttributesModuleImplApi) attributeModule).getStrongDependencies() : null;
+	}
+
+	/**
+	 * Returns true, if values of the virtual attribute can be computed for many primary holders at once by its module.
+	 *
+	 * @param sess perun session
+	 * @param attribute virtual attribute
+	 * @param attributeHolder2 secondary attribute holder (Facility, Resource) or null
+	 * @return true, if the module of the attribute is a bulk module for the holders
+	 */
+	private boolean hasBulkVirtualAttributeModule(PerunSession sess, AttributeDefinition attribute, Object attributeHolder2) {
+		if (isFromNamespace(attribute, AttributesManager.NS_USER_ATTR_VIRT)) {
+			return attributeHolder2 == null && getAttributesModule(sess, attribute) instanceof UserVirtualAttributesBulkModuleImplApi;
+		} else if (isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR_VIRT)) {
+			return attributeHolder2 == null && getAttributesModule(sess, attribute) instanceof MemberVirtualAttributesBulkModuleImplApi;
+		} else if (isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR_VIRT)) {
+			return attributeHolder2 instanceof Facility && getAttributesModule(sess, attribute) instanceof UserFacilityVirtualAttributesBulkModuleImplApi;
+		} else if (isFromNamespace(attribute, AttributesManager.NS_MEMBER_RESOURCE_ATTR_VIRT)) {
+			return attributeHolder2 instanceof Resource && getAttributesModule(sess, attribute) instanceof MemberResourceVirtualAttributesBulkModuleImplApi;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets values for the virtual attribute of many primary holders at once by its bulk module.
+	 * Values computed earlier in the current transaction are taken from the cache of virtual attribute values.
+	 *
+	 * @param sess perun session
+	 * @param attributes attributes without values by their primary holders (User, Member), all of the same definition
+	 * @param attributeHolder2 secondary attribute holder (Facility, Resource) or null
+	 * @return primary holders, for which the module returned no attribute
+	 */
+	@SuppressWarnings("unchecked")
+	private List<PerunBean> setValuesForVirtualAttributes(PerunSession sess, Map<PerunBean, Attribute> attributes, PerunBean attributeHolder2) {
+		Attribute attribute = attributes.values().iterator().next();
+		VirtualAttributeValuesCache valuesCache = virtualAttributeValuesCache != null && virtualAttributeValuesCache.isEnabled() ? virtualAttributeValuesCache : null;
+
+		List<PerunBean> holders = new ArrayList<>();
+		for (Map.Entry<PerunBean, Attribute> entry : attributes.entrySet()) {
+			Attribute cachedAttribute = valuesCache == null ? null : valuesCache.get(attribute, entry.getKey(), attributeHolder2);
+			if (cachedAttribute != null) {
+				Utils.copyAttributeToVirtualAttributeWithValue(cachedAttribute, entry.getValue());
+			} else {
+				holders.add(entry.getKey());
+			}
+		}
+		if (holders.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Object attributeModule = getAttributesModule(sess, attribute);
+		Map<? extends PerunBean, Attribute> computedAttributes;
+		if (isFromNamespace(attribute, AttributesManager.NS_USER_ATTR_VIRT)) {
+			computedAttributes = ((UserVirtualAttributesBulkModuleImplApi) attributeModule).getAttributeValues((PerunSessionImpl) sess, (List<User>) (List<?>) holders, attribute);
+		} else if (isFromNamespace(attribute, AttributesManager.NS_MEMBER_ATTR_VIRT)) {
+			computedAttributes = ((MemberVirtualAttributesBulkModuleImplApi) attributeModule).getAttributeValues((PerunSessionImpl) sess, (List<Member>) (List<?>) holders, attribute);
+		} else if (isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR_VIRT)) {
+			computedAttributes = ((UserFacilityVirtualAttributesBulkModuleImplApi) attributeModule).getAttributeValues((PerunSessionImpl) sess, (List<User>) (List<?>) holders, (Facility) attributeHolder2, attribute);
+		} else if (isFromNamespace(attribute, AttributesManager.NS_MEMBER_RESOURCE_ATTR_VIRT)) {
+			computedAttributes = ((MemberResourceVirtualAttributesBulkModuleImplApi) attributeModule).getAttributeValues((PerunSessionImpl) sess, (List<Member>) (List<?>) holders, (Resource) attributeHolder2, attribute);
+		} else {
+			throw new InternalErrorException("Bulk virtual attribute modules for this namespace aren't defined.");
+		}
+
+		List<String> strongDependencies = valuesCache == null ? null : getStrongDependencies(sess, attribute);
+		List<PerunBean> holdersWithoutAttribute = new ArrayList<>();
+		for (PerunBean holder : holders) {
+			Attribute computedAttribute = computedAttributes.get(holder);
+			if (computedAttribute == null) {
+				computedAttribute = computeValueForVirtualAttribute(sess, this, attribute, holder, attributeHolder2);
+			}
+			if (computedAttribute == null) {
+				holdersWithoutAttribute.add(holder);
+				continue;
+			}
+			Attribute holderAttribute = attributes.get(holder);
+			Utils.copyAttributeToVirtualAttributeWithValue(computedAttribute, holderAttribute);
+			if (valuesCache != null) {
+				valuesCache.put(holderAttribute, holder, attributeHolder2, strongDependencies);
+			}
+		}
+		return holdersWithoutAttribute;
+	}
+
+	/**
+	 * Virtual attributes of many primary holders with the same secondary holder, which are mapped without values.
+	 * Values of each attribute are computed for all its holders at once by its bulk module, after all rows are mapped.
+	 */
+	private static class DeferredVirtualAttributes {
+		private final PerunSession sess;
+		private final AttributesManagerImpl attributesManagerImpl;
+		private final PerunBean attributeHolder2;
+		// attributes without values by the attribute id and the primary holder
+		private final Map<Integer, Map<PerunBean, Attribute>> attributes = new LinkedHashMap<>();
+
+		DeferredVirtualAttributes(PerunSession sess, AttributesManagerImpl attributesManagerImpl, PerunBean attributeHolder2) {
+			this.sess = sess;
+			this.attributesManagerImpl = attributesManagerImpl;
+			this.attributeHolder2 = attributeHolder2;
+		}
+
+		/**
+		 * Defers computation of the value of the virtual attribute, if its module is a bulk module.
+		 *
+		 * @param attribute virtual attribute without value
+		 * @param attributeHolder primary attribute holder
+		 * @return true, if the value will be set by {@link #computeValues(Map)}
+		 */
+		boolean defer(Attribute attribute, PerunBean attributeHolder) {
+			if (attributeHolder == null || !attributesManagerImpl.hasBulkVirtualAttributeModule(sess, attribute, attributeHolder2)) {
+				return false;
+			}
+			Map<PerunBean, Attribute> holderAttributes = attributes.computeIfAbsent(attribute.getId(), id -> new LinkedHashMap<>());
+			return holderAttributes.putIfAbsent(attributeHolder, attribute) == null;
+		}
+
+		/**
+		 * Sets values of all deferred attributes. Attributes, for which the module returned no attribute,
+		 * are removed from the mapped attributes, same as if they were not mapped at all.
+		 *
+		 * @param mappedAttributes attributes by the primary holders, which contain the deferred attributes
+		 */
+		void computeValues(Map<? extends PerunBean, List<Attribute>> mappedAttributes) {
+			for (Map<PerunBean, Attribute> holderAttributes : attributes.values()) {
+				for (PerunBean holder : attributesManagerImpl.setValuesForVirtualAttributes(sess, holderAttributes, attributeHolder2)) {
+					mappedAttributes.get(holder).remove(holderAttributes.get(holder));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes value for virtual attribute by its module.
+	 *
+	 * @param sess perun session
+	 * @param attributesManagerImpl
+	 * @param attribute attribute to set value for
+	 * @param attributeHolder primary attribute holder (Facility, Resource, Member...) for which you want the attribute value
+	 * @param attributeHolder2 secondary attribute holder (Facility, Resource, Member...) for which you want the attribute value
+	 * @return attribute with set value
+	 */
+	private Attribute computeValueForVirtualAttribute(PerunSession sess, AttributesManagerImpl attributesManagerImpl, Attribute attribute, Object attributeHolder, Object attributeHolder2) {
+
 		if (attributesManagerImpl.isFromNamespace(attribute, AttributesManager.NS_USER_FACILITY_ATTR_VIRT)) {
 			if (!(attributeHolder instanceof User))
 				throw new ConsistencyErrorException("First attribute holder of user_facility attribute isn't user");
@@ -1625,6 +1812,11 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public AttributeDefinition getAttributeDefinition(PerunSession sess, String attributeName) throws AttributeNotExistsException {
+		AttributeDefinitionRegistry registry = getLoadedDefinitionRegistry(sess);
+		if (registry != null) {
+			AttributeDefinition attributeDefinition = registry.getAttributeDefinition(attributeName);
+			if (attributeDefinition != null) return attributeDefinition;
+		}
 		try {
 			return jdbc.queryForObject("SELECT " + attributeDefinitionMappingSelectQuery + " FROM attr_names WHERE attr_name=?", ATTRIBUTE_DEFINITION_MAPPER, attributeName);
 		} catch (EmptyResultDataAccessException ex) {
@@ -1636,6 +1828,20 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public List<AttributeDefinition> getAttributesDefinition(PerunSession sess) {
+		AttributeDefinitionRegistry registry = getLoadedDefinitionRegistry(sess);
+		if (registry != null) {
+			List<AttributeDefinition> attributeDefinitions = registry.getAttributesDefinition();
+			if (attributeDefinitions != null) return attributeDefinitions;
+		}
+		return loadAttributesDefinition();
+	}
+
+	/**
+	 * Loads all attribute definitions from the DB.
+	 *
+	 * @return list of all attribute definitions
+	 */
+	private List<AttributeDefinition> loadAttributesDefinition() {
 		try {
 			return jdbc.query("SELECT " + attributeDefinitionMappingSelectQuery + ", NULL AS attr_value FROM attr_names", ATTRIBUTE_DEFINITION_MAPPER);
 		} catch (EmptyResultDataAccessException ex) {
@@ -1648,6 +1854,11 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public List<AttributeDefinition> getAttributesDefinitionByNamespace(PerunSession sess, String namespace) {
+		AttributeDefinitionRegistry registry = getLoadedDefinitionRegistry(sess);
+		if (registry != null) {
+			List<AttributeDefinition> attributeDefinitions = registry.getAttributesDefinitionByNamespace(namespace);
+			if (attributeDefinitions != null) return attributeDefinitions;
+		}
 		try {
 			return jdbc.query("SELECT " + attributeDefinitionMappingSelectQuery + ", NULL AS attr_value FROM attr_names WHERE namespace=?", ATTRIBUTE_DEFINITION_MAPPER, namespace);
 		} catch (EmptyResultDataAccessException ex) {
@@ -1660,6 +1871,11 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public AttributeDefinition getAttributeDefinitionById(PerunSession sess, int id) throws AttributeNotExistsException {
+		AttributeDefinitionRegistry registry = getLoadedDefinitionRegistry(sess);
+		if (registry != null) {
+			AttributeDefinition attributeDefinition = registry.getAttributeDefinitionById(id);
+			if (attributeDefinition != null) return attributeDefinition;
+		}
 		try {
 			return jdbc.queryForObject("SELECT " + attributeDefinitionMappingSelectQuery + " FROM attr_names WHERE id=?", ATTRIBUTE_DEFINITION_MAPPER, id);
 		} catch (EmptyResultDataAccessException ex) {
@@ -1669,6 +1885,45 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		}
 	}
 
+	/**
+	 * Returns the registry of attribute definitions, loaded from the DB if necessary.
+	 *
+	 * @param sess perun session
+	 * @return registry or null, if it is disabled or the current transaction has changed some attribute definitions
+	 */
+	private AttributeDefinitionRegistry getLoadedDefinitionRegistry(PerunSession sess) {
+		if (attributeDefinitionRegistry == null || !attributeDefinitionRegistry.isEnabled()) {
+			return null;
+		}
+		// definitions changed by the current transaction are not committed yet, so they are not reflected by the registry
+		if (TransactionSynchronizationManager.hasResource(attributeDefinitionRegistry)) {
+			return null;
+		}
+		if (!attributeDefinitionRegistry.isLoaded()) {
+			long readEpoch = attributeDefinitionRegistry.getEpoch();
+			attributeDefinitionRegistry.load(loadAttributesDefinition(), readEpoch);
+		}
+		return attributeDefinitionRegistry;
+	}
+
+	/**
+	 * Marks the current transaction as the one which has changed attribute definitions,
+	 * so the registry is not used by the transaction until its completion.
+	 */
+	private void markDefinitionsChanged() {
+		if (attributeDefinitionRegistry == null || !TransactionSynchronizationManager.isSynchronizationActive()
+				|| TransactionSynchronizationManager.hasResource(attributeDefinitionRegistry)) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(attributeDefinitionRegistry, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(attributeDefinitionRegistry);
+			}
+		});
+	}
+
 	@Override
 	public Attribute getAttributeById(PerunSession sess, Facility facility, int id) throws AttributeNotExistsException {
 		try {
@@ -1829,6 +2084,11 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public boolean setAttribute(final PerunSession sess, final Object object, final Attribute attribute) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		return !setAttributes(sess, object, Collections.singletonList(attribute)).isEmpty();
+	}
+
+	@Override
+	public List<Attribute> setAttributes(final PerunSession sess, final Object object, final List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
 		String tableName;
 		String columnName;
 		Object identificator;
@@ -1861,29 +2121,31 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 			throw new InternalErrorException(new IllegalArgumentException("Object " + object + " must be either String or PerunBean."));
 		}
 
-		// check that given object is consistent with the attribute
-		checkNamespace(sess, attribute, namespace);
-
-		// create lists of parameters for the where clause of the SQL query
-		List<String> columnNames = Arrays.asList( "attr_id", columnName);
-		List<Object> columnValues = Arrays.asList( attribute.getId(), identificator);
-
-		// save attribute
-		boolean changedDb;
-		if (object instanceof String) {
-			changedDb = setAttributeInDB(sess, attribute, tableName, columnNames, columnValues);
-		} else {
-			changedDb = setAttributeInDB(sess, attribute, tableName, columnNames, columnValues);
+		// check that given object is consistent with the attributes
+		for (Attribute attribute : attributes) {
+			checkNamespace(sess, attribute, namespace);
 		}
 
-		if(changedDb && attribute.isUnique() && (object instanceof PerunBean)) {
-			setUniqueAttributeValues(attribute, columnNames, columnValues, (PerunBean)object, null);
+		// save attributes
+		List<Attribute> changedAttributes = setAttributesInDB(sess, attributes, tableName, Collections.singletonList(columnName), Collections.singletonList(identificator));
+
+		if (object instanceof PerunBean) {
+			for (Attribute attribute : changedAttributes) {
+				if (attribute.isUnique()) {
+					setUniqueAttributeValues(attribute, Arrays.asList("attr_id", columnName), Arrays.asList(attribute.getId(), identificator), (PerunBean) object, null);
+				}
+			}
 		}
-		return changedDb;
+		return changedAttributes;
 	}
 
 	@Override
 	public boolean setAttribute(final PerunSession sess, final PerunBean bean1, final PerunBean bean2, final Attribute attribute) throws WrongAttributeAssignmentException, WrongAttributeValueException {
+		return !setAttributes(sess, bean1, bean2, Collections.singletonList(attribute)).isEmpty();
+	}
+
+	@Override
+	public List<Attribute> setAttributes(final PerunSession sess, final PerunBean bean1, final PerunBean bean2, final List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException {
 
 		// get bean names
 		String name1 = bean1.getBeanName().toLowerCase();
@@ -1914,19 +2176,22 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		}
 		String tableName = name1 + "_" + name2 + "_attr_values";
 
-		// check that given object is consistent with the attribute
-		checkNamespace(sess, attribute, namespace);
+		// check that given objects are consistent with the attributes
+		for (Attribute attribute : attributes) {
+			checkNamespace(sess, attribute, namespace);
+		}
 
-		// create lists of parameters for the where clause of the SQL query
-		List<String> columnNames = Arrays.asList( "attr_id", name1 + "_id", name2 + "_id");
-		List<Object> columnValues = Arrays.asList( attribute.getId(), identificator1, identificator2);
+		// save attributes
+		List<String> holderColumnNames = Arrays.asList(name1 + "_id", name2 + "_id");
+		List<Object> holderColumnValues = Arrays.asList(identificator1, identificator2);
+		List<Attribute> changedAttributes = setAttributesInDB(sess, attributes, tableName, holderColumnNames, holderColumnValues);
 
-		// save attribute
-		boolean changedDb = setAttributeInDB(sess, attribute, tableName, columnNames, columnValues);
-		if(changedDb && attribute.isUnique()) {
-			setUniqueAttributeValues(attribute, columnNames, columnValues, bean1, bean2);
+		for (Attribute attribute : changedAttributes) {
+			if (attribute.isUnique()) {
+				setUniqueAttributeValues(attribute, Arrays.asList("attr_id", name1 + "_id", name2 + "_id"), Arrays.asList(attribute.getId(), identificator1, identificator2), bean1, bean2);
+			}
 		}
-		return changedDb;
+		return changedAttributes;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -1971,77 +2236,105 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		}
 	}
 
-	private boolean setAttributeInDB(final PerunSession sess, final Attribute attribute, final String tableName, List<String> columnNames, List<Object> columnValues) {
-		try {
-			//check that attribute definition is current, non-altered by upper tiers
-			getAttributeDefinitionById(sess, attribute.getId()).checkEquality(attribute);
-		} catch (AttributeNotExistsException e) {
-			throw new InternalErrorException("cannot verify attribute definition",e);
+	/**
+	 * Store values of the attributes of one object (or a pair of objects) in the DB.
+	 * Attributes with null value are deleted, the others are written by one upsert per MAX_ROWS_IN_UPSERT attributes.
+	 * The upsert touches only rows whose value differs from the stored one, so ids returned by it are exactly the changed attributes.
+	 *
+	 * @param sess perun session
+	 * @param attributes attributes to store
+	 * @param tableName table with values of the attributes
+	 * @param holderColumnNames columns of the table which identify the object, without attr_id
+	 * @param holderColumnValues values of the holder columns, corresponding to the holderColumnNames
+	 * @return changed attributes, in the order of the given list
+	 */
+	private List<Attribute> setAttributesInDB(final PerunSession sess, final List<Attribute> attributes, final String tableName, List<String> holderColumnNames, List<Object> holderColumnValues) {
+		if (attributes.isEmpty()) {
+			return Collections.emptyList();
 		}
-		try {
-			// deleting the attribute if the given attribute value is null
-			if (attribute.getValue() == null) {
-				int numAffected = jdbc.update("delete from " + tableName + " where " + buildParameters(columnNames, "=?", " and "), columnValues.toArray());
-				if (numAffected > 1) {
-					throw new ConsistencyErrorException(String.format("Too much rows to delete (" + numAffected + " rows). SQL: delete from " + tableName + " where " + buildParameters(columnNames, "=%s", " and "), columnValues.toArray()));
-				}
-				return numAffected == 1;
-			}
-
-			// if the DB value is the same as parameter, return
+		// one statement can't write the same row twice, so only the last value of the attribute is kept (as if they were set one by one)
+		Map<Integer, Attribute> attributesById = new LinkedHashMap<>();
+		for (Attribute attribute : attributes) {
 			try {
-				Object value = BeansUtils.stringToAttributeValue(jdbc.queryForObject("select attr_value from " + tableName + " where " + buildParameters(columnNames, "=?", " and "), String.class, columnValues.toArray()), attribute.getType());
-				if (attribute.getValue().equals(value)) {
-					return false;
-				}
-			} catch (EmptyResultDataAccessException ex) {
-				//This is ok. Attribute will be stored later.
+				//check that attribute definition is current, non-altered by upper tiers
+				getAttributeDefinitionById(sess, attribute.getId()).checkEquality(attribute);
+			} catch (AttributeNotExistsException e) {
+				throw new InternalErrorException("cannot verify attribute definition",e);
 			}
+			attributesById.remove(attribute.getId());
+			attributesById.put(attribute.getId(), attribute);
+		}
 
-			int repetatCounter = 0;
-			while (true) {
-				// number of values of this attribute value in db
-				int numOfAttributesInDb = jdbc.queryForInt("select count(attr_id) from " + tableName + " where " + buildParameters(columnNames, "=?", " and "), columnValues.toArray());
-				switch (numOfAttributesInDb) {
-					case 0: {
-						// value doesn't exist -> insert
-						try {
-							return self.insertAttribute(sess, attribute, tableName, columnNames, columnValues);
-						} catch (DataAccessException ex) {
-							// unsuccessful insert, do it again in while loop
-							if (++repetatCounter > MERGE_TRY_CNT) {
-								throw new InternalErrorException("SQL merger (or other UPSERT command) failed more than " + MERGE_TRY_CNT + " times.");
-							}
-							try {
-								Thread.sleep(Math.round(MERGE_RAND_SLEEP_MAX * Math.random())); //randomized sleep
-							} catch (InterruptedException ignored) {
-							}
-						}
-						break;
-					}
-					case 1: {
-						// value exists -> update
-						try {
-							return self.updateAttribute(sess, attribute, tableName, columnNames, columnValues);
-						} catch (DataAccessException ex) {
-							// unsuccessful insert, do it again in while loop
-							if (++repetatCounter > MERGE_TRY_CNT) {
-								throw new InternalErrorException("SQL merger (or other UPSERT command) failed more than " + MERGE_TRY_CNT + " times.");
-							}
-							try {
-								Thread.sleep(Math.round(MERGE_RAND_SLEEP_MAX * Math.random())); //randomized sleep
-							} catch (InterruptedException ignored) {
-							}
-						}
-						break;
+		Set<Integer> changedIds = new HashSet<>();
+		try {
+			List<Attribute> attributesToUpsert = new ArrayList<>();
+			for (Attribute attribute : attributesById.values()) {
+				if (attribute.getValue() == null) {
+					// deleting the attribute if the given attribute value is null
+					if (deleteAttributeValue(attribute, tableName, holderColumnNames, holderColumnValues)) {
+						changedIds.add(attribute.getId());
 					}
-					default:
-						throw new ConsistencyErrorException(String.format("Attribute id " + attribute.getId() + " for " + tableName + " with parameters: " + buildParameters(columnNames, "=%s", " and ") + " is more than once in DB.", columnValues.toArray()));
+				} else {
+					attributesToUpsert.add(attribute);
 				}
 			}
+			for (int from = 0; from < attributesToUpsert.size(); from += MAX_ROWS_IN_UPSERT) {
+				int to = Math.min(from + MAX_ROWS_IN_UPSERT, attributesToUpsert.size());
+				changedIds.addAll(upsertAttributeValues(sess, attributesToUpsert.subList(from, to), tableName, holderColumnNames, holderColumnValues));
+			}
 		} catch (RuntimeException e) {
 			throw new InternalErrorException(e);
 		}
+
+		List<Attribute> changedAttributes = new ArrayList<>();
+		for (Attribute attribute : attributesById.values()) {
+			if (changedIds.contains(attribute.getId())) {
+				changedAttributes.add(attribute);
+			}
+		}
+		return changedAttributes;
+	}
+
+	private boolean deleteAttributeValue(Attribute attribute, String tableName, List<String> holderColumnNames, List<Object> holderColumnValues) {
+		List<String> columnNames = new ArrayList<>(holderColumnNames);
+		columnNames.add("attr_id");
+		List<Object> columnValues = new ArrayList<>(holderColumnValues);
+		columnValues.add(attribute.getId());
+		int numAffected = jdbc.update("delete from " + tableName + " where " + buildParameters(columnNames, "=?", " and "), columnValues.toArray());
+		if (numAffected > 1) {
+			throw new ConsistencyErrorException(String.format("Too much rows to delete (" + numAffected + " rows). SQL: delete from " + tableName + " where " + buildParameters(columnNames, "=%s", " and "), columnValues.toArray()));
+		}
+		return numAffected == 1;
+	}
+
+	/**
+	 * Insert or update values of the attributes by one statement. Existing rows are updated only if the value differs.
+	 *
+	 * @return ids of attributes whose rows were inserted or updated
+	 */
+	private List<Integer> upsertAttributeValues(PerunSession sess, List<Attribute> attributes, String tableName, List<String> holderColumnNames, List<Object> holderColumnValues) {
+		List<String> keyColumnNames = new ArrayList<>(holderColumnNames);
+		keyColumnNames.add("attr_id");
+		String row = "(" + "?,".repeat(keyColumnNames.size() + 5) + Compatibility.getSysdate() + ", " + Compatibility.getSysdate() + ")";
+
+		List<String> rows = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			rows.add(row);
+			values.addAll(holderColumnValues);
+			values.add(attribute.getId());
+			values.add(BeansUtils.attributeValueToString(attribute)); // attr_value
+			values.add(sess.getPerunPrincipal().getActor()); // created_by
+			values.add(sess.getPerunPrincipal().getActor()); // modified_by
+			values.add(sess.getPerunPrincipal().getUserId()); // created_by_uid
+			values.add(sess.getPerunPrincipal().getUserId()); // modified_by_uid
+		}
+
+		String keyColumns = buildParameters(keyColumnNames, "", ", ");
+		return jdbc.queryForList("insert into " + tableName + " (" + keyColumns + ", attr_value, created_by, modified_by, created_by_uid, modified_by_uid, modified_at, created_at) " +
+				"values " + String.join(", ", rows) + " on conflict (" + keyColumns + ") do update set attr_value=excluded.attr_value, " +
+				"modified_by=excluded.modified_by, modified_by_uid=excluded.modified_by_uid, modified_at=excluded.modified_at " +
+				"where " + tableName + ".attr_value is distinct from excluded.attr_value returning attr_id", Integer.class, values.toArray());
 	}
 
 	/**
@@ -2064,40 +2357,6 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		return sb.toString();
 	}
 
-	@Override
-	public boolean insertAttribute(PerunSession sess, Attribute attribute, String tableName, List<String> columnNames, List<Object> columnValues) {
-		// add additional SQL values to the list
-		List<Object> values = new ArrayList<>(columnValues);
-		values.add(BeansUtils.attributeValueToString(attribute)); // valueColName
-		values.add(sess.getPerunPrincipal().getActor()); // created_by
-		values.add(sess.getPerunPrincipal().getActor()); // modified_by
-		values.add(sess.getPerunPrincipal().getUserId()); // created_by_uid
-		values.add(sess.getPerunPrincipal().getUserId()); // modified_by_uid
-		// prepare correct number of question marks
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < values.size(); i++) {
-			sb.append("?,");
-		}
-		String questionMarks = sb.toString();
-
-		int changed = jdbc.update("insert into " + tableName + " (" + buildParameters(columnNames, "", ", ") + ", attr_value, created_by, modified_by, created_by_uid, modified_by_uid, modified_at, created_at) "
-				+ "values (" + questionMarks + Compatibility.getSysdate() + ", " + Compatibility.getSysdate() + " )", values.toArray());
-		return changed > 0;
-	}
-
-	@Override
-	public boolean updateAttribute(PerunSession sess, Attribute attribute, String tableName, List<String> columnNames, List<Object> columnValues) {
-		// add additional SQL values to the list
-		List<Object> values = new ArrayList<>();
-		values.add(BeansUtils.attributeValueToString(attribute)); // valueColName
-		values.add(sess.getPerunPrincipal().getActor()); // modified_by
-		values.add(sess.getPerunPrincipal().getUserId()); // modified_by_uid
-		values.addAll(columnValues);
-		int changed = jdbc.update("update " + tableName + " set attr_value=?, modified_by=?, modified_by_uid=?, modified_at=" +
-				Compatibility.getSysdate() + " where " + buildParameters(columnNames, "=?", " and "), values.toArray());
-		return changed > 0;
-	}
-
 	@Override
 	public boolean setAttributeWithNullValue(final PerunSession sess, final String key, final Attribute attribute) {
 		try {
@@ -2172,6 +2431,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		if (!attribute.getFriendlyName().matches(AttributesManager.ATTRIBUTES_REGEXP)) {
 			throw new InternalErrorException(new IllegalArgumentException("Wrong attribute name " + attribute.getFriendlyName() + ", attribute name must match " + AttributesManager.ATTRIBUTES_REGEXP));
 		}
+		markDefinitionsChanged();
 		try {
 			int attributeId = Utils.getNewId(jdbc, "attr_names_id_seq");
 
@@ -2204,6 +2464,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public void deleteAttribute(PerunSession sess, AttributeDefinition attribute) {
+		markDefinitionsChanged();
 		try {
 			// unique attributes get deleted by deletion from entity_attr_values
 			jdbc.update("DELETE FROM "+ attributeToTablePrefix(attribute)+"_attr_values WHERE attr_id=?", attribute.getId());
@@ -2658,6 +2919,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		private final PerunSession sess;
 		private final AttributesManagerImpl attributesManager;
 		private final List<Group> groups;
+		private final Resource resource;
 
 		/**
 		 * Sets up parameters for data extractor
@@ -2667,9 +2929,23 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		 * @param groups           list of groups
 		 */
 		GroupAttributeExtractor(PerunSession sess, AttributesManagerImpl attributesManager, List<Group> groups) {
+			this(sess, attributesManager, null, groups);
+		}
+
+		/**
+		 * Sets up parameters for data extractor
+		 * For groupResource attributes we need also know the resource.
+		 *
+		 * @param sess              perun session
+		 * @param attributesManager attribute manager
+		 * @param resource          resource for group resource attributes
+		 * @param groups            list of groups
+		 */
+		GroupAttributeExtractor(PerunSession sess, AttributesManagerImpl attributesManager, Resource resource, List<Group> groups) {
 			this.sess = sess;
 			this.attributesManager = attributesManager;
 			this.groups = groups;
+			this.resource = resource;
 		}
 
 		@Override
@@ -2688,8 +2964,12 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 				map.computeIfAbsent(group, k -> new ArrayList<>());
 				// if not present, put in map
-				AttributeRowMapper<Group, Group> attributeRowMapper =
-						new SingleBeanAttributeRowMapper<>(sess, attributesManager, group);
+				AttributeRowMapper attributeRowMapper;
+				if (resource != null) {
+					attributeRowMapper = new GroupResourceAttributeRowMapper(sess, attributesManager, group, resource);
+				} else {
+					attributeRowMapper = new SingleBeanAttributeRowMapper<>(sess, attributesManager, group);
+				}
 				Attribute attribute = attributeRowMapper.mapRow(rs, rs.getRow());
 
 				if (attribute != null) {
@@ -2746,6 +3026,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 				memberObjectMap.put(member.getId(), member);
 			}
 
+			DeferredVirtualAttributes deferredVirtualAttributes = new DeferredVirtualAttributes(sess, attributesManager, resource);
 			while (rs.next()) {
 				// fetch from map by ID
 				Integer id = rs.getInt("id");
@@ -2759,13 +3040,14 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 				} else {
 					attributeRowMapper = new SingleBeanAttributeRowMapper<>(sess, attributesManager, mem);
 				}
-				Attribute attribute = attributeRowMapper.mapRow(rs, rs.getRow());
+				Attribute attribute = attributeRowMapper.deferVirtualAttributes(deferredVirtualAttributes).mapRow(rs, rs.getRow());
 
 				if (attribute != null) {
 					// add only if exists
 					map.get(mem).add(attribute);
 				}
 			}
+			deferredVirtualAttributes.computeValues(map);
 			return map;
 		}
 	}
@@ -2855,6 +3137,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 				userObjectMap.put(user.getId(), user);
 			}
 
+			DeferredVirtualAttributes deferredVirtualAttributes = new DeferredVirtualAttributes(sess, attributesManager, facility);
 			while (rs.next()) {
 				// fetch from map by ID
 				Integer id = rs.getInt("id");
@@ -2864,13 +3147,14 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 				// if not preset, put in map
 
 				AttributeRowMapper attributeRowMapper = new UserFacilityAttributeRowMapper(sess, attributesManager, user, facility);
-				Attribute attribute = attributeRowMapper.mapRow(rs, rs.getRow());
+				Attribute attribute = attributeRowMapper.deferVirtualAttributes(deferredVirtualAttributes).mapRow(rs, rs.getRow());
 
 				if (attribute != null) {
 					// add only if exists
 					map.get(user).add(attribute);
 				}
 			}
+			deferredVirtualAttributes.computeValues(map);
 			return map;
 		}
 	}
@@ -2971,6 +3255,80 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		}
 	}
 
+	@Override
+	public HashMap<Member, List<Attribute>> getAttributeForMembers(PerunSession sess, List<Member> members, AttributeDefinition attributeDefinition) {
+		try {
+			return jdbc.execute("SELECT " + getAttributeMappingSelectQuery("mem") + ", members.id FROM attr_names " +
+				"JOIN members ON members.id " + Compatibility.getStructureForInClause() +
+				"LEFT JOIN member_attr_values mem ON attr_names.id=mem.attr_id AND mem.member_id=members.id " +
+				"WHERE attr_names.id=?", (PreparedStatementCallback<HashMap<Member, List<Attribute>>>) preparedStatement -> {
+					Array sqlArray = DatabaseManagerBl.prepareSQLArrayOfNumbers(members, preparedStatement);
+					preparedStatement.setArray(1, sqlArray);
+					preparedStatement.setInt(2, attributeDefinition.getId());
+					MemberAttributeExtractor memberAttributeExtractor = new MemberAttributeExtractor(sess, this, members);
+					return memberAttributeExtractor.extractData(preparedStatement.executeQuery());
+			});
+		} catch (RuntimeException ex) {
+			throw new InternalErrorException(ex);
+		}
+	}
+
+	@Override
+	public HashMap<Member, List<Attribute>> getAttributeForMembers(PerunSession sess, Resource resource, List<Member> members, AttributeDefinition attributeDefinition) {
+		try {
+			return jdbc.execute("SELECT " + getAttributeMappingSelectQuery("mem") + ", members.id FROM attr_names " +
+				"JOIN members ON members.id " + Compatibility.getStructureForInClause() +
+				"LEFT JOIN member_resource_attr_values mem ON attr_names.id=mem.attr_id AND mem.resource_id=? AND mem.member_id=members.id " +
+				"WHERE attr_names.id=?", (PreparedStatementCallback<HashMap<Member, List<Attribute>>>) preparedStatement -> {
+					Array sqlArray = DatabaseManagerBl.prepareSQLArrayOfNumbers(members, preparedStatement);
+					preparedStatement.setArray(1, sqlArray);
+					preparedStatement.setInt(2, resource.getId());
+					preparedStatement.setInt(3, attributeDefinition.getId());
+					MemberAttributeExtractor memberAttributeExtractor = new MemberAttributeExtractor(sess, this, resource, members);
+					return memberAttributeExtractor.extractData(preparedStatement.executeQuery());
+			});
+		} catch (RuntimeException ex) {
+			throw new InternalErrorException(ex);
+		}
+	}
+
+	@Override
+	public HashMap<User, List<Attribute>> getAttributeForUsers(PerunSession sess, List<User> users, AttributeDefinition attributeDefinition) {
+		try {
+			return jdbc.execute("SELECT " + getAttributeMappingSelectQuery("usr") + ", users.id FROM attr_names " +
+				"JOIN users ON users.id " + Compatibility.getStructureForInClause() +
+				"LEFT JOIN user_attr_values usr ON attr_names.id=usr.attr_id AND usr.user_id=users.id " +
+				"WHERE attr_names.id=?", (PreparedStatementCallback<HashMap<User, List<Attribute>>>) preparedStatement -> {
+					Array sqlArray = DatabaseManagerBl.prepareSQLArrayOfNumbers(users, preparedStatement);
+					preparedStatement.setArray(1, sqlArray);
+					preparedStatement.setInt(2, attributeDefinition.getId());
+					UserAttributeExtractor userAttributeExtractor = new UserAttributeExtractor(sess, this, users);
+					return userAttributeExtractor.extractData(preparedStatement.executeQuery());
+			});
+		} catch (RuntimeException ex) {
+			throw new InternalErrorException(ex);
+		}
+	}
+
+	@Override
+	public HashMap<User, List<Attribute>> getAttributeForUsers(PerunSession sess, Facility facility, List<User> users, AttributeDefinition attributeDefinition) {
+		try {
+			return jdbc.execute("SELECT " + getAttributeMappingSelectQuery("usr_fac") + ", users.id FROM attr_names " +
+				"JOIN users ON users.id " + Compatibility.getStructureForInClause() +
+				"LEFT JOIN user_facility_attr_values usr_fac ON attr_names.id=usr_fac.attr_id AND usr_fac.facility_id=? AND usr_fac.user_id=users.id " +
+				"WHERE attr_names.id=?", (PreparedStatementCallback<HashMap<User, List<Attribute>>>) preparedStatement -> {
+					Array sqlArray = DatabaseManagerBl.prepareSQLArrayOfNumbers(users, preparedStatement);
+					preparedStatement.setArray(1, sqlArray);
+					preparedStatement.setInt(2, facility.getId());
+					preparedStatement.setInt(3, attributeDefinition.getId());
+					UserAttributeExtractor userAttributeExtractor = new UserAttributeExtractor(sess, this, users, facility);
+					return userAttributeExtractor.extractData(preparedStatement.executeQuery());
+			});
+		} catch (RuntimeException ex) {
+			throw new InternalErrorException(ex);
+		}
+	}
+
 	@Override
 	public List<Attribute> getRequiredAttributes(PerunSession sess, Service service, Host host) {
 		try {
@@ -3011,6 +3369,26 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 		});
 	}
 
+	@Override
+	public Map<Group, List<Attribute>> getRequiredAttributesForGroups(PerunSession sess, Service service, Resource resource, List<Group> groups) {
+		return jdbc.execute("SELECT " + getAttributeMappingSelectQuery("grp_res") + ", groups.id FROM attr_names " +
+				"JOIN service_required_attrs ON attr_names.id=service_required_attrs.attr_id AND service_required_attrs.service_id=? " +
+				"JOIN groups ON groups.id " + Compatibility.getStructureForInClause() +
+				"LEFT JOIN group_resource_attr_values grp_res ON attr_names.id=grp_res.attr_id " +
+				"AND grp_res.resource_id=? AND grp_res.group_id=groups.id WHERE namespace IN (?,?,?)",
+				(PreparedStatementCallback<HashMap<Group, List<Attribute>>>) preparedStatement -> {
+			Array sqlArray = DatabaseManagerBl.prepareSQLArrayOfNumbers(groups, preparedStatement);
+			preparedStatement.setInt(1, service.getId());
+			preparedStatement.setArray(2, sqlArray);
+			preparedStatement.setInt(3, resource.getId());
+			preparedStatement.setString(4, AttributesManager.NS_GROUP_RESOURCE_ATTR_DEF);
+			preparedStatement.setString(5, AttributesManager.NS_GROUP_RESOURCE_ATTR_OPT);
+			preparedStatement.setString(6, AttributesManager.NS_GROUP_RESOURCE_ATTR_VIRT);
+			GroupAttributeExtractor groupAttributeExtractor = new GroupAttributeExtractor(sess, this, resource, groups);
+			return groupAttributeExtractor.extractData(preparedStatement.executeQuery());
+		});
+	}
+
 	@Override
 	public List<Attribute> getRequiredAttributes(PerunSession sess, List<Service> services, Group group) {
 		MapSqlParameterSource parameters = new MapSqlParameterSource();
@@ -4897,6 +5275,7 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 
 	@Override
 	public AttributeDefinition updateAttributeDefinition(PerunSession perunSession, AttributeDefinition attributeDefinition) {
+		markDefinitionsChanged();
 		try {
 			Map<String, Object> map = jdbc.queryForMap("SELECT attr_name, friendly_name, namespace, type, dsc, display_name, is_unique FROM attr_names WHERE id=?", attributeDefinition.getId());
 
@@ -5137,4 +5516,12 @@ public class AttributesManagerImpl implements AttributesManagerImplApi {
 	public void setPerun(Perun perun) {
 		this.perun = perun;
 	}
+
+	public void setAttributeDefinitionRegistry(AttributeDefinitionRegistry attributeDefinitionRegistry) {
+		this.attributeDefinitionRegistry = attributeDefinitionRegistry;
+	}
+
+	public void setVirtualAttributeValuesCache(VirtualAttributeValuesCache virtualAttributeValuesCache) {
+		this.virtualAttributeValuesCache = virtualAttributeValuesCache;
+	}
 }
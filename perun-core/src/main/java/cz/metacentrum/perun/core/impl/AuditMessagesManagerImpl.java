@@ -363,6 +363,32 @@ public class AuditMessagesManagerImpl implements AuditMessagesManagerImplApi {
 
 	}
 
+	@Override
+	public List<AuditEvent> pollConsumerEventsPage(PerunSession perunSession, String consumerName, int maxCount) {
+
+		checkAuditerConsumerExists(perunSession, consumerName);
+
+		try {
+
+			int lastProcessedId = getLastProcessedId(consumerName);
+			// read only the page after the last processed id, max(id) is not needed
+			List<AuditMessage> messages = jdbc.query("select " + auditMessageMappingSelectQuery + " from auditer_log where id > ? order by id limit ?", AUDIT_MESSAGE_MAPPER, lastProcessedId, maxCount);
+
+			List<AuditEvent> eventList = new ArrayList<>(messages.size());
+			if (!messages.isEmpty()) {
+				messages.forEach(message -> eventList.add(message.getEvent()));
+				// update counter
+				setLastProcessedId(perunSession, consumerName, messages.get(messages.size() - 1).getId());
+			}
+
+			return eventList;
+
+		} catch (Exception ex) {
+			throw new InternalErrorException(ex);
+		}
+
+	}
+
 	@Override
 	public Map<String, Integer> getAllAuditerConsumers(PerunSession sess) {
 		try {
@@ -10,6 +10,7 @@ import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.core.api.exceptions.WrongAttributeAssignmentException;
 import cz.metacentrum.perun.core.api.exceptions.WrongReferenceAttributeValueException;
 import cz.metacentrum.perun.core.implApi.modules.attributes.AttributesModuleImplApi;
+import cz.metacentrum.perun.core.provisioning.GenAttributesCache;
 import net.jcip.annotations.GuardedBy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -25,12 +26,14 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
  * This class is responsible for runtime logging of audit events. It gets messages and assocaites them with current transaction.
@@ -57,6 +60,12 @@ public class Auditer {
 	private final static Logger log = LoggerFactory.getLogger(Auditer.class);
 	private final static Logger transactionLogger = LoggerFactory.getLogger("transactionLogger");
 	private JdbcPerunTemplate jdbc;
+	private GenAttributesCache genAttributesCache;
+	private AuthzRolesCache authzRolesCache;
+	private MfaCriticalObjectsCache mfaCriticalObjectsCache;
+	private AttributeDefinitionRegistry attributeDefinitionRegistry;
+	private VirtualAttributeValuesCache virtualAttributeValuesCache;
+	private AuditerNotifications notifications;
 
 	private int lastProcessedId;
 	private static final Map<Class<?>,Class<?>> mixinMap = new HashMap<>();
@@ -76,25 +85,24 @@ public class Auditer {
 
 	private static final Object LOCK_DB_TABLE_AUDITER_LOG = new Object();
 
-	private static final Set<AttributesModuleImplApi> registeredAttributesModules = new HashSet<>();
+	// modules are read by every stored message and changed only rarely
+	private static final Set<AttributesModuleImplApi> registeredAttributesModules = new CopyOnWriteArraySet<>();
+
+	// serialized messages waiting for the insert in group commit mode
+	private final Queue<PendingRows> pendingRows = new ConcurrentLinkedQueue<>();
+	private boolean groupCommit;
 
 	public static void registerAttributeModule(AttributesModuleImplApi attributesModuleImplApi) {
-		synchronized (LOCK_DB_TABLE_AUDITER_LOG) {
-			log.trace("Auditer: Try to register module {}", (attributesModuleImplApi == null) ? null : attributesModuleImplApi.getClass().getName());
-			if(attributesModuleImplApi != null && !registeredAttributesModules.contains(attributesModuleImplApi)) {
-				registeredAttributesModules.add(attributesModuleImplApi);
-				log.debug("Auditer: Module {} was registered for audit message listening.", attributesModuleImplApi.getClass().getName());
-			}
+		log.trace("Auditer: Try to register module {}", (attributesModuleImplApi == null) ? null : attributesModuleImplApi.getClass().getName());
+		if(attributesModuleImplApi != null && registeredAttributesModules.add(attributesModuleImplApi)) {
+			log.debug("Auditer: Module {} was registered for audit message listening.", attributesModuleImplApi.getClass().getName());
 		}
 	}
 
 	public static void unregisterAttributeModule(AttributesModuleImplApi attributesModuleImplApi) {
-		synchronized (LOCK_DB_TABLE_AUDITER_LOG) {
-			log.trace("Auditer: Try to unregister module {}", (attributesModuleImplApi == null) ? null : attributesModuleImplApi.getClass().getName());
-			if (attributesModuleImplApi != null && registeredAttributesModules.contains(attributesModuleImplApi)) {
-				registeredAttributesModules.remove(attributesModuleImplApi);
-				log.debug("Auditer: Module {} was removed from audit message listening.", attributesModuleImplApi.getClass().getName());
-			}
+		log.trace("Auditer: Try to unregister module {}", (attributesModuleImplApi == null) ? null : attributesModuleImplApi.getClass().getName());
+		if (attributesModuleImplApi != null && registeredAttributesModules.remove(attributesModuleImplApi)) {
+			log.debug("Auditer: Module {} was removed from audit message listening.", attributesModuleImplApi.getClass().getName());
 		}
 	}
 
@@ -106,6 +114,53 @@ public class Auditer {
 		this.jdbc.setQueryTimeout(BeansUtils.getCoreConfig().getQueryTimeout());
 	}
 
+	public void setGenAttributesCache(GenAttributesCache genAttributesCache) {
+		this.genAttributesCache = genAttributesCache;
+	}
+
+	public void setAuthzRolesCache(AuthzRolesCache authzRolesCache) {
+		this.authzRolesCache = authzRolesCache;
+	}
+
+	public void setMfaCriticalObjectsCache(MfaCriticalObjectsCache mfaCriticalObjectsCache) {
+		this.mfaCriticalObjectsCache = mfaCriticalObjectsCache;
+	}
+
+	public void setAttributeDefinitionRegistry(AttributeDefinitionRegistry attributeDefinitionRegistry) {
+		this.attributeDefinitionRegistry = attributeDefinitionRegistry;
+	}
+
+	public void setVirtualAttributeValuesCache(VirtualAttributeValuesCache virtualAttributeValuesCache) {
+		this.virtualAttributeValuesCache = virtualAttributeValuesCache;
+	}
+
+	/**
+	 * Sets, whether messages of concurrent transactions should be inserted to the auditer log together.
+	 *
+	 * @param groupCommit true to enable group commit
+	 */
+	public void setGroupCommit(boolean groupCommit) {
+		this.groupCommit = groupCommit;
+	}
+
+	public boolean isGroupCommit() {
+		return groupCommit;
+	}
+
+	public void setNotifications(AuditerNotifications notifications) {
+		this.notifications = notifications;
+	}
+
+	/**
+	 * Returns notifications about new messages in the auditer log, which can be used by consumers
+	 * to wait for the messages instead of polling.
+	 *
+	 * @return notifications about new messages
+	 */
+	public AuditerNotifications getNotifications() {
+		return notifications;
+	}
+
 	/**
 	 * Log message.
 	 * Takes AuditEvent object and logs it to db.
@@ -116,6 +171,7 @@ public class Auditer {
 	 */
 	public void log(PerunSession sess, AuditEvent event) {
 
+		invalidateVirtualAttributeValues(event);
 		if(TransactionSynchronizationManager.isActualTransactionActive()) {
 			log.trace("Auditer stores audit message to current transaction. Message: {}.", event.getMessage());
 			List<List<List<AuditerMessage>>> topLevelTransactions = (List<List<List<AuditerMessage>>>) TransactionSynchronizationManager.getResource(this);
@@ -144,9 +200,48 @@ public class Auditer {
 	 *
 	 */
 	public void logWithoutTransaction(PerunSession sess, AuditEvent event) {
+		invalidateVirtualAttributeValues(event);
 		storeMessageToDb(sess, event);
 	}
 
+	/**
+	 * Removes values of virtual attributes computed in the current transaction, which can be changed by the event.
+	 *
+	 * @param event audit event
+	 */
+	private void invalidateVirtualAttributeValues(AuditEvent event) {
+		if (virtualAttributeValuesCache == null) {
+			return;
+		}
+		try {
+			virtualAttributeValuesCache.invalidate(event);
+		} catch (RuntimeException ex) {
+			log.error("Failed to invalidate values of virtual attributes, they will be cleared.", ex);
+			virtualAttributeValuesCache.clear();
+		}
+	}
+
+	/**
+	 * Returns true, if some messages were logged in the current transaction and they are not flushed yet,
+	 * so the transaction has probably changed some data not visible to other transactions.
+	 *
+	 * @return true, if there are messages waiting for the commit of the current transaction
+	 */
+	public boolean hasPendingMessages() {
+		List<List<List<AuditerMessage>>> topLevelTransactions = (List<List<List<AuditerMessage>>>) TransactionSynchronizationManager.getResource(this);
+		if (topLevelTransactions == null) {
+			return false;
+		}
+		for (List<List<AuditerMessage>> transactionChain : topLevelTransactions) {
+			for (List<AuditerMessage> messages : transactionChain) {
+				if (!messages.isEmpty()) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Initialize new lists for sotring Audit messages.
 	 *
@@ -202,6 +297,10 @@ public class Auditer {
 	 *
 	 */
 	public void cleanNestedTransation() {
+		// values computed in the rolled back transaction can depend on its changes
+		if (virtualAttributeValuesCache != null) {
+			virtualAttributeValuesCache.clear();
+		}
 		List<List<List<AuditerMessage>>> topLevelTransactions = getTopLevelTransactions();
 		List<List<AuditerMessage>> transactionChain = topLevelTransactions.get(topLevelTransactions.size() - 1);
 		if (transactionChain.isEmpty()) {
@@ -238,9 +337,7 @@ public class Auditer {
 			TransactionSynchronizationManager.unbindResourceIfPossible(this);
 		}
 		log.trace("Audit messages was flushed for current transaction.");
-		synchronized (LOCK_DB_TABLE_AUDITER_LOG) {
-			storeMessagesToDb(messages);
-		}
+		storeMessagesToDb(messages);
 	}
 
 	/**
@@ -249,6 +346,9 @@ public class Auditer {
 	 *
 	 */
 	public void clean() {
+		if (virtualAttributeValuesCache != null) {
+			virtualAttributeValuesCache.clear();
+		}
 		List<List<List<AuditerMessage>>> topLevelTransactions = getTopLevelTransactions();
 		if (topLevelTransactions.isEmpty()) {
 			log.trace("No messages to clean");
@@ -307,6 +407,10 @@ public class Auditer {
 	 * It also checks if there are any messages which can be resolved by registered attribute modules.
 	 * Store these resolved messages too.
 	 *
+	 * Messages are resolved and serialized before the lock of the auditer log is taken, so only the insert itself
+	 * is serialized. In group commit mode, messages of concurrent callers waiting for the lock are inserted
+	 * together by the caller which gets the lock first.
+	 *
 	 * @param auditerMessages list of AuditerMessages
 	 */
 	public void storeMessagesToDb(final List<AuditerMessage> auditerMessages) {
@@ -317,56 +421,148 @@ public class Auditer {
 			return;
 		}
 
-		synchronized (LOCK_DB_TABLE_AUDITER_LOG) {
+		// Resolve all additional message from attribute modules and add them to the bulk
+		try {
 
-			// Resolve all additional message from attribute modules and add them to the bulk
-			try {
+			//Get perun session from the first message (all sessions should be same from the same principal)
+			PerunSessionImpl session = (PerunSessionImpl) auditerMessages.get(0).getOriginatingSession();
 
-				//Get perun session from the first message (all sessions should be same from the same principal)
-				PerunSessionImpl session = (PerunSessionImpl) auditerMessages.get(0).getOriginatingSession();
+			//Check recursively all messages if they can create any resolving message
+			auditerMessages.addAll(checkRegisteredAttributesModules(session, auditerMessages, new LinkedHashSet<>()));
+
+		} catch (Throwable ex) {
+			log.error("There is a problem with processing resolving messages! It will be forcibly skipped to prevent unexpected behavior of auditer log!", ex);
+		}
 
-				//Check recursively all messages if they can create any resolving message
-				auditerMessages.addAll(checkRegisteredAttributesModules(session, auditerMessages, new LinkedHashSet<>()));
+		List<AuditEvent> events = new ArrayList<>(auditerMessages.size());
+		auditerMessages.forEach(message -> events.add(message.getEvent()));
 
-			} catch (Throwable ex) {
-				log.error("There is a problem with processing resolving messages! It will be forcibly skipped to prevent unexpected behavior of auditer log!", ex);
+		// Invalidate cached provisioning data before the messages are visible to the consumers of the auditer log
+		if (genAttributesCache != null) {
+			try {
+				genAttributesCache.invalidate(events);
+			} catch (RuntimeException ex) {
+				log.error("Failed to invalidate GEN attributes cache, it will be cleared.", ex);
+				genAttributesCache.clear();
 			}
+		}
 
-			//Write all messages to the database
+		// Invalidate cached roles of users
+		if (authzRolesCache != null) {
+			try {
+				authzRolesCache.invalidate(events);
+			} catch (RuntimeException ex) {
+				log.error("Failed to invalidate authz roles cache, it will be cleared.", ex);
+				authzRolesCache.clear();
+			}
+		}
+		if (mfaCriticalObjectsCache != null) {
 			try {
-				jdbc.batchUpdate("insert into auditer_log (id, msg, actor, created_at, created_by_uid) values ("+Compatibility.getSequenceNextval("auditer_log_id_seq")+",?,?," + Compatibility.getSysdate() + ",?)",
-						new BatchPreparedStatementSetter() {
-							@Override
-							public void setValues(PreparedStatement ps, int i) throws SQLException {
-
-								final AuditerMessage auditerMessage = auditerMessages.get(i);
-								final PerunSession session = auditerMessage.getOriginatingSession();
-								String jsonString = "";
-								try {
-									jsonString = mapper.writeValueAsString(auditerMessage.getEvent());
-								} catch (IOException e) {
-									log.error("Could not map event {} to JSON: {}", auditerMessage.getEvent().getClass().getSimpleName(), auditerMessage.getEvent().getMessage());
-								}
-								log.info("AUDIT_JSON: {}", jsonString);
-								ps.setString(1, jsonString);
-								ps.setString(2, session.getPerunPrincipal().getActor());
-								ps.setInt(3, session.getPerunPrincipal().getUserId());
-							}
-
-							@Override
-							public int getBatchSize() {
-								return auditerMessages.size();
-							}
-						});
-
-			} catch (InternalErrorException e) {
-				log.error("Could not get system date identifier for the DB", e);
-			} catch (RuntimeException e) {
-				log.error("Cannot store auditer log json message in batch for list ['{}'], exception: {}", auditerMessages, e);
+				mfaCriticalObjectsCache.invalidate(events);
+			} catch (RuntimeException ex) {
+				log.error("Failed to invalidate MFA critical objects cache, it will be cleared.", ex);
+				mfaCriticalObjectsCache.clear();
+			}
+		}
+		if (attributeDefinitionRegistry != null) {
+			try {
+				attributeDefinitionRegistry.invalidate(events);
+			} catch (RuntimeException ex) {
+				log.error("Failed to invalidate registry of attribute definitions, it will be cleared.", ex);
+				attributeDefinitionRegistry.clear();
+			}
+		}
+
+		List<AuditerLogRow> rows = new ArrayList<>(auditerMessages.size());
+		for (AuditerMessage auditerMessage : auditerMessages) {
+			rows.add(serializeMessage(auditerMessage));
+		}
+
+		if (groupCommit) {
+			storeRowsInGroup(rows);
+		} else {
+			// ids are taken from the sequence during the insert, so inserts must not overlap to keep
+			// consumers reading the log by the last processed id from skipping messages
+			synchronized (LOCK_DB_TABLE_AUDITER_LOG) {
+				insertRows(rows);
+			}
+		}
+
+	}
+
+	/**
+	 * Queues the rows and waits for the lock of the auditer log. The caller which gets the lock first
+	 * inserts all queued rows in one batch, so callers whose rows were already inserted just return.
+	 *
+	 * @param rows serialized messages of single transaction
+	 */
+	private void storeRowsInGroup(List<AuditerLogRow> rows) {
+		PendingRows pending = new PendingRows(rows);
+		pendingRows.add(pending);
+
+		synchronized (LOCK_DB_TABLE_AUDITER_LOG) {
+			if (pending.stored) {
+				return;
+			}
+
+			List<PendingRows> group = new ArrayList<>();
+			List<AuditerLogRow> groupRows = new ArrayList<>();
+			PendingRows next;
+			while ((next = pendingRows.poll()) != null) {
+				group.add(next);
+				groupRows.addAll(next.rows);
 			}
 
+			log.trace("Auditer stores messages of {} transactions in one batch.", group.size());
+			insertRows(groupRows);
+			group.forEach(stored -> stored.stored = true);
+		}
+	}
+
+	/**
+	 * Inserts already serialized messages to the auditer log in batch.
+	 *
+	 * @param rows serialized messages
+	 */
+	private void insertRows(final List<AuditerLogRow> rows) {
+		//Write all messages to the database
+		try {
+			jdbc.batchUpdate("insert into auditer_log (id, msg, actor, created_at, created_by_uid) values ("+Compatibility.getSequenceNextval("auditer_log_id_seq")+",?,?," + Compatibility.getSysdate() + ",?)",
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							final AuditerLogRow row = rows.get(i);
+							ps.setString(1, row.json);
+							ps.setString(2, row.actor);
+							ps.setInt(3, row.userId);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return rows.size();
+						}
+					});
+
+			// wake up consumers waiting for new messages
+			jdbc.execute("notify " + AuditerNotifications.CHANNEL);
+
+		} catch (InternalErrorException e) {
+			log.error("Could not get system date identifier for the DB", e);
+		} catch (RuntimeException e) {
+			log.error("Cannot store auditer log json message in batch for list ['{}'], exception: {}", rows, e);
 		}
+	}
 
+	private AuditerLogRow serializeMessage(AuditerMessage auditerMessage) {
+		final PerunSession session = auditerMessage.getOriginatingSession();
+		String jsonString = "";
+		try {
+			jsonString = mapper.writeValueAsString(auditerMessage.getEvent());
+		} catch (IOException e) {
+			log.error("Could not map event {} to JSON: {}", auditerMessage.getEvent().getClass().getSimpleName(), auditerMessage.getEvent().getMessage());
+		}
+		log.info("AUDIT_JSON: {}", jsonString);
+		return new AuditerLogRow(jsonString, session.getPerunPrincipal().getActor(), session.getPerunPrincipal().getUserId());
 	}
 
 	/**
@@ -458,4 +654,37 @@ public class Auditer {
 		return addedResolvedMessages;
 	}
 
+	/**
+	 * Message serialized for the insert to the auditer log.
+	 */
+	private static class AuditerLogRow {
+		private final String json;
+		private final String actor;
+		private final int userId;
+
+		private AuditerLogRow(String json, String actor, int userId) {
+			this.json = json;
+			this.actor = actor;
+			this.userId = userId;
+		}
+
+		@Override
+		public String toString() {
+			return json;
+		}
+	}
+
+	/**
+	 * Messages of single transaction waiting for the insert in group commit mode.
+	 */
+	private static class PendingRows {
+		private final List<AuditerLogRow> rows;
+		@GuardedBy("Auditer.LOCK_DB_TABLE_AUDITER_LOG")
+		private boolean stored;
+
+		private PendingRows(List<AuditerLogRow> rows) {
+			this.rows = rows;
+		}
+	}
+
 }
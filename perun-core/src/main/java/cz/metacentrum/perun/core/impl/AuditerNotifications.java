@@ -0,0 +1,169 @@
+package cz.metacentrum.perun.core.impl;
+
+import net.jcip.annotations.GuardedBy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Delivers notifications about new messages in the auditer log to the consumers running in this JVM,
+ * so they don't have to poll the auditer log repeatedly.
+ *
+ * Auditer sends PostgreSQL notification to the CHANNEL after every insert to the auditer log. The listening
+ * connection is taken from the pool lazily, when some consumer waits for the messages for the first time,
+ * and it is kept by the daemon thread until the notifications are stopped.
+ *
+ * If the notifications can't be received, consumers fall back to polling in the short interval.
+ * Even when listening, consumers wake up in the long interval to not miss anything.
+ *
+ * @see Auditer
+ */
+public class AuditerNotifications {
+
+	private final static Logger log = LoggerFactory.getLogger(AuditerNotifications.class);
+
+	public static final String CHANNEL = "auditer_log";
+
+	// how long consumers wait, when notifications are received or not
+	private static final long LISTENING_WAIT_TIMEOUT = 10000;
+	private static final long POLLING_WAIT_TIMEOUT = 1000;
+
+	private static final int RECEIVE_TIMEOUT = 1000;
+	private static final long RECONNECT_DELAY = 10000;
+
+	private final DataSource dataSource;
+
+	private final Object monitor = new Object();
+	@GuardedBy("monitor")
+	private long received;
+	@GuardedBy("monitor")
+	private Thread listenerThread;
+
+	private volatile boolean listening;
+	private volatile boolean stopped;
+
+	public AuditerNotifications(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Returns number of notifications received so far. It should be taken before the consumer
+	 * reads the auditer log and passed to the awaitMessages() afterwards, so no notification is missed.
+	 *
+	 * @return number of received notifications
+	 */
+	public long getReceived() {
+		ensureStarted();
+		synchronized (monitor) {
+			return received;
+		}
+	}
+
+	/**
+	 * Waits until the notification about new messages arrives, when the given number of notifications was received before.
+	 * If the notifications are not received, it waits only for short polling interval.
+	 *
+	 * @param lastReceived number of notifications received before reading the auditer log
+	 * @return number of received notifications
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	public long awaitMessages(long lastReceived) throws InterruptedException {
+		ensureStarted();
+		long timeout = listening ? LISTENING_WAIT_TIMEOUT : POLLING_WAIT_TIMEOUT;
+		long deadline = System.currentTimeMillis() + timeout;
+		synchronized (monitor) {
+			long remaining = timeout;
+			while (received == lastReceived && remaining > 0 && !stopped) {
+				monitor.wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+			return received;
+		}
+	}
+
+	/**
+	 * Returns true, if the notifications are currently received. When true, the notification
+	 * sent after start of the listening is already counted in the received notifications.
+	 *
+	 * @return true, if listening to the notifications
+	 */
+	public boolean isListening() {
+		return listening;
+	}
+
+	/**
+	 * Stops receiving of the notifications and releases the listening connection.
+	 */
+	public void stop() {
+		stopped = true;
+		synchronized (monitor) {
+			if (listenerThread != null) {
+				listenerThread.interrupt();
+			}
+			monitor.notifyAll();
+		}
+	}
+
+	private void ensureStarted() {
+		synchronized (monitor) {
+			if (listenerThread == null && !stopped) {
+				listenerThread = new Thread(this::listen, "auditer-notifications");
+				listenerThread.setDaemon(true);
+				listenerThread.start();
+			}
+		}
+	}
+
+	private void signal() {
+		synchronized (monitor) {
+			received++;
+			monitor.notifyAll();
+		}
+	}
+
+	private void listen() {
+		while (!stopped) {
+			try (Connection connection = dataSource.getConnection()) {
+				connection.setAutoCommit(true);
+				PGConnection pgConnection = connection.unwrap(PGConnection.class);
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("listen " + CHANNEL);
+				}
+				// messages could be stored while nobody was listening, so let the consumers check them,
+				// it is done before listening is set, so the consumers see it already counted when listening
+				signal();
+				listening = true;
+				log.debug("Listening to notifications about new messages in the auditer log.");
+
+				while (!stopped) {
+					PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT);
+					if (notifications != null && notifications.length > 0) {
+						signal();
+					}
+				}
+			} catch (SQLException | RuntimeException e) {
+				if (!stopped) {
+					log.error("Failed to receive notifications about new messages in the auditer log, consumers will poll it.", e);
+				}
+			} finally {
+				listening = false;
+			}
+
+			if (!stopped) {
+				try {
+					Thread.sleep(RECONNECT_DELAY);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+}
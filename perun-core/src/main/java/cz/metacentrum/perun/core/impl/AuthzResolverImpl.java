@@ -2,6 +2,8 @@ package cz.metacentrum.perun.core.impl;
 
 import cz.metacentrum.perun.core.api.ActionType;
 import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.AuthzResolver;
 import cz.metacentrum.perun.core.api.BeansUtils;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Group;
@@ -91,6 +93,17 @@ public class AuthzResolverImpl implements AuthzResolverImplApi {
 
 	private static final Pattern columnNamesPattern = Pattern.compile("^[_0-9a-zA-Z]+$");
 
+	// object type -> {table with attribute values, column with object id, attribute namespace}
+	private static final Map<String, String[]> mfaCriticalAttrTables = Map.of(
+		"Vo", new String[] {"vo_attr_values", "vo_id", AttributesManager.NS_VO_ATTR_DEF},
+		"Group", new String[] {"group_attr_values", "group_id", AttributesManager.NS_GROUP_ATTR_DEF},
+		"Member", new String[] {"member_attr_values", "member_id", AttributesManager.NS_MEMBER_ATTR_DEF},
+		"User", new String[] {"user_attr_values", "user_id", AttributesManager.NS_USER_ATTR_DEF},
+		"Resource", new String[] {"resource_attr_values", "resource_id", AttributesManager.NS_RESOURCE_ATTR_DEF},
+		"Facility", new String[] {"facility_attr_values", "facility_id", AttributesManager.NS_FACILITY_ATTR_DEF},
+		"Host", new String[] {"host_attr_values", "host_id", AttributesManager.NS_HOST_ATTR_DEF},
+		"UserExtSource", new String[] {"user_ext_source_attr_values", "user_ext_source_id", AttributesManager.NS_UES_ATTR_DEF});
+
 
 	private static final RowMapper<Pair<String, Map<String, Map<Integer, List<Group>>>>> AUTHZ_COMPLEMENTARY_OBJECTS_AUTH_GROUPS_MAPPER = (rs, i) -> {
 		try {
@@ -851,6 +864,21 @@ public class AuthzResolverImpl implements AuthzResolverImplApi {
 		}
 	}
 
+	@Override
+	public Set<Integer> getMfaCriticalObjectIds(PerunSession sess, String objectType) {
+		String[] table = mfaCriticalAttrTables.get(objectType);
+		if (table == null) {
+			throw new InternalErrorException("Object of type " + objectType + " could not be checked for MFA criticality.");
+		}
+		try {
+			return new HashSet<>(jdbc.query("SELECT v." + table[1] + " FROM " + table[0] + " v JOIN attr_names a ON v.attr_id=a.id" +
+					" WHERE a.attr_name=? AND v.attr_value='true'",
+				new SingleColumnRowMapper<>(Integer.class), table[2] + ":" + AuthzResolver.MFA_CRITICAL_ATTR));
+		} catch (RuntimeException e) {
+			throw new InternalErrorException(e);
+		}
+	}
+
 	@Override
 	public void addResourceRole(PerunSession sess, User user, String role, Resource resource) throws AlreadyAdminException {
 		if (!role.equals(Role.RESOURCESELFSERVICE)) {
@@ -948,6 +976,17 @@ public class AuthzResolverImpl implements AuthzResolverImplApi {
 		return perunPoliciesContainer.fetchPolicyWithAllIncludedPolicies(policyName);
 	}
 
+	/**
+	 * Get evaluation plan of the policy with all its included policies from the PerunPoliciesContainer
+	 *
+	 * @param policyName for which will be the plan fetched
+	 * @return plan of the policy
+	 * @throws PolicyNotExistsException if policy or some included policies does not exists in PerunPoliciesContainer
+	 */
+	public static PerunPolicyPlan getPolicyPlan(String policyName) throws PolicyNotExistsException {
+		return perunPoliciesContainer.getPolicyPlan(policyName);
+	}
+
 	/**
 	 * Return all loaded perun policies.
 	 *
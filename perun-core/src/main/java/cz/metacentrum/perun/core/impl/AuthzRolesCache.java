@@ -0,0 +1,205 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.Member;
+import cz.metacentrum.perun.core.api.PerunBean;
+import cz.metacentrum.perun.core.api.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of the authorization roles computed for users.
+ *
+ * Cached roles contain everything derived from the user: roles stored in DB (including roles obtained through
+ * authorized groups), subgroups of the groups in group roles, SELF, SERVICEUSER, MEMBERSHIP and SPONSORSHIP roles.
+ * Roles depending on the session (service principals, OAuth scopes, MFA) are never cached.
+ * Every session gets its own copy of the cached roles.
+ *
+ * The cache is invalidated by the Auditer from the stream of audit events, after the changes are committed.
+ * Events referencing a member or user invalidate roles of that user only, since such changes (membership in
+ * group, VO or sponsorship, role set for the user) can't affect roles of other users. Other events, which can
+ * change roles (groups hierarchy, group-resource assignments, roles set for authorized groups, ...) clear
+ * the whole cache. Events from managers, which never affect roles (attributes, services, registrar, ...) are ignored.
+ *
+ * Because the invalidation is driven by the audit events of this JVM, the cache must be enabled only when all
+ * changes of the Perun data are made through this instance. It is disabled by default, it can be enabled by
+ * setting perun.authz.rolesCacheSize to the maximal number of cached users.
+ */
+public class AuthzRolesCache {
+
+	private final static Logger log = LoggerFactory.getLogger(AuthzRolesCache.class);
+
+	/**
+	 * Packages of audit events, which never change roles of any user.
+	 */
+	private static final Set<String> IGNORED_EVENT_PACKAGES = Set.of(
+			"AttributesManagerEvents",
+			"AuthorshipManagementEvents",
+			"ConsentManager",
+			"ExpirationNotifScheduler",
+			"ExtSourcesManagerEvents",
+			"GeneralServiceManagerEvents",
+			"MailManagerEvents",
+			"OwnersManagerEvents",
+			"RegistrarManagerEvents",
+			"ServicesManagerEvents");
+
+	private final int maxSize;
+	private final Map<Integer, AuthzRoles> rolesByUser;
+
+	private long epoch = 0;
+	private long hits = 0;
+	private long misses = 0;
+
+	public AuthzRolesCache() {
+		this(BeansUtils.getCoreConfig().getAuthzRolesCacheSize());
+	}
+
+	public AuthzRolesCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.rolesByUser = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, AuthzRoles> eldest) {
+				return size() > AuthzRolesCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns true, if the cache is enabled.
+	 *
+	 * @return true, if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	/**
+	 * Returns current epoch of the cache. The epoch is changed with every invalidation.
+	 * Callers must obtain the epoch before they start to compute the roles and pass it back when
+	 * storing them, so roles computed before an invalidation are never stored.
+	 *
+	 * @return current epoch
+	 */
+	public synchronized long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Returns copy of cached roles of the user.
+	 *
+	 * @param userId id of the user
+	 * @return copy of cached roles or null, if roles of the user are not cached
+	 */
+	public synchronized AuthzRoles getRoles(int userId) {
+		AuthzRoles roles = rolesByUser.get(userId);
+		if (roles == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return new AuthzRoles(roles);
+	}
+
+	/**
+	 * Stores copy of the roles of the user. Nothing is stored, if the cache was invalidated since the given epoch.
+	 *
+	 * @param userId id of the user
+	 * @param roles roles of the user
+	 * @param readEpoch epoch obtained before the roles were computed
+	 */
+	public synchronized void putRoles(int userId, AuthzRoles roles, long readEpoch) {
+		if (!isEnabled() || readEpoch != epoch) {
+			return;
+		}
+		rolesByUser.put(userId, new AuthzRoles(roles));
+	}
+
+	/**
+	 * Invalidates roles affected by the given audit events.
+	 *
+	 * @param events audit events
+	 */
+	public synchronized void invalidate(List<AuditEvent> events) {
+		if (!isEnabled()) {
+			return;
+		}
+		epoch++;
+		for (AuditEvent event : events) {
+			if (!invalidate(event)) {
+				log.debug("{} can change roles of any user, clearing the whole authz roles cache.", event.getName());
+				rolesByUser.clear();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes all roles from the cache.
+	 */
+	public synchronized void clear() {
+		epoch++;
+		rolesByUser.clear();
+	}
+
+	/**
+	 * Returns number of users with cached roles.
+	 *
+	 * @return number of cached users
+	 */
+	public synchronized int size() {
+		return rolesByUser.size();
+	}
+
+	/**
+	 * Returns number of successful lookups since the start.
+	 *
+	 * @return number of hits
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns number of unsuccessful lookups since the start.
+	 *
+	 * @return number of misses
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Invalidates roles of users referenced by the event.
+	 *
+	 * @param event audit event
+	 * @return false, if the event can change roles of users, which are not referenced by it
+	 */
+	private boolean invalidate(AuditEvent event) {
+		String eventPackage = event.getClass().getPackageName();
+		if (IGNORED_EVENT_PACKAGES.contains(eventPackage.substring(eventPackage.lastIndexOf('.') + 1))) {
+			return true;
+		}
+		Set<Integer> userIds = new HashSet<>();
+		for (PerunBean bean : event.getReferencedBeans()) {
+			if (bean instanceof User) {
+				userIds.add(bean.getId());
+			} else if (bean instanceof Member) {
+				userIds.add(((Member) bean).getUserId());
+			}
+		}
+		if (userIds.isEmpty()) {
+			return false;
+		}
+		userIds.forEach(rolesByUser::remove);
+		return true;
+	}
+
+}
@@ -220,6 +220,31 @@ public class DatabaseManagerImpl implements DatabaseManagerImplApi {
 		}
 	}
 
+	@Override
+	public String exportTransactionSnapshot() {
+		try {
+			return jdbc.queryForObject("select pg_export_snapshot()", String.class);
+		} catch(RuntimeException ex) {
+			throw new InternalErrorException(ex);
+		}
+	}
+
+	@Override
+	public void importTransactionSnapshot(String snapshotId) {
+		Utils.notNull(snapshotId, "snapshotId");
+
+		// snapshot id cannot be passed as a bind parameter, so make sure it is not an injection
+		if (!snapshotId.matches("[0-9A-Fa-f-]+")) {
+			throw new InternalErrorException("Invalid transaction snapshot id: " + snapshotId);
+		}
+
+		try {
+			jdbc.execute("set transaction snapshot '" + snapshotId + "'");
+		} catch(RuntimeException ex) {
+			throw new InternalErrorException(ex);
+		}
+	}
+
 	@Override
 	public JdbcPerunTemplate getJdbcPerunTemplate() {
 		return jdbc;
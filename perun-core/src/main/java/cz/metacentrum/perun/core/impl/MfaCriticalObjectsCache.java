@@ -0,0 +1,134 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AuthzResolver;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.PerunBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of ids of objects marked as critical for MFA, by the object type (Vo, Group, Member, ...).
+ *
+ * The cache is invalidated by the Auditer from the stream of audit events, after the changes are committed.
+ * Whole cache is cleared by any event of the attributes manager, which references the MFA critical attribute
+ * or doesn't reference any attribute at all (e.g. removal of all attributes of the object).
+ *
+ * Because the invalidation is driven by the audit events of this JVM, the cache must be enabled only when all
+ * changes of the Perun data are made through this instance. It is disabled by default, it can be enabled by
+ * setting perun.mfa.criticalObjectsCache to true.
+ */
+public class MfaCriticalObjectsCache {
+
+	private final static Logger log = LoggerFactory.getLogger(MfaCriticalObjectsCache.class);
+
+	private static final String ATTRIBUTES_MANAGER_EVENTS_PACKAGE = "AttributesManagerEvents";
+
+	private final boolean enabled;
+	private final Map<String, Set<Integer>> idsByObjectType = new HashMap<>();
+
+	private long epoch = 0;
+
+	public MfaCriticalObjectsCache() {
+		this(BeansUtils.getCoreConfig().isMfaCriticalObjectsCacheEnabled());
+	}
+
+	public MfaCriticalObjectsCache(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns true, if the cache is enabled.
+	 *
+	 * @return true, if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns current epoch of the cache. The epoch is changed with every invalidation.
+	 * Callers must obtain the epoch before they start to load the ids and pass it back when
+	 * storing them, so ids loaded before an invalidation are never stored.
+	 *
+	 * @return current epoch
+	 */
+	public synchronized long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Returns cached ids of critical objects of the type.
+	 *
+	 * @param objectType type of the objects, e.g. Group
+	 * @return unmodifiable set of ids or null, if ids of the type are not cached
+	 */
+	public synchronized Set<Integer> getCriticalObjectIds(String objectType) {
+		return idsByObjectType.get(objectType);
+	}
+
+	/**
+	 * Stores ids of critical objects of the type. Nothing is stored, if the cache was invalidated since the given epoch.
+	 *
+	 * @param objectType type of the objects, e.g. Group
+	 * @param ids ids of all critical objects of the type
+	 * @param readEpoch epoch obtained before the ids were loaded
+	 */
+	public synchronized void putCriticalObjectIds(String objectType, Set<Integer> ids, long readEpoch) {
+		if (!enabled || readEpoch != epoch) {
+			return;
+		}
+		idsByObjectType.put(objectType, Collections.unmodifiableSet(ids));
+	}
+
+	/**
+	 * Invalidates the cache, if any of the audit events can change critical objects.
+	 *
+	 * @param events audit events
+	 */
+	public synchronized void invalidate(List<AuditEvent> events) {
+		if (!enabled) {
+			return;
+		}
+		for (AuditEvent event : events) {
+			if (changesCriticalObjects(event)) {
+				log.debug("{} can change MFA critical objects, clearing the cache.", event.getName());
+				clear();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes all ids from the cache.
+	 */
+	public synchronized void clear() {
+		epoch++;
+		idsByObjectType.clear();
+	}
+
+	private static boolean changesCriticalObjects(AuditEvent event) {
+		String eventPackage = event.getClass().getPackageName();
+		if (!eventPackage.endsWith("." + ATTRIBUTES_MANAGER_EVENTS_PACKAGE)) {
+			return false;
+		}
+		boolean referencesAttribute = false;
+		for (PerunBean bean : event.getReferencedBeans()) {
+			if (bean instanceof AttributeDefinition) {
+				referencesAttribute = true;
+				if (AuthzResolver.MFA_CRITICAL_ATTR.equals(((AttributeDefinition) bean).getFriendlyName())) {
+					return true;
+				}
+			}
+		}
+		return !referencesAttribute;
+	}
+
+}
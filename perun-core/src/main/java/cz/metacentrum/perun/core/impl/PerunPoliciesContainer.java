@@ -23,10 +23,35 @@ import java.util.Set;
 public class PerunPoliciesContainer {
 
 	private static final Logger log = LoggerFactory.getLogger(PerunBasicDataSource.class);
-	private Set<PerunPolicy> perunPolicies = new HashSet<>();
+	private volatile Set<PerunPolicy> perunPolicies = new HashSet<>();
+	private volatile Map<String, PerunPolicy> perunPoliciesByName = new HashMap<>();
+	private volatile Map<String, PerunPolicyPlan> perunPolicyPlans = new HashMap<>();
 	private Map<String, RoleManagementRules> rolesManagementRules = new HashMap<>();
 
+	/**
+	 * Set policies and prepare evaluation plans of all of them, so included policies
+	 * don't have to be resolved with every authorization.
+	 *
+	 * @param perunPolicies loaded policies
+	 */
 	public void setPerunPolicies(Set<PerunPolicy> perunPolicies) {
+		Map<String, PerunPolicy> policiesByName = new HashMap<>();
+		for (PerunPolicy policy : perunPolicies) {
+			policiesByName.put(policy.getPolicyName(), policy);
+		}
+
+		Map<String, PerunPolicyPlan> policyPlans = new HashMap<>();
+		for (String policyName : policiesByName.keySet()) {
+			try {
+				policyPlans.put(policyName, new PerunPolicyPlan(policyName, fetchPolicyWithAllIncludedPolicies(policyName, policiesByName)));
+			} catch (PolicyNotExistsException e) {
+				// policy can't be evaluated, the exception is thrown when it's used
+				log.warn("Policy {} includes policy, which does not exist: {}", policyName, e.getMessage());
+			}
+		}
+
+		this.perunPoliciesByName = policiesByName;
+		this.perunPolicyPlans = policyPlans;
 		this.perunPolicies = perunPolicies;
 	}
 
@@ -43,10 +68,21 @@ public class PerunPoliciesContainer {
 	 * @throws PolicyNotExistsException of there is no policy for the policy name
 	 */
 	public PerunPolicy getPerunPolicy(String policyName) throws PolicyNotExistsException {
-		for (PerunPolicy policy : perunPolicies) {
-			if (policy.getPolicyName().equals(policyName)) return policy;
-		}
-		throw new PolicyNotExistsException("Policy with name "+ policyName + "does not exists in the PerunPoliciesContainer.");
+		return getPerunPolicy(policyName, perunPoliciesByName);
+	}
+
+	/**
+	 * Get evaluation plan of the policy and all its (also nested) included policies.
+	 *
+	 * @param policyName for which will be the plan fetched
+	 * @return PerunPolicyPlan for the policy name
+	 * @throws PolicyNotExistsException when the policy or some of its included policies does not exist in the PerunPoliciesContainer.
+	 */
+	public PerunPolicyPlan getPolicyPlan(String policyName) throws PolicyNotExistsException {
+		PerunPolicyPlan plan = perunPolicyPlans.get(policyName);
+		if (plan != null) return plan;
+		// throws proper exception about the missing policy
+		return new PerunPolicyPlan(policyName, fetchPolicyWithAllIncludedPolicies(policyName));
 	}
 
 	/**
@@ -71,6 +107,18 @@ public class PerunPoliciesContainer {
 	 * @throws PolicyNotExistsException when the given policyName does not exist in the PerunPoliciesContainer.
 	 */
 	public List<PerunPolicy> fetchPolicyWithAllIncludedPolicies(String policyName) throws PolicyNotExistsException {
+		return fetchPolicyWithAllIncludedPolicies(policyName, perunPoliciesByName);
+	}
+
+	private static PerunPolicy getPerunPolicy(String policyName, Map<String, PerunPolicy> policiesByName) throws PolicyNotExistsException {
+		PerunPolicy policy = policiesByName.get(policyName);
+		if (policy == null) {
+			throw new PolicyNotExistsException("Policy with name "+ policyName + "does not exists in the PerunPoliciesContainer.");
+		}
+		return policy;
+	}
+
+	private static List<PerunPolicy> fetchPolicyWithAllIncludedPolicies(String policyName, Map<String, PerunPolicy> policiesByName) throws PolicyNotExistsException {
 		Map<String, PerunPolicy> allIncludedPolicies = new HashMap<>();
 		Queue<String> policiesToCheck = new LinkedList<>();
 		policiesToCheck.add(policyName);
@@ -81,7 +129,7 @@ public class PerunPoliciesContainer {
 				log.warn("Policy {} creates a cycle in the included policies of the policy {}", policy, policyName);
 				continue;
 			}
-			PerunPolicy policyToCheck = getPerunPolicy(policy);
+			PerunPolicy policyToCheck = getPerunPolicy(policy, policiesByName);
 			allIncludedPolicies.put(policy, policyToCheck);
 			policiesToCheck.addAll(policyToCheck.getIncludePolicies());
 		}
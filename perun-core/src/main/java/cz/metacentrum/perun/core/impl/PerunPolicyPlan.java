@@ -0,0 +1,152 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.PerunPolicy;
+import cz.metacentrum.perun.core.api.Role;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PerunPolicyPlan is an immutable form of the policy together with all its (also nested) included policies,
+ * prepared for the evaluation of the authorization.
+ *
+ * roleRules is a list of inner role lists. Relation between the inner lists is logical OR and relation between
+ *           rules in the inner list is logical AND.
+ * mfaRules is a list of maps with MFA rules of all included policies.
+ * objectTypes is a set of object types used by role rules and MFA rules. Related objects of other types
+ *           don't have to be resolved for the evaluation.
+ *
+ * Plans are created by the PerunPoliciesContainer when the policies are loaded.
+ */
+public class PerunPolicyPlan {
+
+	private final String policyName;
+	private final List<List<RoleRule>> roleRules;
+	private final List<Map<String, String>> policyRoles;
+	private final List<Map<String, String>> mfaRules;
+	private final Set<String> objectTypes;
+
+	/**
+	 * Create plan of the policy.
+	 *
+	 * @param policyName name of the policy
+	 * @param policies policy with all its included policies
+	 */
+	public PerunPolicyPlan(String policyName, List<PerunPolicy> policies) {
+		List<List<RoleRule>> roleRules = new ArrayList<>();
+		List<Map<String, String>> policyRoles = new ArrayList<>();
+		List<Map<String, String>> mfaRules = new ArrayList<>();
+		Set<String> objectTypes = new HashSet<>();
+
+		for (PerunPolicy policy : policies) {
+			for (Map<String, String> roleArray : policy.getPerunRoles()) {
+				List<RoleRule> rules = new ArrayList<>();
+				for (Map.Entry<String, String> roleEntry : roleArray.entrySet()) {
+					rules.add(new RoleRule(roleEntry.getKey(), roleEntry.getValue()));
+					if (roleEntry.getValue() != null) objectTypes.add(roleEntry.getValue());
+				}
+				roleRules.add(Collections.unmodifiableList(rules));
+				policyRoles.add(Collections.unmodifiableMap(new LinkedHashMap<>(roleArray)));
+			}
+			if (policy.getMfaRules() != null) {
+				for (Map<String, String> mfaRule : policy.getMfaRules()) {
+					mfaRules.add(Collections.unmodifiableMap(new LinkedHashMap<>(mfaRule)));
+					String mfaObject = mfaRule.get(Role.MFA);
+					if (mfaObject != null) objectTypes.add(mfaObject);
+				}
+			}
+		}
+
+		this.policyName = policyName;
+		this.roleRules = Collections.unmodifiableList(roleRules);
+		this.policyRoles = Collections.unmodifiableList(policyRoles);
+		this.mfaRules = Collections.unmodifiableList(mfaRules);
+		this.objectTypes = Collections.unmodifiableSet(objectTypes);
+	}
+
+	public String getPolicyName() {
+		return policyName;
+	}
+
+	public List<List<RoleRule>> getRoleRules() {
+		return roleRules;
+	}
+
+	/**
+	 * Return role rules in the same form as they are defined in the policies.
+	 *
+	 * @return list of maps where each map entry consists from a role name as a key and a role object as a value.
+	 */
+	public List<Map<String, String>> getPolicyRoles() {
+		return policyRoles;
+	}
+
+	public List<Map<String, String>> getMfaRules() {
+		return mfaRules;
+	}
+
+	public Set<String> getObjectTypes() {
+		return objectTypes;
+	}
+
+	@Override
+	public String toString() {
+		return "PerunPolicyPlan{" +
+			"policyName='" + policyName + '\'' +
+			", roleRules=" + roleRules +
+			", mfaRules=" + mfaRules +
+			", objectTypes=" + objectTypes +
+			'}';
+	}
+
+	/**
+	 * Single rule of the inner role list - principal must have the role on all objects of the object type.
+	 * If the object type is null, principal must have the role itself.
+	 */
+	public static final class RoleRule {
+
+		private final String role;
+		private final String objectType;
+		private final String roleObjectType;
+
+		RoleRule(String role, String objectType) {
+			this.role = role.intern();
+			this.objectType = objectType == null ? null : objectType.intern();
+			//Use converted bean name, because for ex.: RichGroup is the same like Group in the roles of the principal
+			this.roleObjectType = objectType == null ? null : BeansUtils.convertRichBeanNameToBeanName(objectType).intern();
+		}
+
+		public String getRole() {
+			return role;
+		}
+
+		/**
+		 * Return object type, as it's used in the map of objects against which is the authorization done.
+		 *
+		 * @return object type or null
+		 */
+		public String getObjectType() {
+			return objectType;
+		}
+
+		/**
+		 * Return object type, as it's used in the roles of the principal.
+		 *
+		 * @return object type or null
+		 */
+		public String getRoleObjectType() {
+			return roleObjectType;
+		}
+
+		@Override
+		public String toString() {
+			return objectType == null ? role : role + ":" + objectType;
+		}
+	}
+}
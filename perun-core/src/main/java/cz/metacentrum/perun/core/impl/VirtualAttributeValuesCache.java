@@ -0,0 +1,277 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.PerunBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cache of values of virtual attributes computed in the current transaction, by the attribute and its holders.
+ *
+ * Values are kept only until the end of the transaction, so they are never shared between transactions.
+ * The cache is invalidated by the Auditer from the audit events logged in the transaction. An event of the attributes
+ * manager removes values of the referenced attributes and of all virtual attributes, which (even transitively) depend
+ * on them by the strong dependencies of their modules. Any other event, or an event of the attributes manager which
+ * doesn't reference any attribute, removes all values. Values are removed also on rollback of a nested transaction.
+ *
+ * Because the values are invalidated only by the strong dependencies, the cache must be enabled only when
+ * modules of virtual attributes declare all attributes they read as the strong dependencies. It is disabled
+ * by default, it can be enabled by setting perun.attributes.virtualValuesCache to true.
+ */
+public class VirtualAttributeValuesCache {
+
+	private final static Logger log = LoggerFactory.getLogger(VirtualAttributeValuesCache.class);
+
+	private static final String ATTRIBUTES_MANAGER_EVENTS_PACKAGE = "AttributesManagerEvents";
+	private static final String VIRTUAL_ATTRIBUTE_NAMESPACE_PART = ":virt";
+
+	private final boolean enabled;
+
+	public VirtualAttributeValuesCache() {
+		this(BeansUtils.getCoreConfig().isVirtualAttributeValuesCacheEnabled());
+	}
+
+	public VirtualAttributeValuesCache(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns true, if the cache is enabled.
+	 *
+	 * @return true, if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns copy of the value of the virtual attribute computed in the current transaction.
+	 *
+	 * @param attribute virtual attribute
+	 * @param attributeHolder primary attribute holder
+	 * @param attributeHolder2 secondary attribute holder or null
+	 * @return copy of the attribute with the value or null, if the value is not cached
+	 */
+	public Attribute get(AttributeDefinition attribute, Object attributeHolder, Object attributeHolder2) {
+		Values values = getValues(false);
+		if (values == null || !isCacheable(attributeHolder, attributeHolder2)) {
+			return null;
+		}
+		Attribute cached = values.byKey.get(new ValueKey(attribute, attributeHolder, attributeHolder2));
+		if (cached == null) {
+			return null;
+		}
+		Attribute result = new Attribute(attribute);
+		copyValue(cached, result);
+		return result;
+	}
+
+	/**
+	 * Stores copy of the value of the virtual attribute computed in the current transaction.
+	 * Nothing is stored outside of a transaction.
+	 *
+	 * @param attribute virtual attribute with the computed value
+	 * @param attributeHolder primary attribute holder
+	 * @param attributeHolder2 secondary attribute holder or null
+	 * @param strongDependencies names of attributes the value is computed from, as declared by the module
+	 */
+	public void put(Attribute attribute, Object attributeHolder, Object attributeHolder2, List<String> strongDependencies) {
+		if (!isCacheable(attributeHolder, attributeHolder2)) {
+			return;
+		}
+		Values values = getValues(true);
+		if (values == null) {
+			return;
+		}
+		Attribute stored = new Attribute(attribute);
+		copyValue(attribute, stored);
+		values.byKey.put(new ValueKey(attribute, attributeHolder, attributeHolder2), stored);
+		values.dependenciesByName.putIfAbsent(attribute.getName(),
+			strongDependencies == null ? Collections.emptyList() : new ArrayList<>(strongDependencies));
+	}
+
+	/**
+	 * Removes values of the current transaction, which can be changed by the audit event.
+	 *
+	 * @param event audit event logged in the current transaction
+	 */
+	public void invalidate(AuditEvent event) {
+		Values values = getValues(false);
+		if (values == null || values.byKey.isEmpty()) {
+			return;
+		}
+		Set<String> changedAttributes = getChangedAttributes(event);
+		if (changedAttributes.isEmpty()) {
+			log.trace("{} can change values of virtual attributes, clearing values of the transaction.", event.getName());
+			values.byKey.clear();
+			return;
+		}
+		Set<String> invalidAttributes = getDependentAttributes(values, changedAttributes);
+		values.byKey.keySet().removeIf(key -> invalidAttributes.contains(key.attributeName));
+	}
+
+	/**
+	 * Removes all values of the current transaction.
+	 */
+	public void clear() {
+		Values values = getValues(false);
+		if (values != null) {
+			values.byKey.clear();
+		}
+	}
+
+	private Values getValues(boolean create) {
+		if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+		Values values = (Values) TransactionSynchronizationManager.getResource(this);
+		if (values == null && create) {
+			values = new Values();
+			TransactionSynchronizationManager.bindResource(this, values);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(VirtualAttributeValuesCache.this);
+				}
+			});
+		}
+		return values;
+	}
+
+	/**
+	 * Returns names of attributes referenced by the event of the attributes manager.
+	 *
+	 * @param event audit event
+	 * @return names of the attributes, empty if the event is not from the attributes manager or it doesn't reference any attribute
+	 */
+	private static Set<String> getChangedAttributes(AuditEvent event) {
+		Set<String> names = new HashSet<>();
+		if (!event.getClass().getPackageName().endsWith("." + ATTRIBUTES_MANAGER_EVENTS_PACKAGE)) {
+			return names;
+		}
+		for (PerunBean bean : event.getReferencedBeans()) {
+			if (bean instanceof AttributeDefinition) {
+				names.add(((AttributeDefinition) bean).getName());
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Returns the changed attributes together with all cached virtual attributes depending on them.
+	 * Cached attributes depending on a virtual attribute, which was not computed in the transaction,
+	 * are returned as well, because dependencies of such attribute are not known.
+	 */
+	private static Set<String> getDependentAttributes(Values values, Set<String> changedAttributes) {
+		Set<String> invalidAttributes = new HashSet<>(changedAttributes);
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (Map.Entry<String, List<String>> entry : values.dependenciesByName.entrySet()) {
+				if (!invalidAttributes.contains(entry.getKey()) && dependsOn(values, entry.getValue(), invalidAttributes)) {
+					invalidAttributes.add(entry.getKey());
+					changed = true;
+				}
+			}
+		}
+		return invalidAttributes;
+	}
+
+	private static boolean dependsOn(Values values, List<String> dependencies, Set<String> attributeNames) {
+		for (String dependency : dependencies) {
+			if (dependency.endsWith("*")) {
+				String prefix = dependency.substring(0, dependency.length() - 1);
+				for (String attributeName : attributeNames) {
+					if (attributeName.startsWith(prefix)) {
+						return true;
+					}
+				}
+			} else if (attributeNames.contains(dependency)) {
+				return true;
+			} else if (dependency.contains(VIRTUAL_ATTRIBUTE_NAMESPACE_PART) && !values.dependenciesByName.containsKey(dependency)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isCacheable(Object attributeHolder, Object attributeHolder2) {
+		return attributeHolder instanceof PerunBean && (attributeHolder2 == null || attributeHolder2 instanceof PerunBean);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void copyValue(Attribute from, Attribute to) {
+		Object value = from.getValue();
+		if (value instanceof ArrayList) {
+			value = new ArrayList<>((ArrayList<String>) value);
+		} else if (value instanceof LinkedHashMap) {
+			value = new LinkedHashMap<>((LinkedHashMap<String, String>) value);
+		}
+		to.setValue(value);
+		to.setValueCreatedAt(from.getValueCreatedAt());
+		to.setValueCreatedBy(from.getValueCreatedBy());
+		to.setValueModifiedAt(from.getValueModifiedAt());
+		to.setValueModifiedBy(from.getValueModifiedBy());
+	}
+
+	/**
+	 * Values computed in one transaction.
+	 */
+	private static final class Values {
+
+		private final Map<ValueKey, Attribute> byKey = new HashMap<>();
+		// strong dependencies of all virtual attributes computed in the transaction, by the attribute name
+		private final Map<String, List<String>> dependenciesByName = new HashMap<>();
+	}
+
+	/**
+	 * Identification of a value by the attribute and ids of its holders.
+	 */
+	private static final class ValueKey {
+
+		private final int attributeId;
+		private final String attributeName;
+		private final String holderType;
+		private final int holderId;
+		private final String holder2Type;
+		private final int holder2Id;
+
+		private ValueKey(AttributeDefinition attribute, Object attributeHolder, Object attributeHolder2) {
+			this.attributeId = attribute.getId();
+			this.attributeName = attribute.getName();
+			this.holderType = ((PerunBean) attributeHolder).getBeanName();
+			this.holderId = ((PerunBean) attributeHolder).getId();
+			this.holder2Type = attributeHolder2 == null ? null : ((PerunBean) attributeHolder2).getBeanName();
+			this.holder2Id = attributeHolder2 == null ? 0 : ((PerunBean) attributeHolder2).getId();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			ValueKey valueKey = (ValueKey) o;
+			return attributeId == valueKey.attributeId && holderId == valueKey.holderId && holder2Id == valueKey.holder2Id
+				&& Objects.equals(holderType, valueKey.holderType) && Objects.equals(holder2Type, valueKey.holder2Type);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(attributeId, holderType, holderId, holder2Type, holder2Id);
+		}
+	}
+}
@@ -6,14 +6,21 @@ import cz.metacentrum.perun.core.api.AttributesManager;
 import cz.metacentrum.perun.core.api.ExtSourcesManager;
 import cz.metacentrum.perun.core.api.User;
 import cz.metacentrum.perun.core.api.UserExtSource;
+import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+import cz.metacentrum.perun.core.bl.DatabaseManagerBl;
+import cz.metacentrum.perun.core.impl.Compatibility;
 import cz.metacentrum.perun.core.impl.PerunSessionImpl;
 import cz.metacentrum.perun.core.implApi.modules.attributes.SkipValueCheckDuringDependencyCheck;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesModuleAbstract;
-import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesModuleImplApi;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 
+import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -24,7 +31,7 @@ import java.util.regex.Pattern;
  * @author Michal Šťava <stavamichal@gmail.com>
  */
 @SkipValueCheckDuringDependencyCheck
-public class urn_perun_user_attribute_def_virt_eduPersonPrincipalNames extends UserVirtualAttributesModuleAbstract implements UserVirtualAttributesModuleImplApi {
+public class urn_perun_user_attribute_def_virt_eduPersonPrincipalNames extends UserVirtualAttributesModuleAbstract implements UserVirtualAttributesBulkModuleImplApi {
 
 	private static final Pattern pattern = Pattern.compile("[^@]+@[^@]+");
 
@@ -55,6 +62,45 @@ public class urn_perun_user_attribute_def_virt_eduPersonPrincipalNames extends U
 		return attribute;
 	}
 
+	/**
+	 * Loads IdP logins of all the users by one query.
+	 */
+	@Override
+	public Map<User, Attribute> getAttributeValues(PerunSessionImpl sess, List<User> users, AttributeDefinition attributeDefinition) {
+		Map<Integer, Set<String>> idpLoginsByUserId;
+		try {
+			idpLoginsByUserId = sess.getPerunBl().getDatabaseManagerBl().getJdbcPerunTemplate().execute(
+				"SELECT user_ext_sources.user_id, user_ext_sources.login_ext FROM user_ext_sources" +
+					" JOIN ext_sources ON ext_sources.id = user_ext_sources.ext_sources_id AND ext_sources.type = ?" +
+					" WHERE user_ext_sources.user_id " + Compatibility.getStructureForInClause(),
+				(PreparedStatementCallback<Map<Integer, Set<String>>>) preparedStatement -> {
+					preparedStatement.setString(1, ExtSourcesManager.EXTSOURCE_IDP);
+					preparedStatement.setArray(2, DatabaseManagerBl.prepareSQLArrayOfNumbers(users, preparedStatement));
+					// prevent duplicate entries in EPPN
+					Map<Integer, Set<String>> logins = new HashMap<>();
+					ResultSet rs = preparedStatement.executeQuery();
+					while (rs.next()) {
+						String login = rs.getString("login_ext");
+						// insert only EPPN formatted data
+						if (login != null && pattern.matcher(login).matches()) {
+							logins.computeIfAbsent(rs.getInt("user_id"), id -> new HashSet<>()).add(login);
+						}
+					}
+					return logins;
+				});
+		} catch (RuntimeException e) {
+			throw new InternalErrorException(e);
+		}
+
+		Map<User, Attribute> attributes = new HashMap<>();
+		for (User user : users) {
+			Attribute attribute = new Attribute(attributeDefinition);
+			attribute.setValue(new ArrayList<>(idpLoginsByUserId.getOrDefault(user.getId(), new HashSet<>())));
+			attributes.put(user, attribute);
+		}
+		return attributes;
+	}
+
 	@Override
 	public AttributeDefinition getAttributeDefinition() {
 		AttributeDefinition attr = new AttributeDefinition();
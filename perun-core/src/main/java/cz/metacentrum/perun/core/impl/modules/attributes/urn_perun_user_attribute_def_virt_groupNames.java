@@ -24,17 +24,23 @@ import cz.metacentrum.perun.core.api.VosManager;
 import cz.metacentrum.perun.core.api.exceptions.AttributeNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.core.api.exceptions.WrongAttributeAssignmentException;
+import cz.metacentrum.perun.core.bl.DatabaseManagerBl;
+import cz.metacentrum.perun.core.impl.Compatibility;
 import cz.metacentrum.perun.core.impl.PerunSessionImpl;
 import cz.metacentrum.perun.core.implApi.modules.attributes.SkipValueCheckDuringDependencyCheck;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesModuleAbstract;
-import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesModuleImplApi;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.RowMapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -44,7 +50,7 @@ import java.util.TreeSet;
  * @author Ondrej Velisek <ondrejvelisek@gmail.com>
  */
 @SkipValueCheckDuringDependencyCheck
-public class urn_perun_user_attribute_def_virt_groupNames extends UserVirtualAttributesModuleAbstract implements UserVirtualAttributesModuleImplApi {
+public class urn_perun_user_attribute_def_virt_groupNames extends UserVirtualAttributesModuleAbstract implements UserVirtualAttributesBulkModuleImplApi {
 
 	private static final String FRIENDLY_NAME = "groupNames";
 	private static final String A_U_V_GROUP_NAMES = AttributesManager.NS_USER_ATTR_VIRT + ":" + FRIENDLY_NAME;
@@ -60,8 +66,6 @@ public class urn_perun_user_attribute_def_virt_groupNames extends UserVirtualAtt
 
 	@Override
 	public Attribute getAttributeValue(PerunSessionImpl sess, User user, AttributeDefinition attributeDefinition) {
-		Attribute attribute = new Attribute(attributeDefinition);
-		Set<String> groupNames = new TreeSet<>();
 		List<Pair<String, String>> names;
 		try {
 			names = sess.getPerunBl().getDatabaseManagerBl().getJdbcPerunTemplate().query(
@@ -80,7 +84,49 @@ public class urn_perun_user_attribute_def_virt_groupNames extends UserVirtualAtt
 		} catch (RuntimeException e) {
 			throw new InternalErrorException(e);
 		}
+		return getGroupNamesAttribute(attributeDefinition, names);
+	}
+
+	/**
+	 * Loads names of groups of all the users by one query.
+	 */
+	@Override
+	public Map<User, Attribute> getAttributeValues(PerunSessionImpl sess, List<User> users, AttributeDefinition attributeDefinition) {
+		Map<Integer, List<Pair<String, String>>> namesByUserId;
+		try {
+			namesByUserId = sess.getPerunBl().getDatabaseManagerBl().getJdbcPerunTemplate().execute(
+				"SELECT" +
+					" DISTINCT members.user_id AS user_id, vos.short_name AS vo_short_name, groups.name AS group_name" +
+					" FROM" +
+					" members" +
+					" JOIN vos ON vos.id = members.vo_id AND members.user_id " + Compatibility.getStructureForInClause() + "AND members.status = ?" +
+					" JOIN groups_members ON groups_members.member_id = members.id AND groups_members.source_group_status = ?" +
+					" JOIN groups ON groups_members.group_id = groups.id",
+				(PreparedStatementCallback<Map<Integer, List<Pair<String, String>>>>) preparedStatement -> {
+					preparedStatement.setArray(1, DatabaseManagerBl.prepareSQLArrayOfNumbers(users, preparedStatement));
+					preparedStatement.setInt(2, Status.VALID.getCode());
+					preparedStatement.setInt(3, MemberGroupStatus.VALID.getCode());
+					Map<Integer, List<Pair<String, String>>> names = new HashMap<>();
+					ResultSet rs = preparedStatement.executeQuery();
+					while (rs.next()) {
+						names.computeIfAbsent(rs.getInt("user_id"), id -> new ArrayList<>()).add(ROW_MAPPER.mapRow(rs, rs.getRow()));
+					}
+					return names;
+				});
+		} catch (RuntimeException e) {
+			throw new InternalErrorException(e);
+		}
 
+		Map<User, Attribute> attributes = new HashMap<>();
+		for (User user : users) {
+			attributes.put(user, getGroupNamesAttribute(attributeDefinition, namesByUserId.getOrDefault(user.getId(), Collections.emptyList())));
+		}
+		return attributes;
+	}
+
+	private static Attribute getGroupNamesAttribute(AttributeDefinition attributeDefinition, List<Pair<String, String>> names) {
+		Attribute attribute = new Attribute(attributeDefinition);
+		Set<String> groupNames = new TreeSet<>();
 		for (Pair<String, String> one : names) {
 			String voShortName = one.getLeft();
 			groupNames.add(voShortName);
@@ -13,11 +13,13 @@ import cz.metacentrum.perun.core.api.exceptions.WrongAttributeValueException;
 import cz.metacentrum.perun.core.api.exceptions.WrongReferenceAttributeValueException;
 import cz.metacentrum.perun.core.impl.PerunSessionImpl;
 import cz.metacentrum.perun.core.impl.Utils;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserFacilityVirtualAttributesBulkModuleImplApi;
 import cz.metacentrum.perun.core.implApi.modules.attributes.UserFacilityVirtualAttributesModuleAbstract;
-import cz.metacentrum.perun.core.implApi.modules.attributes.UserFacilityVirtualAttributesModuleImplApi;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Checks and fills at specified facility users login.
@@ -25,7 +27,7 @@ import java.util.List;
  * @date 22.4.2011 10:43:48
  * @author Lukáš Pravda   <luky.pravda@gmail.com>
  */
-public class urn_perun_user_facility_attribute_def_virt_login extends UserFacilityVirtualAttributesModuleAbstract implements UserFacilityVirtualAttributesModuleImplApi {
+public class urn_perun_user_facility_attribute_def_virt_login extends UserFacilityVirtualAttributesModuleAbstract implements UserFacilityVirtualAttributesBulkModuleImplApi {
 
 	/**
 	 * Calls checkAttribute on u:login-namespace:[login-namespace]
@@ -104,6 +106,39 @@ public class urn_perun_user_facility_attribute_def_virt_login extends UserFacili
 		return attr;
 	}
 
+	/**
+	 * Gets the value of the attribute f:login-namespace once and then loads the attribute u:login-namespace:[login-namespace]
+	 * of all the users at once
+	 */
+	@Override
+	public Map<User, Attribute> getAttributeValues(PerunSessionImpl sess, List<User> users, Facility facility, AttributeDefinition attributeDefinition) {
+		Map<User, Attribute> attributes = new HashMap<>();
+
+		try {
+			// Get the f:login-namespace attribute
+			Attribute loginNamespaceAttribute = sess.getPerunBl().getAttributesManagerBl().getAttribute(sess, facility, AttributesManager.NS_FACILITY_ATTR_DEF + ":login-namespace");
+
+			if (loginNamespaceAttribute.getValue() == null) {
+				for (User user : users) {
+					attributes.put(user, new Attribute(attributeDefinition));
+				}
+				return attributes;
+			}
+
+			// Get the u:login-namespace[loginNamespaceAttribute] of all users
+			Map<User, Attribute> loginAttributes = sess.getPerunBl().getAttributesManagerBl().getAttributeForUsers(sess, users, AttributesManager.NS_USER_ATTR_DEF + ":login-namespace:" + loginNamespaceAttribute.getValue());
+			for (Map.Entry<User, Attribute> loginAttribute : loginAttributes.entrySet()) {
+				attributes.put(loginAttribute.getKey(), Utils.copyAttributeToVirtualAttributeWithValue(loginAttribute.getValue(), new Attribute(attributeDefinition)));
+			}
+		} catch (AttributeNotExistsException e) {
+			throw new InternalErrorException(e);
+		} catch (WrongAttributeAssignmentException e) {
+			throw new ConsistencyErrorException(e);
+		}
+
+		return attributes;
+	}
+
 	@Override
 	public boolean setAttributeValue(PerunSessionImpl sess, User user, Facility facility, Attribute attribute) throws WrongReferenceAttributeValueException {
 		AttributeDefinition userLoginAttributeDefinition;
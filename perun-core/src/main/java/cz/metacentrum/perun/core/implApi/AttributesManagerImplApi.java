@@ -907,30 +907,31 @@ public interface AttributesManagerImplApi {
 	boolean setAttribute(PerunSession sess, PerunBean bean1, PerunBean bean2, Attribute attribute) throws WrongAttributeAssignmentException, WrongAttributeValueException;
 
 	/**
-	 * Insert attribute value in DB.
+	 * Store the attributes associated with the given perun bean at once. Only values which differ from the stored ones are written.
 	 *
 	 * @param sess perun session
-	 * @param attribute that will be stored in the DB
-	 * @param tableName in the database in which the attribute will be inserted
-	 * @param columnNames of the database table in which the attribute will be written
-	 * @param columnValues of the objects, for which the attribute will be written, corresponding to the columnNames
-	 * @return true if new value differs from old value (i.e. values changed)
-	 *         false otherwise (value do not change)
+	 * @param object object of setting the attributes, must be one of perunBean or string
+	 * @param attributes attributes to set
+	 * @return attributes whose values changed, in the order of the given list
+	 * @throws InternalErrorException if an exception raise in concrete implementation, the exception is wrapped in InternalErrorException
+	 * @throws WrongAttributeAssignmentException if the namespace of any attribute does not match the perunBean
+	 * @throws WrongAttributeValueException if value of any unique attribute is not unique
 	 */
-	boolean insertAttribute(PerunSession sess, Attribute attribute, String tableName, List<String> columnNames, List<Object> columnValues);
+	List<Attribute> setAttributes(PerunSession sess, Object object, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException;
 
 	/**
-	 * Update attribute value in DB.
+	 * Store the attributes associated with the bean1 and bean2 at once. Only values which differ from the stored ones are written.
 	 *
 	 * @param sess perun session
-	 * @param attribute that will be stored in the DB
-	 * @param tableName in the database for updating
-	 * @param columnNames of the database table in which the attribute will be written
-	 * @param columnValues of the objects, for which the attribute will be written, corresponding to the columnNames
-	 * @return true if new value differs from old value (i.e. values changed)
-	 *         false otherwise (value do not change)
+	 * @param bean1 first perun bean
+	 * @param bean2 second perun bean
+	 * @param attributes attributes to set
+	 * @return attributes whose values changed, in the order of the given list
+	 * @throws InternalErrorException if an exception raise in concrete implementation, the exception is wrapped in InternalErrorException
+	 * @throws WrongAttributeAssignmentException if the namespace of any attribute does not match the perun beans
+	 * @throws WrongAttributeValueException if value of any unique attribute is not unique
 	 */
-	boolean updateAttribute(PerunSession sess, Attribute attribute, String tableName, List<String> columnNames, List<Object> columnValues);
+	List<Attribute> setAttributes(PerunSession sess, PerunBean bean1, PerunBean bean2, List<Attribute> attributes) throws WrongAttributeAssignmentException, WrongAttributeValueException;
 
 	/**
 	 * Set entityless attribute with null value (for key and attribute). Shouldn't be called from upper layer !!!
@@ -1340,6 +1341,56 @@ public interface AttributesManagerImplApi {
 	 */
 	HashMap<User, List<Attribute>> getRequiredAttributes(PerunSession sess, Service service, List<User> users);
 
+	/**
+	 * Get the member attribute for each member in list of members by one query.
+	 *
+	 * @param sess perun session
+	 * @param members you get the attribute for this list of members
+	 * @param attributeDefinition definition of the attribute
+	 * @return map of member and list with his attribute, empty map if the attribute doesn't exist
+	 *
+	 * @throws InternalErrorException if an exception raise in concrete implementation, the exception is wrapped in InternalErrorException
+	 */
+	HashMap<Member, List<Attribute>> getAttributeForMembers(PerunSession sess, List<Member> members, AttributeDefinition attributeDefinition);
+
+	/**
+	 * Get the member-resource attribute for each member in list of members by one query.
+	 *
+	 * @param sess perun session
+	 * @param resource you get the attribute for this resource and the members
+	 * @param members you get the attribute for this list of members and the resource
+	 * @param attributeDefinition definition of the attribute
+	 * @return map of member and list with his attribute, empty map if the attribute doesn't exist
+	 *
+	 * @throws InternalErrorException if an exception raise in concrete implementation, the exception is wrapped in InternalErrorException
+	 */
+	HashMap<Member, List<Attribute>> getAttributeForMembers(PerunSession sess, Resource resource, List<Member> members, AttributeDefinition attributeDefinition);
+
+	/**
+	 * Get the user attribute for each user in list of users by one query.
+	 *
+	 * @param sess perun session
+	 * @param users you get the attribute for this list of users
+	 * @param attributeDefinition definition of the attribute
+	 * @return map of user and list with his attribute, empty map if the attribute doesn't exist
+	 *
+	 * @throws InternalErrorException if an exception raise in concrete implementation, the exception is wrapped in InternalErrorException
+	 */
+	HashMap<User, List<Attribute>> getAttributeForUsers(PerunSession sess, List<User> users, AttributeDefinition attributeDefinition);
+
+	/**
+	 * Get the user-facility attribute for each user in list of users by one query.
+	 *
+	 * @param sess perun session
+	 * @param facility you get the attribute for this facility and the users
+	 * @param users you get the attribute for this list of users and the facility
+	 * @param attributeDefinition definition of the attribute
+	 * @return map of user and list with his attribute, empty map if the attribute doesn't exist
+	 *
+	 * @throws InternalErrorException if an exception raise in concrete implementation, the exception is wrapped in InternalErrorException
+	 */
+	HashMap<User, List<Attribute>> getAttributeForUsers(PerunSession sess, Facility facility, List<User> users, AttributeDefinition attributeDefinition);
+
 	/**
 	 * Get member-group attributes which are required by the service.
 	 *
@@ -1443,6 +1494,17 @@ public interface AttributesManagerImplApi {
 	 */
 	Map<Group, List<Attribute>> getRequiredAttributesForGroups(PerunSession sess, Service service, List<Group> groups);
 
+	/**
+	 * Get group-resource attributes which are required by the given service for given groups and the resource.
+	 *
+	 * @param sess session
+	 * @param service service for which are taken the required attributes
+	 * @param resource resource
+	 * @param groups groups
+	 * @return group-resource attributes mapped by their groups
+	 */
+	Map<Group, List<Attribute>> getRequiredAttributesForGroups(PerunSession sess, Service service, Resource resource, List<Group> groups);
+
 	/**
 	 * Get group attributes which are required by the given services.
 	 *
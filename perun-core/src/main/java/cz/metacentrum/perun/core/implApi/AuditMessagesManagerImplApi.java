@@ -101,6 +101,18 @@ public interface AuditMessagesManagerImplApi {
 	 */
 	List<AuditEvent> pollConsumerEvents(PerunSession perunSession, String consumerName, int lastProcessedId);
 
+	/**
+	 * Returns at most maxCount oldest <b>AuditEvents</b> from audit log with IDs > lastProcessedId for registered auditer consumer
+	 * and moves the last processed id of the consumer to the last returned event.
+	 *
+	 * @param perunSession perun session
+	 * @param consumerName consumer to get events for
+	 * @param maxCount maximal number of returned events
+	 * @return List of audit events
+	 * @throws InternalErrorException When implementation fails
+	 */
+	List<AuditEvent> pollConsumerEventsPage(PerunSession perunSession, String consumerName, int maxCount);
+
 	/**
 	 * Creates new auditer consumer with last processed id which equals current auditer log max id.
 	 *
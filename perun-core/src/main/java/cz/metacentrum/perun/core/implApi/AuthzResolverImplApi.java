@@ -477,6 +477,16 @@ public interface AuthzResolverImplApi {
 	 */
 	List<Integer> getVoIdsForUserInRole(PerunSession sess, User user, String role);
 
+	/**
+	 * Gets ids of all objects of the type, which are marked as critical for MFA.
+	 *
+	 * @param sess perun session
+	 * @param objectType type of the objects, e.g. Group, Vo, Member
+	 * @return set of ids of the critical objects
+	 * @throws InternalErrorException when objects of the type can't be marked as critical
+	 */
+	Set<Integer> getMfaCriticalObjectIds(PerunSession sess, String objectType);
+
 	/**
 	 * Sets role to given user for given resource.
 	 *
@@ -99,6 +99,26 @@ public interface DatabaseManagerImplApi {
 	 */
 	boolean propertyExists(String property);
 
+	/**
+	 * Exports snapshot of the current transaction, so other transactions can see the same data.
+	 * The snapshot can be imported only while the current transaction is open.
+	 *
+	 * @return identifier of the exported snapshot
+	 *
+	 * @throws InternalErrorException if the snapshot cannot be exported
+	 */
+	String exportTransactionSnapshot();
+
+	/**
+	 * Imports snapshot exported by other transaction, so the current transaction sees the same data.
+	 * It has to be called as the first statement of a REPEATABLE READ or SERIALIZABLE transaction.
+	 *
+	 * @param snapshotId identifier of the snapshot returned by exportTransactionSnapshot()
+	 *
+	 * @throws InternalErrorException if the snapshot cannot be imported
+	 */
+	void importTransactionSnapshot(String snapshotId);
+
 	/**
 	 * Return JDBC template for performing custom simple SQLs where jdbc is not normally available
 	 *
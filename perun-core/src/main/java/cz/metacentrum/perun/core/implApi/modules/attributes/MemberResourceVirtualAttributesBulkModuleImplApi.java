@@ -0,0 +1,34 @@
+package cz.metacentrum.perun.core.implApi.modules.attributes;
+
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.Member;
+import cz.metacentrum.perun.core.api.Resource;
+import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional extension of {@link MemberResourceVirtualAttributesModuleImplApi} for modules, which can compute values
+ * of the attribute for many members at once, e.g. by a single query.
+ *
+ * It is used when the attribute is loaded for a list of members, e.g. required attributes of a service.
+ */
+public interface MemberResourceVirtualAttributesBulkModuleImplApi extends MemberResourceVirtualAttributesModuleImplApi {
+
+	/**
+	 * This method will return computed values for all the members.
+	 * The values must be the same as returned by {@link MemberResourceVirtualAttributesModuleImplApi#getAttributeValue} for each member.
+	 *
+	 * @param perunSession perun session
+	 * @param members members which are needed for computing the values, without duplicates
+	 * @param resource resource which is needed for computing the values
+	 * @param attribute attribute to operate on
+	 * @return attributes with values by the members, members missing in the map are computed one by one
+	 * @throws InternalErrorException if an exception is raised in particular
+	 *         implementation, the exception is wrapped in InternalErrorException
+	 */
+	Map<Member, Attribute> getAttributeValues(PerunSessionImpl perunSession, List<Member> members, Resource resource, AttributeDefinition attribute);
+}
@@ -0,0 +1,32 @@
+package cz.metacentrum.perun.core.implApi.modules.attributes;
+
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional extension of {@link UserVirtualAttributesModuleImplApi} for modules, which can compute values
+ * of the attribute for many users at once, e.g. by a single query.
+ *
+ * It is used when the attribute is loaded for a list of users, e.g. required attributes of a service.
+ */
+public interface UserVirtualAttributesBulkModuleImplApi extends UserVirtualAttributesModuleImplApi {
+
+	/**
+	 * This method will return computed values for all the users.
+	 * The values must be the same as returned by {@link UserVirtualAttributesModuleImplApi#getAttributeValue} for each user.
+	 *
+	 * @param perunSession perun session
+	 * @param users users which are needed for computing the values, without duplicates
+	 * @param attribute attribute to operate on
+	 * @return attributes with values by the users, users missing in the map are computed one by one
+	 * @throws InternalErrorException if an exception is raised in particular
+	 *         implementation, the exception is wrapped in InternalErrorException
+	 */
+	Map<User, Attribute> getAttributeValues(PerunSessionImpl perunSession, List<User> users, AttributeDefinition attribute);
+}
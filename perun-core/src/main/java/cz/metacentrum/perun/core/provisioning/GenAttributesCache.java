@@ -0,0 +1,372 @@
+package cz.metacentrum.perun.core.provisioning;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AllUserFacilityAttributesRemoved;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeDeleted;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeUpdated;
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.Member;
+import cz.metacentrum.perun.core.api.PerunBean;
+import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.api.Vo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Process-wide cache of required attribute values used by the GEN data providers.
+ *
+ * Values are stored per attribute holder (member, user, user-facility or vo) and attribute definition,
+ * so the same users and members don't have to be reloaded for every service and facility they are
+ * provisioned to. Only values of core, def and opt attributes are cached. Virtual attributes can depend
+ * on any other data, so they are always computed.
+ *
+ * The cache is invalidated by the Auditer from the stream of audit events, before the events are stored
+ * into the auditer log. Any event referencing a member, user or vo invalidates all cached values of that
+ * entity. This covers both attribute changes (AttributeSetForUser, AllAttributesRemovedForMember, ...)
+ * and changes of the entity itself, which are the source of core attributes values.
+ *
+ * GEN data are read from a snapshot of the DB, so values can be stored only if the cache was not invalidated since
+ * the snapshot was taken. GEN entry methods therefore bind the epoch of the cache to their transaction before its first
+ * read and data providers pass the bound epoch back when storing the values.
+ *
+ * Because the invalidation is driven by the audit events of this JVM, the cache must be enabled only when all
+ * changes of the Perun data are made through this instance. It is disabled by default, it can be enabled by
+ * setting perun.provisioning.attributesCacheSize to the maximal number of cached attribute holders.
+ */
+public class GenAttributesCache {
+
+	private final static Logger log = LoggerFactory.getLogger(GenAttributesCache.class);
+
+	/**
+	 * Epoch, which is never current, so values passed with it are never stored.
+	 */
+	public static final long NO_EPOCH = -1;
+
+	/**
+	 * Types of attribute holders, which values can be cached.
+	 */
+	public enum HolderType {
+		MEMBER(AttributesManager.NS_MEMBER_ATTR),
+		USER(AttributesManager.NS_USER_ATTR),
+		USER_FACILITY(AttributesManager.NS_USER_FACILITY_ATTR),
+		VO(AttributesManager.NS_VO_ATTR);
+
+		private final String namespace;
+
+		HolderType(String namespace) {
+			this.namespace = namespace;
+		}
+
+		/**
+		 * Returns true, if the given attribute definition belongs to this holder type.
+		 *
+		 * @param attributeDefinition attribute definition
+		 * @return true, if the definition is from the namespace of this holder type
+		 */
+		public boolean isFromNamespace(AttributeDefinition attributeDefinition) {
+			return attributeDefinition.getNamespace().startsWith(namespace + ":");
+		}
+	}
+
+	private final int maxSize;
+	private final Map<HolderKey, Map<Integer, Attribute>> attributesByHolder;
+	private final Map<Integer, Set<HolderKey>> userFacilityKeysByUser = new HashMap<>();
+	private final Map<Integer, Set<HolderKey>> userFacilityKeysByFacility = new HashMap<>();
+
+	private long epoch = 0;
+	private long hits = 0;
+	private long misses = 0;
+
+	public GenAttributesCache() {
+		this(BeansUtils.getCoreConfig().getProvisioningAttributesCacheSize());
+	}
+
+	public GenAttributesCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.attributesByHolder = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<HolderKey, Map<Integer, Attribute>> eldest) {
+				if (size() > GenAttributesCache.this.maxSize) {
+					removeFromIndexes(eldest.getKey());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns true, if the cache is enabled.
+	 *
+	 * @return true, if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	/**
+	 * Returns true, if the values of the given attribute definition can be cached.
+	 *
+	 * @param attributeDefinition attribute definition
+	 * @return true, if the attribute is not virtual
+	 */
+	public static boolean isCacheable(AttributeDefinition attributeDefinition) {
+		return !attributeDefinition.getNamespace().endsWith(":virt");
+	}
+
+	/**
+	 * Returns current epoch of the cache. The epoch is changed with every invalidation.
+	 * Values can be stored only with an epoch obtained before the snapshot they were read from was taken,
+	 * so values read before an invalidation are never stored.
+	 *
+	 * @return current epoch
+	 */
+	public synchronized long getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Binds the current epoch to the current transaction, if no epoch is bound to it yet. It must be called
+	 * before the first read of the transaction, because the snapshot of the transaction is taken by its first read.
+	 * Nothing is bound outside of a transaction.
+	 */
+	public void bindEpoch() {
+		if (!isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive() ||
+				TransactionSynchronizationManager.hasResource(this)) {
+			return;
+		}
+		TransactionSynchronizationManager.bindResource(this, getEpoch());
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(GenAttributesCache.this);
+			}
+		});
+	}
+
+	/**
+	 * Returns the epoch bound to the current transaction by bindEpoch().
+	 *
+	 * @return bound epoch, or NO_EPOCH if no epoch is bound to the current transaction
+	 */
+	public long getBoundEpoch() {
+		Long boundEpoch = (Long) TransactionSynchronizationManager.getResource(this);
+		return boundEpoch == null ? NO_EPOCH : boundEpoch;
+	}
+
+	/**
+	 * Returns cached attributes for the given holder, if all the given attribute definitions are cached.
+	 *
+	 * @param type type of the holder
+	 * @param holderId id of the holder
+	 * @param secondaryHolderId id of the secondary holder (facility for user-facility attributes), 0 otherwise
+	 * @param attributeIds ids of requested attribute definitions
+	 * @return copies of cached attributes, or null if some of the requested attributes is not cached
+	 */
+	public synchronized List<Attribute> getAttributes(HolderType type, int holderId, int secondaryHolderId,
+	                                                  Collection<Integer> attributeIds) {
+		Map<Integer, Attribute> cached = attributesByHolder.get(new HolderKey(type, holderId, secondaryHolderId));
+		if (cached == null || !cached.keySet().containsAll(attributeIds)) {
+			misses++;
+			return null;
+		}
+		hits++;
+		List<Attribute> attributes = new ArrayList<>(attributeIds.size());
+		for (Integer attributeId : attributeIds) {
+			attributes.add(copy(cached.get(attributeId)));
+		}
+		return attributes;
+	}
+
+	/**
+	 * Stores copies of the given attributes of the holder into the cache. Non-cacheable attributes are skipped.
+	 * Nothing is stored, if the cache was invalidated since the given epoch.
+	 *
+	 * @param type type of the holder
+	 * @param holderId id of the holder
+	 * @param secondaryHolderId id of the secondary holder (facility for user-facility attributes), 0 otherwise
+	 * @param attributes attributes with values
+	 * @param readEpoch epoch obtained before the snapshot, which the attributes were read from, was taken
+	 */
+	public synchronized void putAttributes(HolderType type, int holderId, int secondaryHolderId,
+	                                       List<Attribute> attributes, long readEpoch) {
+		if (!isEnabled() || readEpoch != epoch) {
+			return;
+		}
+		HolderKey key = new HolderKey(type, holderId, secondaryHolderId);
+		Map<Integer, Attribute> cached = attributesByHolder.get(key);
+		if (cached == null) {
+			cached = new HashMap<>();
+		}
+		for (Attribute attribute : attributes) {
+			if (isCacheable(attribute)) {
+				cached.put(attribute.getId(), copy(attribute));
+			}
+		}
+		attributesByHolder.put(key, cached);
+		if (type == HolderType.USER_FACILITY) {
+			userFacilityKeysByUser.computeIfAbsent(holderId, id -> new HashSet<>()).add(key);
+			userFacilityKeysByFacility.computeIfAbsent(secondaryHolderId, id -> new HashSet<>()).add(key);
+		}
+	}
+
+	/**
+	 * Invalidates all cached values affected by the given audit events.
+	 *
+	 * @param events audit events
+	 */
+	public synchronized void invalidate(List<AuditEvent> events) {
+		if (!isEnabled()) {
+			return;
+		}
+		epoch++;
+		for (AuditEvent event : events) {
+			invalidate(event);
+		}
+	}
+
+	/**
+	 * Removes all values from the cache.
+	 */
+	public synchronized void clear() {
+		epoch++;
+		attributesByHolder.clear();
+		userFacilityKeysByUser.clear();
+		userFacilityKeysByFacility.clear();
+	}
+
+	/**
+	 * Returns number of attribute holders with cached values.
+	 *
+	 * @return number of cached holders
+	 */
+	public synchronized int size() {
+		return attributesByHolder.size();
+	}
+
+	/**
+	 * Returns number of successful lookups since the start.
+	 *
+	 * @return number of hits
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns number of unsuccessful lookups since the start.
+	 *
+	 * @return number of misses
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	private void invalidate(AuditEvent event) {
+		if (event instanceof AttributeDeleted || event instanceof AttributeUpdated) {
+			log.debug("Attribute definition changed, clearing the whole GEN attributes cache.");
+			attributesByHolder.clear();
+			userFacilityKeysByUser.clear();
+			userFacilityKeysByFacility.clear();
+			return;
+		}
+		if (event instanceof AllUserFacilityAttributesRemoved) {
+			removeAll(userFacilityKeysByFacility.get(((AllUserFacilityAttributesRemoved) event).getFacility().getId()));
+		}
+		for (PerunBean bean : event.getReferencedBeans()) {
+			if (bean instanceof Member) {
+				attributesByHolder.remove(new HolderKey(HolderType.MEMBER, ((Member) bean).getId(), 0));
+			} else if (bean instanceof User) {
+				attributesByHolder.remove(new HolderKey(HolderType.USER, ((User) bean).getId(), 0));
+				removeAll(userFacilityKeysByUser.get(((User) bean).getId()));
+			} else if (bean instanceof Vo) {
+				attributesByHolder.remove(new HolderKey(HolderType.VO, ((Vo) bean).getId(), 0));
+			}
+		}
+	}
+
+	/**
+	 * Returns copy of the attribute with its value, so the cached values can't be changed by their users.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Attribute copy(Attribute attribute) {
+		Attribute copy = new Attribute(attribute, true);
+		if (attribute.getValue() instanceof ArrayList) {
+			copy.setValue(new ArrayList<>((ArrayList<String>) attribute.getValue()));
+		} else if (attribute.getValue() instanceof LinkedHashMap) {
+			copy.setValue(new LinkedHashMap<>((LinkedHashMap<String, String>) attribute.getValue()));
+		}
+		return copy;
+	}
+
+	private void removeAll(Set<HolderKey> keys) {
+		if (keys == null) {
+			return;
+		}
+		for (HolderKey key : new ArrayList<>(keys)) {
+			attributesByHolder.remove(key);
+			removeFromIndexes(key);
+		}
+	}
+
+	private void removeFromIndexes(HolderKey key) {
+		if (key.type != HolderType.USER_FACILITY) {
+			return;
+		}
+		Set<HolderKey> byUser = userFacilityKeysByUser.get(key.holderId);
+		if (byUser != null) {
+			byUser.remove(key);
+			if (byUser.isEmpty()) {
+				userFacilityKeysByUser.remove(key.holderId);
+			}
+		}
+		Set<HolderKey> byFacility = userFacilityKeysByFacility.get(key.secondaryHolderId);
+		if (byFacility != null) {
+			byFacility.remove(key);
+			if (byFacility.isEmpty()) {
+				userFacilityKeysByFacility.remove(key.secondaryHolderId);
+			}
+		}
+	}
+
+	private static final class HolderKey {
+		private final HolderType type;
+		private final int holderId;
+		private final int secondaryHolderId;
+
+		private HolderKey(HolderType type, int holderId, int secondaryHolderId) {
+			this.type = type;
+			this.holderId = holderId;
+			this.secondaryHolderId = secondaryHolderId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			HolderKey holderKey = (HolderKey) o;
+			return holderId == holderKey.holderId && secondaryHolderId == holderKey.secondaryHolderId &&
+					type == holderKey.type;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, holderId, secondaryHolderId);
+		}
+	}
+}
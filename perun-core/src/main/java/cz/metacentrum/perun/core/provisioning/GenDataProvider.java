@@ -117,4 +117,17 @@ public interface GenDataProvider {
 	 * @return map of hashes attributes
 	 */
 	Map<String, Map<String, Object>> getAllFetchedAttributes();
+
+	/**
+	 * Returns attributes fetched since the last flush grouped by their hashes and releases them from memory.
+	 * Returns only non-empty lists, and only lists, for which their hashes has been returned,
+	 * by some get.*attributesHashes method. Hashes of the flushed attributes are still returned by
+	 * these methods, but the attributes are not returned by getAllFetchedAttributes() anymore.
+	 *
+	 * Member and user attributes are released as well, so this method can be called only when hashes of all
+	 * members loaded so far were requested.
+	 *
+	 * @return map of hashes attributes fetched since the last flush
+	 */
+	Map<String, Map<String, Object>> flushFetchedAttributes();
 }
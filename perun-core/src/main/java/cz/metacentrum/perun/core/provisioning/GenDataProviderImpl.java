@@ -1,9 +1,11 @@
 package cz.metacentrum.perun.core.provisioning;
 
 import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Group;
 import cz.metacentrum.perun.core.api.Member;
+import cz.metacentrum.perun.core.api.PerunBean;
 import cz.metacentrum.perun.core.api.Resource;
 import cz.metacentrum.perun.core.api.Service;
 import cz.metacentrum.perun.core.api.User;
@@ -13,8 +15,10 @@ import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.core.api.exceptions.MemberGroupMismatchException;
 import cz.metacentrum.perun.core.api.exceptions.VoNotExistsException;
 import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+import cz.metacentrum.perun.core.provisioning.GenAttributesCache.HolderType;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -36,6 +40,11 @@ public class GenDataProviderImpl implements GenDataProvider {
 
 	private final Map<String, List<Attribute>> attributesByHash = new HashMap<>();
 
+	/**
+	 * Hashes of non-empty attributes, which were already flushed and released from the memory.
+	 */
+	private final Set<String> flushedHashes = new HashSet<>();
+
 	private List<Attribute> facilityAttrs;
 
 	/**
@@ -77,10 +86,41 @@ public class GenDataProviderImpl implements GenDataProvider {
 
 	private final Hasher hasher = new IdHasher();
 
+	/**
+	 * Shared cache of member, user, user-facility and vo attributes, null if the cache is disabled.
+	 */
+	private final GenAttributesCache attributesCache;
+
+	/**
+	 * Epoch of the cache obtained before the snapshot, which the data are read from, was taken.
+	 */
+	private final long attributesCacheEpoch;
+
+	/**
+	 * Ids of required attributes, which can be read from the cache, by their holder types.
+	 * Holder types with some non-cacheable required attribute are missing.
+	 */
+	private Map<HolderType, List<Integer>> cacheableRequiredAttributeIds;
+
 	public GenDataProviderImpl(PerunSessionImpl sess, Service service, Facility facility) {
+		this(sess, service, facility, null, GenAttributesCache.NO_EPOCH);
+	}
+
+	/**
+	 * @param sess perun session
+	 * @param service service
+	 * @param facility facility
+	 * @param attributesCache shared cache of attributes, or null if it should not be used
+	 * @param attributesCacheEpoch epoch of the cache obtained before the first read of the GEN transaction,
+	 *                             values are not stored into the cache, if it was invalidated since then
+	 */
+	public GenDataProviderImpl(PerunSessionImpl sess, Service service, Facility facility,
+	                           GenAttributesCache attributesCache, long attributesCacheEpoch) {
 		this.sess = sess;
 		this.service = service;
 		this.facility = facility;
+		this.attributesCache = attributesCache != null && attributesCache.isEnabled() ? attributesCache : null;
+		this.attributesCacheEpoch = attributesCacheEpoch;
 	}
 
 	@Override
@@ -90,17 +130,13 @@ public class GenDataProviderImpl implements GenDataProvider {
 
 	@Override
 	public void loadGroupsAttributes(Resource resource, List<Group> groups) {
-		groupResourceAttrs = new HashMap<>();
 		lastLoadedResource = resource;
 
-		for (Group group: groups) {
-			try {
-				// FIXME - attributes could be loaded at once to get a better performance
-				groupResourceAttrs.put(group,
-						sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, resource, group));
-			} catch (GroupResourceMismatchException e) {
-				throw new InternalErrorException(e);
-			}
+		try {
+			groupResourceAttrs = sess.getPerunBl().getAttributesManagerBl()
+					.getRequiredAttributesForGroups(sess, service, resource, groups);
+		} catch (GroupResourceMismatchException e) {
+			throw new InternalErrorException(e);
 		}
 
 		List<Group> notYetProcessedGroups = new ArrayList<>(groups);
@@ -154,6 +190,11 @@ public class GenDataProviderImpl implements GenDataProvider {
 
 		var hashes = new ArrayList<String>();
 
+		if (flushedHashes.contains(hash)) {
+			hashes.add(hash);
+			return hashes;
+		}
+
 		if (!attributesByHash.containsKey(hash)) {
 			if (facilityAttrs == null) {
 				throw new IllegalStateException("Facility attributes need to be loaded first.");
@@ -234,6 +275,21 @@ public class GenDataProviderImpl implements GenDataProvider {
 				.collect(toMap(Map.Entry::getKey, entry -> convertToMap(entry.getValue())));
 	}
 
+	@Override
+	public Map<String, Map<String, Object>> flushFetchedAttributes() {
+		Map<String, Map<String, Object>> attributes = getAllFetchedAttributes();
+
+		flushedHashes.addAll(attributes.keySet());
+		attributesByHash.keySet().removeAll(attributes.keySet());
+
+		// members and users are never loaded again, so their attributes are not needed anymore
+		memberAttrs.clear();
+		userAttrs.clear();
+		userFacilityAttrs.clear();
+
+		return attributes;
+	}
+
 	private Map<String, Object> convertToMap(List<Attribute> attributes) {
 		Map<String, Object> map = new HashMap<>();
 		attributes.forEach(a -> map.put(a.getName(), a.getValue()));
@@ -325,6 +381,10 @@ public class GenDataProviderImpl implements GenDataProvider {
 	 */
 	private <T> List<String> getAndStoreHash(String hash, T entity, Map<T, List<Attribute>> map) {
 		var hashes = new ArrayList<String>();
+		if (flushedHashes.contains(hash)) {
+			hashes.add(hash);
+			return hashes;
+		}
 		if (!attributesByHash.containsKey(hash)) {
 			if (!map.containsKey(entity)) {
 				return hashes;
@@ -338,9 +398,9 @@ public class GenDataProviderImpl implements GenDataProvider {
 	}
 
 	private void loadMemberSpecificAttributes(List<Member> members) {
-		memberAttrs.putAll(
-				sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, null, service, members)
-		);
+		memberAttrs.putAll(loadThroughCache(HolderType.MEMBER, members, 0, notCachedMembers ->
+				sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, null, service, notCachedMembers)
+		));
 
 		List<Integer> userIds = members.stream()
 				.map(Member::getUserId)
@@ -356,13 +416,13 @@ public class GenDataProviderImpl implements GenDataProvider {
 	}
 
 	private void loadUserSpecificAttributes(List<User> users) {
-		userAttrs.putAll(
-				sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, users)
-		);
+		userAttrs.putAll(loadThroughCache(HolderType.USER, users, 0, notCachedUsers ->
+				sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, notCachedUsers)
+		));
 
-		userFacilityAttrs.putAll(
-				sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, facility, users)
-		);
+		userFacilityAttrs.putAll(loadThroughCache(HolderType.USER_FACILITY, users, facility.getId(), notCachedUsers ->
+				sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, facility, notCachedUsers)
+		));
 	}
 
 	private void loadVoSpecificAttributes(Resource resource) {
@@ -372,15 +432,90 @@ public class GenDataProviderImpl implements GenDataProvider {
 		lastLoadedResource = resource;
 
 		if (!voAttrs.containsKey(vo)) {
-			Vo dbVo;
+			voAttrs.putAll(loadThroughCache(HolderType.VO, List.of(vo), 0, notCachedVos -> {
+				Vo dbVo;
+
+				try {
+					dbVo = sess.getPerunBl().getVosManagerBl().getVoById(sess, resource.getVoId());
+				} catch (VoNotExistsException e) {
+					throw new InternalErrorException(e);
+				}
+
+				Map<Vo, List<Attribute>> attributes = new HashMap<>();
+				attributes.put(vo, sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, dbVo));
+				return attributes;
+			}));
+		}
+	}
 
-			try {
-				dbVo = sess.getPerunBl().getVosManagerBl().getVoById(sess, resource.getVoId());
-			} catch (VoNotExistsException e) {
-				throw new InternalErrorException(e);
+	/**
+	 * Loads required attributes of the given holders. Attributes are taken from the shared cache, if it is enabled
+	 * and contains all required attributes of the holder. Attributes of the other holders are loaded by the given
+	 * loader and stored into the cache.
+	 *
+	 * @param type type of the holders
+	 * @param holders holders of the attributes
+	 * @param secondaryHolderId id of the secondary holder (facility for user-facility attributes), 0 otherwise
+	 * @param loader function loading the required attributes of the given holders from the DB
+	 * @param <T> type of the holders
+	 * @return required attributes mapped by their holders
+	 */
+	private <T extends PerunBean> Map<T, List<Attribute>> loadThroughCache(HolderType type, List<T> holders,
+	                                                                       int secondaryHolderId,
+	                                                                       Function<List<T>, Map<T, List<Attribute>>> loader) {
+		List<Integer> attributeIds = getCacheableRequiredAttributeIds(type);
+		if (attributeIds == null || attributeIds.isEmpty()) {
+			return loader.apply(holders);
+		}
+
+		Map<T, List<Attribute>> attributes = new HashMap<>();
+		List<T> notCachedHolders = new ArrayList<>();
+		for (T holder : holders) {
+			List<Attribute> cachedAttributes = attributesCache.getAttributes(type, holder.getId(), secondaryHolderId, attributeIds);
+			if (cachedAttributes == null) {
+				notCachedHolders.add(holder);
+			} else {
+				attributes.put(holder, cachedAttributes);
 			}
+		}
+
+		if (!notCachedHolders.isEmpty()) {
+			// values are read from the snapshot of the GEN transaction, so they are stored only if the cache
+			// was not invalidated since the snapshot was taken
+			Map<T, List<Attribute>> loadedAttributes = loader.apply(notCachedHolders);
+			loadedAttributes.forEach((holder, holderAttributes) -> attributesCache.putAttributes(type, holder.getId(),
+					secondaryHolderId, holderAttributes, attributesCacheEpoch));
+			attributes.putAll(loadedAttributes);
+		}
+
+		return attributes;
+	}
 
-			voAttrs.put(vo, sess.getPerunBl().getAttributesManagerBl().getRequiredAttributes(sess, service, dbVo));
+	/**
+	 * Returns ids of required attributes of the given holder type, if all of them can be cached.
+	 *
+	 * @param type holder type
+	 * @return ids of required attributes, or null if the cache is disabled or some attribute cannot be cached
+	 */
+	private List<Integer> getCacheableRequiredAttributeIds(HolderType type) {
+		if (attributesCache == null) {
+			return null;
+		}
+		if (cacheableRequiredAttributeIds == null) {
+			cacheableRequiredAttributeIds = new EnumMap<>(HolderType.class);
+			List<AttributeDefinition> requiredDefinitions =
+					sess.getPerunBl().getAttributesManagerBl().getRequiredAttributesDefinition(sess, service);
+			for (HolderType holderType : HolderType.values()) {
+				List<AttributeDefinition> holderDefinitions = requiredDefinitions.stream()
+						.filter(holderType::isFromNamespace)
+						.collect(toList());
+				if (holderDefinitions.stream().allMatch(GenAttributesCache::isCacheable)) {
+					cacheableRequiredAttributeIds.put(holderType, holderDefinitions.stream()
+							.map(AttributeDefinition::getId)
+							.collect(toList()));
+				}
+			}
 		}
+		return cacheableRequiredAttributeIds.get(type);
 	}
 }
@@ -0,0 +1,244 @@
+package cz.metacentrum.perun.core.provisioning;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.GenDataNode;
+import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataDelta;
+import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Remembers the last revision of the hashed GEN data generated for every service and facility,
+ * so only changes since that revision can be sent to the engine.
+ *
+ * Only digests of the attributes and resource nodes are stored, not the data itself. The delta is computed
+ * by comparing digests of freshly generated data with the stored ones, so it doesn't depend on any
+ * tracking of changes. If the engine asks for a revision which is not the last one, it gets the full data.
+ *
+ * Every stored revision keeps a digest for every hash of attributes and every resource of the facility, which takes
+ * around 100 bytes per hash, so the revision of a facility with 100 000 members takes about 10 MB. Only revisions
+ * of the most recently generated service and facility pairs are kept, their number is limited by
+ * perun.provisioning.genDataRevisions. It is 0 by default, which disables the revisions and the deltas always
+ * contain full data.
+ */
+public class GenDataRevisions {
+
+	/**
+	 * Kinds of generated data, data of different kinds are never compared.
+	 */
+	public enum DataKind {
+		HIERARCHICAL,
+		WITH_GROUPS
+	}
+
+	private final ObjectWriter attributesWriter;
+	private final ObjectWriter nodeWriter;
+
+	private final int maxSize;
+	private final Map<RevisionKey, Revision> lastRevisions;
+
+	public GenDataRevisions() {
+		this(BeansUtils.getCoreConfig().getProvisioningGenDataRevisions());
+	}
+
+	public GenDataRevisions(int maxSize) {
+		this.maxSize = maxSize;
+		this.lastRevisions = Collections.synchronizedMap(new LinkedHashMap<RevisionKey, Revision>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<RevisionKey, Revision> eldest) {
+				return size() > GenDataRevisions.this.maxSize;
+			}
+		});
+		ObjectMapper mapper = new ObjectMapper();
+		// names of the attributes are sorted explicitly, values are written as they are, because order matters in them
+		attributesWriter = mapper.writer();
+		nodeWriter = mapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+	}
+
+	/**
+	 * Creates new revision of the given data and returns its changes since the given base revision.
+	 * If the base revision is null or it is not the last stored revision of the data, full data are returned.
+	 *
+	 * @param kind kind of the data
+	 * @param serviceId id of the service the data were generated for
+	 * @param data generated data of single facility
+	 * @param baseRevision revision known to the caller, can be null
+	 * @return changes of the data since the base revision
+	 */
+	public HashedGenDataDelta getDelta(DataKind kind, int serviceId, HashedGenData data, String baseRevision) {
+		Integer facilityId = data.getHierarchy().keySet().iterator().next();
+		GenDataNode facilityNode = data.getHierarchy().get(facilityId);
+
+		if (!isEnabled()) {
+			return new HashedGenDataDelta(UUID.randomUUID().toString(), null, facilityId, data.getAttributes(),
+					new ArrayList<>(), facilityNode.getChildren(), new ArrayList<>(), facilityNode.getMembers());
+		}
+
+		Revision currentRevision = new Revision(null, digestAttributes(data.getAttributes()),
+				digestNodes(facilityNode.getChildren()), digest(nodeWriter, facilityNode.getMembers()));
+
+		RevisionKey key = new RevisionKey(kind, serviceId, facilityId);
+		Revision lastRevision = lastRevisions.get(key);
+		if (baseRevision == null || lastRevision == null || !baseRevision.equals(lastRevision.id)) {
+			// revision is unknown, so send the full data
+			Revision fullRevision = currentRevision.withId(UUID.randomUUID().toString());
+			lastRevisions.put(key, fullRevision);
+			return new HashedGenDataDelta(fullRevision.id, null, facilityId, data.getAttributes(), new ArrayList<>(),
+					facilityNode.getChildren(), new ArrayList<>(), facilityNode.getMembers());
+		}
+
+		Map<String, Map<String, Object>> changedAttributes = new HashMap<>();
+		data.getAttributes().forEach((hash, attributes) -> {
+			if (!Objects.equals(currentRevision.attributeDigests.get(hash), lastRevision.attributeDigests.get(hash))) {
+				changedAttributes.put(hash, attributes);
+			}
+		});
+		List<String> removedAttributes = new ArrayList<>();
+		lastRevision.attributeDigests.keySet().forEach(hash -> {
+			if (!currentRevision.attributeDigests.containsKey(hash)) {
+				removedAttributes.add(hash);
+			}
+		});
+
+		Map<Integer, GenDataNode> changedChildren = new HashMap<>();
+		facilityNode.getChildren().forEach((id, node) -> {
+			if (!Objects.equals(currentRevision.childDigests.get(id), lastRevision.childDigests.get(id))) {
+				changedChildren.put(id, node);
+			}
+		});
+		List<Integer> removedChildren = new ArrayList<>();
+		lastRevision.childDigests.keySet().forEach(id -> {
+			if (!currentRevision.childDigests.containsKey(id)) {
+				removedChildren.add(id);
+			}
+		});
+
+		Map<Integer, Integer> changedMembers = currentRevision.membersDigest == lastRevision.membersDigest ?
+				null : facilityNode.getMembers();
+
+		if (changedAttributes.isEmpty() && removedAttributes.isEmpty() && changedChildren.isEmpty() &&
+				removedChildren.isEmpty() && changedMembers == null) {
+			// nothing was changed, so keep the known revision
+			return new HashedGenDataDelta(lastRevision.id, baseRevision, facilityId, changedAttributes,
+					removedAttributes, changedChildren, removedChildren, null);
+		}
+
+		Revision newRevision = currentRevision.withId(UUID.randomUUID().toString());
+		lastRevisions.put(key, newRevision);
+		return new HashedGenDataDelta(newRevision.id, baseRevision, facilityId, changedAttributes, removedAttributes,
+				changedChildren, removedChildren, changedMembers);
+	}
+
+	/**
+	 * Returns true, if the revisions are stored.
+	 *
+	 * @return true, if the revisions are enabled
+	 */
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	/**
+	 * Returns number of stored revisions.
+	 *
+	 * @return number of stored revisions
+	 */
+	public int size() {
+		return lastRevisions.size();
+	}
+
+	/**
+	 * Forgets all stored revisions, so the next requests will get the full data.
+	 */
+	public void clear() {
+		lastRevisions.clear();
+	}
+
+	private Map<String, Long> digestAttributes(Map<String, Map<String, Object>> attributes) {
+		Map<String, Long> digests = new HashMap<>();
+		attributes.forEach((hash, values) -> digests.put(hash, digest(attributesWriter, new TreeMap<>(values))));
+		return digests;
+	}
+
+	private Map<Integer, Long> digestNodes(Map<Integer, GenDataNode> nodes) {
+		Map<Integer, Long> digests = new HashMap<>();
+		nodes.forEach((id, node) -> digests.put(id, digest(nodeWriter, node)));
+		return digests;
+	}
+
+	/**
+	 * Returns first 64 bits of SHA-256 of the JSON representation of the given value.
+	 *
+	 * @param writer writer used to serialize the value
+	 * @param value value to digest
+	 * @return digest of the value
+	 */
+	private static long digest(ObjectWriter writer, Object value) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			return ByteBuffer.wrap(messageDigest.digest(writer.writeValueAsBytes(value))).getLong();
+		} catch (NoSuchAlgorithmException | JsonProcessingException e) {
+			throw new InternalErrorException(e);
+		}
+	}
+
+	private static class Revision {
+		private final String id;
+		private final Map<String, Long> attributeDigests;
+		private final Map<Integer, Long> childDigests;
+		private final long membersDigest;
+
+		private Revision(String id, Map<String, Long> attributeDigests, Map<Integer, Long> childDigests,
+		                 long membersDigest) {
+			this.id = id;
+			this.attributeDigests = attributeDigests;
+			this.childDigests = childDigests;
+			this.membersDigest = membersDigest;
+		}
+
+		private Revision withId(String id) {
+			return new Revision(id, attributeDigests, childDigests, membersDigest);
+		}
+	}
+
+	private static class RevisionKey {
+		private final DataKind kind;
+		private final int serviceId;
+		private final int facilityId;
+
+		private RevisionKey(DataKind kind, int serviceId, int facilityId) {
+			this.kind = kind;
+			this.serviceId = serviceId;
+			this.facilityId = facilityId;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			RevisionKey that = (RevisionKey) o;
+			return serviceId == that.serviceId && facilityId == that.facilityId && kind == that.kind;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(kind, serviceId, facilityId);
+		}
+	}
+}
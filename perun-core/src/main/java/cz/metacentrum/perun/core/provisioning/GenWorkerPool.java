@@ -0,0 +1,196 @@
+package cz.metacentrum.perun.core.provisioning;
+
+import com.zaxxer.hikari.HikariDataSource;
+import cz.metacentrum.perun.core.api.BeansUtils;
+import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of workers used by the GEN data generators to process parts of the facility in parallel.
+ *
+ * Every task runs in its own read-only transaction, which imports the snapshot of the calling transaction,
+ * so all workers see exactly the same data as the caller. This requires the caller to run inside a transaction.
+ * Tasks get their own copy of the caller's session, because sessions are not thread safe.
+ *
+ * Workers take their own connections from the pool, while the callers keep theirs until all tasks finish.
+ * The number of workers is therefore limited to half of the connection pool, and only as many callers as there
+ * are workers can use them at once. Other callers run their tasks by themselves, in their current transaction.
+ * So the waiting callers together with the workers never take all connections of the pool.
+ *
+ * The pool is disabled by default, it can be enabled by setting perun.provisioning.workers to the number
+ * of worker threads.
+ */
+public class GenWorkerPool {
+
+	private final static Logger log = LoggerFactory.getLogger(GenWorkerPool.class);
+
+	private final int workers;
+	private final Executor executor;
+	private final TransactionTemplate transactionTemplate;
+	private final Semaphore callers;
+
+	public GenWorkerPool(PlatformTransactionManager transactionManager, DataSource dataSource) {
+		this(transactionManager, dataSource, BeansUtils.getCoreConfig().getProvisioningWorkers());
+	}
+
+	public GenWorkerPool(PlatformTransactionManager transactionManager, DataSource dataSource, int workers) {
+		this.workers = limitWorkers(workers, dataSource);
+		this.executor = this.workers > 0 ? Executors.newFixedThreadPool(this.workers, new GenWorkerThreadFactory()) : null;
+		this.callers = new Semaphore(Math.max(this.workers, 0));
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		this.transactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * Returns true, if the pool is enabled.
+	 *
+	 * @return true, if the pool has at least one worker
+	 */
+	public boolean isEnabled() {
+		return workers > 0 && executor != null;
+	}
+
+	/**
+	 * Returns number of workers of the pool.
+	 *
+	 * @return number of workers
+	 */
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * Runs the given tasks by the workers of the pool and waits for their results.
+	 * Tasks see the same data as the current transaction of the given session. If all workers are used
+	 * by other callers, the tasks are run one by one in the calling thread.
+	 *
+	 * @param sess perun session
+	 * @param tasks tasks to run, they get the session they should use
+	 * @param <T> type of the results
+	 * @return results of the tasks in the same order as the tasks
+	 * @throws InternalErrorException if the pool is disabled or some task fails with checked exception
+	 */
+	public <T> List<T> invokeAll(PerunSessionImpl sess, List<Function<PerunSessionImpl, T>> tasks) {
+		if (!isEnabled()) {
+			throw new InternalErrorException("GEN worker pool is disabled.");
+		}
+
+		if (!callers.tryAcquire()) {
+			log.debug("All GEN workers are used, running {} tasks in the calling thread.", tasks.size());
+			List<T> results = new ArrayList<>();
+			for (Function<PerunSessionImpl, T> task : tasks) {
+				results.add(task.apply(sess));
+			}
+			return results;
+		}
+
+		try {
+			String snapshotId = sess.getPerunBl().getDatabaseManagerBl().exportTransactionSnapshot();
+
+			List<CompletableFuture<T>> futures = new ArrayList<>();
+			for (Function<PerunSessionImpl, T> task : tasks) {
+				futures.add(CompletableFuture.supplyAsync(() -> runInSnapshot(sess, snapshotId, task), executor));
+			}
+
+			// the exported snapshot is valid only until the current transaction ends, so wait for all tasks
+			List<T> results = new ArrayList<>();
+			RuntimeException failure = null;
+			for (CompletableFuture<T> future : futures) {
+				try {
+					results.add(future.join());
+				} catch (CompletionException e) {
+					if (failure == null) {
+						failure = e.getCause() instanceof RuntimeException ?
+								(RuntimeException) e.getCause() : new InternalErrorException(e.getCause());
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+
+			return results;
+		} finally {
+			callers.release();
+		}
+	}
+
+	/**
+	 * Stops the workers of the pool.
+	 */
+	public void shutdown() {
+		if (executor instanceof ExecutorService) {
+			ExecutorService executorService = (ExecutorService) executor;
+			executorService.shutdown();
+			try {
+				if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+					executorService.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				executorService.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private <T> T runInSnapshot(PerunSessionImpl sess, String snapshotId, Function<PerunSessionImpl, T> task) {
+		PerunSessionImpl workerSess = new PerunSessionImpl(sess.getPerun(), sess.getPerunPrincipal(), sess.getPerunClient());
+		return transactionTemplate.execute(status -> {
+			workerSess.getPerunBl().getDatabaseManagerBl().importTransactionSnapshot(snapshotId);
+			return task.apply(workerSess);
+		});
+	}
+
+	/**
+	 * Limits the number of workers to half of the connections of the pool, see the class description.
+	 *
+	 * @param workers requested number of workers
+	 * @param dataSource pool of the connections used by the workers and their callers
+	 * @return number of workers which can be used
+	 */
+	private static int limitWorkers(int workers, DataSource dataSource) {
+		if (workers <= 0 || !(dataSource instanceof HikariDataSource)) {
+			return workers;
+		}
+		int maxWorkers = ((HikariDataSource) dataSource).getMaximumPoolSize() / 2;
+		if (workers > maxWorkers) {
+			log.warn("Number of GEN workers {} limited to {}, half of the connection pool.", workers, maxWorkers);
+			return maxWorkers;
+		}
+		return workers;
+	}
+
+	private static class GenWorkerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "gen-worker-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler((t, e) -> log.error("Uncaught exception in {}.", t.getName(), e));
+			return thread;
+		}
+	}
+}
@@ -68,13 +68,14 @@ public class GroupsHashedDataGenerator implements HashedDataGenerator {
 	private final boolean consentEval;
 
 	private GroupsHashedDataGenerator(PerunSessionImpl sess, Service service, Facility facility,
-	                                 boolean filterExpiredMembers, boolean consentEval) {
+	                                 boolean filterExpiredMembers, boolean consentEval,
+	                                 GenAttributesCache attributesCache, long attributesCacheEpoch) {
 		this.sess = sess;
 		this.service = service;
 		this.facility = facility;
 		this.filterExpiredMembers = filterExpiredMembers;
 		this.consentEval = consentEval;
-		dataProvider = new GenDataProviderImpl(sess, service, facility);
+		dataProvider = new GenDataProviderImpl(sess, service, facility, attributesCache, attributesCacheEpoch);
 	}
 
 	@Override
@@ -195,6 +196,8 @@ public class GroupsHashedDataGenerator implements HashedDataGenerator {
 		private Facility facility;
 		private boolean filterExpiredMembers = false;
 		private boolean consentEval = false;
+		private GenAttributesCache attributesCache;
+		private long attributesCacheEpoch = GenAttributesCache.NO_EPOCH;
 
 		public Builder sess(PerunSessionImpl sess) {
 			this.sess = sess;
@@ -221,8 +224,20 @@ public class GroupsHashedDataGenerator implements HashedDataGenerator {
 			return this;
 		}
 
+		/**
+		 * @param attributesCache shared cache of attributes
+		 * @param attributesCacheEpoch epoch of the cache obtained before the first read of the GEN transaction
+		 * @return this builder
+		 */
+		public Builder attributesCache(GenAttributesCache attributesCache, long attributesCacheEpoch) {
+			this.attributesCache = attributesCache;
+			this.attributesCacheEpoch = attributesCacheEpoch;
+			return this;
+		}
+
 		public GroupsHashedDataGenerator build() {
-			return new GroupsHashedDataGenerator(sess, service, facility, filterExpiredMembers, consentEval);
+			return new GroupsHashedDataGenerator(sess, service, facility, filterExpiredMembers, consentEval, attributesCache,
+					attributesCacheEpoch);
 		}
 	}
 }
@@ -7,15 +7,19 @@ import cz.metacentrum.perun.core.api.GenDataNode;
 import cz.metacentrum.perun.core.api.GenMemberDataNode;
 import cz.metacentrum.perun.core.api.GenResourceDataNode;
 import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataWriter;
 import cz.metacentrum.perun.core.api.Member;
 import cz.metacentrum.perun.core.api.Resource;
 import cz.metacentrum.perun.core.api.Service;
 import cz.metacentrum.perun.core.impl.PerunSessionImpl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import static java.util.stream.Collectors.toMap;
 
@@ -45,6 +49,9 @@ import static java.util.stream.Collectors.toMap;
  *   }
  * }
  *
+ * If the worker pool is enabled, resources are split among the workers and each part is generated by its own
+ * data provider. The results are merged, so the output is the same as if all resources were generated sequentially.
+ *
  * @author Vojtech Sassmann <vojtech.sassmann@gmail.com>
  */
 public class HierarchicalHashedDataGenerator implements HashedDataGenerator {
@@ -56,18 +63,78 @@ public class HierarchicalHashedDataGenerator implements HashedDataGenerator {
 	private final Set<Member> membersWithConsent = new HashSet<>();
 	private final boolean filterExpiredMembers;
 	private final boolean consentEval;
+	private final GenAttributesCache attributesCache;
+	private final long attributesCacheEpoch;
+	private final GenWorkerPool workerPool;
 	private HierarchicalHashedDataGenerator(PerunSessionImpl sess, Service service, Facility facility,
-	                                        boolean filterExpiredMembers, boolean consentEval) {
+	                                        boolean filterExpiredMembers, boolean consentEval,
+	                                        GenAttributesCache attributesCache, long attributesCacheEpoch,
+	                                        GenWorkerPool workerPool) {
 		this.sess = sess;
 		this.service = service;
 		this.facility = facility;
 		this.filterExpiredMembers = filterExpiredMembers;
 		this.consentEval = consentEval;
-		dataProvider = new GenDataProviderImpl(sess, service, facility);
+		this.attributesCache = attributesCache;
+		this.attributesCacheEpoch = attributesCacheEpoch;
+		this.workerPool = workerPool;
+		dataProvider = new GenDataProviderImpl(sess, service, facility, attributesCache, attributesCacheEpoch);
 	}
 
 	@Override
 	public HashedGenData generateData() {
+		List<Resource> resources = prepareData();
+
+		Map<Integer, GenDataNode> childNodes;
+		Map<String, Map<String, Object>> attributes;
+		if (workerPool != null && workerPool.isEnabled() && resources.size() > 1) {
+			ResourcesData resourcesData = getDataForResourcesInParallel(resources);
+			childNodes = resourcesData.childNodes;
+			attributes = resourcesData.attributes;
+
+			dataProvider.getFacilityAttributesHashes();
+			attributes.putAll(dataProvider.getAllFetchedAttributes());
+		} else {
+			childNodes = resources.stream()
+					.collect(toMap(Resource::getId, resource -> getDataForResource(sess, dataProvider, resource, membersWithConsent)));
+
+			dataProvider.getFacilityAttributesHashes();
+			attributes = dataProvider.getAllFetchedAttributes();
+		}
+
+		return new HashedGenData(attributes, getFacilityNode(childNodes), facility.getId());
+	}
+
+	/**
+	 * Generates the same data as generateData(), but writes them by the given writer part by part.
+	 * Attributes are written after each resource and released from the memory, only the hierarchy
+	 * is kept until the end. Resources are always processed sequentially.
+	 *
+	 * @param writer writer of the generated data
+	 */
+	public void generateData(HashedGenDataWriter writer) {
+		List<Resource> resources = prepareData();
+
+		Map<Integer, GenDataNode> childNodes = new HashMap<>();
+		for (Resource resource : resources) {
+			childNodes.put(resource.getId(), getDataForResource(sess, dataProvider, resource, membersWithConsent));
+			writer.writeAttributes(dataProvider.flushFetchedAttributes());
+		}
+
+		dataProvider.getFacilityAttributesHashes();
+		writer.writeAttributes(dataProvider.flushFetchedAttributes());
+
+		Map<Integer, GenDataNode> hierarchy = new HashMap<>();
+		hierarchy.put(facility.getId(), getFacilityNode(childNodes));
+		writer.writeHierarchy(hierarchy);
+	}
+
+	/**
+	 * Loads data needed before the resources are processed.
+	 *
+	 * @return resources assigned to the facility with the service
+	 */
+	private List<Resource> prepareData() {
 		dataProvider.loadFacilityAttributes();
 
 		List<Resource> resources =
@@ -83,24 +150,70 @@ public class HierarchicalHashedDataGenerator implements HashedDataGenerator {
 			membersWithConsent.addAll(sess.getPerunBl().getConsentsManagerBl().evaluateConsents(sess, service, facility, membersToEvaluate, consentEval));
 		}
 
-		Map<Integer, GenDataNode> childNodes = resources.stream()
-				.collect(toMap(Resource::getId, this::getDataForResource));
-
-		dataProvider.getFacilityAttributesHashes();
-		Map<String, Map<String, Object>> attributes = dataProvider.getAllFetchedAttributes();
+		return resources;
+	}
 
+	private GenDataNode getFacilityNode(Map<Integer, GenDataNode> childNodes) {
 		Map<Integer, Integer> memberIdsToUserIds = membersWithConsent.stream()
 				.collect(toMap(Member::getId, Member::getUserId));
 
-		GenDataNode root = new GenDataNode.Builder()
+		return new GenDataNode.Builder()
 				.children(childNodes)
 				.members(memberIdsToUserIds)
 				.build();
+	}
 
-		return new HashedGenData(attributes, root, facility.getId());
+	/**
+	 * Splits the resources among the workers of the pool. Every part is generated by its own data provider
+	 * and session of the worker, because neither of them is thread safe. Attributes with the same hash are the same in all providers,
+	 * so the fetched attributes can be simply merged. All providers store values into the cache with the epoch obtained
+	 * before the snapshot of the calling transaction was taken, as the workers read from the same snapshot.
+	 *
+	 * @param resources resources to generate data for
+	 * @return merged data of all resources
+	 */
+	private ResourcesData getDataForResourcesInParallel(List<Resource> resources) {
+		int parts = Math.min(workerPool.getWorkers(), resources.size());
+		List<List<Resource>> resourcesParts = new ArrayList<>();
+		for (int i = 0; i < parts; i++) {
+			resourcesParts.add(new ArrayList<>());
+		}
+		for (int i = 0; i < resources.size(); i++) {
+			resourcesParts.get(i % parts).add(resources.get(i));
+		}
+
+		// members with consent are only read by the workers, new members are collected per part
+		boolean forceConsents = BeansUtils.getCoreConfig().getForceConsents();
+		List<Function<PerunSessionImpl, ResourcesData>> tasks = new ArrayList<>();
+		for (List<Resource> resourcesPart : resourcesParts) {
+			tasks.add(workerSess -> {
+				// workers read from the snapshot exported by the caller, so the epoch of the caller is valid for them
+				GenDataProvider partDataProvider = new GenDataProviderImpl(workerSess, service, facility, attributesCache,
+						attributesCacheEpoch);
+				Set<Member> partMembers = forceConsents ? membersWithConsent : new HashSet<>();
+				ResourcesData partData = new ResourcesData();
+				for (Resource resource : resourcesPart) {
+					partData.childNodes.put(resource.getId(), getDataForResource(workerSess, partDataProvider, resource, partMembers));
+				}
+				partData.attributes.putAll(partDataProvider.getAllFetchedAttributes());
+				if (!forceConsents) {
+					partData.members.addAll(partMembers);
+				}
+				return partData;
+			});
+		}
+
+		ResourcesData resourcesData = new ResourcesData();
+		for (ResourcesData partData : workerPool.invokeAll(sess, tasks)) {
+			resourcesData.childNodes.putAll(partData.childNodes);
+			resourcesData.attributes.putAll(partData.attributes);
+			membersWithConsent.addAll(partData.members);
+		}
+		return resourcesData;
 	}
 
-	private GenResourceDataNode getDataForResource(Resource resource) {
+	private GenResourceDataNode getDataForResource(PerunSessionImpl sess, GenDataProvider provider, Resource resource,
+	                                               Set<Member> facilityMembers) {
 		List<Member> members;
 		if (filterExpiredMembers) {
 			members = sess.getPerunBl().getResourcesManagerBl().getAllowedMembersNotExpiredInGroups(sess, resource);
@@ -109,17 +222,17 @@ public class HierarchicalHashedDataGenerator implements HashedDataGenerator {
 		}
 		if (BeansUtils.getCoreConfig().getForceConsents()) {
 			// remove the members without granted consents on required attributes
-			members.removeIf(member -> !membersWithConsent.contains(member));
+			members.removeIf(member -> !facilityMembers.contains(member));
 		} else {
 			// we skipped this part if consents were required, so add them now
-			membersWithConsent.addAll(members);
+			facilityMembers.addAll(members);
 		}
 
-		dataProvider.loadResourceAttributes(resource, members, true);
+		provider.loadResourceAttributes(resource, members, true);
 
-		dataProvider.getResourceAttributesHashes(resource, true);
+		provider.getResourceAttributesHashes(resource, true);
 
-		members.forEach(member -> getDataForMember(resource, member));
+		members.forEach(member -> getDataForMember(provider, resource, member));
 
 		Map<Integer, Integer> memberIdsToUserIds = members.stream()
 				.collect(toMap(Member::getId, Member::getUserId));
@@ -130,18 +243,30 @@ public class HierarchicalHashedDataGenerator implements HashedDataGenerator {
 				.build();
 	}
 
-	private GenMemberDataNode getDataForMember(Resource resource, Member member) {
-		List<String> memberAttrHashes = dataProvider.getMemberAttributesHashes(resource, member);
+	private GenMemberDataNode getDataForMember(GenDataProvider provider, Resource resource, Member member) {
+		List<String> memberAttrHashes = provider.getMemberAttributesHashes(resource, member);
 
 		return new GenMemberDataNode(memberAttrHashes);
 	}
 
+	/**
+	 * Data generated for a part of the resources.
+	 */
+	private static class ResourcesData {
+		private final Map<Integer, GenDataNode> childNodes = new HashMap<>();
+		private final Map<String, Map<String, Object>> attributes = new HashMap<>();
+		private final Set<Member> members = new HashSet<>();
+	}
+
 	public static class Builder {
 		private PerunSessionImpl sess;
 		private Service service;
 		private Facility facility;
 		private boolean filterExpiredMembers = false;
 		private boolean consentEval = false;
+		private GenAttributesCache attributesCache;
+		private long attributesCacheEpoch = GenAttributesCache.NO_EPOCH;
+		private GenWorkerPool workerPool;
 
 		public Builder sess(PerunSessionImpl sess) {
 			this.sess = sess;
@@ -168,8 +293,25 @@ public class HierarchicalHashedDataGenerator implements HashedDataGenerator {
 			return this;
 		}
 
+		/**
+		 * @param attributesCache shared cache of attributes
+		 * @param attributesCacheEpoch epoch of the cache obtained before the first read of the GEN transaction
+		 * @return this builder
+		 */
+		public Builder attributesCache(GenAttributesCache attributesCache, long attributesCacheEpoch) {
+			this.attributesCache = attributesCache;
+			this.attributesCacheEpoch = attributesCacheEpoch;
+			return this;
+		}
+
+		public Builder workerPool(GenWorkerPool workerPool) {
+			this.workerPool = workerPool;
+			return this;
+		}
+
 		public HierarchicalHashedDataGenerator build() {
-			return new HierarchicalHashedDataGenerator(sess, service, facility, filterExpiredMembers, consentEval);
+			return new HierarchicalHashedDataGenerator(sess, service, facility, filterExpiredMembers, consentEval,
+					attributesCache, attributesCacheEpoch, workerPool);
 		}
 	}
 }
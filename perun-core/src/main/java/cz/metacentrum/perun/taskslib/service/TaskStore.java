@@ -12,7 +12,8 @@ import java.util.List;
  * This interface describes basic Task storing functionality, where every Task is uniquely represented by
  * both its ID, and the Facility and Service it contains.
  *
- * Storage is meant to be in-memory pool.
+ * Storage is meant to be in-memory pool. It can be accessed concurrently and lookups by status,
+ * Facility or Service should not need to go through all stored Tasks.
  */
 public interface TaskStore {
 
@@ -66,6 +67,22 @@ public interface TaskStore {
 	 */
 	List<Task> getTasksWithStatus(Task.TaskStatus... status);
 
+	/**
+	 * Get all Tasks of specified Facility.
+	 *
+	 * @param facility Facility to get Tasks for
+	 * @return All Tasks of the Facility
+	 */
+	List<Task> getTasks(Facility facility);
+
+	/**
+	 * Get all Tasks of specified Service.
+	 *
+	 * @param service Service to get Tasks for
+	 * @return All Tasks of the Service
+	 */
+	List<Task> getTasks(Service service);
+
 	/**
 	 * Remove Task from TaskStore
 	 *
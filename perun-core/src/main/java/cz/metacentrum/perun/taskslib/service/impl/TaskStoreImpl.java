@@ -12,25 +12,40 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of TaskStore as in-memory pool.
  *
+ * Tasks are kept in concurrent maps by ID, by Facility and Service and in secondary indexes by status,
+ * Facility and Service, so lookups never block writers and take time proportional to the result.
+ * Adding and removing of Tasks is serialized to keep all maps consistent. Status index is updated,
+ * when the status of stored Task is changed, since the store is registered as its status listener.
+ *
  * @see cz.metacentrum.perun.taskslib.service.TaskStore
  *
  * @author David Šarman
  * @author Pavel Zlámal <zlamal@cesnet.cz>
  */
-public class TaskStoreImpl implements TaskStore {
+public class TaskStoreImpl implements TaskStore, Task.StatusListener {
 
 	private final static Logger log = LoggerFactory.getLogger(TaskStoreImpl.class);
-	private final Map<Integer, Task> tasksById = new HashMap<>();
-	private final Map<Pair<Integer, Integer>, Task> tasksByFacilityAndService = new HashMap<>();
+	private final Map<Integer, Task> tasksById = new ConcurrentHashMap<>();
+	private final Map<Pair<Integer, Integer>, Task> tasksByFacilityAndService = new ConcurrentHashMap<>();
+	private final Map<Task.TaskStatus, Map<Integer, Task>> tasksByStatus = new EnumMap<>(Task.TaskStatus.class);
+	private final Map<Integer, Map<Integer, Task>> tasksByFacility = new ConcurrentHashMap<>();
+	private final Map<Integer, Map<Integer, Task>> tasksByService = new ConcurrentHashMap<>();
 
 	public TaskStoreImpl() {
+		// all statuses are present, so the EnumMap is never modified and can be read concurrently
+		for (Task.TaskStatus status : Task.TaskStatus.values()) {
+			tasksByStatus.put(status, new ConcurrentHashMap<>());
+		}
 	}
 
 	@Override
@@ -63,6 +78,13 @@ public class TaskStoreImpl implements TaskStore {
 			idAdded = tasksById.put(task.getId(), task);
 			otherAdded = tasksByFacilityAndService.put(
 					new Pair<>(task.getFacility().getId(), task.getService().getId()), task);
+			if (idAdded != null && idAdded != task) {
+				unindex(idAdded);
+			}
+			if (otherAdded != null && otherAdded != task && otherAdded != idAdded) {
+				unindex(otherAdded);
+			}
+			index(task);
 		}
 		if (idAdded != otherAdded) {
 			log.error("Task returned from both Maps after insert differ. taskById {}, taskByFacilityAndService {}", idAdded, otherAdded);
@@ -74,20 +96,31 @@ public class TaskStoreImpl implements TaskStore {
 
 	@Override
 	public Collection<Task> getAllTasks() {
-		return tasksById.values();
+		return Collections.unmodifiableCollection(tasksById.values());
 	}
 
 	@Override
-	public synchronized List<Task> getTasksWithStatus(Task.TaskStatus... status) {
-		Collection<Task> tasks = tasksById.values();
-		synchronized (this) {
-			List<Task> result = new ArrayList<>();
-			List<Task.TaskStatus> statuses = Arrays.asList(status);
-			for (Task t : tasks) {
-				if (statuses.contains(t.getStatus())) result.add(t);
-			}
+	public List<Task> getTasksWithStatus(Task.TaskStatus... status) {
+		List<Task> result = new ArrayList<>();
+		if (status.length == 0) {
 			return result;
 		}
+		for (Task.TaskStatus s : EnumSet.copyOf(Arrays.asList(status))) {
+			result.addAll(tasksByStatus.get(s).values());
+		}
+		return result;
+	}
+
+	@Override
+	public List<Task> getTasks(Facility facility) {
+		Map<Integer, Task> tasks = tasksByFacility.get(facility.getId());
+		return tasks == null ? new ArrayList<>() : new ArrayList<>(tasks.values());
+	}
+
+	@Override
+	public List<Task> getTasks(Service service) {
+		Map<Integer, Task> tasks = tasksByService.get(service.getId());
+		return tasks == null ? new ArrayList<>() : new ArrayList<>(tasks.values());
 	}
 
 	@Override
@@ -97,6 +130,12 @@ public class TaskStoreImpl implements TaskStore {
 		synchronized (this) {
 			idRemoved = tasksById.remove(task.getId());
 			otherRemoved = tasksByFacilityAndService.remove(new Pair<>(task.getFacility().getId(), task.getService().getId()));
+			if (idRemoved != null) {
+				unindex(idRemoved);
+			}
+			if (otherRemoved != null && otherRemoved != idRemoved) {
+				unindex(otherRemoved);
+			}
 		}
 		if (idRemoved != otherRemoved) {
 			log.error("Inconsistent state occurred after removing Task {} from TaskStore", task);
@@ -109,15 +148,79 @@ public class TaskStoreImpl implements TaskStore {
 	public Task removeTask(int id) throws TaskStoreException {
 		Task task = getTask(id);
 		if (task != null) {
-			task = removeTask(getTask(id));
+			task = removeTask(task);
 		}
 		return task;
 	}
 
 	@Override
-	public void clear() {
+	public synchronized void clear() {
+		for (Task task : tasksById.values()) {
+			task.removeStatusListener(this);
+		}
 		tasksById.clear();
 		tasksByFacilityAndService.clear();
+		for (Map<Integer, Task> tasks : tasksByStatus.values()) {
+			tasks.clear();
+		}
+		tasksByFacility.clear();
+		tasksByService.clear();
+	}
+
+	@Override
+	public void onStatusChange(Task task, Task.TaskStatus oldStatus, Task.TaskStatus newStatus) {
+		// called while holding lock of the task, so changes of its status are applied in order
+		if (oldStatus != null) {
+			tasksByStatus.get(oldStatus).remove(task.getId(), task);
+		}
+		if (newStatus != null) {
+			tasksByStatus.get(newStatus).put(task.getId(), task);
+		}
+	}
+
+	/**
+	 * Adds Task to secondary indexes and starts listening to changes of its status.
+	 * Must be called while holding lock of the store.
+	 *
+	 * @param task Task to index
+	 */
+	private void index(Task task) {
+		tasksByFacility.computeIfAbsent(task.getFacility().getId(), id -> new ConcurrentHashMap<>()).put(task.getId(), task);
+		tasksByService.computeIfAbsent(task.getService().getId(), id -> new ConcurrentHashMap<>()).put(task.getId(), task);
+		// status can't be changed while holding lock of the task
+		synchronized (task) {
+			task.setStatusListener(this);
+			if (task.getStatus() != null) {
+				tasksByStatus.get(task.getStatus()).put(task.getId(), task);
+			}
+		}
+	}
+
+	/**
+	 * Removes Task from secondary indexes and stops listening to changes of its status.
+	 * Must be called while holding lock of the store.
+	 *
+	 * @param task Task to remove from indexes
+	 */
+	private void unindex(Task task) {
+		removeFromIndex(tasksByFacility, task.getFacility().getId(), task);
+		removeFromIndex(tasksByService, task.getService().getId(), task);
+		synchronized (task) {
+			task.removeStatusListener(this);
+			for (Map<Integer, Task> tasks : tasksByStatus.values()) {
+				tasks.remove(task.getId(), task);
+			}
+		}
+	}
+
+	private static void removeFromIndex(Map<Integer, Map<Integer, Task>> index, int key, Task task) {
+		Map<Integer, Task> tasks = index.get(key);
+		if (tasks != null) {
+			tasks.remove(task.getId(), task);
+			if (tasks.isEmpty()) {
+				index.remove(key);
+			}
+		}
 	}
 
 }
@@ -0,0 +1,112 @@
+package cz.metacentrum.perun.core.api;
+
+import cz.metacentrum.perun.core.api.exceptions.ConsistencyErrorException;
+import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttributeValueCodecTest {
+
+	private static final String LIST = ArrayList.class.getName();
+	private static final String MAP = LinkedHashMap.class.getName();
+	private static final int TIMING_ROUNDS = 200_000;
+
+	@Test
+	public void simpleValuesAreConverted() {
+		assertThat(BeansUtils.stringToAttributeValue("text", String.class.getName())).isEqualTo("text");
+		assertThat(BeansUtils.stringToAttributeValue("-42", Integer.class.getName())).isEqualTo(-42);
+		assertThat(BeansUtils.stringToAttributeValue("true", Boolean.class.getName())).isEqualTo(true);
+		assertThat(BeansUtils.stringToAttributeValue("", String.class.getName())).isNull();
+		assertThat(BeansUtils.stringToAttributeValue(null, LIST)).isNull();
+		assertThat(BeansUtils.attributeValueToString(42, Integer.class.getName())).isEqualTo("42");
+		assertThat(BeansUtils.attributeValueToString(false, Boolean.class.getName())).isEqualTo("false");
+	}
+
+	@Test
+	public void listIsEscaped() {
+		ArrayList<String> list = new ArrayList<>(Arrays.asList("a,b", "c\\", null, "\\0", ""));
+		String value = BeansUtils.attributeValueToString(list, LIST);
+		assertThat(value).isEqualTo("a\\,b,c\\\\,\\0,\\\\0,,");
+		// escaped "\0" is read as null as well, the same as before
+		assertThat(BeansUtils.stringToAttributeValue(value, LIST)).isEqualTo(Arrays.asList("a,b", "c\\", null, null, ""));
+	}
+
+	@Test
+	public void mapIsEscaped() {
+		LinkedHashMap<String, String> map = new LinkedHashMap<>();
+		map.put("k:1", "v,1");
+		map.put("k2", null);
+		String value = BeansUtils.attributeValueToString(map, MAP);
+		assertThat(value).isEqualTo("k\\:1:v\\,1,k2:\\0,");
+		assertThat(BeansUtils.stringToAttributeValue(value, MAP)).isEqualTo(map);
+		assertThat(BeansUtils.stringToAttributeValue("a:b:c,", MAP)).isEqualTo(Map.of("a", "b:c"));
+	}
+
+	@Test
+	public void textAfterLastDelimiterIsIgnored() {
+		assertThat(BeansUtils.stringToAttributeValue("a,b", LIST)).isEqualTo(Arrays.asList("a"));
+		assertThat(BeansUtils.stringToAttributeValue("a\\,b", LIST)).isEqualTo(Arrays.asList("a,b"));
+		assertThat(BeansUtils.stringToAttributeValue("a:b,c:d", MAP)).isEqualTo(Map.of("a", "b"));
+	}
+
+	@Test(expected = ConsistencyErrorException.class)
+	public void danglingEscapeIsRejected() {
+		BeansUtils.stringToAttributeValue("a\\,b\\", LIST);
+	}
+
+	@Test(expected = ConsistencyErrorException.class)
+	public void mapEntryWithoutKeyIsRejected() {
+		BeansUtils.stringToAttributeValue("a:b,c,", MAP);
+	}
+
+	@Test(expected = InternalErrorException.class)
+	public void unknownTypeIsRejected() {
+		BeansUtils.stringToAttributeValue("value", "java.util.HashSet");
+	}
+
+	/**
+	 * Timing of conversion of list and map values to and from their DB strings, it is not run by the build.
+	 * It uses only BeansUtils, so it can be run on older versions of the conversion as well.
+	 */
+	@Test
+	@Ignore("timing comparison, run manually")
+	public void conversionTiming() {
+		ArrayList<String> list = new ArrayList<>();
+		LinkedHashMap<String, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < 20; i++) {
+			list.add("user" + i + "@example.org");
+			map.put("urn:perun:facility:key" + i, i % 4 == 0 ? "value, with: delimiters" + i : "value" + i);
+		}
+		String listValue = BeansUtils.attributeValueToString(list, LIST);
+		String mapValue = BeansUtils.attributeValueToString(map, MAP);
+
+		for (int round = 0; round < 2; round++) {
+			// the first round is a warm up
+			long start = System.nanoTime();
+			for (int i = 0; i < TIMING_ROUNDS; i++) {
+				BeansUtils.stringToAttributeValue(listValue, LIST);
+				BeansUtils.stringToAttributeValue(mapValue, MAP);
+			}
+			long readDuration = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < TIMING_ROUNDS; i++) {
+				BeansUtils.attributeValueToString(list, LIST);
+				BeansUtils.attributeValueToString(map, MAP);
+			}
+			long writeDuration = System.nanoTime() - start;
+
+			System.out.println("List and map of 20 items read in " + readDuration / TIMING_ROUNDS + " ns and written in " +
+					writeDuration / TIMING_ROUNDS + " ns.");
+		}
+		assertThat(BeansUtils.stringToAttributeValue(listValue, LIST)).isEqualTo(list);
+		assertThat(BeansUtils.stringToAttributeValue(mapValue, MAP)).isEqualTo(map);
+	}
+}
@@ -47,6 +47,7 @@ import static org.mockito.Mockito.when;
 public class AuthzResolverIntegrationTest extends AbstractPerunIntegrationTest {
 
 	private static final String CLASS_NAME = "AuthzResolver.";
+	private static final int TIMING_OBJECTS = 100_000;
 	final ExtSource extSource = new ExtSource(0, "AuthzResolverExtSource", ExtSourcesManager.EXTSOURCE_LDAP);
 	private int userLoginSequence = 0;
 
@@ -196,6 +197,137 @@ public class AuthzResolverIntegrationTest extends AbstractPerunIntegrationTest {
 		assertFalse(AuthzResolver.authorizedInternal(session, "test_groupadmin_voadmin", Arrays.asList(createdVo, createdGroup)));
 	}
 
+	@Test
+	public void authorizedFilterGroupAdmin() throws Exception {
+		System.out.println(CLASS_NAME + "authorizedFilterGroupAdmin");
+		final Vo createdVo = perun.getVosManager().createVo(sess, new Vo(0,"test123test123","test123test123"));
+
+		final Member createdMember = createSomeMember(createdVo);
+		Group createdGroup = setUpGroup(createdVo, createdMember);
+		Group otherGroup = perun.getGroupsManagerBl().createGroup(sess, createdVo, new Group("Other group", "other group"));
+		final User createdUser = perun.getUsersManagerBl().getUserByMember(sess, createdMember);
+
+		AuthzResolver.setRole(sess, createdUser, createdGroup, Role.GROUPADMIN);
+
+		PerunSession session = getHisSession(createdMember);
+		AuthzResolver.refreshAuthz(session);
+		List<Group> groups = Arrays.asList(createdGroup, otherGroup);
+		assertEquals(Collections.singletonList(createdGroup), AuthzResolver.authorizedInternalFilter(session, "test_authorized_group_admin", groups));
+
+		AuthzResolver.setRole(sess, createdUser, createdVo, Role.VOADMIN);
+		AuthzResolver.refreshAuthz(session);
+		assertEquals(groups, AuthzResolver.authorizedInternalFilter(session, "test_authorized_group_admin", groups));
+	}
+
+	@Test
+	public void authorizedFilterGroupAndVoAdmin() throws Exception {
+		System.out.println(CLASS_NAME + "authorizedFilterGroupAndVoAdmin");
+		final Vo createdVo = perun.getVosManager().createVo(sess, new Vo(0,"test123test123","test123test123"));
+		final Vo createdVo2 = perun.getVosManager().createVo(sess, new Vo(0,"test1234test1234","test1234test1234"));
+
+		final Member createdMember = createSomeMember(createdVo);
+		Group createdGroup = setUpGroup(createdVo, createdMember);
+		Group otherGroup = perun.getGroupsManagerBl().createGroup(sess, createdVo, new Group("Other group", "other group"));
+		final User createdUser = perun.getUsersManagerBl().getUserByMember(sess, createdMember);
+
+		AuthzResolver.setRole(sess, createdUser, createdVo, Role.VOADMIN);
+		AuthzResolver.setRole(sess, createdUser, createdGroup, Role.GROUPADMIN);
+
+		PerunSession session = getHisSession(createdMember);
+		AuthzResolver.refreshAuthz(session);
+		List<Group> groups = Arrays.asList(createdGroup, otherGroup);
+		for (Vo vo : Arrays.asList(createdVo, createdVo2)) {
+			List<Group> expected = new ArrayList<>();
+			for (Group group : groups) {
+				if (AuthzResolver.authorizedInternal(session, "test_groupadmin_voadmin", Arrays.asList(vo, group))) {
+					expected.add(group);
+				}
+			}
+			assertEquals(expected, AuthzResolver.authorizedInternalFilter(session, "test_groupadmin_voadmin", groups, vo));
+		}
+		assertEquals(Collections.singletonList(createdGroup), AuthzResolver.authorizedInternalFilter(session, "test_groupadmin_voadmin", groups, createdVo));
+	}
+
+	/**
+	 * Timing comparison of authorizedInternalFilter() with authorizedInternal() called for every object, it is not
+	 * run by the build. It prints times of both on the same groups, which exist only in memory.
+	 */
+	@Test
+	@Ignore("timing comparison, run manually")
+	public void authorizedFilterTiming() throws Exception {
+		System.out.println(CLASS_NAME + "authorizedFilterTiming");
+		final Vo createdVo = perun.getVosManager().createVo(sess, new Vo(0,"test123test123","test123test123"));
+
+		final Member createdMember = createSomeMember(createdVo);
+		Group createdGroup = setUpGroup(createdVo, createdMember);
+		final User createdUser = perun.getUsersManagerBl().getUserByMember(sess, createdMember);
+
+		AuthzResolver.setRole(sess, createdUser, createdGroup, Role.GROUPADMIN);
+
+		PerunSession session = getHisSession(createdMember);
+		AuthzResolver.refreshAuthz(session);
+		List<Group> groups = new ArrayList<>();
+		for (int i = 0; i < TIMING_OBJECTS; i++) {
+			groups.add(new Group(createdGroup.getId() + i, "group" + i, "group", createdVo.getId()));
+		}
+
+		// warm up both ways
+		AuthzResolver.authorizedInternalFilter(session, "test_authorized_group_admin", groups.subList(0, 1000));
+		for (Group group : groups.subList(0, 1000)) {
+			AuthzResolver.authorizedInternal(session, "test_authorized_group_admin", group);
+		}
+
+		long start = System.nanoTime();
+		List<Group> filtered = AuthzResolver.authorizedInternalFilter(session, "test_authorized_group_admin", groups);
+		long filterDuration = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		List<Group> expected = new ArrayList<>();
+		for (Group group : groups) {
+			if (AuthzResolver.authorizedInternal(session, "test_authorized_group_admin", group)) {
+				expected.add(group);
+			}
+		}
+		long singleDuration = System.nanoTime() - start;
+
+		System.out.println("Filtering of " + TIMING_OBJECTS + " groups took " + filterDuration / 1_000_000 +
+				" ms by authorizedInternalFilter and " + singleDuration / 1_000_000 + " ms by authorizedInternal for every group.");
+		assertEquals(expected, filtered);
+	}
+
+	/**
+	 * Timing of authorizedInternal() for policies with included policies and with several roles, it is not run
+	 * by the build. It prints the average time of a single call for each policy.
+	 */
+	@Test
+	@Ignore("timing comparison, run manually")
+	public void authorizedPolicyTiming() throws Exception {
+		System.out.println(CLASS_NAME + "authorizedPolicyTiming");
+		final Vo createdVo = perun.getVosManager().createVo(sess, new Vo(0,"test123test123","test123test123"));
+
+		final Member createdMember = createSomeMember(createdVo);
+		Group createdGroup = setUpGroup(createdVo, createdMember);
+		final User createdUser = perun.getUsersManagerBl().getUserByMember(sess, createdMember);
+
+		AuthzResolver.setRole(sess, createdUser, createdGroup, Role.GROUPADMIN);
+
+		PerunSession session = getHisSession(createdMember);
+		AuthzResolver.refreshAuthz(session);
+		for (String policy : Arrays.asList("test_authorized_group_admin", "test_transitive_one", "test_resource_and_facility_admin")) {
+			boolean authorized = false;
+			// warm up
+			for (int i = 0; i < TIMING_OBJECTS; i++) {
+				authorized = AuthzResolver.authorizedInternal(session, policy, createdGroup);
+			}
+			long start = System.nanoTime();
+			for (int i = 0; i < TIMING_OBJECTS; i++) {
+				authorized = AuthzResolver.authorizedInternal(session, policy, createdGroup);
+			}
+			long duration = System.nanoTime() - start;
+			System.out.println("Policy " + policy + " evaluated to " + authorized + " in " + duration / TIMING_OBJECTS + " ns per call.");
+		}
+	}
+
 	@Test
 	public void authorizedResourceAdmin() throws Exception {
 		System.out.println(CLASS_NAME + "authorizedResourceAdmin");
@@ -1,6 +1,7 @@
 package cz.metacentrum.perun.core.entry;
 
 import com.google.common.collect.Lists;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeSetForUser;
 import cz.metacentrum.perun.core.AbstractPerunIntegrationTest;
 import cz.metacentrum.perun.core.api.ActionType;
 import cz.metacentrum.perun.core.api.Attribute;
@@ -53,6 +54,7 @@ import cz.metacentrum.perun.core.api.exceptions.RoleObjectCombinationInvalidExce
 import cz.metacentrum.perun.core.blImpl.AttributesManagerBlImpl;
 import cz.metacentrum.perun.core.blImpl.PerunBlImpl;
 import cz.metacentrum.perun.core.impl.AttributesManagerImpl;
+import cz.metacentrum.perun.core.impl.AuditerMessage;
 import cz.metacentrum.perun.core.implApi.modules.attributes.AttributesModuleImplApi;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -99,6 +101,8 @@ public class AttributesManagerEntryIntegrationTest extends AbstractPerunIntegrat
 
 	private static String CLASS_NAME = "AttributesManager.";
 
+	private static final int TIMING_USERS = 10_000;
+
 	/*
 	 * Test is divided into groups by the type of methods
 	 *
@@ -2479,6 +2483,45 @@ public class AttributesManagerEntryIntegrationTest extends AbstractPerunIntegrat
 
 	}
 
+	@Test
+	public void setUserAttributesUpdatesStoredValues() throws Exception {
+		System.out.println(CLASS_NAME + "setUserAttributesUpdatesStoredValues");
+
+		vo = setUpVo();
+		member = setUpMember();
+		User user = perun.getUsersManager().getUserByMember(sess, member);
+		attributes = setUpUserAttribute();
+		attributes.addAll(setUpUserLargeAttribute());
+
+		attributesManager.setAttributes(sess, user, attributes);
+		// first value is changed, second stays the same
+		attributes.get(0).setValue("ChangedUserAttribute");
+		int messagesCount = perun.getAuditer().getMessages().size();
+		attributesManager.setAttributes(sess, user, attributes);
+
+		assertEquals("ChangedUserAttribute", attributesManager.getAttribute(sess, user, attributes.get(0).getName()).getValue());
+		assertEquals(attributes.get(1).getValue(), attributesManager.getAttribute(sess, user, attributes.get(1).getName()).getValue());
+		// only the changed attribute is announced
+		List<String> announcedAttributes = perun.getAuditer().getMessages().stream()
+				.skip(messagesCount)
+				.map(AuditerMessage::getEvent)
+				.filter(AttributeSetForUser.class::isInstance)
+				.map(event -> ((AttributeSetForUser) event).getAttribute().getName())
+				.collect(Collectors.toList());
+		assertEquals(Collections.singletonList(attributes.get(0).getName()), announcedAttributes);
+
+		// now first value stays the same and second is changed
+		Map<String, String> changedValue = new LinkedHashMap<>();
+		changedValue.put("UserLargeAttribute", "changed value");
+		attributes.get(1).setValue(changedValue);
+		List<Attribute> changedAttributes = ((PerunBlImpl) perun).getAttributesManagerImpl().setAttributes(sess, user, attributes);
+
+		assertEquals(Collections.singletonList(attributes.get(1)), changedAttributes);
+		assertEquals(changedValue, attributesManager.getAttribute(sess, user, attributes.get(1).getName()).getValue());
+		// nothing is written when no value changed
+		assertTrue(((PerunBlImpl) perun).getAttributesManagerImpl().setAttributes(sess, user, attributes).isEmpty());
+	}
+
 	@Test (expected=UserNotExistsException.class)
 	public void setUserAttributesWhenUserNotExists() throws Exception {
 		System.out.println(CLASS_NAME + "setUserAttributesWhenUserNotExists");
@@ -7474,6 +7517,112 @@ public class AttributesManagerEntryIntegrationTest extends AbstractPerunIntegrat
 		assertThat(requiredAttributes.get(member2)).containsExactly(m2Attribute);
 	}
 
+	@Test
+	public void getUserFacilityAndUserVirtualRequiredAttributesForUsers() throws Exception {
+		System.out.println(CLASS_NAME + "getUserFacilityAndUserVirtualRequiredAttributesForUsers");
+
+		service = setUpService();
+		facility = setUpFacility();
+		vo = setUpVo();
+		group = setUpGroup();
+		Member member1 = setUpMember();
+		Member member2 = setUpMember();
+		perun.getGroupsManagerBl().addMember(sess, group, member1);
+		User user1 = perun.getUsersManagerBl().getUserByMember(sess, member1);
+		User user2 = perun.getUsersManagerBl().getUserByMember(sess, member2);
+		List<User> users = Arrays.asList(user1, user2);
+
+		// only the first user has login in the namespace of the facility
+		Attribute loginNamespace = perun.getAttributesManagerBl().getAttribute(sess, facility, AttributesManager.NS_FACILITY_ATTR_DEF + ":login-namespace");
+		loginNamespace.setValue("cesnet");
+		perun.getAttributesManagerBl().setAttribute(sess, facility, loginNamespace);
+		Attribute user1Login = perun.getAttributesManagerBl().getAttribute(sess, user1, AttributesManager.NS_USER_ATTR_DEF + ":login-namespace:cesnet");
+		user1Login.setValue("bulktestlogin");
+		perun.getAttributesManagerBl().setAttribute(sess, user1, user1Login);
+
+		AttributeDefinition login = attributesManager.getAttributeDefinition(sess, AttributesManager.NS_USER_FACILITY_ATTR_VIRT + ":login");
+		AttributeDefinition groupNames = new AttributeDefinition();
+		groupNames.setNamespace(AttributesManager.NS_USER_ATTR_VIRT);
+		groupNames.setFriendlyName("groupNames");
+		groupNames.setType(ArrayList.class.getName());
+		groupNames = attributesManager.createAttribute(sess, groupNames);
+		perun.getServicesManagerBl().addRequiredAttribute(sess, service, login);
+		perun.getServicesManagerBl().addRequiredAttribute(sess, service, groupNames);
+
+		Map<User, List<Attribute>> userFacilityAttributes = attributesManager.getRequiredAttributes(sess, service, facility, users);
+		Map<User, List<Attribute>> userAttributes = attributesManager.getRequiredAttributes(sess, service, users);
+
+		for (User user : users) {
+			assertThat(userFacilityAttributes.get(user)).containsExactly(attributesManager.getAttribute(sess, facility, user, login.getName()));
+			assertThat(userAttributes.get(user)).containsExactly(attributesManager.getAttribute(sess, user, groupNames.getName()));
+		}
+		assertEquals("bulktestlogin", userFacilityAttributes.get(user1).get(0).getValue());
+		assertNull(userFacilityAttributes.get(user2).get(0).getValue());
+		assertTrue(userAttributes.get(user1).get(0).valueAsList().contains(vo.getShortName() + ":" + group.getName()));
+	}
+
+	/**
+	 * Compares reading of the required virtual attributes for many users at once with reading them one by one.
+	 * It is not run by the build, run it manually and compare printed times.
+	 */
+	@Test
+	@Ignore("timing comparison, run manually")
+	public void bulkVirtualRequiredAttributesTiming() throws Exception {
+		System.out.println(CLASS_NAME + "bulkVirtualRequiredAttributesTiming");
+
+		service = setUpService();
+		facility = setUpFacility();
+		vo = setUpVo();
+		group = setUpGroup();
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < TIMING_USERS; i++) {
+			User user = perun.getUsersManagerBl().createUser(sess, new User(-1, "Timing", "User" + i, "", "", ""));
+			Member member = perun.getMembersManagerBl().createMember(sess, vo, user);
+			if (i % 2 == 0) {
+				perun.getGroupsManagerBl().addMember(sess, group, member);
+			}
+			users.add(user);
+		}
+
+		Attribute loginNamespace = perun.getAttributesManagerBl().getAttribute(sess, facility, AttributesManager.NS_FACILITY_ATTR_DEF + ":login-namespace");
+		loginNamespace.setValue("cesnet");
+		perun.getAttributesManagerBl().setAttribute(sess, facility, loginNamespace);
+		AttributeDefinition login = attributesManager.getAttributeDefinition(sess, AttributesManager.NS_USER_FACILITY_ATTR_VIRT + ":login");
+		AttributeDefinition groupNames = new AttributeDefinition();
+		groupNames.setNamespace(AttributesManager.NS_USER_ATTR_VIRT);
+		groupNames.setFriendlyName("groupNames");
+		groupNames.setType(ArrayList.class.getName());
+		groupNames = attributesManager.createAttribute(sess, groupNames);
+		perun.getServicesManagerBl().addRequiredAttribute(sess, service, login);
+		perun.getServicesManagerBl().addRequiredAttribute(sess, service, groupNames);
+
+		// warm up
+		attributesManager.getRequiredAttributes(sess, service, facility, users);
+		attributesManager.getRequiredAttributes(sess, service, users);
+
+		long start = System.nanoTime();
+		Map<User, List<Attribute>> userFacilityAttributes = attributesManager.getRequiredAttributes(sess, service, facility, users);
+		Map<User, List<Attribute>> userAttributes = attributesManager.getRequiredAttributes(sess, service, users);
+		long bulk = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		Map<User, Attribute> singleLogins = new HashMap<>();
+		Map<User, Attribute> singleGroupNames = new HashMap<>();
+		for (User user : users) {
+			singleLogins.put(user, attributesManager.getAttribute(sess, facility, user, login.getName()));
+			singleGroupNames.put(user, attributesManager.getAttribute(sess, user, groupNames.getName()));
+		}
+		long single = System.nanoTime() - start;
+
+		System.out.println("Required virtual attributes of " + TIMING_USERS + " users at once: " + bulk / 1_000_000 + " ms");
+		System.out.println("Required virtual attributes of " + TIMING_USERS + " users one by one: " + single / 1_000_000 + " ms");
+
+		for (User user : users) {
+			assertThat(userFacilityAttributes.get(user)).containsExactly(singleLogins.get(user));
+			assertThat(userAttributes.get(user)).containsExactly(singleGroupNames.get(user));
+		}
+	}
+
 	@Test
 	public void getGroupRequiredAttributesForGroups() throws Exception {
 		System.out.println(CLASS_NAME + "getGroupRequiredAttributesForGroups");
@@ -7510,6 +7659,41 @@ public class AttributesManagerEntryIntegrationTest extends AbstractPerunIntegrat
 		assertThat(requiredAttributes.get(group2)).containsExactly(g2Attribute);
 	}
 
+	@Test
+	public void getGroupResourceRequiredAttributesForGroups() throws Exception {
+		System.out.println(CLASS_NAME + "getGroupResourceRequiredAttributesForGroups");
+
+		service = setUpService();
+		facility = setUpFacility();
+		vo = setUpVo();
+		resource = setUpResource();
+		Group group1 = setUpGroup("group 1");
+		Group group2 = setUpGroup("group 2");
+
+		perun.getResourcesManagerBl().assignService(sess, resource, service);
+		perun.getResourcesManagerBl().assignGroupToResource(sess, group1, resource, false, false, false);
+		perun.getResourcesManagerBl().assignGroupToResource(sess, group2, resource, false, false, false);
+
+		Attribute attribute = setUpGroupResourceAttribute().get(0);
+
+		perun.getServicesManagerBl().addRequiredAttribute(sess, service, attribute);
+
+		Attribute g1Attribute = new Attribute(attribute);
+		Attribute g2Attribute = new Attribute(attribute);
+
+		g1Attribute.setValue("group1");
+		g2Attribute.setValue("group2");
+
+		perun.getAttributesManagerBl().setAttribute(sess, resource, group1, g1Attribute);
+		perun.getAttributesManagerBl().setAttribute(sess, resource, group2, g2Attribute);
+
+		Map<Group, List<Attribute>> requiredAttributes = perun.getAttributesManagerBl()
+				.getRequiredAttributesForGroups(sess, service, resource, Arrays.asList(group1, group2));
+
+		assertThat(requiredAttributes.get(group1)).containsExactly(g1Attribute);
+		assertThat(requiredAttributes.get(group2)).containsExactly(g2Attribute);
+	}
+
 
 
 // ==============  9. FILL ATTRIBUTE/S  ================================
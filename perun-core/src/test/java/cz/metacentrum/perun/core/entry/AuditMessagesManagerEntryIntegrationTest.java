@@ -209,6 +209,53 @@ public class AuditMessagesManagerEntryIntegrationTest extends AbstractPerunInteg
 		assertThat(messages.getTotalCount()).isEqualTo(1);
 	}
 
+	@Test
+	public void pollConsumerEventsPage() throws Exception {
+		System.out.println(CLASS_NAME + "pollConsumerEventsPage");
+
+		perun.getAuditMessagesManager().createAuditerConsumer(sess, "testConsumer");
+		for (int i = 0; i < 5; i++) {
+			perun.getAuditer().logWithoutTransaction(sess, new StringMessageEvent("Test cislo: " + i));
+		}
+
+		List<AuditEvent> firstPage = perun.getAuditMessagesManager().pollConsumerEventsPage(sess, "testConsumer", 3);
+		List<AuditEvent> secondPage = perun.getAuditMessagesManager().pollConsumerEventsPage(sess, "testConsumer", 3);
+		List<AuditEvent> thirdPage = perun.getAuditMessagesManager().pollConsumerEventsPage(sess, "testConsumer", 3);
+
+		assertThat(firstPage).containsExactly(new StringMessageEvent("Test cislo: 0"),
+				new StringMessageEvent("Test cislo: 1"), new StringMessageEvent("Test cislo: 2"));
+		assertThat(secondPage).containsExactly(new StringMessageEvent("Test cislo: 3"),
+				new StringMessageEvent("Test cislo: 4"));
+		assertThat(thirdPage).isEmpty();
+	}
+
+	@Test (expected=WrongRangeOfCountException.class)
+	public void pollConsumerEventsPageWithZeroCount() throws Exception {
+		System.out.println(CLASS_NAME + "pollConsumerEventsPageWithZeroCount");
+
+		perun.getAuditMessagesManager().createAuditerConsumer(sess, "testConsumer");
+		perun.getAuditMessagesManager().pollConsumerEventsPage(sess, "testConsumer", 0);
+	}
+
+	@Test
+	public void processConsumerEvents() throws Exception {
+		System.out.println(CLASS_NAME + "processConsumerEvents");
+
+		perun.getAuditMessagesManager().createAuditerConsumer(sess, "testConsumer");
+		for (int i = 0; i < 5; i++) {
+			perun.getAuditer().logWithoutTransaction(sess, new StringMessageEvent("Test cislo: " + i));
+		}
+
+		List<List<AuditEvent>> pages = new ArrayList<>();
+		int processed = perun.getAuditMessagesManager().processConsumerEvents(sess, "testConsumer", 2, pages::add);
+
+		assertThat(processed).isEqualTo(5);
+		assertThat(pages).hasSize(3);
+		assertThat(pages.get(0)).containsExactly(new StringMessageEvent("Test cislo: 0"), new StringMessageEvent("Test cislo: 1"));
+		assertThat(pages.get(2)).containsExactly(new StringMessageEvent("Test cislo: 4"));
+		assertThat(perun.getAuditMessagesManager().pollConsumerEventsPage(sess, "testConsumer", 10)).isEmpty();
+	}
+
 	@Test
 	public void findAllPossibleEvents() throws Exception {
 		System.out.println(CLASS_NAME + "findAllPossibleEvents");
@@ -1,5 +1,6 @@
 package cz.metacentrum.perun.core.entry;
 
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AllAttributesRemovedForMember;
 import cz.metacentrum.perun.core.AbstractPerunIntegrationTest;
 import cz.metacentrum.perun.core.api.Attribute;
 import cz.metacentrum.perun.core.api.AttributeDefinition;
@@ -13,6 +14,7 @@ import cz.metacentrum.perun.core.api.GenDataNode;
 import cz.metacentrum.perun.core.api.GenResourceDataNode;
 import cz.metacentrum.perun.core.api.Group;
 import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataWriter;
 import cz.metacentrum.perun.core.api.Host;
 import cz.metacentrum.perun.core.api.Member;
 import cz.metacentrum.perun.core.api.MemberGroupStatus;
@@ -42,14 +44,26 @@ import cz.metacentrum.perun.core.api.exceptions.ServiceNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.ServicesPackageExistsException;
 import cz.metacentrum.perun.core.api.exceptions.ServicesPackageNotExistsException;
 import cz.metacentrum.perun.core.impl.AuthzRoles;
+import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+import cz.metacentrum.perun.core.provisioning.GenAttributesCache;
+import cz.metacentrum.perun.core.provisioning.GenWorkerPool;
+import cz.metacentrum.perun.core.provisioning.HierarchicalHashedDataGenerator;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
-
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
@@ -85,6 +99,12 @@ public class ServicesManagerEntryIntegrationTest extends AbstractPerunIntegratio
 	private Member member;
 	private Group group;
 
+	@Autowired
+	@Qualifier("perunTransactionManager")
+	private PlatformTransactionManager perunTransactionManager;
+	@Autowired
+	private DataSource dataSource;
+
 	// SetUp moved to every method to speed up.
 
 	@Test
@@ -1696,6 +1716,234 @@ public class ServicesManagerEntryIntegrationTest extends AbstractPerunIntegratio
 		assertThat(res2Node.getMembers()).containsKey(member.getId());
 	}
 
+	@Test
+	public void getHashedHierarchicalDataDoesNotCacheValuesReadBeforeInvalidation() throws Exception {
+		System.out.println(CLASS_NAME + "getHashedHierarchicalDataDoesNotCacheValuesReadBeforeInvalidation");
+
+		vo = setUpVo();
+		facility = setUpFacility();
+		resource = setUpResource();
+		service = setUpService();
+		member = setUpMember();
+		group = setUpGroup();
+		perun.getGroupsManager().addMember(sess, group, member);
+		perun.getResourcesManager().assignGroupToResource(sess, group, resource, false, false, false);
+
+		Attribute reqMemAttr = perun.getAttributesManager().getAttribute(sess, member, A_M_C_ID);
+		perun.getServicesManager().addRequiredAttribute(sess, service, reqMemAttr);
+		Attribute reqVoAttr = perun.getAttributesManager().getAttribute(sess, vo, A_V_C_ID);
+		perun.getServicesManager().addRequiredAttribute(sess, service, reqVoAttr);
+		perun.getResourcesManager().assignService(sess, resource, service);
+
+		GenAttributesCache cache = new GenAttributesCache(100);
+		// the snapshot of the GEN transaction was taken before the change of the member was logged
+		long epoch = cache.getEpoch();
+		cache.invalidate(List.of(new AllAttributesRemovedForMember(member)));
+
+		HashedGenData data = new HierarchicalHashedDataGenerator.Builder()
+				.sess((PerunSessionImpl) sess)
+				.service(service)
+				.facility(facility)
+				.attributesCache(cache, epoch)
+				.build()
+				.generateData();
+
+		assertThat(data.getAttributes()).containsKey("m-" + member.getId());
+		assertThat(cache.size()).isZero();
+
+		// values read from a snapshot taken after the invalidation are stored
+		new HierarchicalHashedDataGenerator.Builder()
+				.sess((PerunSessionImpl) sess)
+				.service(service)
+				.facility(facility)
+				.attributesCache(cache, cache.getEpoch())
+				.build()
+				.generateData();
+
+		assertThat(cache.getAttributes(GenAttributesCache.HolderType.MEMBER, member.getId(), 0,
+				List.of(reqMemAttr.getId()))).isNotNull();
+	}
+
+	@Test
+	public void getHashedHierarchicalDataInParallel() throws Exception {
+		System.out.println(CLASS_NAME + "getHashedHierarchicalDataInParallel");
+
+		// workers read by their own connections and can't see data of the test transaction,
+		// so the data are committed and removed at the end of the test
+		int lastMessageId = perun.getAuditMessagesManagerBl().getLastMessageId(sess);
+		GenWorkerPool workerPool = new GenWorkerPool(perunTransactionManager, dataSource, 4);
+		List<Member> members = new ArrayList<>();
+		List<Resource> resources = new ArrayList<>();
+		try {
+			inNewTransaction(() -> {
+				vo = setUpVo();
+				facility = setUpFacility();
+				resource = setUpResource();
+				service = setUpService();
+				members.add(setUpMember());
+				members.add(setUpMember());
+				group = setUpGroup();
+				perun.getGroupsManager().addMember(sess, group, members.get(0));
+				perun.getResourcesManager().assignGroupToResource(sess, group, resource, false, false, false);
+
+				Attribute reqFacAttr = perun.getAttributesManager().getAttribute(sess, facility, A_F_C_NAME);
+				perun.getServicesManager().addRequiredAttribute(sess, service, reqFacAttr);
+				Attribute reqResAttr = perun.getAttributesManager().getAttribute(sess, resource, A_R_C_NAME);
+				perun.getServicesManager().addRequiredAttribute(sess, service, reqResAttr);
+				Attribute reqMemAttr = perun.getAttributesManager().getAttribute(sess, members.get(0), A_M_C_ID);
+				perun.getServicesManager().addRequiredAttribute(sess, service, reqMemAttr);
+				Attribute reqVoAttr = perun.getAttributesManager().getAttribute(sess, vo, A_V_C_ID);
+				perun.getServicesManager().addRequiredAttribute(sess, service, reqVoAttr);
+				perun.getResourcesManager().assignService(sess, resource, service);
+				resources.add(resource);
+
+				// second member is only on some of the resources
+				Group group2 = new Group("HierarchDataGroup2", "");
+				group2 = perun.getGroupsManager().createGroup(sess, vo, group2);
+				perun.getGroupsManager().addMember(sess, group2, members.get(0));
+				perun.getGroupsManager().addMember(sess, group2, members.get(1));
+
+				for (int i = 0; i < 5; i++) {
+					Resource otherResource = new Resource();
+					otherResource.setName("HierarchDataResource" + i);
+					otherResource = perun.getResourcesManager().createResource(sess, otherResource, vo, facility);
+					perun.getResourcesManager().assignService(sess, otherResource, service);
+					if (i % 2 == 0) {
+						perun.getResourcesManager().assignGroupToResource(sess, group2, otherResource, false, false, false);
+					}
+					resources.add(otherResource);
+				}
+				return null;
+			});
+
+			List<HashedGenData> data = inNewTransaction(() -> {
+				HashedGenData sequentialData = new HierarchicalHashedDataGenerator.Builder()
+						.sess((PerunSessionImpl) sess)
+						.service(service)
+						.facility(facility)
+						.build()
+						.generateData();
+
+				HashedGenData parallelData = new HierarchicalHashedDataGenerator.Builder()
+						.sess((PerunSessionImpl) sess)
+						.service(service)
+						.facility(facility)
+						.workerPool(workerPool)
+						.build()
+						.generateData();
+
+				return List.of(sequentialData, parallelData);
+			});
+			HashedGenData sequentialData = data.get(0);
+			HashedGenData parallelData = data.get(1);
+
+			assertThat(parallelData.getHierarchy().get(facility.getId()).getChildren()).hasSize(resources.size());
+			assertThat(parallelData.getHierarchy().get(facility.getId()).getMembers())
+					.containsOnlyKeys(members.get(0).getId(), members.get(1).getId());
+			assertThat(parallelData.getAttributes()).isEqualTo(sequentialData.getAttributes());
+			assertThat(parallelData.getHierarchy()).isEqualTo(sequentialData.getHierarchy());
+
+			// workers store values with the epoch obtained before the snapshot of the caller was taken
+			GenAttributesCache cache = new GenAttributesCache(100);
+			inNewTransaction(() -> {
+				long epoch = cache.getEpoch();
+				cache.invalidate(List.of(new AllAttributesRemovedForMember(members.get(1))));
+				return new HierarchicalHashedDataGenerator.Builder()
+						.sess((PerunSessionImpl) sess)
+						.service(service)
+						.facility(facility)
+						.attributesCache(cache, epoch)
+						.workerPool(workerPool)
+						.build()
+						.generateData();
+			});
+			assertThat(cache.size()).isZero();
+
+			inNewTransaction(() -> new HierarchicalHashedDataGenerator.Builder()
+					.sess((PerunSessionImpl) sess)
+					.service(service)
+					.facility(facility)
+					.attributesCache(cache, cache.getEpoch())
+					.workerPool(workerPool)
+					.build()
+					.generateData());
+			assertThat(cache.size()).isPositive();
+		} finally {
+			workerPool.shutdown();
+			inNewTransaction(() -> {
+				if (facility != null) {
+					perun.getFacilitiesManagerBl().deleteFacility(sess, facility, true);
+				}
+				if (vo != null) {
+					perun.getVosManagerBl().deleteVo(sess, vo, true);
+				}
+				for (User user : usersForDeletion) {
+					perun.getUsersManagerBl().deleteUser(sess, user, true);
+				}
+				if (service != null) {
+					perun.getServicesManagerBl().deleteService(sess, service, true);
+				}
+				return null;
+			});
+			// messages of the committed changes are stored after the commit
+			inNewTransaction(() -> new JdbcTemplate(dataSource).update("delete from auditer_log where id > ?", lastMessageId));
+		}
+	}
+
+	@Test
+	public void writeHashedHierarchicalData() throws Exception {
+		System.out.println(CLASS_NAME + "writeHashedHierarchicalData");
+
+		vo = setUpVo();
+		facility = setUpFacility();
+		resource = setUpResource();
+		service = setUpService();
+		member = setUpMember();
+		group = setUpGroup();
+		perun.getGroupsManager().addMember(sess, group, member);
+		perun.getResourcesManager().assignGroupToResource(sess, group, resource, false, false, false);
+
+		Attribute reqFacAttr = perun.getAttributesManager().getAttribute(sess, facility, A_F_C_NAME);
+		perun.getServicesManager().addRequiredAttribute(sess, service, reqFacAttr);
+		Attribute reqResAttr = perun.getAttributesManager().getAttribute(sess, resource, A_R_C_NAME);
+		perun.getServicesManager().addRequiredAttribute(sess, service, reqResAttr);
+		Attribute reqMemAttr = perun.getAttributesManager().getAttribute(sess, member, A_M_C_ID);
+		perun.getServicesManager().addRequiredAttribute(sess, service, reqMemAttr);
+		Attribute reqVoAttr = perun.getAttributesManager().getAttribute(sess, vo, A_V_C_ID);
+		perun.getServicesManager().addRequiredAttribute(sess, service, reqVoAttr);
+		perun.getResourcesManager().assignService(sess, resource, service);
+
+		// member is on both resources, so the member attributes are written only once
+		Resource resource2 = new Resource();
+		resource2.setName("HierarchDataResource");
+		resource2 = perun.getResourcesManager().createResource(sess, resource2, vo, facility);
+		perun.getResourcesManager().assignGroupToResource(sess, group, resource2, false, false, false);
+		perun.getResourcesManager().assignService(sess, resource2, service);
+
+		List<String> writtenHashes = new ArrayList<>();
+		Map<String, Map<String, Object>> writtenAttributes = new HashMap<>();
+		Map<Integer, GenDataNode> writtenHierarchy = new HashMap<>();
+		perun.getServicesManager().writeHashedHierarchicalData(sess, service, facility, false, new HashedGenDataWriter() {
+			@Override
+			public void writeAttributes(Map<String, Map<String, Object>> attributes) {
+				assertThat(writtenHierarchy).isEmpty();
+				writtenHashes.addAll(attributes.keySet());
+				writtenAttributes.putAll(attributes);
+			}
+
+			@Override
+			public void writeHierarchy(Map<Integer, GenDataNode> hierarchy) {
+				writtenHierarchy.putAll(hierarchy);
+			}
+		});
+
+		HashedGenData data = perun.getServicesManager().getHashedHierarchicalData(sess, service, facility, false);
+
+		assertThat(writtenHashes).doesNotHaveDuplicates();
+		assertThat(writtenAttributes).isEqualTo(data.getAttributes());
+		assertThat(writtenHierarchy).isEqualTo(data.getHierarchy());
+	}
+
 	@Test
 	public void getHashedHierarchicalDataWithoutExpiredMembers() throws Exception {
 		System.out.println(CLASS_NAME + "getHashedHierarchicalDataWithoutExpiredMembers");
@@ -1794,6 +2042,21 @@ public class ServicesManagerEntryIntegrationTest extends AbstractPerunIntegratio
 
 	// PRIVATE METHODS ----------------------------------------------------
 
+	/**
+	 * Runs the action in a new transaction, which is committed independently of the test transaction.
+	 */
+	private <T> T inNewTransaction(Callable<T> action) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(perunTransactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		return transactionTemplate.execute(status -> {
+			try {
+				return action.call();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
 	private Service setUpService() throws Exception {
 
 		Service service = new Service();
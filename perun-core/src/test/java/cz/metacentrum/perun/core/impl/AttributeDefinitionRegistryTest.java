@@ -0,0 +1,98 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeCreated;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeSetForGroup;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeUpdated;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.Group;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttributeDefinitionRegistryTest {
+
+	private AttributeDefinitionRegistry registry;
+	private final AttributeDefinition groupDescription = attributeDefinition(1, AttributesManager.NS_GROUP_ATTR_DEF, "description");
+	private final AttributeDefinition groupName = attributeDefinition(2, AttributesManager.NS_GROUP_ATTR_CORE, "name");
+	private final AttributeDefinition userMail = attributeDefinition(3, AttributesManager.NS_USER_ATTR_DEF, "preferredMail");
+
+	@Before
+	public void setUp() {
+		registry = new AttributeDefinitionRegistry(true);
+		registry.load(List.of(groupDescription, groupName, userMail), registry.getEpoch());
+	}
+
+	@Test
+	public void definitionsAreFoundByNameIdAndNamespace() {
+		assertThat(registry.isLoaded()).isTrue();
+		assertThat(registry.getAttributeDefinition(groupDescription.getName())).isEqualTo(groupDescription);
+		assertThat(registry.getAttributeDefinitionById(userMail.getId())).isEqualTo(userMail);
+		assertThat(registry.getAttributesDefinitionByNamespace(AttributesManager.NS_GROUP_ATTR_DEF)).containsExactly(groupDescription);
+		assertThat(registry.getAttributesDefinitionByNamespace(AttributesManager.NS_VO_ATTR_DEF)).hasSize(0);
+		assertThat(registry.getAttributesDefinition()).containsExactlyInAnyOrder(groupDescription, groupName, userMail);
+		assertThat(registry.getAttributeDefinition(AttributesManager.NS_VO_ATTR_DEF + ":description")).isNull();
+		assertThat(registry.getAttributeDefinitionById(4)).isNull();
+	}
+
+	@Test
+	public void returnedDefinitionsAreCopies() {
+		AttributeDefinition definition = registry.getAttributeDefinitionById(groupDescription.getId());
+		definition.setDisplayName("changed");
+		definition.setWritable(true);
+
+		AttributeDefinition storedDefinition = registry.getAttributeDefinitionById(groupDescription.getId());
+		assertThat(storedDefinition.getDisplayName()).isEqualTo("description");
+		assertThat(storedDefinition.getWritable()).isFalse();
+	}
+
+	@Test
+	public void changesOfDefinitionsClearRegistry() {
+		registry.invalidate(List.of(new AttributeUpdated(groupDescription)));
+		assertThat(registry.isLoaded()).isFalse();
+		assertThat(registry.getAttributeDefinition(groupDescription.getName())).isNull();
+		assertThat(registry.getAttributesDefinition()).isNull();
+
+		registry.load(List.of(groupDescription), registry.getEpoch());
+		registry.invalidate(List.of(new AttributeCreated(userMail)));
+		assertThat(registry.isLoaded()).isFalse();
+	}
+
+	@Test
+	public void changesOfValuesAreIgnored() {
+		registry.invalidate(List.of(new AttributeSetForGroup(new Attribute(groupDescription), new Group(5, "group", "group"))));
+		assertThat(registry.isLoaded()).isTrue();
+	}
+
+	@Test
+	public void definitionsLoadedBeforeInvalidationAreNotStored() {
+		registry.clear();
+		long epoch = registry.getEpoch();
+		registry.invalidate(List.of(new AttributeUpdated(groupDescription)));
+		registry.load(List.of(groupDescription), epoch);
+		assertThat(registry.isLoaded()).isFalse();
+	}
+
+	@Test
+	public void disabledRegistryStoresNothing() {
+		AttributeDefinitionRegistry disabledRegistry = new AttributeDefinitionRegistry(false);
+		disabledRegistry.load(List.of(groupDescription), disabledRegistry.getEpoch());
+		assertThat(disabledRegistry.isEnabled()).isFalse();
+		assertThat(disabledRegistry.isLoaded()).isFalse();
+		assertThat(disabledRegistry.getAttributeDefinition(groupDescription.getName())).isNull();
+	}
+
+	private static AttributeDefinition attributeDefinition(int id, String namespace, String friendlyName) {
+		AttributeDefinition attributeDefinition = new AttributeDefinition();
+		attributeDefinition.setId(id);
+		attributeDefinition.setNamespace(namespace);
+		attributeDefinition.setFriendlyName(friendlyName);
+		attributeDefinition.setDisplayName(friendlyName);
+		attributeDefinition.setType(String.class.getName());
+		return attributeDefinition;
+	}
+}
@@ -9,16 +9,22 @@ import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Group;
 import cz.metacentrum.perun.core.api.Resource;
 import cz.metacentrum.perun.core.api.Service;
+import cz.metacentrum.perun.core.api.User;
 import cz.metacentrum.perun.core.api.Vo;
 import cz.metacentrum.perun.core.blImpl.PerunBlImpl;
+import cz.metacentrum.perun.core.impl.modules.attributes.urn_perun_user_attribute_def_virt_bulkTestAttribute;
 import cz.metacentrum.perun.core.implApi.AttributesManagerImplApi;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +40,8 @@ public class AttributesManagerImplIntegrationTest extends AbstractPerunIntegrati
 	private final Map<Attribute, String> attrMap = new HashMap<>();
 	private AttributesManagerImplApi attributesManager;
 	private PerunBlImpl perunBlImpl;
+	@Autowired
+	private VirtualAttributeValuesCache virtualAttributeValuesCache;
 
 	private Service service1;
 	private Service service2;
@@ -171,6 +179,90 @@ public class AttributesManagerImplIntegrationTest extends AbstractPerunIntegrati
 	}
 
 
+	@Test
+	public void getAttributeForUsers() throws Exception {
+		System.out.println(CLASS_NAME + "getAttributeForUsers");
+
+		User user1 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Jan", "Novak", "", "", ""));
+		User user2 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Petr", "Novak", "", "", ""));
+		AttributeDefinition userAttribute = perunBlImpl.getAttributesManagerBl().createAttribute(sess, getAttributeDefinition("bulkAttribute", AttributesManager.NS_USER_ATTR_DEF));
+		Attribute attribute = new Attribute(userAttribute, "value");
+		perunBlImpl.getAttributesManagerBl().setAttribute(sess, user1, attribute);
+
+		Map<User, List<Attribute>> attributes = attributesManager.getAttributeForUsers(sess, Arrays.asList(user1, user2), userAttribute);
+		assertThat(attributes).hasSize(2);
+		assertThat(attributes.get(user1)).hasSize(1);
+		assertEquals("value", attributes.get(user1).get(0).getValue());
+		assertThat(attributes.get(user2)).hasSize(1);
+		assertNull(attributes.get(user2).get(0).getValue());
+	}
+
+	@Test
+	public void getAttributeForUsersComputesVirtualAttributeAtOnce() throws Exception {
+		System.out.println(CLASS_NAME + "getAttributeForUsersComputesVirtualAttributeAtOnce");
+
+		User user1 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Jan", "Novak", "", "", ""));
+		User user2 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Petr", "Novak", "", "", ""));
+		User user3 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Pavel", "Novak", "", "", ""));
+		urn_perun_user_attribute_def_virt_bulkTestAttribute module = new urn_perun_user_attribute_def_virt_bulkTestAttribute();
+		AttributeDefinition virtualAttribute = perunBlImpl.getAttributesManagerBl().createAttribute(sess, module.getAttributeDefinition());
+		attributesManager.initAttributeModule(module);
+		try {
+			// user2 is computed one by one, user3 has no attribute at all
+			module.leaveOutOfBulk(user2, false);
+			module.leaveOutOfBulk(user3, true);
+
+			Map<User, List<Attribute>> attributes = attributesManager.getAttributeForUsers(sess, Arrays.asList(user1, user2, user3), virtualAttribute);
+
+			assertEquals(1, module.getBulkCalls().size());
+			assertEquals(new HashSet<>(Arrays.asList(user1, user2, user3)), new HashSet<>(module.getBulkCalls().get(0)));
+			assertEquals(new HashSet<>(Arrays.asList(user2, user3)), new HashSet<>(module.getSingleCalls()));
+			assertThat(attributes.get(user1)).hasSize(1);
+			assertEquals("bulk:" + user1.getId(), attributes.get(user1).get(0).getValue());
+			assertThat(attributes.get(user2)).hasSize(1);
+			assertEquals("single:" + user2.getId(), attributes.get(user2).get(0).getValue());
+			assertEquals(Collections.emptyList(), attributes.get(user3));
+		} finally {
+			attributesManager.removeAttributeModule(module);
+		}
+	}
+
+	@Test
+	public void getAttributeForUsersReusesCachedVirtualAttributeValues() throws Exception {
+		System.out.println(CLASS_NAME + "getAttributeForUsersReusesCachedVirtualAttributeValues");
+
+		User user1 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Jan", "Novak", "", "", ""));
+		User user2 = perunBlImpl.getUsersManagerBl().createUser(sess, new User(-1, "Petr", "Novak", "", "", ""));
+		urn_perun_user_attribute_def_virt_bulkTestAttribute module = new urn_perun_user_attribute_def_virt_bulkTestAttribute();
+		AttributeDefinition virtualAttribute = perunBlImpl.getAttributesManagerBl().createAttribute(sess, module.getAttributeDefinition());
+		attributesManager.initAttributeModule(module);
+		AttributesManagerImpl attributesManagerImpl = getTargetObject(attributesManager);
+		VirtualAttributeValuesCache valuesCache = new VirtualAttributeValuesCache(true);
+		attributesManagerImpl.setVirtualAttributeValuesCache(valuesCache);
+		try {
+			// value of user1 was computed before in the transaction
+			valuesCache.put(new Attribute(virtualAttribute, "cached"), user1, null, null);
+
+			Map<User, List<Attribute>> attributes = attributesManager.getAttributeForUsers(sess, Arrays.asList(user1, user2), virtualAttribute);
+
+			assertEquals(Collections.singletonList(Collections.singletonList(user2)), module.getBulkCalls());
+			assertEquals("cached", attributes.get(user1).get(0).getValue());
+			assertEquals("bulk:" + user2.getId(), attributes.get(user2).get(0).getValue());
+			assertEquals("bulk:" + user2.getId(), valuesCache.get(virtualAttribute, user2, null).getValue());
+
+			// nothing is computed again
+			attributes = attributesManager.getAttributeForUsers(sess, Arrays.asList(user1, user2), virtualAttribute);
+
+			assertEquals(1, module.getBulkCalls().size());
+			assertEquals(Collections.emptyList(), module.getSingleCalls());
+			assertEquals("cached", attributes.get(user1).get(0).getValue());
+			assertEquals("bulk:" + user2.getId(), attributes.get(user2).get(0).getValue());
+		} finally {
+			attributesManagerImpl.setVirtualAttributeValuesCache(virtualAttributeValuesCache);
+			attributesManager.removeAttributeModule(module);
+		}
+	}
+
 	/* ################## Private methods ################ */
 
 
@@ -242,6 +334,17 @@ public class AttributesManagerImplIntegrationTest extends AbstractPerunIntegrati
 		return attr;
 	}
 
+	/**
+	 * cast spring proxy type to regular impl type
+	 */
+	@SuppressWarnings({"unchecked"})
+	private <T> T getTargetObject(Object proxy) throws Exception {
+		if (AopUtils.isJdkDynamicProxy(proxy)) {
+			return (T) getTargetObject(((Advised)proxy).getTargetSource().getTarget());
+		}
+		return (T) proxy; // expected to be cglib proxy then, which is simply a specialized class
+	}
+
 	private Attribute getHashAttribute(String ... value) {
 		if(value.length % 2 == 1) throw new IllegalArgumentException("value");
 		Attribute attribute = new Attribute();
@@ -7,8 +7,20 @@ import cz.metacentrum.perun.core.api.Facility;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
-
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -16,8 +28,17 @@ import static org.junit.Assert.assertTrue;
 
 public class AuditerImplIntegrationTest extends AbstractPerunIntegrationTest {
 
+	private static final int WRITERS = 32;
+	private static final int MESSAGES_PER_WRITER = 20;
+
 	private Facility facility;      // uses creation of facility to store same system message in Auditer
 
+	@Autowired
+	@Qualifier("perunTransactionManager")
+	private PlatformTransactionManager perunTransactionManager;
+	@Autowired
+	private DataSource dataSource;
+
 	@Before
 	public void checkAuditerExists() {
 
@@ -72,8 +93,106 @@ public class AuditerImplIntegrationTest extends AbstractPerunIntegrationTest {
 		//assertTrue("Invalid message received.", messages.get(0).getEvent().getMessage().contains("\"message\":\"Facility created Facility:"));
 	}
 
+	@Test
+	public void storeMessagesConcurrently() throws Exception {
+		System.out.println("AuditerTest.storeMessagesConcurrently");
+
+		// messages are committed outside of the test transaction, so they are removed at the end
+		int lastMessageId = perun.getAuditMessagesManagerBl().getLastMessageId(sess);
+		Auditer auditer = perun.getAuditer();
+		boolean groupCommit = auditer.isGroupCommit();
+		try {
+			auditer.setGroupCommit(false);
+			storeMessagesConcurrently(auditer);
+			auditer.setGroupCommit(true);
+			storeMessagesConcurrently(auditer);
+		} finally {
+			auditer.setGroupCommit(groupCommit);
+			deleteCommittedMessages(lastMessageId);
+		}
+	}
+
+	@Test
+	public void awaitMessagesIsNotifiedAboutStoredMessage() throws Exception {
+		System.out.println("AuditerTest.awaitMessagesIsNotifiedAboutStoredMessage");
+
+		AuditerNotifications notifications = perun.getAuditer().getNotifications();
+		notifications.getReceived();
+		for (int i = 0; i < 100 && !notifications.isListening(); i++) {
+			Thread.sleep(100);
+		}
+		assertTrue("auditer notifications should be received", notifications.isListening());
+
+		// notifications are delivered only on commit, so the message is stored in a new transaction
+		// by another thread, outside of the test transaction, and removed at the end
+		int lastMessageId = perun.getAuditMessagesManagerBl().getLastMessageId(sess);
+		long notified = notifications.getReceived();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(perunTransactionManager);
+			transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+			executor.submit(() -> transactionTemplate.execute(status -> {
+				perun.getAuditer().storeMessageToDb(sess, new FacilityCreated(new Facility(0, "AuditorTestFacility")));
+				return null;
+			})).get();
+
+			long start = System.currentTimeMillis();
+			assertTrue("notification about stored message should be received", notifications.awaitMessages(notified) > notified);
+			assertTrue("consumer should be woken up before the timeout", System.currentTimeMillis() - start < 5000);
+		} finally {
+			executor.shutdown();
+			deleteCommittedMessages(lastMessageId);
+		}
+	}
+
 	// ------------- private methods ----------------------------------
 
+	/**
+	 * Stores messages by concurrent writers outside of any transaction, so every message is committed separately,
+	 * checks all of them are stored and prints the reached number of stored messages per second.
+	 */
+	private void storeMessagesConcurrently(Auditer auditer) throws Exception {
+		int countBefore = perun.getAuditMessagesManagerBl().getAuditerMessagesCount(sess);
+
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> writers = new ArrayList<>();
+		for (int i = 0; i < WRITERS; i++) {
+			writers.add(executor.submit(() -> {
+				start.await();
+				for (int j = 0; j < MESSAGES_PER_WRITER; j++) {
+					auditer.storeMessageToDb(sess, new FacilityCreated(new Facility(0, "AuditorTestFacility")));
+				}
+				return null;
+			}));
+		}
+
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Future<?> writer : writers) {
+			writer.get();
+		}
+		long duration = System.nanoTime() - startTime;
+		executor.shutdown();
+
+		int messages = WRITERS * MESSAGES_PER_WRITER;
+		System.out.println("Auditer with group commit " + auditer.isGroupCommit() + " stored " + messages + " messages by " +
+				WRITERS + " writers, " + (messages * 1_000_000_000L / Math.max(duration, 1)) + " messages/s.");
+
+		assertEquals("Invalid number of messages.", countBefore + messages,
+				perun.getAuditMessagesManagerBl().getAuditerMessagesCount(sess));
+	}
+
+	/**
+	 * Removes messages of the test facility committed after the given message, in a new transaction,
+	 * so they don't stay in the auditer log for the following tests.
+	 */
+	private void deleteCommittedMessages(int lastMessageId) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(perunTransactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		transactionTemplate.execute(status -> new JdbcTemplate(dataSource)
+				.update("delete from auditer_log where id > ? and msg like ?", lastMessageId, "%AuditorTestFacility%"));
+	}
 
 	private void setUpFacility() throws Exception {
 
@@ -0,0 +1,97 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeSetForGroup;
+import cz.metacentrum.perun.audit.events.AuthorizationEvents.RoleSetForUser;
+import cz.metacentrum.perun.audit.events.GroupManagerEvents.GroupCreatedInVo;
+import cz.metacentrum.perun.audit.events.MembersManagerEvents.MemberValidated;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.Group;
+import cz.metacentrum.perun.core.api.Member;
+import cz.metacentrum.perun.core.api.Role;
+import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.api.Vo;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuthzRolesCacheTest {
+
+	private AuthzRolesCache cache;
+	private final User user1 = new User(1, "John", "Doe", null, null, null);
+	private final User user2 = new User(2, "Jane", "Doe", null, null, null);
+	private final Member member1 = new Member(3, user1.getId());
+	private final Vo vo = new Vo(4, "vo", "vo");
+	private final Group group = new Group(5, "group", "group");
+
+	@Before
+	public void setUp() {
+		cache = new AuthzRolesCache(10);
+		cache.putRoles(user1.getId(), new AuthzRoles(Role.SELF, user1), cache.getEpoch());
+		cache.putRoles(user2.getId(), new AuthzRoles(Role.SELF, user2), cache.getEpoch());
+	}
+
+	@Test
+	public void returnsCopyOfStoredRoles() {
+		AuthzRoles roles = cache.getRoles(user1.getId());
+		assertThat(roles.hasRole(Role.SELF, user1)).isTrue();
+
+		roles.putAuthzRole(Role.GROUPADMIN, group);
+		roles.get(Role.SELF).get(User.class.getSimpleName()).add(user2.getId());
+
+		AuthzRoles cachedRoles = cache.getRoles(user1.getId());
+		assertThat(cachedRoles.hasRole(Role.GROUPADMIN)).isFalse();
+		assertThat(cachedRoles.hasRole(Role.SELF, user2)).isFalse();
+		assertThat(cache.getHits()).isEqualTo(2);
+	}
+
+	@Test
+	public void eventsOfUserInvalidateOnlyTheUser() {
+		cache.invalidate(List.of(new MemberValidated(member1)));
+		assertThat(cache.getRoles(user1.getId())).isNull();
+		assertThat(cache.getRoles(user2.getId())).isNotNull();
+
+		cache.putRoles(user1.getId(), new AuthzRoles(Role.SELF, user1), cache.getEpoch());
+		cache.invalidate(List.of(new RoleSetForUser(group, user2, Role.GROUPADMIN)));
+		assertThat(cache.getRoles(user1.getId())).isNotNull();
+		assertThat(cache.getRoles(user2.getId())).isNull();
+	}
+
+	@Test
+	public void eventsWithoutUsersClearCache() {
+		cache.invalidate(List.of(new GroupCreatedInVo(group, vo)));
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void eventsOfAttributesAreIgnored() {
+		AttributeDefinition attributeDefinition = new AttributeDefinition();
+		attributeDefinition.setId(6);
+		attributeDefinition.setNamespace(AttributesManager.NS_GROUP_ATTR_DEF);
+		attributeDefinition.setFriendlyName("description");
+		attributeDefinition.setType(String.class.getName());
+
+		cache.invalidate(List.of(new AttributeSetForGroup(new Attribute(attributeDefinition), group)));
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void rolesComputedBeforeInvalidationAreNotStored() {
+		long epoch = cache.getEpoch();
+		cache.invalidate(List.of(new MemberValidated(member1)));
+		cache.putRoles(user1.getId(), new AuthzRoles(Role.SELF, user1), epoch);
+		assertThat(cache.getRoles(user1.getId())).isNull();
+	}
+
+	@Test
+	public void disabledCacheStoresNothing() {
+		AuthzRolesCache disabledCache = new AuthzRolesCache(0);
+		disabledCache.putRoles(user1.getId(), new AuthzRoles(Role.SELF, user1), disabledCache.getEpoch());
+		assertThat(disabledCache.isEnabled()).isFalse();
+		assertThat(disabledCache.getRoles(user1.getId())).isNull();
+	}
+}
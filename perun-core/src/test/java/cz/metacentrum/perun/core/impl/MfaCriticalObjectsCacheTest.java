@@ -0,0 +1,85 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AllAttributesRemovedForGroup;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeSetForGroup;
+import cz.metacentrum.perun.audit.events.GroupManagerEvents.GroupCreatedInVo;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.AuthzResolver;
+import cz.metacentrum.perun.core.api.Group;
+import cz.metacentrum.perun.core.api.Vo;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MfaCriticalObjectsCacheTest {
+
+	private MfaCriticalObjectsCache cache;
+	private final Vo vo = new Vo(1, "vo", "vo");
+	private final Group group = new Group(2, "group", "group");
+
+	@Before
+	public void setUp() {
+		cache = new MfaCriticalObjectsCache(true);
+		cache.putCriticalObjectIds("Group", Set.of(group.getId()), cache.getEpoch());
+		cache.putCriticalObjectIds("Vo", Set.of(), cache.getEpoch());
+	}
+
+	@Test
+	public void returnsStoredIds() {
+		assertThat(cache.getCriticalObjectIds("Group")).containsExactly(group.getId());
+		assertThat(cache.getCriticalObjectIds("Vo")).hasSize(0);
+		assertThat(cache.getCriticalObjectIds("Member")).isNull();
+	}
+
+	@Test
+	public void settingOfCriticalAttributeClearsCache() {
+		cache.invalidate(List.of(new AttributeSetForGroup(new Attribute(attributeDefinition(AuthzResolver.MFA_CRITICAL_ATTR)), group)));
+		assertThat(cache.getCriticalObjectIds("Group")).isNull();
+		assertThat(cache.getCriticalObjectIds("Vo")).isNull();
+	}
+
+	@Test
+	public void removalOfAllAttributesClearsCache() {
+		cache.invalidate(List.of(new AllAttributesRemovedForGroup(group)));
+		assertThat(cache.getCriticalObjectIds("Group")).isNull();
+	}
+
+	@Test
+	public void eventsOfOtherAttributesAndObjectsAreIgnored() {
+		cache.invalidate(List.of(
+			new AttributeSetForGroup(new Attribute(attributeDefinition("description")), group),
+			new GroupCreatedInVo(group, vo)));
+		assertThat(cache.getCriticalObjectIds("Group")).containsExactly(group.getId());
+	}
+
+	@Test
+	public void idsLoadedBeforeInvalidationAreNotStored() {
+		long epoch = cache.getEpoch();
+		cache.clear();
+		cache.putCriticalObjectIds("Group", Set.of(group.getId()), epoch);
+		assertThat(cache.getCriticalObjectIds("Group")).isNull();
+	}
+
+	@Test
+	public void disabledCacheStoresNothing() {
+		MfaCriticalObjectsCache disabledCache = new MfaCriticalObjectsCache(false);
+		disabledCache.putCriticalObjectIds("Group", Set.of(group.getId()), disabledCache.getEpoch());
+		assertThat(disabledCache.isEnabled()).isFalse();
+		assertThat(disabledCache.getCriticalObjectIds("Group")).isNull();
+	}
+
+	private static AttributeDefinition attributeDefinition(String friendlyName) {
+		AttributeDefinition attributeDefinition = new AttributeDefinition();
+		attributeDefinition.setId(3);
+		attributeDefinition.setNamespace(AttributesManager.NS_GROUP_ATTR_DEF);
+		attributeDefinition.setFriendlyName(friendlyName);
+		attributeDefinition.setType(Boolean.class.getName());
+		return attributeDefinition;
+	}
+}
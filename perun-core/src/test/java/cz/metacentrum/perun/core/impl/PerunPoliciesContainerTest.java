@@ -0,0 +1,79 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.core.api.PerunPolicy;
+import cz.metacentrum.perun.core.api.Role;
+import cz.metacentrum.perun.core.api.exceptions.PolicyNotExistsException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class PerunPoliciesContainerTest {
+
+	private PerunPoliciesContainer container;
+
+	@Before
+	public void setUp() {
+		container = new PerunPoliciesContainer();
+		container.setPerunPolicies(Set.of(
+			new PerunPolicy("group_policy", List.of(Map.of(Role.GROUPADMIN, "Group")), List.of("vo_policy"), List.of(Map.of(Role.MFA, "Group"))),
+			new PerunPolicy("vo_policy", List.of(Map.of(Role.VOADMIN, "Vo")), List.of("default_policy"), null),
+			new PerunPolicy("default_policy", List.of(Collections.singletonMap(Role.PERUNADMIN, null)), List.of("group_policy"), null),
+			new PerunPolicy("broken_policy", List.of(Map.of(Role.VOADMIN, "Vo")), List.of("missing_policy"), null)
+		));
+	}
+
+	@Test
+	public void planContainsRulesOfIncludedPolicies() throws Exception {
+		PerunPolicyPlan plan = container.getPolicyPlan("group_policy");
+
+		assertThat(plan.getPolicyName()).isEqualTo("group_policy");
+		assertThat(plan.getRoleRules()).hasSize(3);
+		assertThat(plan.getPolicyRoles()).containsExactlyInAnyOrder(
+			Map.of(Role.GROUPADMIN, "Group"), Map.of(Role.VOADMIN, "Vo"), Collections.singletonMap(Role.PERUNADMIN, null));
+		assertThat(plan.getMfaRules()).containsExactly(Map.of(Role.MFA, "Group"));
+		assertThat(plan.getObjectTypes()).containsExactlyInAnyOrder("Group", "Vo");
+		assertThat(container.getPolicyPlan("group_policy")).isSameAs(plan);
+	}
+
+	@Test
+	public void planRulesResolveRoleObjectTypes() throws Exception {
+		container.setPerunPolicies(Set.of(
+			new PerunPolicy("rich_policy", List.of(Map.of(Role.GROUPADMIN, "RichGroup")), List.of(), null)));
+
+		PerunPolicyPlan.RoleRule rule = container.getPolicyPlan("rich_policy").getRoleRules().get(0).get(0);
+		assertThat(rule.getRole()).isEqualTo(Role.GROUPADMIN);
+		assertThat(rule.getObjectType()).isEqualTo("RichGroup");
+		assertThat(rule.getRoleObjectType()).isEqualTo("Group");
+	}
+
+	@Test
+	public void planOfPolicyWithMissingIncludedPolicyIsNotCreated() {
+		assertThatExceptionOfType(PolicyNotExistsException.class)
+			.isThrownBy(() -> container.getPolicyPlan("broken_policy"));
+		assertThatExceptionOfType(PolicyNotExistsException.class)
+			.isThrownBy(() -> container.getPolicyPlan("missing_policy"));
+	}
+
+	@Test
+	public void plansAreReplacedWhenPoliciesAreReloaded() throws Exception {
+		container.setPerunPolicies(new HashSet<>(List.of(
+			new PerunPolicy("vo_policy", List.of(Map.of(Role.VOOBSERVER, "Vo")), List.of(), null))));
+
+		List<String> roles = container.getPolicyPlan("vo_policy").getRoleRules().stream()
+			.flatMap(List::stream)
+			.map(PerunPolicyPlan.RoleRule::getRole)
+			.collect(Collectors.toList());
+		assertThat(roles).containsExactly(Role.VOOBSERVER);
+		assertThatExceptionOfType(PolicyNotExistsException.class)
+			.isThrownBy(() -> container.getPolicyPlan("group_policy"));
+	}
+}
@@ -0,0 +1,109 @@
+package cz.metacentrum.perun.core.impl;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AllAttributesRemovedForUser;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeSetForUser;
+import cz.metacentrum.perun.audit.events.UserManagerEvents.UserUpdated;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.Facility;
+import cz.metacentrum.perun.core.api.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualAttributeValuesCacheTest {
+
+	private VirtualAttributeValuesCache cache;
+	private final User user = new User(1, "Jan", "Novak", null, null, null);
+	private final Facility facility = new Facility(2, "facility");
+	private final AttributeDefinition preferredMail = attributeDefinition(1, AttributesManager.NS_USER_ATTR_DEF, "preferredMail", String.class);
+	private final AttributeDefinition login = attributeDefinition(2, AttributesManager.NS_USER_ATTR_DEF, "login-namespace:einfra", String.class);
+	private final AttributeDefinition mails = attributeDefinition(3, AttributesManager.NS_USER_ATTR_VIRT, "mails", ArrayList.class);
+	private final AttributeDefinition logins = attributeDefinition(4, AttributesManager.NS_USER_ATTR_VIRT, "logins", ArrayList.class);
+	private final AttributeDefinition facilityMails = attributeDefinition(5, AttributesManager.NS_USER_FACILITY_ATTR_VIRT, "mails", ArrayList.class);
+
+	@Before
+	public void setUp() {
+		TransactionSynchronizationManager.initSynchronization();
+		cache = new VirtualAttributeValuesCache(true);
+		cache.put(new Attribute(mails, new ArrayList<>(List.of("a@b.c"))), user, null, List.of(preferredMail.getName()));
+		cache.put(new Attribute(logins, new ArrayList<>(List.of("jan"))), user, null, List.of(AttributesManager.NS_USER_ATTR_DEF + ":login-namespace:*"));
+		cache.put(new Attribute(facilityMails, new ArrayList<>(List.of("a@b.c"))), user, facility, List.of(mails.getName()));
+	}
+
+	@After
+	public void tearDown() {
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	public void valuesAreFoundByAttributeAndHolders() {
+		assertThat(cache.get(mails, user, null).getValue()).isEqualTo(List.of("a@b.c"));
+		assertThat(cache.get(facilityMails, user, facility).getValue()).isEqualTo(List.of("a@b.c"));
+		assertThat(cache.get(facilityMails, user, null)).isNull();
+		assertThat(cache.get(mails, new User(3, "Petr", "Novak", null, null, null), null)).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void returnedValuesAreCopies() {
+		((List<String>) cache.get(mails, user, null).getValue()).add("d@e.f");
+		assertThat(cache.get(mails, user, null).getValue()).isEqualTo(List.of("a@b.c"));
+	}
+
+	@Test
+	public void changeOfDependencyRemovesDependentValues() {
+		cache.invalidate(new AttributeSetForUser(new Attribute(preferredMail), user));
+		assertThat(cache.get(mails, user, null)).isNull();
+		assertThat(cache.get(facilityMails, user, facility)).isNull();
+		assertThat(cache.get(logins, user, null)).isNotNull();
+
+		cache.invalidate(new AttributeSetForUser(new Attribute(login), user));
+		assertThat(cache.get(logins, user, null)).isNull();
+	}
+
+	@Test
+	public void otherChangesRemoveAllValues() {
+		cache.invalidate(new AllAttributesRemovedForUser(user));
+		assertThat(cache.get(logins, user, null)).isNull();
+
+		cache.put(new Attribute(logins, new ArrayList<>(List.of("jan"))), user, null, List.of());
+		cache.invalidate(new UserUpdated(user));
+		assertThat(cache.get(logins, user, null)).isNull();
+	}
+
+	@Test
+	public void nothingIsStoredOutsideOfTransaction() {
+		TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+		TransactionSynchronizationManager.clearSynchronization();
+		cache.put(new Attribute(mails, new ArrayList<>(List.of("a@b.c"))), user, null, List.of());
+		assertThat(cache.get(mails, user, null)).isNull();
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@Test
+	public void disabledCacheStoresNothing() {
+		VirtualAttributeValuesCache disabledCache = new VirtualAttributeValuesCache(false);
+		disabledCache.put(new Attribute(mails, new ArrayList<>(List.of("a@b.c"))), user, null, List.of());
+		assertThat(disabledCache.isEnabled()).isFalse();
+		assertThat(disabledCache.get(mails, user, null)).isNull();
+	}
+
+	private static AttributeDefinition attributeDefinition(int id, String namespace, String friendlyName, Class<?> type) {
+		AttributeDefinition attributeDefinition = new AttributeDefinition();
+		attributeDefinition.setId(id);
+		attributeDefinition.setNamespace(namespace);
+		attributeDefinition.setFriendlyName(friendlyName);
+		attributeDefinition.setDisplayName(friendlyName);
+		attributeDefinition.setType(type.getName());
+		return attributeDefinition;
+	}
+}
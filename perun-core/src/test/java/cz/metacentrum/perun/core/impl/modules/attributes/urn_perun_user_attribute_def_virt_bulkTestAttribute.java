@@ -0,0 +1,83 @@
+package cz.metacentrum.perun.core.impl.modules.attributes;
+
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributeDefinition;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesBulkModuleImplApi;
+import cz.metacentrum.perun.core.implApi.modules.attributes.UserVirtualAttributesModuleAbstract;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk module used by tests of the bulk evaluation of virtual attributes.
+ *
+ * Values computed at once are "bulk:[user id]", values computed one by one are "single:[user id]".
+ * Users can be left out of the bulk result and the module can return no attribute for them.
+ */
+public class urn_perun_user_attribute_def_virt_bulkTestAttribute extends UserVirtualAttributesModuleAbstract implements UserVirtualAttributesBulkModuleImplApi {
+
+	private final Set<Integer> usersLeftOutOfBulk = new HashSet<>();
+	private final Set<Integer> usersWithoutAttribute = new HashSet<>();
+	private final List<List<User>> bulkCalls = new ArrayList<>();
+	private final List<User> singleCalls = new ArrayList<>();
+
+	@Override
+	public Attribute getAttributeValue(PerunSessionImpl sess, User user, AttributeDefinition attributeDefinition) {
+		singleCalls.add(user);
+		if (usersWithoutAttribute.contains(user.getId())) {
+			return null;
+		}
+		return new Attribute(attributeDefinition, "single:" + user.getId());
+	}
+
+	@Override
+	public Map<User, Attribute> getAttributeValues(PerunSessionImpl sess, List<User> users, AttributeDefinition attributeDefinition) {
+		bulkCalls.add(new ArrayList<>(users));
+		Map<User, Attribute> attributes = new HashMap<>();
+		for (User user : users) {
+			if (!usersLeftOutOfBulk.contains(user.getId())) {
+				attributes.put(user, new Attribute(attributeDefinition, "bulk:" + user.getId()));
+			}
+		}
+		return attributes;
+	}
+
+	/**
+	 * The user will be missing in the result of the bulk computation.
+	 *
+	 * @param user user
+	 * @param withoutAttribute if true, no attribute is returned for the user at all
+	 */
+	public void leaveOutOfBulk(User user, boolean withoutAttribute) {
+		usersLeftOutOfBulk.add(user.getId());
+		if (withoutAttribute) {
+			usersWithoutAttribute.add(user.getId());
+		}
+	}
+
+	public List<List<User>> getBulkCalls() {
+		return bulkCalls;
+	}
+
+	public List<User> getSingleCalls() {
+		return singleCalls;
+	}
+
+	@Override
+	public AttributeDefinition getAttributeDefinition() {
+		AttributeDefinition attr = new AttributeDefinition();
+		attr.setNamespace(AttributesManager.NS_USER_ATTR_VIRT);
+		attr.setFriendlyName("bulkTestAttribute");
+		attr.setDisplayName("Bulk test attribute");
+		attr.setType(String.class.getName());
+		attr.setDescription("Attribute for tests of bulk evaluation.");
+		return attr;
+	}
+}
@@ -0,0 +1,69 @@
+package cz.metacentrum.perun.core.impl.modules.attributes;
+
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.bl.DatabaseManagerBl;
+import cz.metacentrum.perun.core.bl.PerunBl;
+import cz.metacentrum.perun.core.impl.PerunSessionImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcPerunTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class urn_perun_user_attribute_def_virt_eduPersonPrincipalNamesTest {
+
+	private urn_perun_user_attribute_def_virt_eduPersonPrincipalNames classInstance;
+	private PerunSessionImpl session;
+	private User user;
+	private User userWithoutEppn;
+
+	@Before
+	public void setUp() {
+		classInstance = new urn_perun_user_attribute_def_virt_eduPersonPrincipalNames();
+		session = mock(PerunSessionImpl.class);
+		when(session.getPerunBl()).thenReturn(mock(PerunBl.class));
+		when(session.getPerunBl().getDatabaseManagerBl()).thenReturn(mock(DatabaseManagerBl.class));
+		when(session.getPerunBl().getDatabaseManagerBl().getJdbcPerunTemplate()).thenReturn(mock(JdbcPerunTemplate.class));
+		user = new User();
+		user.setId(1);
+		userWithoutEppn = new User();
+		userWithoutEppn.setId(2);
+	}
+
+	@Test
+	public void getUsersEppnAttributeValues() throws Exception {
+		System.out.println("getUsersEppnAttributeValues()");
+
+		// same login from two IdPs, login not in EPPN format and login of the other user not in EPPN format
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.next()).thenReturn(true, true, true, true, false);
+		when(resultSet.getInt("user_id")).thenReturn(user.getId(), user.getId(), user.getId(), userWithoutEppn.getId());
+		when(resultSet.getString("login_ext")).thenReturn("user@idp.org", "user@idp.org", "user", "other@idp@org");
+		Connection connection = mock(Connection.class);
+		when(connection.unwrap(Connection.class)).thenReturn(connection);
+		PreparedStatement preparedStatement = mock(PreparedStatement.class);
+		when(preparedStatement.getConnection()).thenReturn(connection);
+		when(preparedStatement.executeQuery()).thenReturn(resultSet);
+		when(session.getPerunBl().getDatabaseManagerBl().getJdbcPerunTemplate().execute(anyString(), any(PreparedStatementCallback.class)))
+			.thenAnswer(invocation -> ((PreparedStatementCallback<?>) invocation.getArgument(1)).doInPreparedStatement(preparedStatement));
+
+		Map<User, Attribute> receivedAttrs = classInstance.getAttributeValues(session, Arrays.asList(user, userWithoutEppn), classInstance.getAttributeDefinition());
+
+		assertEquals(2, receivedAttrs.size());
+		assertEquals(Collections.singletonList("user@idp.org"), receivedAttrs.get(user).valueAsList());
+		assertEquals(Collections.emptyList(), receivedAttrs.get(userWithoutEppn).valueAsList());
+	}
+}
@@ -16,8 +16,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcPerunTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 import cz.metacentrum.perun.core.api.Pair;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +32,8 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -110,4 +116,35 @@ public class urn_perun_user_attribute_def_virt_groupNamesTest {
         );
         assertEquals(new HashSet<>(expected), new HashSet<>(receivedValue));
     }
+
+	@Test
+	public void getUsersGroupNamesAttributeValues() throws Exception {
+		System.out.println("getUsersGroupNamesAttributeValues()");
+		User userWithoutGroups = new User();
+		userWithoutGroups.setId(2);
+
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.next()).thenReturn(true, true, false);
+		when(resultSet.getInt("user_id")).thenReturn(user.getId(), user.getId());
+		when(resultSet.getString("vo_short_name")).thenReturn(vo1.getShortName(), vo2.getShortName());
+		when(resultSet.getString("group_name")).thenReturn(group1.getName(), group2.getName());
+		Connection connection = mock(Connection.class);
+		when(connection.unwrap(Connection.class)).thenReturn(connection);
+		PreparedStatement preparedStatement = mock(PreparedStatement.class);
+		when(preparedStatement.getConnection()).thenReturn(connection);
+		when(preparedStatement.executeQuery()).thenReturn(resultSet);
+		when(session.getPerunBl().getDatabaseManagerBl().getJdbcPerunTemplate().execute(anyString(), any(PreparedStatementCallback.class)))
+			.thenAnswer(invocation -> ((PreparedStatementCallback<?>) invocation.getArgument(1)).doInPreparedStatement(preparedStatement));
+
+		Map<User, Attribute> receivedAttrs = classInstance.getAttributeValues(session, Arrays.asList(user, userWithoutGroups), classInstance.getAttributeDefinition());
+
+		List<String> expected = Arrays.asList(
+			vo1.getShortName(),
+			vo2.getShortName(),
+			vo1.getShortName()+":"+group1.getName(),
+			vo2.getShortName()+":"+group2.getName()
+		);
+		assertEquals(new HashSet<>(expected), new HashSet<>(receivedAttrs.get(user).valueAsList()));
+		assertEquals(Collections.emptyList(), receivedAttrs.get(userWithoutGroups).valueAsList());
+	}
 }
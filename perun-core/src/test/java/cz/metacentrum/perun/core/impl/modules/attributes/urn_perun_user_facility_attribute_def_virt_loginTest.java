@@ -11,6 +11,13 @@ import cz.metacentrum.perun.core.impl.PerunSessionImpl;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -67,4 +74,31 @@ public class urn_perun_user_facility_attribute_def_virt_loginTest {
 
 		classInstance.checkAttributeSemantics(sess, user, facility, attributeToCheck);
 	}
+
+	@Test
+	public void testGetAttributeValuesOfUsers() throws Exception {
+		System.out.println("testGetAttributeValuesOfUsers()");
+		User secondUser = new User();
+		secondUser.setId(2);
+		Attribute secondUserLoginNamespace = new Attribute();
+		secondUserLoginNamespace.setValue("second_user_login_namespace");
+		List<User> users = Arrays.asList(user, secondUser);
+		Map<User, Attribute> loginAttributes = new HashMap<>();
+		loginAttributes.put(user, userLoginNamespace);
+		loginAttributes.put(secondUser, secondUserLoginNamespace);
+		when(sess.getPerunBl().getAttributesManagerBl().getAttributeForUsers(sess, users, AttributesManager.NS_USER_ATTR_DEF + ":login-namespace:" + facilityLoginNamespace.getValue())).thenReturn(loginAttributes);
+
+		Map<User, Attribute> attributes = classInstance.getAttributeValues(sess, users, facility, classInstance.getAttributeDefinition());
+		assertEquals("user_login_namespace", attributes.get(user).getValue());
+		assertEquals("second_user_login_namespace", attributes.get(secondUser).getValue());
+	}
+
+	@Test
+	public void testGetAttributeValuesWithoutFacilityLoginNamespace() throws Exception {
+		System.out.println("testGetAttributeValuesWithoutFacilityLoginNamespace()");
+		facilityLoginNamespace.setValue(null);
+
+		Map<User, Attribute> attributes = classInstance.getAttributeValues(sess, Arrays.asList(user), facility, classInstance.getAttributeDefinition());
+		assertNull(attributes.get(user).getValue());
+	}
 }
@@ -0,0 +1,189 @@
+package cz.metacentrum.perun.core.provisioning;
+
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AllAttributesRemovedForMember;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AllUserFacilityAttributesRemoved;
+import cz.metacentrum.perun.audit.events.AttributesManagerEvents.AttributeSetForUser;
+import cz.metacentrum.perun.core.api.Attribute;
+import cz.metacentrum.perun.core.api.AttributesManager;
+import cz.metacentrum.perun.core.api.Facility;
+import cz.metacentrum.perun.core.api.Member;
+import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.provisioning.GenAttributesCache.HolderType;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GenAttributesCacheTest {
+
+	private GenAttributesCache cache;
+	private Attribute userAttribute;
+	private Attribute userVirtAttribute;
+	private Attribute userFacilityAttribute;
+	private Attribute memberAttribute;
+	private final User user = new User(1, "John", "Doe", null, null, null);
+	private final Member member = new Member(2, 1);
+	private final Facility facility = new Facility(3, "facility");
+
+	@Before
+	public void setUp() {
+		cache = new GenAttributesCache(2);
+		userAttribute = setUpAttribute(10, AttributesManager.NS_USER_ATTR_DEF, "login");
+		userVirtAttribute = setUpAttribute(11, AttributesManager.NS_USER_ATTR_VIRT, "logins");
+		userFacilityAttribute = setUpAttribute(12, AttributesManager.NS_USER_FACILITY_ATTR_DEF, "shell");
+		memberAttribute = setUpAttribute(13, AttributesManager.NS_MEMBER_ATTR_DEF, "mail");
+	}
+
+	@Test
+	public void returnsStoredAttributes() {
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getEpoch());
+
+		assertThat(cache.getAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute.getId())))
+				.containsExactly(userAttribute);
+		assertThat(cache.getHits()).isEqualTo(1);
+	}
+
+	@Test
+	public void doesNotStoreVirtualAttributes() {
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute, userVirtAttribute), cache.getEpoch());
+
+		assertThat(cache.getAttributes(HolderType.USER, user.getId(), 0,
+				List.of(userAttribute.getId(), userVirtAttribute.getId()))).isNull();
+		assertThat(cache.getMisses()).isEqualTo(1);
+	}
+
+	@Test
+	public void doesNotStoreAttributesReadBeforeInvalidation() {
+		long epoch = cache.getEpoch();
+		cache.invalidate(List.of(new AllAttributesRemovedForMember(member)));
+
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), epoch);
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void storesAttributesReadAfterInvalidation() {
+		cache.invalidate(List.of(new AllAttributesRemovedForMember(member)));
+
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getEpoch());
+
+		assertThat(cache.getAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute.getId())))
+				.containsExactly(userAttribute);
+	}
+
+	@Test
+	public void boundEpochIsNotChangedByInvalidation() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.bindEpoch();
+			long boundEpoch = cache.getBoundEpoch();
+			cache.invalidate(List.of(new AllAttributesRemovedForMember(member)));
+			cache.bindEpoch();
+
+			assertThat(cache.getBoundEpoch()).isEqualTo(boundEpoch);
+			cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getBoundEpoch());
+			assertThat(cache.size()).isZero();
+		} finally {
+			TransactionSynchronizationManager.unbindResourceIfPossible(cache);
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void noEpochIsBoundOutsideOfTransaction() {
+		cache.bindEpoch();
+
+		assertThat(cache.getBoundEpoch()).isEqualTo(GenAttributesCache.NO_EPOCH);
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getBoundEpoch());
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void returnsCopiesOfStoredAttributes() {
+		Attribute listAttribute = setUpAttribute(14, AttributesManager.NS_USER_ATTR_DEF, "mails");
+		listAttribute.setType(ArrayList.class.getName());
+		listAttribute.setValue(new ArrayList<>(List.of("a@b.c")));
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute, listAttribute), cache.getEpoch());
+		listAttribute.setValue(new ArrayList<>(List.of("d@e.f")));
+
+		List<Attribute> attributes = cache.getAttributes(HolderType.USER, user.getId(), 0,
+				List.of(userAttribute.getId(), listAttribute.getId()));
+		attributes.get(0).setValue("changed");
+		attributes.get(1).valueAsList().add("g@h.i");
+
+		attributes = cache.getAttributes(HolderType.USER, user.getId(), 0,
+				List.of(userAttribute.getId(), listAttribute.getId()));
+		assertThat(attributes.get(0).getValue()).isEqualTo("login");
+		assertThat(attributes.get(1).getValue()).isEqualTo(List.of("a@b.c"));
+	}
+
+	@Test
+	public void invalidatesUserAttributes() {
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getEpoch());
+		cache.putAttributes(HolderType.USER_FACILITY, user.getId(), facility.getId(), List.of(userFacilityAttribute),
+				cache.getEpoch());
+
+		cache.invalidate(List.of(new AttributeSetForUser(userAttribute, user)));
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void invalidatesMemberAttributes() {
+		cache.putAttributes(HolderType.MEMBER, member.getId(), 0, List.of(memberAttribute), cache.getEpoch());
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getEpoch());
+
+		cache.invalidate(List.of(new AllAttributesRemovedForMember(member)));
+
+		assertThat(cache.getAttributes(HolderType.MEMBER, member.getId(), 0, List.of(memberAttribute.getId()))).isNull();
+		assertThat(cache.getAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute.getId())))
+				.containsExactly(userAttribute);
+	}
+
+	@Test
+	public void invalidatesUserFacilityAttributesOfFacility() {
+		cache.putAttributes(HolderType.USER_FACILITY, user.getId(), facility.getId(), List.of(userFacilityAttribute),
+				cache.getEpoch());
+
+		cache.invalidate(List.of(new AllUserFacilityAttributesRemoved(facility)));
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedHolders() {
+		cache.putAttributes(HolderType.USER, 1, 0, List.of(userAttribute), cache.getEpoch());
+		cache.putAttributes(HolderType.USER, 2, 0, List.of(userAttribute), cache.getEpoch());
+		cache.getAttributes(HolderType.USER, 1, 0, List.of(userAttribute.getId()));
+		cache.putAttributes(HolderType.USER, 3, 0, List.of(userAttribute), cache.getEpoch());
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getAttributes(HolderType.USER, 1, 0, List.of(userAttribute.getId()))).isNotNull();
+		assertThat(cache.getAttributes(HolderType.USER, 2, 0, List.of(userAttribute.getId()))).isNull();
+	}
+
+	@Test
+	public void disabledCacheStoresNothing() {
+		cache = new GenAttributesCache(0);
+
+		cache.putAttributes(HolderType.USER, user.getId(), 0, List.of(userAttribute), cache.getEpoch());
+
+		assertThat(cache.isEnabled()).isFalse();
+		assertThat(cache.size()).isZero();
+	}
+
+	private Attribute setUpAttribute(int id, String namespace, String friendlyName) {
+		Attribute attribute = new Attribute();
+		attribute.setId(id);
+		attribute.setNamespace(namespace);
+		attribute.setFriendlyName(friendlyName);
+		attribute.setType(String.class.getName());
+		attribute.setValue(friendlyName);
+		return attribute;
+	}
+}
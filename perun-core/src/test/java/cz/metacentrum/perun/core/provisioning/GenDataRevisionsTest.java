@@ -0,0 +1,144 @@
+package cz.metacentrum.perun.core.provisioning;
+
+import cz.metacentrum.perun.core.api.GenDataNode;
+import cz.metacentrum.perun.core.api.GenResourceDataNode;
+import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataDelta;
+import cz.metacentrum.perun.core.provisioning.GenDataRevisions.DataKind;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GenDataRevisionsTest {
+
+	private static final int SERVICE_ID = 1;
+	private static final int FACILITY_ID = 2;
+
+	private GenDataRevisions revisions;
+
+	@Before
+	public void setUp() {
+		revisions = new GenDataRevisions(10);
+	}
+
+	@Test
+	public void returnsFullDataWithoutRevision() {
+		HashedGenData data = setUpData("login1", 10, 11);
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, data, null);
+
+		assertThat(delta.getRevision()).isNotNull();
+		assertThat(delta.getBaseRevision()).isNull();
+		assertThat(delta.getAttributes()).isEqualTo(data.getAttributes());
+		assertThat(delta.getChildren()).isEqualTo(data.getHierarchy().get(FACILITY_ID).getChildren());
+		assertThat(delta.getMembers()).isEqualTo(data.getHierarchy().get(FACILITY_ID).getMembers());
+	}
+
+	@Test
+	public void returnsFullDataForUnknownRevision() {
+		revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null);
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), "unknown");
+
+		assertThat(delta.getBaseRevision()).isNull();
+		assertThat(delta.getAttributes()).hasSize(3);
+	}
+
+	@Test
+	public void returnsEmptyDeltaWhenNothingChanged() {
+		String revision = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null).getRevision();
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), revision);
+
+		assertThat(delta.isEmpty()).isTrue();
+		assertThat(delta.getRevision()).isEqualTo(revision);
+		assertThat(delta.getBaseRevision()).isEqualTo(revision);
+	}
+
+	@Test
+	public void returnsOnlyChangedAttributes() {
+		String revision = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null).getRevision();
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login2", 10, 11), revision);
+
+		assertThat(delta.getRevision()).isNotEqualTo(revision);
+		assertThat(delta.getBaseRevision()).isEqualTo(revision);
+		assertThat(delta.getAttributes()).containsOnlyKeys("u-1");
+		assertThat(delta.getRemovedAttributes()).isEmpty();
+		assertThat(delta.getChildren()).isEmpty();
+		assertThat(delta.getRemovedChildren()).isEmpty();
+		assertThat(delta.getMembers()).isNull();
+	}
+
+	@Test
+	public void returnsChangedAndRemovedResources() {
+		String revision = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null).getRevision();
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 12), revision);
+
+		assertThat(delta.getAttributes()).containsOnlyKeys("r-12");
+		assertThat(delta.getRemovedAttributes()).containsExactly("r-11");
+		assertThat(delta.getChildren()).containsOnlyKeys(12);
+		assertThat(delta.getRemovedChildren()).containsExactly(11);
+		assertThat(delta.getMembers()).isNull();
+	}
+
+	@Test
+	public void keepsRevisionsOfDifferentKindsSeparately() {
+		String revision = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null).getRevision();
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.WITH_GROUPS, SERVICE_ID, setUpData("login1", 10, 11), revision);
+
+		assertThat(delta.getBaseRevision()).isNull();
+	}
+
+	@Test
+	public void forgetsLeastRecentlyGeneratedRevisions() {
+		revisions = new GenDataRevisions(1);
+		String revision = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null).getRevision();
+		revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID + 1, setUpData("login1", 10, 11), null);
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), revision);
+
+		assertThat(delta.getBaseRevision()).isNull();
+		assertThat(delta.getAttributes()).hasSize(3);
+		assertThat(revisions.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void returnsFullDataWhenDisabled() {
+		revisions = new GenDataRevisions(0);
+		String revision = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), null).getRevision();
+
+		HashedGenDataDelta delta = revisions.getDelta(DataKind.HIERARCHICAL, SERVICE_ID, setUpData("login1", 10, 11), revision);
+
+		assertThat(delta.getBaseRevision()).isNull();
+		assertThat(delta.getAttributes()).hasSize(3);
+		assertThat(revisions.size()).isZero();
+	}
+
+	private HashedGenData setUpData(String login, int... resourceIds) {
+		Map<String, Map<String, Object>> attributes = new HashMap<>();
+		attributes.put("u-1", new HashMap<>(Map.of("urn:perun:user:attribute-def:def:login", login)));
+
+		Map<Integer, GenDataNode> children = new HashMap<>();
+		for (int resourceId : resourceIds) {
+			attributes.put("r-" + resourceId, new HashMap<>(Map.of("urn:perun:resource:attribute-def:core:id", resourceId)));
+			children.put(resourceId, new GenResourceDataNode.Builder()
+					.members(new HashMap<>(Map.of(3, 1)))
+					.voId(4)
+					.build());
+		}
+
+		GenDataNode root = new GenDataNode.Builder()
+				.children(children)
+				.members(new HashMap<>(Map.of(3, 1)))
+				.build();
+
+		return new HashedGenData(attributes, root, FACILITY_ID);
+	}
+}
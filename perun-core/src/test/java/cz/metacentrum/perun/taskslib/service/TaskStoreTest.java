@@ -10,12 +10,24 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class TaskStoreTest {
+	private static final int THREADS = 8;
+	private static final int TASKS_PER_THREAD = 1000;
+	private static final int OPERATIONS = 100000;
+
 	private TaskStore taskStore;
 	private Task taskW;
 	private Task taskG;
@@ -96,4 +108,109 @@ public class TaskStoreTest {
 		assertTrue(tasks.contains(taskG));
 		assertTrue(tasks.contains(taskD));
 	}
+
+	@Test
+	public void testGetTaskWithChangedStatus() throws Exception {
+		taskStore.addTask(taskW);
+		taskStore.addTask(taskG);
+
+		taskW.setStatus(Task.TaskStatus.PLANNED);
+
+		assertTrue(taskStore.getTasksWithStatus(Task.TaskStatus.WAITING).isEmpty());
+		assertEquals(Collections.singletonList(taskW), taskStore.getTasksWithStatus(Task.TaskStatus.PLANNED));
+
+		taskStore.removeTask(taskW);
+		taskW.setStatus(Task.TaskStatus.WAITING);
+
+		assertTrue(taskStore.getTasksWithStatus(Task.TaskStatus.WAITING, Task.TaskStatus.PLANNED).isEmpty());
+		assertEquals(Collections.singletonList(taskG), taskStore.getTasksWithStatus(Task.TaskStatus.GENERATED));
+	}
+
+	@Test
+	public void testGetTasksByFacilityAndService() throws Exception {
+		taskStore.addTask(taskW);
+		taskStore.addTask(taskG);
+		taskStore.addTask(taskD);
+
+		assertEquals(3, taskStore.getTasks(taskW.getFacility()).size());
+		assertEquals(Collections.singletonList(taskG), taskStore.getTasks(taskG.getService()));
+
+		taskStore.removeTask(taskG.getId());
+
+		assertEquals(2, taskStore.getTasks(taskW.getFacility()).size());
+		assertTrue(taskStore.getTasks(taskG.getService()).isEmpty());
+
+		taskStore.clear();
+
+		assertTrue(taskStore.getTasks(taskW.getFacility()).isEmpty());
+		assertTrue(taskStore.getTasksWithStatus(Task.TaskStatus.values()).isEmpty());
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		Task.TaskStatus[] statuses = Task.TaskStatus.values();
+		AtomicLong queries = new AtomicLong();
+		AtomicLong writes = new AtomicLong();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int thread = 0; thread < THREADS; thread++) {
+			final int threadId = thread;
+			futures.add(executor.submit(() -> {
+				Random random = new Random(threadId);
+				Service service = new Service();
+				service.setId(1000 + threadId);
+				for (int i = 0; i < OPERATIONS; i++) {
+					int operation = random.nextInt(10);
+					Facility facility = new Facility(random.nextInt(TASKS_PER_THREAD), "facility");
+					int id = threadId * TASKS_PER_THREAD + facility.getId();
+					Task task = taskStore.getTask(id);
+					if (operation < 2) {
+						// add or remove Task of this thread
+						if (task == null) {
+							task = new Task();
+							task.setId(id);
+							task.setFacility(facility);
+							task.setService(service);
+							task.setStatus(statuses[random.nextInt(statuses.length)]);
+							taskStore.addTask(task);
+						} else {
+							taskStore.removeTask(task);
+						}
+						writes.incrementAndGet();
+					} else if (operation < 5) {
+						if (task != null) {
+							task.setStatus(statuses[random.nextInt(statuses.length)]);
+						}
+						writes.incrementAndGet();
+					} else {
+						// statuses can be changed concurrently, so consistency is checked at the end
+						taskStore.getTasksWithStatus(statuses[random.nextInt(statuses.length)]);
+						queries.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long duration = System.nanoTime() - start;
+		executor.shutdown();
+
+		System.out.println("TaskStore: " + writes.get() + " writes and " + queries.get() + " status queries by " + THREADS +
+				" threads in " + duration / 1_000_000 + " ms.");
+
+		// index is consistent with statuses of stored tasks
+		int indexed = 0;
+		for (Task.TaskStatus status : statuses) {
+			for (Task task : taskStore.getTasksWithStatus(status)) {
+				assertEquals(status, task.getStatus());
+				assertSame(task, taskStore.getTask(task.getId()));
+				indexed++;
+			}
+		}
+		assertEquals(taskStore.getSize(), indexed);
+	}
 }
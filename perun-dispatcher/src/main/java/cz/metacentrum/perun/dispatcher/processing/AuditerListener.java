@@ -8,6 +8,7 @@ import cz.metacentrum.perun.core.api.PerunClient;
 import cz.metacentrum.perun.core.api.PerunPrincipal;
 import cz.metacentrum.perun.core.api.PerunSession;
 import cz.metacentrum.perun.core.api.exceptions.PrivilegeException;
+import cz.metacentrum.perun.core.impl.AuditerNotifications;
 import cz.metacentrum.perun.taskslib.runners.impl.AbstractRunner;
 
 import org.slf4j.Logger;
@@ -16,9 +17,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.dispatcher.model.Event;
+import cz.metacentrum.perun.dispatcher.scheduling.PropagationStateCache;
 
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
 
@@ -27,11 +30,14 @@ import java.util.concurrent.BlockingQueue;
  *
  * It ensure continuous reading of audit messages and convert them to Events,
  * which are then pushed to EventQueue for further processing by EventProcessor.
+ * When there are no new messages, it waits for the notification from the Auditer.
+ * Each message also invalidates state of Perun cached for scheduling of Tasks.
  *
  * Its started by DispatcherManager when Spring context is initialized.
  *
  * @see cz.metacentrum.perun.dispatcher.processing.EventProcessor
  * @see cz.metacentrum.perun.dispatcher.service.DispatcherManager
+ * @see cz.metacentrum.perun.dispatcher.scheduling.PropagationStateCache
  *
  * @author Michal Babacek
  * @author Michal Vocu
@@ -43,9 +49,13 @@ public class AuditerListener extends AbstractRunner {
 
 	private final static Logger log = LoggerFactory.getLogger(AuditerListener.class);
 
+	// max number of audit events read at once, so catching up after outage doesn't need much memory
+	private static final int PAGE_SIZE = 1000;
+
 	private BlockingQueue<Event> eventQueue;
 	private Properties dispatcherProperties;
 	private Perun perun;
+	private PropagationStateCache propagationStateCache;
 	private PerunSession sess;
 
 	// ----- setters -------------------------------------
@@ -77,6 +87,15 @@ public class AuditerListener extends AbstractRunner {
 		this.perun = perun;
 	}
 
+	public PropagationStateCache getPropagationStateCache() {
+		return propagationStateCache;
+	}
+
+	@Autowired
+	public void setPropagationStateCache(PropagationStateCache propagationStateCache) {
+		this.propagationStateCache = propagationStateCache;
+	}
+
 	// ----- methods -------------------------------------
 
 	@Override
@@ -101,9 +120,16 @@ public class AuditerListener extends AbstractRunner {
 			}
 
 
+			AuditerNotifications notifications = perun.getAuditer().getNotifications();
+
 			while (!shouldStop()) {
 				try {
-					for (AuditEvent message : perun.getAuditMessagesManager().pollConsumerEvents(sess, "dispatcher")) {
+					// take number of notifications before polling, so we don't miss messages stored in between
+					long notified = notifications.getReceived();
+					List<AuditEvent> messages = perun.getAuditMessagesManager().pollConsumerEventsPage(sess, "dispatcher", PAGE_SIZE);
+					for (AuditEvent message : messages) {
+						// forget state changed by the message before Tasks are created or scheduled from it
+						propagationStateCache.invalidate(message);
 						// create event for each message
 						Event event = new Event();
 						event.setTimeStamp(System.currentTimeMillis());
@@ -118,7 +144,10 @@ public class AuditerListener extends AbstractRunner {
 						// pass event to queue for further processing
 						eventQueue.put(event);
 					}
-					Thread.sleep(1000);
+					if (messages.isEmpty()) {
+						// whole log was read, wait for new messages to be stored
+						notifications.awaitMessages(notified);
+					}
 				} catch (InternalErrorException | PrivilegeException ex) {
 					log.error("AuditerListener couldn't get AuditEvents.", ex);
 					Thread.sleep(1000);
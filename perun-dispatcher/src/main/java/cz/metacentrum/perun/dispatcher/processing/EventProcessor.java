@@ -1,5 +1,6 @@
 package cz.metacentrum.perun.dispatcher.processing;
 
+import cz.metacentrum.perun.audit.events.AuditEvent;
 import cz.metacentrum.perun.audit.events.EngineForceEvent;
 import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.core.api.Facility;
@@ -28,6 +29,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -35,11 +39,14 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class ensure periodic blocking polling of EventQueue with Events parsed from audit messages by AuditerListener.
  *
- * For each Event, Facility and set of affected Services is resolved. If can't be resolved or are empty, Event is discarded.
+ * Events arriving within short window are processed together. For them, Facility and set of affected Services is resolved
+ * at once. If they can't be resolved together, they are resolved one by one. Events, which can't be resolved
+ * or are empty, are discarded.
  *
  * Each Event is converted to Task if possible and added to pool (if new) or updated in pool (if exists).
  * New Tasks are also planned immediately.
@@ -127,14 +134,19 @@ public class EventProcessor extends AbstractRunner {
 	/**
 	 * EvProcessor thread, reads EventQueue and convert Events to Tasks,
 	 * which are added to scheduling pool or updated if already in pool.
+	 *
+	 * Events arriving within the short window after the first one are processed together,
+	 * so bursts of events affecting the same entities are resolved only once.
 	 */
 	@Override
 	public void run() {
+		long eventWindow = getEventWindow();
+		int maxEvents = getMaxEvents();
 		while (!shouldStop()) {
 			try {
-				Event event = eventQueue.take();
-				createTaskFromEvent(event);
-				log.debug("Remaining events in a Queue = {}", eventQueue.size());
+				List<Event> events = takeEvents(eventWindow, maxEvents);
+				createTasksFromEvents(events);
+				log.debug("Processed events = {}, remaining events in a Queue = {}", events.size(), eventQueue.size());
 			} catch (Exception e) {
 				log.error(e.getMessage(), e);
 			}
@@ -143,18 +155,97 @@ public class EventProcessor extends AbstractRunner {
 	}
 
 	/**
-	 * Creates Task from Event data. Tries to resolve Service and Facility pairs from Event.
-	 * Events for non existing entities are discarded.
+	 * Waits for the first Event in the EventQueue and then collects Events arriving within the window.
 	 *
-	 * @param event Event to parse
-	 * @throws ServiceNotExistsException When Service from Event doesn't exists anymore
-	 * @throws InvalidEventMessageException  When Message has invalid format.
-	 * @throws InternalErrorException  When implementation fails
+	 * @param eventWindow time in milliseconds to collect Events after the first one
+	 * @param maxEvents max number of collected Events
+	 * @return collected Events
+	 * @throws InterruptedException When thread is interrupted while waiting for Events
+	 */
+	private List<Event> takeEvents(long eventWindow, int maxEvents) throws InterruptedException {
+		List<Event> events = new ArrayList<>();
+		events.add(eventQueue.take());
+		long deadline = System.currentTimeMillis() + eventWindow;
+		while (events.size() < maxEvents) {
+			// take all already waiting events, then wait for the rest of the window
+			if (eventQueue.drainTo(events, maxEvents - events.size()) > 0) continue;
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) break;
+			Event event = eventQueue.poll(remaining, TimeUnit.MILLISECONDS);
+			if (event == null) break;
+			events.add(event);
+		}
+		return events;
+	}
+
+	/**
+	 * Creates Tasks from collected Events. Forced and normal Events are resolved separately,
+	 * since forced Events force propagation of all affected Tasks.
+	 *
+	 * @param events Events to parse
 	 * @throws PrivilegeException  When dispatcher lack privileges to call core methods
 	 */
-	private void createTaskFromEvent(Event event) throws ServiceNotExistsException, InvalidEventMessageException, PrivilegeException {
+	private void createTasksFromEvents(List<Event> events) throws PrivilegeException {
+
+		List<AuditEvent> normalEvents = new ArrayList<>();
+		List<AuditEvent> forcedEvents = new ArrayList<>();
+		for (Event event : events) {
+			if (determineForcedPropagation(event)) {
+				forcedEvents.add(event.getData());
+			} else {
+				normalEvents.add(event.getData());
+			}
+		}
+
+		if (!normalEvents.isEmpty()) {
+			createTasks(resolveEvents(normalEvents), false);
+		}
+		if (!forcedEvents.isEmpty()) {
+			createTasks(resolveEvents(forcedEvents), true);
+		}
 
-		Map<Facility, Set<Service>> resolvedServices = eventServiceResolver.resolveEvent(event.getData());
+	}
+
+	/**
+	 * Resolves Facilities and Services affected by Events. If Events can't be resolved together,
+	 * they are resolved one by one, so single invalid Event doesn't discard the others.
+	 *
+	 * @param events Events to resolve
+	 * @return Facilities and Services affected by resolvable Events
+	 * @throws PrivilegeException  When dispatcher lack privileges to call core methods
+	 */
+	private Map<Facility, Set<Service>> resolveEvents(List<AuditEvent> events) throws PrivilegeException {
+
+		try {
+			return eventServiceResolver.resolveEvents(events);
+		} catch (ServiceNotExistsException | InvalidEventMessageException | InternalErrorException e) {
+			if (events.size() == 1) {
+				log.error("Event can't be resolved: {}", events.get(0), e);
+				return new HashMap<>();
+			}
+			log.warn("{} events can't be resolved together, resolving them one by one.", events.size(), e);
+		}
+
+		Map<Facility, Set<Service>> result = new HashMap<>();
+		for (AuditEvent event : events) {
+			try {
+				eventServiceResolver.resolveEvent(event).forEach((facility, services) ->
+						result.computeIfAbsent(facility, f -> new HashSet<>()).addAll(services));
+			} catch (ServiceNotExistsException | InvalidEventMessageException | InternalErrorException e) {
+				log.error("Event can't be resolved: {}", event, e);
+			}
+		}
+		return result;
+
+	}
+
+	/**
+	 * Creates Tasks for resolved Service and Facility pairs.
+	 *
+	 * @param resolvedServices Facilities and Services affected by Events
+	 * @param isForced TRUE = forced propagation / FALSE = normal data change
+	 */
+	private void createTasks(Map<Facility, Set<Service>> resolvedServices, boolean isForced) {
 
 		for (Entry<Facility, Set<Service>> map : resolvedServices.entrySet()) {
 			Facility facility = map.getKey();
@@ -216,8 +307,6 @@ public class EventProcessor extends AbstractRunner {
 				// tasks in schedulingPool (are we running in parallel
 				// here?)
 
-				boolean isForced = determineForcedPropagation(event);
-
 				Task task = schedulingPool.getTask(facility, service);
 
 				if (task != null) {
@@ -251,6 +340,34 @@ public class EventProcessor extends AbstractRunner {
 		}
 	}
 
+	/**
+	 * Returns time in milliseconds to collect Events after the first one.
+	 *
+	 * @return time window for collecting Events
+	 */
+	private long getEventWindow() {
+		try {
+			return Long.parseLong(dispatcherProperties.getProperty("dispatcher.event.window"));
+		} catch (NumberFormatException e) {
+			log.warn("Could not parse value of dispatcher.event.window property. Using default.");
+			return 200;
+		}
+	}
+
+	/**
+	 * Returns max number of Events processed together.
+	 *
+	 * @return max number of collected Events
+	 */
+	private int getMaxEvents() {
+		try {
+			return Integer.parseInt(dispatcherProperties.getProperty("dispatcher.event.batchSize"));
+		} catch (NumberFormatException e) {
+			log.warn("Could not parse value of dispatcher.event.batchSize property. Using default.");
+			return 1000;
+		}
+	}
+
 	/**
 	 * Return true if event forces service propagation
 	 *
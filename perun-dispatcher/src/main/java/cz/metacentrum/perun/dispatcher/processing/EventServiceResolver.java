@@ -8,6 +8,7 @@ import cz.metacentrum.perun.core.api.exceptions.PrivilegeException;
 import cz.metacentrum.perun.core.api.exceptions.ServiceNotExistsException;
 import cz.metacentrum.perun.dispatcher.exceptions.InvalidEventMessageException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,4 +38,17 @@ public interface EventServiceResolver {
 	 */
 	Map<Facility, Set<Service>> resolveEvent(AuditEvent event) throws InvalidEventMessageException, ServiceNotExistsException, PrivilegeException;
 
+	/**
+	 * Resolve Facilities and set of Services affected by any of the AuditEvents.
+	 * Events with the same affected entities are resolved only once and lookups are shared by all events.
+	 *
+	 * @param events Events to be resolved
+	 * @return Affected Facilities and Services on them.
+	 * @throws InvalidEventMessageException When Event has wrong format.
+	 * @throws ServiceNotExistsException When Service no longer exists.
+	 * @throws InternalErrorException When implementation fails.
+	 * @throws PrivilegeException  When dispatcher lack privileges to call core methods.
+	 */
+	Map<Facility, Set<Service>> resolveEvents(List<AuditEvent> events) throws InvalidEventMessageException, ServiceNotExistsException, PrivilegeException;
+
 }
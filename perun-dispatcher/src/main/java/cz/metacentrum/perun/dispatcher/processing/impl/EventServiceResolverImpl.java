@@ -1,14 +1,17 @@
 package cz.metacentrum.perun.dispatcher.processing.impl;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import cz.metacentrum.perun.audit.events.AuditEvent;
 import cz.metacentrum.perun.audit.events.EngineIgnoreEvent;
+import cz.metacentrum.perun.audit.events.StringMessageEvent;
 import cz.metacentrum.perun.core.api.PerunClient;
 
 import org.slf4j.Logger;
@@ -87,16 +90,53 @@ public class EventServiceResolverImpl implements EventServiceResolver {
 
 		log.info("Event - I am going to process event: {}", event);
 
-		Map<Facility, Set<Service>> result = new HashMap<Facility, Set<Service>>();
+		Map<Facility, Set<Service>> result = resolveSources(Collections.singleton(getEventSource(event)), new ResolvingContext());
+
+		log.info("{} facilities will be returned", result.size());
+		return result;
+
+	}
+
+	@Override
+	public Map<Facility, Set<Service>> resolveEvents(List<AuditEvent> events) throws InvalidEventMessageException, ServiceNotExistsException, PrivilegeException {
+
+		// same sources from many events are resolved only once
+		Set<EventSource> sources = new LinkedHashSet<>();
+		for (AuditEvent event : events) {
+			log.debug("Event - I am going to process event: {}", event);
+			sources.add(getEventSource(event));
+		}
+
+		Map<Facility, Set<Service>> result = resolveSources(sources, new ResolvingContext());
+
+		log.info("Events - {} events with {} distinct sources resolved, {} facilities will be returned",
+				events.size(), sources.size(), result.size());
+		return result;
+
+	}
+
+	/**
+	 * Returns beans, which determine Facilities and Services affected by the event.
+	 *
+	 * @param event Event to get source from
+	 * @return Source of the event
+	 */
+	private EventSource getEventSource(AuditEvent event) {
+
+		EventSource source = new EventSource();
 
 		if (event instanceof EngineIgnoreEvent) {
-			log.info("Event ignored {} facilities will be returned", result.size());
-			return result;
+			log.info("Event ignored {}", event);
+			return source;
 		}
 
-		// GET All Beans (only PerunBeans) from message
-		List<PerunBean> listOfBeans = new ArrayList<PerunBean>();
-		listOfBeans = AuditParser.parseLog(event.getMessage());
+		// GET All Beans (only PerunBeans) from event, only plain string messages have to be parsed
+		List<PerunBean> listOfBeans;
+		if (event instanceof StringMessageEvent) {
+			listOfBeans = AuditParser.parseLog(event.getMessage());
+		} else {
+			listOfBeans = event.getReferencedBeans();
+		}
 
 		// Prepare variables
 		AttributeDefinition attributeDefinition = null;
@@ -133,11 +173,51 @@ public class EventServiceResolverImpl implements EventServiceResolver {
 		// If there is any attribute, so create AttributeDefinition
 		if (attributeDefinition != null) {
 			log.debug("Attribute found in event. {}.", attributeDefinition);
+			source.attributeDefinition = new AttributeDefinition(attributeDefinition);
 		}
 
-		List<Facility> facilitiesResolvedFromEvent = new ArrayList<Facility>();
-		List<Resource> resourcesResolvedFromEvent = new ArrayList<Resource>();
-		List<Service> servicesResolvedFromEvent = new ArrayList<Service>();
+		// Try to find FACILITY, RESOURCE, GROUP, USER, MEMBER or HOST in event
+		if (facility != null) {
+			source.bean = facility;
+		} else if (resource != null) {
+			source.bean = resource;
+		} else if (group != null) {
+			source.bean = group;
+		} else if (user != null) {
+			source.bean = user;
+		} else if (member != null) {
+			source.bean = member;
+		} else if (host != null) {
+			source.bean = host;
+		} else {
+			log.warn("No match found for this event. Event={}", event);
+		}
+
+		// Try to find SERVICE in event
+		// TODO resolve more than one service
+		source.service = service;
+
+		// FIXME - Services are used only to filter services resolved from the sourcing object,
+		// since we don't want to start propagation for messages like "ServiceUpdated".
+		// Generally it could clog the propagations, when single service is assigned to the many facilities.
+		// It also means, that messages to force/planServicePropagation for service (without facility specified) are ignored.
+
+		return source;
+
+	}
+
+	/**
+	 * Resolves Facilities and set of Services affected by the sources of events.
+	 * Results of all lookups are shared by the sources, so each Resource, Service etc. is looked up only once.
+	 *
+	 * @param sources Sources of events
+	 * @param context Results of lookups
+	 * @return Affected Facilities and Services on them.
+	 * @throws PrivilegeException  When dispatcher lack privileges to call core methods.
+	 */
+	private Map<Facility, Set<Service>> resolveSources(Set<EventSource> sources, ResolvingContext context) throws PrivilegeException {
+
+		Map<Facility, Set<Service>> result = new HashMap<Facility, Set<Service>>();
 
 		// =============== Resolve facilities from event======================
 
@@ -149,141 +229,169 @@ public class EventServiceResolverImpl implements EventServiceResolver {
 					new PerunClient());
 		}
 
-		// Try to find FACILITY in event
-		if (facility != null) {
-			try {
-				log.debug("Facility found in event. {}.", facility);
-				facilitiesResolvedFromEvent.add(facility);
-				resourcesResolvedFromEvent.addAll(perun.getFacilitiesManager()
-						.getAssignedResources(perunSession, facility));
-			} catch (FacilityNotExistsException ex) {
-				log.warn("Non-existing facility found while resolving event. id={}", facility.getId());
-			}
-		} else {
-			// Try to find RESOURCE in event
-			if (resource != null) {
-				resourcesResolvedFromEvent.add(resource);
-			} else {
-				// Try to find GROUP in event
-				if (group != null) {
-					try {
-						resourcesResolvedFromEvent = perun.getResourcesManager()
-								.getAssignedResources(perunSession, group);
-					} catch (GroupNotExistsException ex) {
-						log.warn("Non-existing group found while resolving event. id={}", group.getId());
-					}
-				} else {
-					// try to find USER in event
-					if (user != null) {
-						try {
-							resourcesResolvedFromEvent = perun.getUsersManager()
-									.getAllowedResources(perunSession, user);
-						} catch (UserNotExistsException ex) {
-							log.warn("Non-existing user found while resolving event. id={}", user.getId());
-						}
-					} else {
-						// try to find MEMBER in event
-						if (member != null) {
-							try {
-								resourcesResolvedFromEvent = perun.getResourcesManager()
-										.getAllowedResources(perunSession, member);
-							} catch (MemberNotExistsException ex) {
-								log.warn("Non-existing member found while resolving event. id={}", member.getId());
-							}
-						} else {
-							// try to find HOST in event
-							if (host != null) {
-								try {
-									log.debug("Host found in event.id= {}.", host.getId());
-									facility = perun.getFacilitiesManager().getFacilityForHost(perunSession, host);
-									facilitiesResolvedFromEvent.add(facility);
-									resourcesResolvedFromEvent.addAll(perun.getFacilitiesManager()
-											.getAssignedResources(perunSession, facility));
-								} catch (FacilityNotExistsException ex) {
-									log.warn(
-											"Host on non-existing facility found while resolving event. Host id={}",
-											host.getId());
-								} catch (HostNotExistsException ex) {
-									log.warn("Non-existing host found while resolving event. id={}", host.getId());
-								}
-							} else {
-								log.warn("No match found for this event. Event={}", event);
-							}
-						}
+		for (EventSource source : sources) {
+
+			if (source.bean == null) continue;
+
+			for (Resource r : context.getResources(source.bean)) {
+
+				Facility facilityResolvedFromEvent = context.getFacility(r);
+				List<Service> servicesResolvedFromResource = context.getAssignedServices(r);
+				if (facilityResolvedFromEvent == null || servicesResolvedFromResource == null) {
+					continue; // skip to next resource
+				}
+
+				for (Service s : servicesResolvedFromResource) {
+
+					// process only services resolved from event if any
+					if (source.service != null && !source.service.equals(s)) continue;
+
+					if (source.attributeDefinition != null) {
+						// remove from future processing services
+						// which don't require the found attribute
+						if (!context.getRequiredAttributes(s).contains(source.attributeDefinition)) continue;
 					}
+
+					result.computeIfAbsent(facilityResolvedFromEvent, f -> new HashSet<>()).add(s);
 				}
 			}
 		}
 
-		// Try to find SERVICE in event
-		// TODO resolve more than one service
-		if (service != null) {
-			servicesResolvedFromEvent.add(service);
+		return result;
+
+	}
+
+	/**
+	 * Beans from the event, which determine affected Facilities and Services. Events with equal sources
+	 * affects the same Facilities and Services.
+	 */
+	private static class EventSource {
+
+		// Facility, Resource, Group, User, Member or Host found in event
+		private PerunBean bean;
+		private Service service;
+		private AttributeDefinition attributeDefinition;
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			EventSource that = (EventSource) o;
+			return Objects.equals(beanKey(bean), beanKey(that.bean)) &&
+					Objects.equals(service == null ? null : service.getId(), that.service == null ? null : that.service.getId()) &&
+					Objects.equals(attributeDefinition, that.attributeDefinition);
 		}
 
-		// FIXME - Following code is commented since we don't want to start propagation for messages like "ServiceUpdated".
-		// Generally it could clog the propagations, when single service is assigned to the many facilities.
-		// It also means, that messages to force/planServicePropagation for service (without facility specified) are ignored.
-		/*
-		if (servicesResolvedFromEvent.size() == 1 &&
-				facilitiesResolvedFromEvent.isEmpty() &&
-				resourcesResolvedFromEvent.isEmpty()) {
-			// there was no proper sourcing object other than the service
-			// so we will append all facilities with such service
-			facilitiesResolvedFromEvent.addAll(perun.getFacilitiesManager().getAssignedFacilities(perunSession, service));
-			for (Facility fac : facilitiesResolvedFromEvent) {
+		@Override
+		public int hashCode() {
+			return Objects.hash(beanKey(bean), service == null ? null : service.getId(), attributeDefinition);
+		}
+
+		private static String beanKey(PerunBean bean) {
+			return bean == null ? null : bean.getBeanName() + ":" + bean.getId();
+		}
+
+	}
+
+	/**
+	 * Remembers results of the core methods called while resolving one batch of events.
+	 * Non-existing entities are remembered as empty results.
+	 */
+	private class ResolvingContext {
+
+		private final Map<String, List<Resource>> resources = new HashMap<>();
+		private final Map<Integer, Facility> facilities = new HashMap<>();
+		private final Map<Integer, List<Service>> assignedServices = new HashMap<>();
+		private final Map<Integer, List<AttributeDefinition>> requiredAttributes = new HashMap<>();
+
+		private List<Resource> getResources(PerunBean bean) throws PrivilegeException {
+			String key = EventSource.beanKey(bean);
+			List<Resource> result = resources.get(key);
+			if (result == null) {
+				result = lookupResources(bean);
+				resources.put(key, result);
+			}
+			return result;
+		}
+
+		private List<Resource> lookupResources(PerunBean bean) throws PrivilegeException {
+			if (bean instanceof Facility) {
+				try {
+					log.debug("Facility found in event. {}.", bean);
+					return perun.getFacilitiesManager().getAssignedResources(perunSession, (Facility) bean);
+				} catch (FacilityNotExistsException ex) {
+					log.warn("Non-existing facility found while resolving event. id={}", bean.getId());
+				}
+			} else if (bean instanceof Resource) {
+				return Collections.singletonList((Resource) bean);
+			} else if (bean instanceof Group) {
 				try {
-					resourcesResolvedFromEvent.addAll(perun.getFacilitiesManager()
-							.getAssignedResources(perunSession, fac));
-				} catch (FacilityNotExistsException e) {
-					log.error("Facility {} was probably deleted, can't get resources for it.", fac, e);
+					return perun.getResourcesManager().getAssignedResources(perunSession, (Group) bean);
+				} catch (GroupNotExistsException ex) {
+					log.warn("Non-existing group found while resolving event. id={}", bean.getId());
+				}
+			} else if (bean instanceof User) {
+				try {
+					return perun.getUsersManager().getAllowedResources(perunSession, (User) bean);
+				} catch (UserNotExistsException ex) {
+					log.warn("Non-existing user found while resolving event. id={}", bean.getId());
+				}
+			} else if (bean instanceof Member) {
+				try {
+					return perun.getResourcesManager().getAllowedResources(perunSession, (Member) bean);
+				} catch (MemberNotExistsException ex) {
+					log.warn("Non-existing member found while resolving event. id={}", bean.getId());
+				}
+			} else if (bean instanceof Host) {
+				try {
+					log.debug("Host found in event.id= {}.", bean.getId());
+					Facility facility = perun.getFacilitiesManager().getFacilityForHost(perunSession, (Host) bean);
+					return getResources(facility);
+				} catch (HostNotExistsException ex) {
+					log.warn("Non-existing host found while resolving event. id={}", bean.getId());
 				}
 			}
+			return Collections.emptyList();
 		}
-		*/
-
-		for (Resource r : resourcesResolvedFromEvent) {
-
-			Facility facilityResolvedFromEvent;
-			List<Service> servicesResolvedFromResource;
-			try {
-				facilityResolvedFromEvent = perun.getResourcesManager().getFacility(perunSession, r);
-				servicesResolvedFromResource = perun.getResourcesManager().getAssignedServices(perunSession, r);
-				// process only services resolved from event if any
-				if (!servicesResolvedFromEvent.isEmpty())
-					servicesResolvedFromResource.retainAll(servicesResolvedFromEvent);
-			} catch (ResourceNotExistsException ex) {
-				log.error("Non-existing resource found while resolving event. Resource={}", r);
-				continue; // skip to next resource
-			}
 
-			for (Service s : servicesResolvedFromResource) {
-
-				if (attributeDefinition != null) {
-					// remove from future processing services
-					// which don't require the found attribute
-					// TODO (CHECKME) This method can raise
-					// ServiceNotExistsException. Is it ok? Or it must be
-					// catch?
-					List<AttributeDefinition> serviceRequiredAttributes = perun
-							.getAttributesManager()
-							.getRequiredAttributesDefinition(perunSession, s);
-					if (!serviceRequiredAttributes.contains(attributeDefinition))
-						continue;
+		private Facility getFacility(Resource resource) throws PrivilegeException {
+			if (!facilities.containsKey(resource.getId())) {
+				try {
+					facilities.put(resource.getId(), perun.getResourcesManager().getFacility(perunSession, resource));
+				} catch (ResourceNotExistsException ex) {
+					log.error("Non-existing resource found while resolving event. Resource={}", resource);
+					facilities.put(resource.getId(), null);
 				}
+			}
+			return facilities.get(resource.getId());
+		}
 
-				if(!result.containsKey(facilityResolvedFromEvent)) {
-					Set<Service> servicesToPut = new HashSet<Service>();
-					servicesToPut.add(s);
-					result.put(facilityResolvedFromEvent, servicesToPut);
-				} else {
-					result.get(facilityResolvedFromEvent).add(s);
+		private List<Service> getAssignedServices(Resource resource) throws PrivilegeException {
+			if (!assignedServices.containsKey(resource.getId())) {
+				try {
+					assignedServices.put(resource.getId(), perun.getResourcesManager().getAssignedServices(perunSession, resource));
+				} catch (ResourceNotExistsException ex) {
+					log.error("Non-existing resource found while resolving event. Resource={}", resource);
+					assignedServices.put(resource.getId(), null);
 				}
 			}
+			return assignedServices.get(resource.getId());
 		}
 
-		log.info("{} facilities will be returned", result.size());
-		return result;
+		private List<AttributeDefinition> getRequiredAttributes(Service service) throws PrivilegeException {
+			List<AttributeDefinition> result = requiredAttributes.get(service.getId());
+			if (result == null) {
+				try {
+					result = perun.getAttributesManager().getRequiredAttributesDefinition(perunSession, service);
+				} catch (ServiceNotExistsException ex) {
+					// don't discard other events resolved together
+					log.warn("Non-existing service found while resolving event. Service={}", service);
+					result = Collections.emptyList();
+				}
+				requiredAttributes.put(service.getId(), result);
+			}
+			return result;
+		}
 
 	}
 
@@ -0,0 +1,282 @@
+package cz.metacentrum.perun.dispatcher.scheduling;
+
+import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.audit.events.GeneralServiceManagerEvents.BanServiceOnDestination;
+import cz.metacentrum.perun.audit.events.GeneralServiceManagerEvents.FreeAllDenialsOnDestination;
+import cz.metacentrum.perun.audit.events.GeneralServiceManagerEvents.FreeDenialServiceOnDestination;
+import cz.metacentrum.perun.audit.events.StringMessageEvent;
+import cz.metacentrum.perun.core.api.Facility;
+import cz.metacentrum.perun.core.api.PerunBean;
+import cz.metacentrum.perun.core.api.PerunClient;
+import cz.metacentrum.perun.core.api.PerunPrincipal;
+import cz.metacentrum.perun.core.api.PerunSession;
+import cz.metacentrum.perun.core.api.Resource;
+import cz.metacentrum.perun.core.api.RichDestination;
+import cz.metacentrum.perun.core.api.Service;
+import cz.metacentrum.perun.core.api.exceptions.FacilityNotExistsException;
+import cz.metacentrum.perun.core.api.exceptions.ServiceNotExistsException;
+import cz.metacentrum.perun.core.bl.PerunBl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshot of Services, Facilities, their Destinations and blocking of Services used by the SchedulingPool
+ * to decide about scheduling of Tasks without calling Perun core for each of them.
+ *
+ * Facilities are loaded lazily, all data of a Facility are loaded at once. Loaded data are invalidated
+ * by AuditEvents read by the AuditerListener, so every change in Perun is reflected, when the AuditEvent
+ * about it is read. Data loaded concurrently with invalidation are not stored. Loading itself is not locked,
+ * only storing of loaded data and invalidation are mutually exclusive, so invalidation can't slip in between
+ * the check of the version and storing of the data.
+ *
+ * @see cz.metacentrum.perun.dispatcher.scheduling.SchedulingPool
+ * @see cz.metacentrum.perun.dispatcher.processing.AuditerListener
+ */
+@org.springframework.stereotype.Service(value = "propagationStateCache")
+public class PropagationStateCache {
+
+	private final static Logger log = LoggerFactory.getLogger(PropagationStateCache.class);
+
+	private PerunBl perun;
+	private Properties dispatcherProperties;
+	private PerunSession sess;
+
+	private volatile Map<Integer, Service> services;
+	private final Map<Integer, FacilityState> facilities = new ConcurrentHashMap<>();
+	// incremented by every invalidation, data loaded before it are outdated
+	private final AtomicLong version = new AtomicLong();
+	// guards storing of loaded data against concurrent invalidation
+	private final Object lock = new Object();
+
+	// ----- setters -------------------------------------
+
+	public PerunBl getPerun() {
+		return perun;
+	}
+
+	@Autowired
+	public void setPerun(PerunBl perun) {
+		this.perun = perun;
+	}
+
+	public Properties getDispatcherProperties() {
+		return dispatcherProperties;
+	}
+
+	@javax.annotation.Resource(name = "dispatcherPropertiesBean")
+	public void setDispatcherProperties(Properties dispatcherProperties) {
+		this.dispatcherProperties = dispatcherProperties;
+	}
+
+	// ----- methods -------------------------------------
+
+	/**
+	 * Returns Service by its ID.
+	 *
+	 * @param serviceId ID of Service
+	 * @return Service
+	 * @throws ServiceNotExistsException When Service doesn't exist
+	 */
+	public Service getService(int serviceId) throws ServiceNotExistsException {
+		Map<Integer, Service> loadedServices = services;
+		if (loadedServices == null || !loadedServices.containsKey(serviceId)) {
+			// unknown service could be created since the last load
+			loadedServices = loadServices();
+		}
+		Service service = loadedServices.get(serviceId);
+		if (service == null) {
+			throw new ServiceNotExistsException("Service with ID=" + serviceId + " doesn't exist.");
+		}
+		return service;
+	}
+
+	/**
+	 * Returns state of Facility by its ID.
+	 *
+	 * @param facilityId ID of Facility
+	 * @return State of Facility
+	 * @throws FacilityNotExistsException When Facility doesn't exist
+	 */
+	public FacilityState getFacilityState(int facilityId) throws FacilityNotExistsException {
+		FacilityState state = facilities.get(facilityId);
+		if (state == null) {
+			long loadedVersion = version.get();
+			state = loadFacilityState(facilityId);
+			synchronized (lock) {
+				if (version.get() == loadedVersion) {
+					facilities.put(facilityId, state);
+				}
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Invalidates all data, which could be changed by the AuditEvent.
+	 *
+	 * @param event AuditEvent read from the auditer log
+	 */
+	public void invalidate(AuditEvent event) {
+		if (event instanceof StringMessageEvent) {
+			// we don't know, what was changed
+			clear();
+			return;
+		}
+
+		synchronized (lock) {
+			if (event instanceof BanServiceOnDestination) {
+				invalidateDestination(((BanServiceOnDestination) event).getDestinationId());
+			} else if (event instanceof FreeDenialServiceOnDestination) {
+				invalidateDestination(((FreeDenialServiceOnDestination) event).getDestinationId());
+			} else if (event instanceof FreeAllDenialsOnDestination) {
+				invalidateDestination(((FreeAllDenialsOnDestination) event).getDestinationId());
+			}
+
+			for (PerunBean bean : event.getReferencedBeans()) {
+				if (bean instanceof Service) {
+					version.incrementAndGet();
+					services = null;
+				} else if (bean instanceof Facility) {
+					version.incrementAndGet();
+					facilities.remove(bean.getId());
+				} else if (bean instanceof Resource) {
+					version.incrementAndGet();
+					facilities.remove(((Resource) bean).getFacilityId());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets all loaded data.
+	 */
+	public void clear() {
+		synchronized (lock) {
+			version.incrementAndGet();
+			services = null;
+			facilities.clear();
+		}
+	}
+
+	private void invalidateDestination(int destinationId) {
+		version.incrementAndGet();
+		facilities.values().removeIf(state -> state.destinationIds.contains(destinationId));
+	}
+
+	private Map<Integer, Service> loadServices() {
+		long loadedVersion = version.get();
+		Map<Integer, Service> loadedServices = new HashMap<>();
+		for (Service service : perun.getServicesManagerBl().getServices(getSession())) {
+			loadedServices.put(service.getId(), service);
+		}
+		synchronized (lock) {
+			if (version.get() == loadedVersion) {
+				services = loadedServices;
+			}
+		}
+		return loadedServices;
+	}
+
+	private FacilityState loadFacilityState(int facilityId) throws FacilityNotExistsException {
+		PerunSession session = getSession();
+		Facility facility = perun.getFacilitiesManagerBl().getFacilityById(session, facilityId);
+
+		Set<Integer> assignedServiceIds = new HashSet<>();
+		for (Service service : perun.getServicesManagerBl().getAssignedServices(session, facility)) {
+			assignedServiceIds.add(service.getId());
+		}
+		Set<Integer> blockedServiceIds = new HashSet<>();
+		for (Service service : perun.getServicesManagerBl().getServicesBlockedOnFacility(session, facility)) {
+			blockedServiceIds.add(service.getId());
+		}
+		Map<Integer, List<RichDestination>> destinations = new HashMap<>();
+		Set<Integer> destinationIds = new HashSet<>();
+		for (RichDestination destination : perun.getServicesManagerBl().getAllRichDestinations(session, facility)) {
+			destinations.computeIfAbsent(destination.getService().getId(), id -> new ArrayList<>()).add(destination);
+			destinationIds.add(destination.getId());
+		}
+
+		log.debug("State of {} loaded.", facility);
+		return new FacilityState(facility, assignedServiceIds, blockedServiceIds, destinations, destinationIds);
+	}
+
+	private PerunSession getSession() {
+		if (sess == null) {
+			sess = perun.getPerunSession(new PerunPrincipal(
+							dispatcherProperties.getProperty("perun.principal.name"),
+							dispatcherProperties.getProperty("perun.principal.extSourceName"),
+							dispatcherProperties.getProperty("perun.principal.extSourceType")),
+					new PerunClient());
+		}
+		return sess;
+	}
+
+	/**
+	 * Loaded state of single Facility.
+	 */
+	public static class FacilityState {
+
+		private final Facility facility;
+		private final Set<Integer> assignedServiceIds;
+		private final Set<Integer> blockedServiceIds;
+		private final Map<Integer, List<RichDestination>> destinations;
+		private final Set<Integer> destinationIds;
+
+		private FacilityState(Facility facility, Set<Integer> assignedServiceIds, Set<Integer> blockedServiceIds,
+		                      Map<Integer, List<RichDestination>> destinations, Set<Integer> destinationIds) {
+			this.facility = facility;
+			this.assignedServiceIds = assignedServiceIds;
+			this.blockedServiceIds = blockedServiceIds;
+			this.destinations = destinations;
+			this.destinationIds = destinationIds;
+		}
+
+		public Facility getFacility() {
+			return facility;
+		}
+
+		/**
+		 * Returns true, if Service is assigned to the Facility.
+		 *
+		 * @param service Service to check
+		 * @return TRUE = assigned / FALSE = not assigned
+		 */
+		public boolean isServiceAssigned(Service service) {
+			return assignedServiceIds.contains(service.getId());
+		}
+
+		/**
+		 * Returns true, if Service is blocked on the Facility.
+		 *
+		 * @param service Service to check
+		 * @return TRUE = blocked / FALSE = not blocked
+		 */
+		public boolean isServiceBlocked(Service service) {
+			return blockedServiceIds.contains(service.getId());
+		}
+
+		/**
+		 * Returns Destinations of Service on the Facility, including Destinations where the Service is blocked.
+		 *
+		 * @param service Service to get Destinations for
+		 * @return Destinations of Service
+		 */
+		public List<RichDestination> getDestinations(Service service) {
+			return Collections.unmodifiableList(destinations.getOrDefault(service.getId(), Collections.emptyList()));
+		}
+
+	}
+
+}
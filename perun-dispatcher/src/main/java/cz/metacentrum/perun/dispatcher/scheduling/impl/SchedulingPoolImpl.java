@@ -1,22 +1,22 @@
 package cz.metacentrum.perun.dispatcher.scheduling.impl;
 
 import cz.metacentrum.perun.auditparser.AuditParser;
-import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Perun;
 import cz.metacentrum.perun.core.api.PerunBean;
 import cz.metacentrum.perun.core.api.PerunClient;
 import cz.metacentrum.perun.core.api.PerunPrincipal;
 import cz.metacentrum.perun.core.api.PerunSession;
+import cz.metacentrum.perun.core.api.RichDestination;
 import cz.metacentrum.perun.core.api.Service;
 import cz.metacentrum.perun.core.api.exceptions.FacilityNotExistsException;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
-import cz.metacentrum.perun.core.api.exceptions.PrivilegeException;
 import cz.metacentrum.perun.core.api.exceptions.ServiceNotExistsException;
-import cz.metacentrum.perun.core.bl.PerunBl;
 import cz.metacentrum.perun.core.bl.TasksManagerBl;
 import cz.metacentrum.perun.dispatcher.jms.EngineMessageProducer;
 import cz.metacentrum.perun.dispatcher.jms.EngineMessageProducerFactory;
+import cz.metacentrum.perun.dispatcher.scheduling.PropagationStateCache;
+import cz.metacentrum.perun.dispatcher.scheduling.PropagationStateCache.FacilityState;
 import cz.metacentrum.perun.dispatcher.scheduling.SchedulingPool;
 import cz.metacentrum.perun.taskslib.exceptions.TaskStoreException;
 import cz.metacentrum.perun.taskslib.model.Task;
@@ -35,7 +35,6 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.DelayQueue;
@@ -65,6 +64,7 @@ public class SchedulingPoolImpl implements SchedulingPool, InitializingBean {
 	private TaskStore taskStore;
 	private TasksManagerBl tasksManagerBl;
 	private EngineMessageProducerFactory engineMessageProducerFactory;
+	private PropagationStateCache propagationStateCache;
 	private Perun perun;
 
 	public SchedulingPoolImpl() {
@@ -147,6 +147,15 @@ public class SchedulingPoolImpl implements SchedulingPool, InitializingBean {
 		this.perun = perun;
 	}
 
+	public PropagationStateCache getPropagationStateCache() {
+		return propagationStateCache;
+	}
+
+	@Autowired
+	public void setPropagationStateCache(PropagationStateCache propagationStateCache) {
+		this.propagationStateCache = propagationStateCache;
+	}
+
 	// --- session init ----------------------------------
 
 	@Override
@@ -207,72 +216,26 @@ public class SchedulingPoolImpl implements SchedulingPool, InitializingBean {
 	public void scheduleTask(Task task, int delayCount) {
 
 		// check if service/facility exists
+		// all checks are done on state cached by PropagationStateCache, which is invalidated by audit messages
 
 		boolean removeTask = false;
+		FacilityState facilityState = null;
 
 		try {
-			Service service = perun.getServicesManager().getServiceById(sess, task.getServiceId());
-			Facility facility = perun.getFacilitiesManager().getFacilityById(sess, task.getFacilityId());
+			Service service = propagationStateCache.getService(task.getServiceId());
+			facilityState = propagationStateCache.getFacilityState(task.getFacilityId());
 			task.setService(service);
-			task.setFacility(facility);
+			task.setFacility(facilityState.getFacility());
 		} catch (ServiceNotExistsException e) {
 			log.error("[{}] Task NOT added to waiting queue, service not exists: {}.", task.getId(), task);
 			removeTask = true;
 		} catch (FacilityNotExistsException e) {
 			log.error("[{}] Task NOT added to waiting queue, facility not exists: {}.", task.getId(), task);
 			removeTask = true;
-		}  catch (InternalErrorException | PrivilegeException e) {
+		}  catch (InternalErrorException e) {
 			log.error("[{}] {}", task.getId(), e);
-		}
-
-		if (!task.getService().isEnabled() || ((PerunBl) perun).getServicesManagerBl().isServiceBlockedOnFacility(task.getService(), task.getFacility())) {
-			log.error("[{}] Task NOT added to waiting queue, service is blocked: {}.", task.getId(), task);
-			// do not change Task status or any other data !
-			if (!removeTask) return;
-		}
-
-		try {
-			List<Destination> destinations = perun.getServicesManager().getDestinations(sess, task.getService(), task.getFacility());
-			if (destinations != null && !destinations.isEmpty()) {
-				Iterator<Destination> iter = destinations.iterator();
-				while (iter.hasNext()) {
-					Destination dest = iter.next();
-					if (((PerunBl) perun).getServicesManagerBl().isServiceBlockedOnDestination(task.getService(), dest.getId())) {
-						iter.remove();
-					}
-				}
-				if (destinations.isEmpty()) {
-					// All service destinations were blocked -> Task is denied to be sent to engine just like
-					// when service is blocked globally in Perun or on facility as a whole.
-					log.debug("[{}] Task NOT added to waiting queue, all its destinations are blocked.", task.getId());
-					if (!removeTask) return;
-				}
-			} else {
-				log.debug("[{}] Task NOT added to waiting queue, no destination exists.", task.getId());
-				if (!removeTask) return;
-			}
-
-		} catch (ServiceNotExistsException e) {
-			log.error("[{}] Task NOT added to waiting queue, service not exists: {}.", task.getId(), task);
-			removeTask = true;
-		} catch (FacilityNotExistsException e) {
-			log.error("[{}] Task NOT added to waiting queue, facility not exists: {}.", task.getId(), task);
-			removeTask = true;
-		}  catch (InternalErrorException | PrivilegeException e) {
-			log.error("[{}] {}", task.getId(), e);
-		}
-
-		try {
-			List<Service> assignedServices = perun.getServicesManager().getAssignedServices(sess, task.getFacility());
-			if (!assignedServices.contains(task.getService())) {
-				log.debug("[{}] Task NOT added to waiting queue, service is not assigned to facility any more: {}.", task.getId(), task);
-				if (!removeTask) return;
-			}
-		} catch (FacilityNotExistsException e) {
-			removeTask = true;
-			log.error("[{}] Task removed from database, facility no longer exists: {}.", task.getId(), task);
-		} catch (InternalErrorException | PrivilegeException e) {
-			log.error("[{}] Unable to check Service assignment to Facility: {}", task.getId(), e.getMessage());
+			// we can't decide about the task without its state
+			return;
 		}
 
 		if (removeTask) {
@@ -286,6 +249,30 @@ public class SchedulingPoolImpl implements SchedulingPool, InitializingBean {
 			}
 		}
 
+		if (!task.getService().isEnabled() || facilityState.isServiceBlocked(task.getService())) {
+			log.error("[{}] Task NOT added to waiting queue, service is blocked: {}.", task.getId(), task);
+			// do not change Task status or any other data !
+			return;
+		}
+
+		List<RichDestination> destinations = facilityState.getDestinations(task.getService());
+		if (!destinations.isEmpty()) {
+			if (destinations.stream().allMatch(RichDestination::isBlocked)) {
+				// All service destinations were blocked -> Task is denied to be sent to engine just like
+				// when service is blocked globally in Perun or on facility as a whole.
+				log.debug("[{}] Task NOT added to waiting queue, all its destinations are blocked.", task.getId());
+				return;
+			}
+		} else {
+			log.debug("[{}] Task NOT added to waiting queue, no destination exists.", task.getId());
+			return;
+		}
+
+		if (!facilityState.isServiceAssigned(task.getService())) {
+			log.debug("[{}] Task NOT added to waiting queue, service is not assigned to facility any more: {}.", task.getId(), task);
+			return;
+		}
+
 		// Task is eligible for running - create new schedule
 
 		task.setSourceUpdated(false);
@@ -426,6 +413,8 @@ public class SchedulingPoolImpl implements SchedulingPool, InitializingBean {
 		log.debug("Going to reload Tasks from database...");
 
 		this.clear();
+		// state could be changed while we were not reading audit messages
+		propagationStateCache.clear();
 
 		EngineMessageProducer queue = engineMessageProducerFactory.getProducer();
 
@@ -1,15 +1,21 @@
 package cz.metacentrum.perun.dispatcher.unit;
 
+import cz.metacentrum.perun.audit.events.AuditEvent;
 import cz.metacentrum.perun.audit.events.GroupManagerEvents.DirectMemberAddedToGroup;
+import cz.metacentrum.perun.audit.events.GroupManagerEvents.GroupCreatedInVo;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Group;
 import cz.metacentrum.perun.core.api.Service;
 import cz.metacentrum.perun.core.api.User;
+import cz.metacentrum.perun.core.api.exceptions.PrivilegeException;
+import cz.metacentrum.perun.core.api.exceptions.ServiceNotExistsException;
 import cz.metacentrum.perun.core.bl.PerunBl;
 import cz.metacentrum.perun.dispatcher.AbstractDispatcherTest;
 import cz.metacentrum.perun.dispatcher.jms.EngineMessageProducer;
 import cz.metacentrum.perun.dispatcher.model.Event;
+import cz.metacentrum.perun.dispatcher.exceptions.InvalidEventMessageException;
 import cz.metacentrum.perun.dispatcher.processing.EventProcessor;
+import cz.metacentrum.perun.dispatcher.processing.EventServiceResolver;
 import cz.metacentrum.perun.dispatcher.scheduling.impl.SchedulingPoolImpl;
 import cz.metacentrum.perun.taskslib.model.Task;
 import cz.metacentrum.perun.taskslib.model.Task.TaskStatus;
@@ -22,6 +28,8 @@ import org.springframework.util.Assert;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -96,6 +104,68 @@ public class EventProcessorTest extends AbstractDispatcherTest {
 	}
 
 
+	@Test
+	public void eventProcessorResolvesEventsOneByOneWhenBatchFails() {
+		System.out.println("EventProcessor.eventProcessorResolvesEventsOneByOneWhenBatchFails()");
+
+		// processor is stopped by the previous test, so use a fresh one
+		EventProcessor processor = new EventProcessor();
+		processor.setEngineMessageProducerFactory(eventProcessor.getEngineMessageProducerFactory());
+		processor.getEngineMessageProducerFactory().setProducer(new EngineMessageProducerMock("testQueue"));
+		processor.setPerun(eventProcessor.getPerun());
+		processor.setDispatcherProperties(eventProcessor.getDispatcherProperties());
+
+		AuditEvent invalidEvent = new GroupCreatedInVo(group1, vo1);
+		processor.setEventServiceResolver(new FailingEventServiceResolver(eventProcessor.getEventServiceResolver(), invalidEvent));
+
+		LinkedBlockingQueue<Event> mockQueue = new LinkedBlockingQueue<>();
+		for (AuditEvent data : List.of(invalidEvent, new DirectMemberAddedToGroup(member1, group1))) {
+			Event event = new Event();
+			event.setTimeStamp(System.currentTimeMillis());
+			event.setHeader("portishead");
+			event.setData(data);
+			mockQueue.add(event);
+		}
+		processor.setEventQueue(mockQueue);
+
+		SchedulingPoolMock pool = new SchedulingPoolMock(2, processor);
+		processor.setSchedulingPool(pool);
+		// runs inside this thread, ends when tasks of the valid event are added
+		processor.run();
+
+		Assert.isTrue(pool.getTasks().size() == 2, "tasks of the valid event were not created");
+		for (Task task : pool.getTasks()) {
+			Assert.isTrue(facility1.equals(task.getFacility()), "task Facility is different");
+		}
+	}
+
+	/**
+	 * Resolver, which fails to resolve the given event, alone or together with others.
+	 */
+	private static class FailingEventServiceResolver implements EventServiceResolver {
+
+		private final EventServiceResolver resolver;
+		private final AuditEvent invalidEvent;
+
+		public FailingEventServiceResolver(EventServiceResolver resolver, AuditEvent invalidEvent) {
+			this.resolver = resolver;
+			this.invalidEvent = invalidEvent;
+		}
+
+		@Override
+		public Map<Facility, Set<Service>> resolveEvent(AuditEvent event) throws InvalidEventMessageException, ServiceNotExistsException, PrivilegeException {
+			if (event == invalidEvent) throw new ServiceNotExistsException("Service was deleted.");
+			return resolver.resolveEvent(event);
+		}
+
+		@Override
+		public Map<Facility, Set<Service>> resolveEvents(List<AuditEvent> events) throws InvalidEventMessageException, ServiceNotExistsException, PrivilegeException {
+			if (events.contains(invalidEvent)) throw new ServiceNotExistsException("Service was deleted.");
+			return resolver.resolveEvents(events);
+		}
+
+	}
+
 	private class EngineMessageProducerMock extends EngineMessageProducer {
 
 		public EngineMessageProducerMock(String queueName) {
@@ -109,9 +179,15 @@ public class EventProcessorTest extends AbstractDispatcherTest {
 		List<Task> tasks = new LinkedList<>();
 		int expectedAdds;
 		int adds = 0;
+		EventProcessor processor;
 
 		public SchedulingPoolMock(int expectedAdds) {
+			this(expectedAdds, eventProcessor);
+		}
+
+		public SchedulingPoolMock(int expectedAdds, EventProcessor processor) {
 			this.expectedAdds = expectedAdds;
+			this.processor = processor;
 		}
 
 		@Override
@@ -119,7 +195,7 @@ public class EventProcessorTest extends AbstractDispatcherTest {
 			tasks.add(task);
 			adds += 1;
 			if (adds == expectedAdds) {
-				eventProcessor.stop();
+				processor.stop();
 			}
 			return 1;
 		}
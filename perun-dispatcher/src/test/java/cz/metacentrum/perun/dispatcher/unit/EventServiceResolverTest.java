@@ -1,10 +1,15 @@
 package cz.metacentrum.perun.dispatcher.unit;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import cz.metacentrum.perun.audit.events.AuditEvent;
+import cz.metacentrum.perun.audit.events.ExtSourcesManagerEvents.ExtSourceAddedToGroup;
 import cz.metacentrum.perun.audit.events.GroupManagerEvents.DirectMemberAddedToGroup;
+import cz.metacentrum.perun.audit.events.ResourceManagerEvents.GroupAssignedToResource;
+import cz.metacentrum.perun.core.api.ExtSource;
 import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.Group;
 import cz.metacentrum.perun.core.api.Service;
@@ -80,4 +85,25 @@ public class EventServiceResolverTest extends AbstractDispatcherTest {
 
 	}
 
+	@Test
+	public void resolveEventsTest() throws ServiceNotExistsException, InvalidEventMessageException, PrivilegeException {
+		System.out.println("EventServiceResolver.resolveEventsTest()");
+
+		List<AuditEvent> events = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			events.add(new DirectMemberAddedToGroup(member1, group1));
+			events.add(new GroupAssignedToResource(group1, resource1));
+		}
+		events.add(new ExtSourceAddedToGroup(new ExtSource(1, "source", "type"), group1));
+		Map<Facility, Set<Service>> resolvedServices = eventServiceResolver.resolveEvents(events);
+
+		Assert.assertEquals("We should resolved only one facility-service", 1, resolvedServices.size());
+
+		Set<Service> resolved = resolvedServices.get(facility1);
+		Assert.assertEquals("We should have 2 service", 2, resolved.size());
+		Assert.assertTrue("Our Service 1 is missing", resolved.contains(service1));
+		Assert.assertTrue("Our Service 2 is missing", resolved.contains(service2));
+
+	}
+
 }
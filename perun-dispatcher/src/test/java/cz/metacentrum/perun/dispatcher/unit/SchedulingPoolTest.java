@@ -3,8 +3,11 @@ package cz.metacentrum.perun.dispatcher.unit;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.DelayQueue;
 
+import cz.metacentrum.perun.audit.events.GeneralServiceManagerEvents.BanServiceOnFacility;
 import cz.metacentrum.perun.core.api.*;
+import cz.metacentrum.perun.core.bl.PerunBl;
 import cz.metacentrum.perun.dispatcher.AbstractDispatcherTest;
 import cz.metacentrum.perun.taskslib.exceptions.TaskStoreException;
 import org.junit.After;
@@ -19,8 +22,10 @@ import org.springframework.util.Assert;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
 import cz.metacentrum.perun.dispatcher.jms.EngineMessageProducer;
 import cz.metacentrum.perun.dispatcher.scheduling.SchedulingPool;
+import cz.metacentrum.perun.dispatcher.scheduling.impl.SchedulingPoolImpl;
 import cz.metacentrum.perun.taskslib.model.Task;
 import cz.metacentrum.perun.taskslib.model.Task.TaskStatus;
+import cz.metacentrum.perun.taskslib.model.TaskSchedule;
 
 /**
  * @author Michal Karm Babacek
@@ -31,8 +36,13 @@ public class SchedulingPoolTest extends AbstractDispatcherTest {
 
 	private final static Logger log = LoggerFactory.getLogger(SchedulingPoolTest.class);
 
+	private static final int RELOADED_FACILITIES = 100;
+	private static final int RELOADED_SERVICES = 50;
+
 	@Autowired
 	private SchedulingPool schedulingPool;
+	@Autowired
+	PerunBl perun;
 	private List<Destination> destinations = new ArrayList<Destination>() {{
 		add(new Destination(1, "par_dest1", "host", "PARALLEL"));
 		add(new Destination(2, "par_dest2", "host", "PARALLEL"));
@@ -59,6 +69,7 @@ public class SchedulingPoolTest extends AbstractDispatcherTest {
 	@After
 	public void cleanup() {
 		schedulingPool.clear();
+		((SchedulingPoolImpl) schedulingPool).getPropagationStateCache().clear();
 	}
 
 	@IfProfileValue(name = "perun.test.groups", values = ("unit-tests"))
@@ -91,6 +102,56 @@ public class SchedulingPoolTest extends AbstractDispatcherTest {
 		Assert.isTrue(task1 == tasks.get(0), "task equals");
 	}
 
+	@IfProfileValue(name = "perun.test.groups", values = ("unit-tests"))
+	@Test
+	public void reloadTasksFromCachedState() throws Exception {
+		System.out.println("SchedulingPool.reloadTasksFromCachedState()");
+
+		// every Task needs its own pair of facility and service, services are assigned and have destination on every facility
+		List<Service> services = new ArrayList<>();
+		for (int i = 0; i < RELOADED_SERVICES; i++) {
+			Service service = new Service(0, "reloadedService" + i, null);
+			service.setDelay(1);
+			service.setScript("/bin/true");
+			service.setEnabled(true);
+			services.add(perun.getServicesManagerBl().createService(sess, service));
+		}
+		Facility facility = null;
+		for (int i = 0; i < RELOADED_FACILITIES; i++) {
+			facility = perun.getFacilitiesManagerBl().createFacility(sess, new Facility(0, "reloadedFacility" + i, "desc"));
+			Resource resource = new Resource(0, "reloadedResource", "reloaded resource", facility.getId(), vo1.getId());
+			resource = perun.getResourcesManagerBl().createResource(sess, resource, vo1, facility);
+			perun.getResourcesManagerBl().assignServices(sess, resource, services);
+			perun.getServicesManagerBl().addDestination(sess, services, facility, new Destination(0, "host" + i + ".example.com", "host", "PARALLEL"));
+			for (Service service : services) {
+				Task task = new Task();
+				task.setService(service);
+				task.setFacility(facility);
+				task.setSchedule(LocalDateTime.now());
+				task.setStatus(TaskStatus.WAITING);
+				perun.getTasksManagerBl().insertTask(sess, task);
+			}
+		}
+		int tasks = perun.getTasksManagerBl().listAllTasks(sess).size();
+		Assert.isTrue(tasks >= RELOADED_FACILITIES * RELOADED_SERVICES, "all tasks are stored");
+
+		long start = System.nanoTime();
+		schedulingPool.reloadTasks();
+		long duration = System.nanoTime() - start;
+		System.out.println(tasks + " Tasks reloaded in " + duration / 1_000_000 + " ms.");
+
+		DelayQueue<TaskSchedule> waitingTasksQueue = ((SchedulingPoolImpl) schedulingPool).getWaitingTasksQueue();
+		Assert.isTrue(schedulingPool.getSize() == tasks, "all tasks are in the pool");
+		Assert.isTrue(waitingTasksQueue.size() == tasks, "all tasks are waiting");
+
+		// blocking of service is reflected, when audit message about it is read
+		Service blockedService = services.get(0);
+		perun.getServicesManagerBl().blockServiceOnFacility(sess, blockedService, facility);
+		((SchedulingPoolImpl) schedulingPool).getPropagationStateCache().invalidate(new BanServiceOnFacility(blockedService, facility));
+		schedulingPool.scheduleTask(schedulingPool.getTask(facility, blockedService), 0);
+		Assert.isTrue(waitingTasksQueue.size() == tasks, "blocked task is not waiting");
+	}
+
 /*	@IfProfileValue(name = "perun.test.groups", values = ("unit-tests"))
 	@Test
 	public void setTaskStatusTest() {
@@ -28,7 +28,7 @@ import static cz.metacentrum.perun.taskslib.model.SendTask.SendTaskStatus.SENDIN
  *
  * It takes all GENERATED Tasks from generatedTasks blocking queue provided by GenCollector
  * and creates SendTask and SendWorker for each Destination and put them to BlockingSendExecutorCompletionService.
- * Processing waits on call of blockingSubmit() for each SendWorker.
+ * Processing waits on call of blockingSubmit() only when too many SendWorkers are waiting for execution.
  *
  * Expected Task status change GENERATED -> SENDING is reported to Dispatcher.
  * For Tasks without any Destination, status changes GENERATED -> ERROR and Task is removed from SchedulingPool (Engine).
@@ -107,6 +107,8 @@ public class SendPlanner extends AbstractRunner {
 					SendWorker worker = new SendWorkerImpl(sendTask, directory);
 					sendCompletionService.blockingSubmit(worker);
 				}
+				log.debug("[{}] Task planned for sending, SendTasks queued: {}, running: {}.", task.getId(),
+						sendCompletionService.getQueuedCount(), sendCompletionService.getRunningCount());
 
 			} catch (InterruptedException e) {
 
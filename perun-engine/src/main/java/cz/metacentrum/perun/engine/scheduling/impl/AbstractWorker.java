@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Common implementation of EngineWorker interface. Represents Thread, which is started by BlockingCompletionService.
@@ -67,7 +69,12 @@ public abstract class AbstractWorker<V> implements EngineWorker<V> {
 	}
 
 	/**
-	 * Execute script defined by java ProcessBuilder
+	 * Execute script defined by java ProcessBuilder.
+	 * Its STDOUT and STDERR are read by the shared pool of StreamGobblers and might be truncated.
+	 * Script is not started until the readers are available.
+	 * If waiting for the script is interrupted, script is destroyed.
+	 *
+	 * @see StreamGobbler
 	 *
 	 * @param pb ProcessBuilder
 	 * @throws InterruptedException Usually when Engine shuts down.
@@ -81,20 +88,29 @@ public abstract class AbstractWorker<V> implements EngineWorker<V> {
 			pb.directory(getDirectory());
 		}
 
-		Process process = pb.start();
-
-		StreamGobbler errorGobbler = new StreamGobbler(process.getErrorStream());
-		StreamGobbler outputGobbler = new StreamGobbler(process.getInputStream());
-
-		errorGobbler.start();
-		outputGobbler.start();
-
-		returnCode = process.waitFor();
-
-		while (errorGobbler.isAlive() || outputGobbler.isAlive()) Thread.sleep(50);
+		StreamGobbler.acquireReaders();
+		Process process;
+		try {
+			process = pb.start();
+		} catch (IOException e) {
+			StreamGobbler.releaseReaders();
+			throw e;
+		}
 
-		stderr = errorGobbler.getSb();
-		stdout = outputGobbler.getSb();
+		CompletableFuture<String> errorOutput = StreamGobbler.gobble(process.getErrorStream());
+		CompletableFuture<String> output = StreamGobbler.gobble(process.getInputStream());
+		StreamGobbler.releaseReaders(errorOutput, output);
+
+		try {
+			returnCode = process.onExit().get().exitValue();
+			stderr = errorOutput.get();
+			stdout = output.get();
+		} catch (InterruptedException e) {
+			process.destroy();
+			throw e;
+		} catch (ExecutionException e) {
+			throw new IOException("Unable to wait for the script to finish.", e.getCause());
+		}
 
 	}
 
@@ -1,5 +1,6 @@
 package cz.metacentrum.perun.engine.scheduling.impl;
 
+import cz.metacentrum.perun.core.api.Destination;
 import cz.metacentrum.perun.engine.exceptions.TaskExecutionException;
 import cz.metacentrum.perun.engine.scheduling.BlockingCompletionService;
 import cz.metacentrum.perun.engine.scheduling.EngineWorker;
@@ -8,17 +9,40 @@ import cz.metacentrum.perun.taskslib.model.SendTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.Date;
-import java.util.concurrent.*;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static cz.metacentrum.perun.taskslib.model.SendTask.SendTaskStatus.SENDING;
 
 /**
  * Implementation of BlockingCompletionService<SendTask> for sending Tasks in Engine.
  * (SendTask is inner representation of <Task,Destination>)
- * It provides blocking methods and size limit to javas CompletionService, which itself run SendWorkers.
+ * It provides blocking methods and size limit to javas ExecutorService, which itself run SendWorkers.
  * Tasks are managed by separate threads SendPlanner and SendCollector.
  *
+ * Submitted SendWorkers are queued per Facility and started in round-robin across Facilities, while
+ * respecting limit of concurrently running SendWorkers in total, per Facility and per destination host.
+ * Facility with many Destinations therefore can't take all SEND slots and starve other Facilities.
+ * Submitting blocks only when limit of queued SendWorkers is reached.
+ *
  * @see BlockingCompletionService
  * @see SendWorker
  * @see SendWorkerImpl
@@ -31,14 +55,33 @@ import static cz.metacentrum.perun.taskslib.model.SendTask.SendTaskStatus.SENDIN
 public class BlockingSendExecutorCompletionService implements BlockingCompletionService<SendTask> {
 
 	private final static Logger log = LoggerFactory.getLogger(BlockingSendExecutorCompletionService.class);
-	private CompletionService<SendTask> completionService;
-	private ConcurrentMap<Future<SendTask>, SendTask> executingSendTasks = new ConcurrentHashMap<>();
+
+	private final ExecutorService executor;
+	private final BlockingQueue<Future<SendTask>> completedSendTasks = new LinkedBlockingQueue<>();
+	private final ConcurrentMap<Future<SendTask>, SendTask> executingSendTasks = new ConcurrentHashMap<>();
+
+	private final int limit;
+	private final int facilityLimit;
+	private final int hostLimit;
+	private final int queueLimit;
+
 	/**
-	 * Provide blocking-waiting behavior to SEND Tasks, which are not started, until semaphore is acquired.
-	 * When job is cancelled or done, semaphore is released. Semaphore shares limit for concurrently running
-	 * SEND Tasks with javas ExecutorCompletionService.
+	 * Guards all following fields - queued SendWorkers and counters of running SendWorkers.
 	 */
-	private Semaphore semaphore;
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * Provide blocking-waiting behavior to SEND Tasks, which can't be queued, until some queued SEND Task is started.
+	 */
+	private final Condition notFull = lock.newCondition();
+	private final Map<Integer, Deque<SendFuture>> queuedByFacility = new HashMap<>();
+	/**
+	 * IDs of Facilities with queued SEND Tasks in order, in which they will be offered a free slot.
+	 */
+	private final Deque<Integer> facilityRing = new ArrayDeque<>();
+	private final Map<Integer, Integer> runningByFacility = new HashMap<>();
+	private final Map<String, Integer> runningByHost = new HashMap<>();
+	private int queued = 0;
+	private int running = 0;
 
 	/**
 	 * Create new blocking CompletionService for SEND Tasks with specified limit
@@ -46,23 +89,48 @@ public class BlockingSendExecutorCompletionService implements BlockingCompletion
 	 * @param limit Limit for processing SEND Tasks
 	 */
 	public BlockingSendExecutorCompletionService(int limit) {
-		this.completionService = new ExecutorCompletionService<SendTask>(Executors.newFixedThreadPool(limit), new LinkedBlockingQueue<Future<SendTask>>());
-		this.semaphore = new Semaphore(limit);
+		this(limit, limit, limit, limit);
+	}
+
+	/**
+	 * Create new blocking CompletionService for SEND Tasks with specified limits
+	 *
+	 * @param limit Limit for processing SEND Tasks
+	 * @param facilityLimit Limit for processing SEND Tasks of single Facility
+	 * @param hostLimit Limit for processing SEND Tasks on single destination host
+	 * @param queueLimit Limit for SEND Tasks waiting for processing
+	 */
+	public BlockingSendExecutorCompletionService(int limit, int facilityLimit, int hostLimit, int queueLimit) {
+		if (limit < 1 || facilityLimit < 1 || hostLimit < 1 || queueLimit < 1) {
+			throw new IllegalArgumentException("Limits for processing SEND Tasks must be positive.");
+		}
+		this.executor = Executors.newFixedThreadPool(limit);
+		this.limit = limit;
+		this.facilityLimit = facilityLimit;
+		this.hostLimit = hostLimit;
+		this.queueLimit = queueLimit;
 	}
 
 	@Override
 	public Future<SendTask> blockingSubmit(EngineWorker<SendTask> taskWorker) throws InterruptedException {
-		semaphore.acquire();
-		Future<SendTask> future = null;
+		SendWorker sendWorker = (SendWorker) taskWorker;
+		SendFuture future = new SendFuture(sendWorker);
+		lock.lockInterruptibly();
 		try {
-			SendWorker sendWorker = (SendWorker) taskWorker;
-			sendWorker.getSendTask().setStartTime(new Date(System.currentTimeMillis()));
-			sendWorker.getSendTask().setStatus(SENDING);
-			future = completionService.submit(sendWorker);
-			executingSendTasks.put(future, sendWorker.getSendTask());
-		} catch (Exception ex) {
-			semaphore.release();
-			throw ex;
+			while (queued >= queueLimit) {
+				notFull.await();
+			}
+			Deque<SendFuture> facilityQueue = queuedByFacility.get(future.facilityId);
+			if (facilityQueue == null) {
+				facilityQueue = new ArrayDeque<>();
+				queuedByFacility.put(future.facilityId, facilityQueue);
+				facilityRing.addLast(future.facilityId);
+			}
+			facilityQueue.addLast(future);
+			queued++;
+			startQueued();
+		} finally {
+			lock.unlock();
 		}
 		return future;
 	}
@@ -70,7 +138,7 @@ public class BlockingSendExecutorCompletionService implements BlockingCompletion
 	@Override
 	public SendTask blockingTake() throws InterruptedException, TaskExecutionException {
 
-		Future<SendTask> taskFuture = completionService.take();
+		Future<SendTask> taskFuture = completedSendTasks.take();
 
 		try {
 			// .get() throws CancellationException if Task processing was cancelled from outside
@@ -80,7 +148,7 @@ public class BlockingSendExecutorCompletionService implements BlockingCompletion
 
 		} catch (ExecutionException e) {
 
-			SendTask sendTask = executingSendTasks.get(taskFuture);
+			SendTask sendTask = getSendTask(taskFuture);
 			removeTaskFuture(taskFuture);
 
 			Throwable cause = e.getCause();
@@ -101,7 +169,7 @@ public class BlockingSendExecutorCompletionService implements BlockingCompletion
 		} catch (CancellationException ex) {
 
 			// processing was cancelled
-			SendTask removedSendTask = executingSendTasks.get(taskFuture);
+			SendTask removedSendTask = getSendTask(taskFuture);
 			removeTaskFuture(taskFuture);
 			if (removedSendTask == null) {
 				log.error("Somebody manually removed Future<SendTask> from executingSendTasks or SendTask was null: {}", ex);
@@ -123,20 +191,238 @@ public class BlockingSendExecutorCompletionService implements BlockingCompletion
 	@Override
 	public void removeStuckTask(Future<SendTask> future) {
 		removeTaskFuture(future);
+		if (future instanceof SendFuture) {
+			// in case it wasn't finished by cancelling
+			release((SendFuture) future);
+		}
+	}
+
+	/**
+	 * Return number of SEND Tasks waiting for processing.
+	 *
+	 * @return number of queued SEND Tasks
+	 */
+	public int getQueuedCount() {
+		lock.lock();
+		try {
+			return queued;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Return number of SEND Tasks being processed.
+	 *
+	 * @return number of running SEND Tasks
+	 */
+	public int getRunningCount() {
+		lock.lock();
+		try {
+			return running;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Return number of SEND Tasks waiting for processing by Facility ID.
+	 *
+	 * @return map of Facility IDs and numbers of queued SEND Tasks
+	 */
+	public Map<Integer, Integer> getQueuedCountByFacility() {
+		lock.lock();
+		try {
+			Map<Integer, Integer> result = new HashMap<>();
+			for (Map.Entry<Integer, Deque<SendFuture>> entry : queuedByFacility.entrySet()) {
+				result.put(entry.getKey(), entry.getValue().size());
+			}
+			return result;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Return number of SEND Tasks being processed by Facility ID.
+	 *
+	 * @return map of Facility IDs and numbers of running SEND Tasks
+	 */
+	public Map<Integer, Integer> getRunningCountByFacility() {
+		lock.lock();
+		try {
+			return new HashMap<>(runningByFacility);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Start queued SEND Tasks in round-robin across Facilities, until some limit is reached
+	 * or no queued SEND Task can be started. Must be called while holding the lock.
+	 */
+	private void startQueued() {
+		// stop after a whole round without starting anything
+		int skipped = 0;
+		while (running < limit && !facilityRing.isEmpty() && skipped < facilityRing.size()) {
+			Integer facilityId = facilityRing.pollFirst();
+			Deque<SendFuture> facilityQueue = queuedByFacility.get(facilityId);
+			SendFuture future = null;
+			if (runningByFacility.getOrDefault(facilityId, 0) < facilityLimit) {
+				Iterator<SendFuture> iterator = facilityQueue.iterator();
+				while (iterator.hasNext()) {
+					SendFuture candidate = iterator.next();
+					if (runningByHost.getOrDefault(candidate.host, 0) < hostLimit) {
+						iterator.remove();
+						future = candidate;
+						break;
+					}
+				}
+			}
+			if (facilityQueue.isEmpty()) {
+				queuedByFacility.remove(facilityId);
+			} else {
+				facilityRing.addLast(facilityId);
+			}
+			if (future == null) {
+				skipped++;
+				continue;
+			}
+			skipped = 0;
+			queued--;
+			notFull.signal();
+			start(future);
+		}
 	}
 
 	/**
-	 * Remove Future<SendTask> from executingSendTasks and release semaphore.
+	 * Start SEND Task and take its slots. Must be called while holding the lock.
+	 *
+	 * @param future SEND Task to start
+	 */
+	private void start(SendFuture future) {
+		if (future.isCancelled()) {
+			// cancelled while queued, it was already passed to SendCollector
+			return;
+		}
+		future.started.set(true);
+		running++;
+		runningByFacility.merge(future.facilityId, 1, Integer::sum);
+		runningByHost.merge(future.host, 1, Integer::sum);
+		// We must have start time before adding SendTask to executingSendTasks
+		SendTask sendTask = future.sendWorker.getSendTask();
+		sendTask.setStartTime(new Date(System.currentTimeMillis()));
+		sendTask.setStatus(SENDING);
+		executingSendTasks.put(future, sendTask);
+		executor.execute(future);
+	}
+
+	/**
+	 * Release slots taken by started SEND Task and start queued SEND Tasks in its place.
+	 * Slots are released only once for each SEND Task.
+	 *
+	 * @param future finished SEND Task
+	 */
+	private void release(SendFuture future) {
+		if (!future.started.compareAndSet(true, false)) {
+			return;
+		}
+		lock.lock();
+		try {
+			running--;
+			decrement(runningByFacility, future.facilityId);
+			decrement(runningByHost, future.host);
+			startQueued();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove Future<SendTask> from executingSendTasks.
 	 *
 	 * @param future to be removed
 	 */
 	private void removeTaskFuture(Future<SendTask> future) {
-		SendTask removedTask = executingSendTasks.remove(future);
-		if (removedTask != null) {
-			// release semaphore only if future was really in a map
-			// because it could change during processing
-			semaphore.release();
+		executingSendTasks.remove(future);
+	}
+
+	/**
+	 * Return SendTask of Future<SendTask>, even if it was cancelled before start.
+	 *
+	 * @param future to get SendTask for
+	 * @return SendTask or null
+	 */
+	private SendTask getSendTask(Future<SendTask> future) {
+		SendTask sendTask = executingSendTasks.get(future);
+		if (sendTask == null && future instanceof SendFuture) {
+			sendTask = ((SendFuture) future).sendWorker.getSendTask();
+		}
+		return sendTask;
+	}
+
+	private static <K> void decrement(Map<K, Integer> counts, K key) {
+		counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+	}
+
+	/**
+	 * Return host, which is contacted when sending to the Destination. User and port are not part of the host.
+	 * If the host can't be determined, whole Destination is used.
+	 *
+	 * @param destination Destination to get host for
+	 * @return host of Destination
+	 */
+	static String getHost(Destination destination) {
+		String host = destination.getDestination();
+		if (host == null) {
+			return "";
+		}
+		if (Destination.DESTINATIONURLTYPE.equals(destination.getType())) {
+			try {
+				String urlHost = URI.create(host).getHost();
+				return urlHost == null ? host : urlHost;
+			} catch (IllegalArgumentException ex) {
+				return host;
+			}
 		}
+		if (Destination.DESTINATIONHOSTTYPE.equals(destination.getType()) ||
+				Destination.DESTINATIONUSERHOSTTYPE.equals(destination.getType()) ||
+				Destination.DESTINATIONUSERHOSTPORTTYPE.equals(destination.getType()) ||
+				Destination.DESTINATIONWINDOWS.equals(destination.getType())) {
+			host = host.substring(host.lastIndexOf('@') + 1);
+			int portSeparator = host.indexOf(':');
+			if (portSeparator > 0 && portSeparator == host.lastIndexOf(':')) {
+				host = host.substring(0, portSeparator);
+			}
+		}
+		return host;
+	}
+
+	/**
+	 * Future of queued SendWorker. When done (including cancellation), it releases its slots
+	 * and passes itself to the SendCollector.
+	 */
+	private class SendFuture extends FutureTask<SendTask> {
+
+		private final SendWorker sendWorker;
+		private final int facilityId;
+		private final String host;
+		// true while it holds slots for running SEND Tasks
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		private SendFuture(SendWorker sendWorker) {
+			super(sendWorker);
+			this.sendWorker = sendWorker;
+			this.facilityId = sendWorker.getSendTask().getTask().getFacilityId();
+			this.host = getHost(sendWorker.getSendTask().getDestination());
+		}
+
+		@Override
+		protected void done() {
+			release(this);
+			completedSendTasks.add(this);
+		}
+
 	}
 
 }
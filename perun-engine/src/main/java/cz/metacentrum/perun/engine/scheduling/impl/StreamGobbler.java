@@ -1,55 +1,145 @@
 package cz.metacentrum.perun.engine.scheduling.impl;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Represents Thread, which waits for script STDOUT and STDERR for both GenWorker and SendWorker.
+ * Reads script STDOUT and STDERR for both GenWorker and SendWorker.
+ *
+ * Streams are read by threads from the shared bounded pool, which are reused by all workers. Worker has to
+ * acquire readers before it starts the script, so both streams of each running script are always read
+ * and the script is never blocked by other scripts waiting for the reader.
+ * Output is kept only up to the limit, rest of the stream is read and thrown away, so the script is never blocked
+ * on full pipe. Line separators are unified to "\n" and output always ends by the line separator.
  *
  * @author Michal Voců
  */
-class StreamGobbler extends Thread {
+public class StreamGobbler implements Runnable {
+
+	private final static Logger log = LoggerFactory.getLogger(StreamGobbler.class);
+
+	/**
+	 * Max number of characters kept from single stream.
+	 */
+	static final int MAX_OUTPUT_LENGTH = 1_000_000;
+
+	/**
+	 * Max number of scripts read at once, more than default number of GEN and SEND workers (15 + 150).
+	 */
+	static final int MAX_PROCESSES = 200;
 
-	private InputStream is;
-	private StringBuilder sb;
-	private final static Logger log = LoggerFactory
-			.getLogger(StreamGobbler.class);
+	private static final Semaphore processes = new Semaphore(MAX_PROCESSES);
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+	private static final ThreadPoolExecutor readers = new ThreadPoolExecutor(2 * MAX_PROCESSES, 2 * MAX_PROCESSES,
+			60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+		Thread thread = new Thread(runnable, "StreamGobbler-" + threadCounter.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
 
-	StreamGobbler(InputStream is) {
-		super("StreamGobbler");
-		this.sb = new StringBuilder();
+	static {
+		readers.allowCoreThreadTimeOut(true);
+	}
+
+	private final InputStream is;
+	private final int maxLength;
+	private final StringBuilder sb = new StringBuilder();
+	private final CompletableFuture<String> output = new CompletableFuture<>();
+	private long omitted = 0;
+
+	StreamGobbler(InputStream is, int maxLength) {
 		this.is = is;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Reserve readers for STDOUT and STDERR of one script. Must be called before the script is started.
+	 *
+	 * @throws InterruptedException when waiting for the readers is interrupted
+	 */
+	static void acquireReaders() throws InterruptedException {
+		processes.acquire();
 	}
 
-	public String getSb() {
-		return sb.toString();
+	/**
+	 * Return readers reserved by {@link #acquireReaders()} once all outputs of the script are read.
+	 *
+	 * @param outputs outputs of the script
+	 */
+	static void releaseReaders(CompletableFuture<?>... outputs) {
+		CompletableFuture.allOf(outputs).whenComplete((result, e) -> processes.release());
+	}
+
+	/**
+	 * Start reading of the stream in the shared pool.
+	 *
+	 * @param is stream to read
+	 * @return whole output of the stream, completed when the stream is closed
+	 */
+	public static CompletableFuture<String> gobble(InputStream is) {
+		return gobble(is, MAX_OUTPUT_LENGTH);
+	}
+
+	/**
+	 * Start reading of the stream in the shared pool.
+	 *
+	 * @param is stream to read
+	 * @param maxLength max number of characters kept from the stream
+	 * @return whole output of the stream, completed when the stream is closed
+	 */
+	public static CompletableFuture<String> gobble(InputStream is, int maxLength) {
+		StreamGobbler gobbler = new StreamGobbler(is, maxLength);
+		readers.execute(gobbler);
+		return gobbler.output;
 	}
 
 	@Override
 	public void run() {
-		BufferedReader br = null;
-		try {
-			InputStreamReader isr = new InputStreamReader(is);
-			br = new BufferedReader(isr);
-			String line = null;
-			while ((line = br.readLine()) != null) {
-				this.sb.append(line);
-				this.sb.append("\n");
+		try (Reader reader = new InputStreamReader(is)) {
+			char[] buffer = new char[8192];
+			boolean afterCarriageReturn = false;
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				for (int i = 0; i < read; i++) {
+					char c = buffer[i];
+					if (c == '\n' && afterCarriageReturn) {
+						// "\r\n" was already stored as "\n"
+						afterCarriageReturn = false;
+						continue;
+					}
+					afterCarriageReturn = (c == '\r');
+					append(afterCarriageReturn ? '\n' : c);
+				}
 			}
 		} catch (IOException e) {
-			e.printStackTrace();
+			log.error("Unable to read output of the script.", e);
 		} finally {
-			try {
-				if (br != null) {
-					br.close();
-				}
-			} catch (IOException e) {
-				log.error(e.toString(), e);
+			if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '\n') {
+				sb.append('\n');
+			}
+			if (omitted > 0) {
+				sb.append("... output truncated, ").append(omitted).append(" characters omitted\n");
 			}
+			output.complete(sb.toString());
+		}
+	}
+
+	private void append(char c) {
+		if (sb.length() < maxLength) {
+			sb.append(c);
+		} else {
+			omitted++;
 		}
 	}
 
@@ -0,0 +1,133 @@
+package cz.metacentrum.perun.engine.unit;
+
+import cz.metacentrum.perun.core.api.Destination;
+import cz.metacentrum.perun.core.api.Facility;
+import cz.metacentrum.perun.engine.AbstractEngineTest;
+import cz.metacentrum.perun.engine.scheduling.SendWorker;
+import cz.metacentrum.perun.engine.scheduling.impl.BlockingSendExecutorCompletionService;
+import cz.metacentrum.perun.taskslib.model.SendTask;
+import cz.metacentrum.perun.taskslib.model.Task;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static cz.metacentrum.perun.taskslib.model.SendTask.SendTaskStatus.SENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockingSendExecutorCompletionServiceTest extends AbstractEngineTest {
+
+	@Test
+	public void testFairSendingAcrossFacilities() throws Exception {
+		System.out.println("BlockingSendExecutorCompletionServiceTest.testFairSendingAcrossFacilities");
+
+		BlockingSendExecutorCompletionService sendCompletionService = new BlockingSendExecutorCompletionService(4, 2, 1, 100);
+		CountDownLatch latch = new CountDownLatch(1);
+
+		Task bigTask = createTask(facility);
+		for (int i = 0; i < 20; i++) {
+			sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(bigTask,
+					new Destination(i, "big" + i + ".example.com", Destination.DESTINATIONHOSTTYPE)), latch));
+		}
+		Facility smallFacility = new Facility(facility.getId() + 1, "SmallEngineTestFacility");
+		Task smallTask = createTask(smallFacility);
+		sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(smallTask,
+				new Destination(100, "small.example.com", Destination.DESTINATIONHOSTTYPE)), latch));
+
+		// big Facility can't take all slots, so small Facility doesn't wait for it
+		assertEquals(3, sendCompletionService.getRunningCount());
+		assertEquals(18, sendCompletionService.getQueuedCount());
+		assertEquals(2, (int) sendCompletionService.getRunningCountByFacility().get(facility.getId()));
+		assertEquals(1, (int) sendCompletionService.getRunningCountByFacility().get(smallFacility.getId()));
+		assertEquals(18, (int) sendCompletionService.getQueuedCountByFacility().get(facility.getId()));
+
+		latch.countDown();
+		Set<SendTask> sent = new HashSet<>();
+		for (int i = 0; i < 21; i++) {
+			SendTask sendTask = sendCompletionService.blockingTake();
+			assertEquals(SENT, sendTask.getStatus());
+			sent.add(sendTask);
+		}
+		assertEquals(21, sent.size());
+		assertEquals(0, sendCompletionService.getQueuedCount());
+		assertEquals(0, sendCompletionService.getRunningCount());
+		assertTrue(sendCompletionService.getRunningTasks().isEmpty());
+	}
+
+	@Test
+	public void testSendingLimitedByHost() throws Exception {
+		System.out.println("BlockingSendExecutorCompletionServiceTest.testSendingLimitedByHost");
+
+		BlockingSendExecutorCompletionService sendCompletionService = new BlockingSendExecutorCompletionService(10, 10, 1, 100);
+		CountDownLatch latch = new CountDownLatch(1);
+
+		Task task = createTask(facility);
+		sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(task,
+				new Destination(1, "host.example.com", Destination.DESTINATIONHOSTTYPE)), latch));
+		sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(task,
+				new Destination(2, "root@host.example.com", Destination.DESTINATIONUSERHOSTTYPE)), latch));
+		sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(task,
+				new Destination(3, "root@host.example.com:2222", Destination.DESTINATIONUSERHOSTPORTTYPE)), latch));
+		sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(task,
+				new Destination(4, "https://host.example.com/api", Destination.DESTINATIONURLTYPE)), latch));
+		sendCompletionService.blockingSubmit(new BlockedSendWorker(new SendTask(task,
+				new Destination(5, "other.example.com", Destination.DESTINATIONHOSTTYPE)), latch));
+
+		// all but the last Destination are on the same host
+		assertEquals(2, sendCompletionService.getRunningCount());
+		assertEquals(3, sendCompletionService.getQueuedCount());
+
+		latch.countDown();
+		for (int i = 0; i < 5; i++) {
+			assertEquals(SENT, sendCompletionService.blockingTake().getStatus());
+		}
+		assertEquals(0, sendCompletionService.getQueuedCount());
+	}
+
+	private Task createTask(Facility facility) {
+		Task task = new Task();
+		task.setFacility(facility);
+		task.setService(service);
+		return task;
+	}
+
+	/**
+	 * SendWorker, which waits until the latch is opened and then marks SendTask as SENT.
+	 */
+	private static class BlockedSendWorker implements SendWorker {
+
+		private final SendTask sendTask;
+		private final CountDownLatch latch;
+
+		BlockedSendWorker(SendTask sendTask, CountDownLatch latch) {
+			this.sendTask = sendTask;
+			this.latch = latch;
+		}
+
+		@Override
+		public SendTask call() throws Exception {
+			latch.await();
+			sendTask.setStatus(SENT);
+			return sendTask;
+		}
+
+		@Override
+		public SendTask getSendTask() {
+			return sendTask;
+		}
+
+		@Override
+		public File getDirectory() {
+			return null;
+		}
+
+		@Override
+		public void setDirectory(File directory) {
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+package cz.metacentrum.perun.engine.unit;
+
+import cz.metacentrum.perun.engine.scheduling.impl.StreamGobbler;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamGobblerTest {
+
+	@Test
+	public void lineSeparatorsAreUnified() throws Exception {
+		System.out.println("StreamGobblerTest.lineSeparatorsAreUnified");
+
+		assertEquals("first\nsecond\nthird\n\nfifth\n", gobble("first\r\nsecond\rthird\n\r\nfifth\n", 100));
+		// every "\r\n" is single line separator
+		assertEquals("a\n\nb\n", gobble("a\r\n\r\nb\r\n", 100));
+	}
+
+	@Test
+	public void trailingLineSeparatorIsAdded() throws Exception {
+		System.out.println("StreamGobblerTest.trailingLineSeparatorIsAdded");
+
+		assertEquals("output\n", gobble("output", 100));
+		assertEquals("output\n", gobble("output\n", 100));
+		assertEquals("output\n", gobble("output\r", 100));
+		assertEquals("", gobble("", 100));
+	}
+
+	@Test
+	public void outputIsTruncated() throws Exception {
+		System.out.println("StreamGobblerTest.outputIsTruncated");
+
+		assertEquals("0123\n... output truncated, 6 characters omitted\n", gobble("0123456789", 4));
+		assertEquals("0123\n", gobble("0123", 4));
+	}
+
+	@Test
+	public void outputIsTruncatedByDefaultLimit() throws Exception {
+		System.out.println("StreamGobblerTest.outputIsTruncatedByDefaultLimit");
+
+		String line = "x".repeat(99) + "\n";
+		String input = line.repeat(10_001);
+		String output = StreamGobbler.gobble(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))
+				.get(10, TimeUnit.SECONDS);
+
+		assertEquals(input.substring(0, 1_000_000) + "... output truncated, 100 characters omitted\n", output);
+	}
+
+	private static String gobble(String input, int maxLength) throws Exception {
+		return StreamGobbler.gobble(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), maxLength)
+				.get(10, TimeUnit.SECONDS);
+	}
+
+}
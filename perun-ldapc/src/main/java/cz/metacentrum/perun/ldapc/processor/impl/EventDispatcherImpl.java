@@ -16,6 +16,7 @@ import cz.metacentrum.perun.core.api.User;
 import cz.metacentrum.perun.core.api.UserExtSource;
 import cz.metacentrum.perun.core.api.Vo;
 import cz.metacentrum.perun.core.api.exceptions.InternalErrorException;
+import cz.metacentrum.perun.core.impl.AuditerNotifications;
 import cz.metacentrum.perun.ldapc.beans.LdapProperties;
 import cz.metacentrum.perun.ldapc.processor.EventDispatcher;
 import cz.metacentrum.perun.ldapc.processor.EventProcessor;
@@ -218,11 +219,15 @@ public class EventDispatcherImpl implements EventDispatcher, Runnable {
 				loadLastProcessedId();
 			}
 
+			AuditerNotifications notifications = perun.getAuditer().getNotifications();
+
 			//If running is true, then this process will be continuously
 			while (running) {
 
 				messages = null;
 				int sleepTime = 1000;
+				// take number of notifications before polling, so we don't miss messages stored in between
+				long notified = notifications.getReceived();
 				//Waiting for new messages. If consumer failed in some internal case, waiting until it will be repaired (waiting time is increases by each attempt)
 				do {
 					try {
@@ -238,6 +243,7 @@ public class EventDispatcherImpl implements EventDispatcher, Runnable {
 					//If there are no messages, sleep for 1 sec and then try it again
 					if (messages == null) Thread.sleep(1000);
 				} while (messages == null);
+				boolean processedMessages = !messages.isEmpty();
 				//If new messages exist, resolve them all
 				Iterator<AuditMessage> messagesIterator = messages.iterator();
 				while (messagesIterator.hasNext()) {
@@ -253,12 +259,13 @@ public class EventDispatcherImpl implements EventDispatcher, Runnable {
 					MessageBeans presentBeans = this.resolveMessage(message.getEvent().getMessage(), message.getId());
 					this.dispatchEvent(message.getEvent().getMessage(), presentBeans);
 				}
-				//After all messages has been resolved, test interrupting of thread and if its ok, wait and go for another bulk of messages
+				//After all messages has been resolved, test interrupting of thread and if its ok, wait for another bulk of messages
 				if (Thread.interrupted()) {
 					running = false;
-				} else {
+				} else if (processedMessages) {
 					saveLastProcessedId();
-					Thread.sleep(5000);
+				} else {
+					notifications.awaitMessages(notified);
 				}
 			}
 			//If ldapc is interrupted
@@ -29,6 +29,9 @@ public class SchedulingManagerImpl {
 	private static final Logger logger = LoggerFactory.getLogger(SchedulingManagerImpl.class);
 	private PerunSession session;
 
+	// audit messages are copied in pages, each of them in its own transaction
+	private static final int AUDIT_MESSAGES_PAGE_SIZE = 1000;
+
 	private static final AtomicBoolean running = new AtomicBoolean(false);
 	private static final AtomicBoolean runningAllowed = new AtomicBoolean(true);
 
@@ -106,18 +109,21 @@ public class SchedulingManagerImpl {
 
 	/**
 	 * The method loads perun audit messages from the database and saves them as PerunNotifAudiMessages.
+	 * Messages are saved page by page together with the last processed id of the consumer,
+	 * so no message is lost or saved twice, when saving fails.
 	 */
 	public void processPerunAuditMessages() {
 		try {
-			List<AuditEvent> events = perun.getAuditMessagesManagerBl().pollConsumerEvents(session, "notifications");
-			for (AuditEvent event : events) {
-				try {
-					perunNotifAuditMessagesManager.saveMessageToPerunAuditerMessage(event.getMessage(), session);
-				} catch (InternalErrorException ex) {
-					logger.error("Error during saving message to db. Message: " + event.getMessage());
-					throw ex;
+			perun.getAuditMessagesManagerBl().processConsumerEvents(session, "notifications", AUDIT_MESSAGES_PAGE_SIZE, events -> {
+				for (AuditEvent event : events) {
+					try {
+						perunNotifAuditMessagesManager.saveMessageToPerunAuditerMessage(event.getMessage(), session);
+					} catch (InternalErrorException ex) {
+						logger.error("Error during saving message to db. Message: " + event.getMessage());
+						throw ex;
+					}
 				}
-			}
+			});
 		} catch (Exception ex) {
 			logger.error("Error during perunNotification process.");
 			throw ex;
@@ -41,11 +41,14 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.cert.CertificateParsingException;
 import java.security.cert.X509Certificate;
 import java.sql.Timestamp;
@@ -63,6 +66,7 @@ import java.util.Properties;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import static cz.metacentrum.perun.core.api.PerunPrincipal.ACCESS_TOKEN;
 import static cz.metacentrum.perun.core.api.PerunPrincipal.ISSUER;
@@ -90,6 +94,7 @@ public class Api extends HttpServlet {
 	private final static String PERUNSYSTEMTIME = "getPerunSystemTimeInMillis";
 	private final static String SCIMMANAGER = "scimManager";
 	private final static int timeToLiveWhenDone = 60 * 1000; // in milisec, if requests is done more than this time, remove it from list
+	private final static int STREAMED_RESULT_BUFFER_SIZE = 64 * 1024;
 
 	private static final String SHIB_IDENTITY_PROVIDER = "Shib-Identity-Provider";
 	private static final String SOURCE_IDP_ENTITY_ID = "sourceIdPEntityID";
@@ -759,12 +764,16 @@ public class Api extends HttpServlet {
 				//Save only exceptions from caller to result
 				try {
 					result = caller.call(manager, method, des);
-					if (perunRequest != null) perunRequest.setResult(result);
+					if (perunRequest != null && !(result instanceof StreamedResult)) perunRequest.setResult(result);
 				} catch (Exception ex) {
 					result = ex;
 					throw ex;
 				}
-				ser.write(result);
+				if (result instanceof StreamedResult) {
+					writeStreamedResult((StreamedResult) result, ser, out, req, resp);
+				} else {
+					ser.write(result);
+				}
 			}
 		} catch (PerunException pex) {
 			// If the output is JSONP, it cannot send the HTTP 400 code, because the web browser wouldn't accept this
@@ -824,6 +833,38 @@ public class Api extends HttpServlet {
 
 	}
 
+	/**
+	 * Writes result of the method to the response. Output of the JSON serializer is written part by part
+	 * to a temporary file, compressed if the client accepts it, and copied to the response only when the method
+	 * finished. So the transaction of the method doesn't wait for the client and errors are reported as usual.
+	 * Other serializers get the whole result.
+	 */
+	private void writeStreamedResult(StreamedResult result, Serializer ser, OutputStream out, HttpServletRequest req,
+	                                 HttpServletResponse resp) throws PerunException, IOException {
+		if (!(ser instanceof JsonSerializer)) {
+			ser.write(result.getResult());
+			return;
+		}
+
+		String acceptEncoding = req.getHeader("Accept-Encoding");
+		boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+		Path spool = Files.createTempFile("perun-rpc-", gzip ? ".json.gz" : ".json");
+		try {
+			try (OutputStream spoolOut = gzip ?
+					new GZIPOutputStream(Files.newOutputStream(spool), STREAMED_RESULT_BUFFER_SIZE) :
+					new BufferedOutputStream(Files.newOutputStream(spool), STREAMED_RESULT_BUFFER_SIZE)) {
+				result.writeTo(spoolOut);
+			}
+			if (gzip) {
+				resp.setHeader("Content-Encoding", "gzip");
+			}
+			Files.copy(spool, out);
+		} finally {
+			Files.deleteIfExists(spool);
+		}
+	}
+
 	private Serializer selectSerializer(String format, String manager, String method, OutputStream out,
 	                                    HttpServletRequest req, HttpServletResponse resp) throws IOException {
 		Serializer serializer;
@@ -0,0 +1,34 @@
+package cz.metacentrum.perun.rpc;
+
+import cz.metacentrum.perun.core.api.exceptions.PerunException;
+
+import java.io.OutputStream;
+
+/**
+ * Result of a method, which is written part by part as JSON, instead of being built in the memory
+ * and passed to the serializer. Methods returning it must check their parameters before they return, the result
+ * is written after the method call.
+ *
+ * Output of JSON format is written to a temporary file, compressed if the client accepts gzip encoding,
+ * and sent to the client only when it is complete. Other formats get the result from getResult()
+ * and serialize it as usual.
+ */
+public interface StreamedResult {
+
+	/**
+	 * Writes the result as JSON to the given output. Nothing is sent to the client before this method returns,
+	 * so all exceptions are reported to the client as usual.
+	 *
+	 * @param out output of the result
+	 * @throws PerunException if the result cannot be created
+	 */
+	void writeTo(OutputStream out) throws PerunException;
+
+	/**
+	 * Returns the whole result for serializers, which cannot write it part by part.
+	 *
+	 * @return result of the method
+	 * @throws PerunException if the result cannot be created
+	 */
+	Object getResult() throws PerunException;
+}
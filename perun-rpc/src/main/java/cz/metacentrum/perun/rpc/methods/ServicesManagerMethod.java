@@ -3,7 +3,9 @@ package cz.metacentrum.perun.rpc.methods;
 import cz.metacentrum.perun.controller.model.ServiceForGUI;
 import cz.metacentrum.perun.core.api.AttributeDefinition;
 import cz.metacentrum.perun.core.api.Destination;
+import cz.metacentrum.perun.core.api.Facility;
 import cz.metacentrum.perun.core.api.HashedGenData;
+import cz.metacentrum.perun.core.api.HashedGenDataDelta;
 import cz.metacentrum.perun.core.api.Resource;
 import cz.metacentrum.perun.core.api.RichDestination;
 import cz.metacentrum.perun.core.api.Service;
@@ -12,8 +14,11 @@ import cz.metacentrum.perun.core.api.exceptions.PerunException;
 import cz.metacentrum.perun.core.api.exceptions.RpcException;
 import cz.metacentrum.perun.rpc.ApiCaller;
 import cz.metacentrum.perun.rpc.ManagerMethod;
+import cz.metacentrum.perun.rpc.StreamedResult;
 import cz.metacentrum.perun.rpc.deserializer.Deserializer;
+import cz.metacentrum.perun.rpc.serializer.JsonHashedGenDataWriter;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -666,12 +671,24 @@ public enum ServicesManagerMethod implements ManagerMethod {
 	 */
 	getHashedHierarchicalData {
 		@Override
-		public HashedGenData call(ApiCaller ac, Deserializer parms) throws PerunException {
+		public StreamedResult call(ApiCaller ac, Deserializer parms) throws PerunException {
 			boolean consentEval = parms.contains("consentEval") ? parms.readBoolean("consentEval") : false;
-			return ac.getServicesManager().getHashedHierarchicalData(ac.getSession(),
-				ac.getServiceById(parms.readInt("service")),
-				ac.getFacilityById(parms.readInt("facility")),
-				consentEval);
+			Service service = ac.getServiceById(parms.readInt("service"));
+			Facility facility = ac.getFacilityById(parms.readInt("facility"));
+
+			// the data are written part by part to a temporary file, so they are never kept in the memory as a whole
+			return new StreamedResult() {
+				@Override
+				public void writeTo(OutputStream out) throws PerunException {
+					ac.getServicesManager().writeHashedHierarchicalData(ac.getSession(), service, facility, consentEval,
+						new JsonHashedGenDataWriter(out));
+				}
+
+				@Override
+				public HashedGenData getResult() throws PerunException {
+					return ac.getServicesManager().getHashedHierarchicalData(ac.getSession(), service, facility, consentEval);
+				}
+			};
 		}
 	},
 
@@ -775,6 +792,68 @@ public enum ServicesManagerMethod implements ManagerMethod {
 		}
 	},
 
+	/*#
+	 * Generates hashed hierarchical data for given service and facility and returns only their changes
+	 * since the given revision. The structure of the data is the same as in getHashedHierarchicalData.
+	 *
+	 * If the revision is not passed or it is not the last revision generated for the service and facility,
+	 * or the revision is not remembered anymore, the delta contains full data and its baseRevision is null.
+	 * Otherwise it contains only changed or added attributes and resource nodes, hashes and resource ids removed
+	 * since the revision and members of the facility, if they were changed. If nothing was changed, the returned revision is the passed one.
+	 *
+	 * @param service Integer service
+	 * @param facility Integer facility
+	 * @param consentEval Boolean if the generator should enforce evaluation of consents
+	 * @param revision String revision of the data known to the caller
+	 * @return HashedGenDataDelta changes of the generated hashed data structure
+	 * @throw FacilityNotExistsException if there is no such facility
+	 * @throw ServiceNotExistsException if there is no such service
+	 * @throw PrivilegeException insufficient permissions
+	 */
+	getHashedHierarchicalDataDelta {
+		@Override
+		public HashedGenDataDelta call(ApiCaller ac, Deserializer parms) throws PerunException {
+			boolean consentEval = parms.contains("consentEval") ? parms.readBoolean("consentEval") : false;
+			String revision = parms.contains("revision") ? parms.readString("revision") : null;
+			return ac.getServicesManager().getHashedHierarchicalDataDelta(ac.getSession(),
+				ac.getServiceById(parms.readInt("service")),
+				ac.getFacilityById(parms.readInt("facility")),
+				consentEval,
+				revision);
+		}
+	},
+
+	/*#
+	 * Generates hashed data with group structure for given service and facility and returns only their changes
+	 * since the given revision. The structure of the data is the same as in getHashedDataWithGroups.
+	 *
+	 * If the revision is not passed or it is not the last revision generated for the service and facility,
+	 * or the revision is not remembered anymore, the delta contains full data and its baseRevision is null.
+	 * Otherwise it contains only changed or added attributes and resource nodes, hashes and resource ids removed
+	 * since the revision and members of the facility, if they were changed. If nothing was changed, the returned revision is the passed one.
+	 *
+	 * @param service Integer service
+	 * @param facility Integer facility
+	 * @param consentEval Boolean if the generator should enforce evaluation of consents
+	 * @param revision String revision of the data known to the caller
+	 * @return HashedGenDataDelta changes of the generated hashed data structure
+	 * @throw FacilityNotExistsException if there is no such facility
+	 * @throw ServiceNotExistsException if there is no such service
+	 * @throw PrivilegeException insufficient permissions
+	 */
+	getHashedDataWithGroupsDelta {
+		@Override
+		public HashedGenDataDelta call(ApiCaller ac, Deserializer parms) throws PerunException {
+			boolean consentEval = parms.contains("consentEval") ? parms.readBoolean("consentEval") : false;
+			String revision = parms.contains("revision") ? parms.readString("revision") : null;
+			return ac.getServicesManager().getHashedDataWithGroupsDelta(ac.getSession(),
+				ac.getServiceById(parms.readInt("service")),
+				ac.getFacilityById(parms.readInt("facility")),
+				consentEval,
+				revision);
+		}
+	},
+
 	/*#
 	 * Returns packages.
 	 *